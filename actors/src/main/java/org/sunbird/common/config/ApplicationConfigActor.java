@@ -19,6 +19,8 @@ import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.dto.SearchDTO;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.DataCacheHandler;
+import org.sunbird.learner.util.DataCacheNotifier;
 import org.sunbird.learner.util.Util;
 
 public class ApplicationConfigActor extends UntypedAbstractActor {
@@ -168,6 +170,8 @@ public class ApplicationConfigActor extends UntypedAbstractActor {
       map.put(JsonKey.VALUE, value);
       cassandraOperation.insertRecord(dbInfo.getKeySpace(), dbInfo.getTableName(), map);
     }
+    // settings are small, so the whole table is reloaded on every node
+    DataCacheNotifier.onChange(DataCacheHandler.SYSTEM_SETTINGS, JsonKey.SYSTEM_SETTINGS_DB);
 
     long stopTime = System.currentTimeMillis();
     long elapsedTime = stopTime - startTime;
@@ -23,6 +23,7 @@ import org.sunbird.common.models.util.datasecurity.OneWayHashing;
 import org.sunbird.common.request.Request;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.util.ActorUtil;
+import org.sunbird.learner.util.CourseBatchCache;
 import org.sunbird.learner.util.CourseBatchSchedulerUtil;
 import org.sunbird.learner.util.EkStepRequestUtil;
 import org.sunbird.learner.util.TelemetryUtil;
@@ -168,6 +169,7 @@ public class CoursePublishedUpdate implements Job {
             LoggerEnum.INFO.name());
         cassandraOperation.updateRecord(courseBatchDBInfo.getKeySpace(),
             courseBatchDBInfo.getTableName(), updatedBatch);
+        CourseBatchCache.invalidate((String) batch.get(JsonKey.ID));
         ProjectLogger.log("Updating participants to batch course table completed",
             LoggerEnum.INFO.name());
       }
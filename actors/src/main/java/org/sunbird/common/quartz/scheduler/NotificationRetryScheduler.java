@@ -0,0 +1,38 @@
+package org.sunbird.common.quartz.scheduler;
+
+import java.util.Calendar;
+import java.util.List;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.learner.actors.notificationservice.NotificationQueue;
+import org.sunbird.learner.util.Util;
+
+/**
+ * This job dispatches again the pending notifications whose next attempt time is over: the ones
+ * which failed and waited for their backoff delay, and the ones never sent because their node
+ * stopped before.
+ */
+public class NotificationRetryScheduler implements Job {
+
+  @Override
+  public void execute(JobExecutionContext ctx) throws JobExecutionException {
+    ProjectLogger.log("Running notification retry Scheduler Job at: "
+        + Calendar.getInstance().getTime() + " triggered by: " + ctx.getJobDetail().toString(),
+        LoggerEnum.INFO.name());
+    Util.initializeContextForSchedulerJob(JsonKey.SYSTEM, ctx.getFireInstanceId(),
+        JsonKey.SCHEDULER_JOB);
+    try {
+      List<String> ids = NotificationQueue.getDue(System.currentTimeMillis());
+      ProjectLogger.log("Total No. of notifications due for retry : " + ids.size(),
+          LoggerEnum.INFO.name());
+      NotificationQueue.dispatch(ids);
+    } catch (Exception e) {
+      ProjectLogger.log("Exception occurred while retrying notifications ", e);
+    }
+  }
+
+}
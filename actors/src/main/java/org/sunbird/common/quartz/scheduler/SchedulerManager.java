@@ -70,6 +70,7 @@ public final class SchedulerManager {
       scheduleMetricsJob(identifier);
       scheduleUpdateUserCountJob(identifier);
       scheduleChannelReg(identifier);
+      scheduleNotificationRetryJob(identifier);
     } catch (Exception e) {
       ProjectLogger.log("Error in properties cache", e);
     } finally {
@@ -101,6 +102,30 @@ public final class SchedulerManager {
     }
   }
 
+  private void scheduleNotificationRetryJob(String identifier) {
+    // add another job for sending again the notifications not delivered yet.
+    // 1- create a job and bind with class which is implementing Job
+    // interface.
+    JobDetail notificationRetryJob = JobBuilder.newJob(NotificationRetryScheduler.class)
+        .requestRecovery(true).withIdentity("notificationRetryScheduler", identifier).build();
+
+    // 2- Create a trigger object that will define frequency of run.
+    // It will run every minute.
+    Trigger notificationRetryTrigger =
+        TriggerBuilder.newTrigger().withIdentity("notificationRetryTrigger", identifier)
+            .withSchedule(SimpleScheduleBuilder.repeatMinutelyForever(1)).build();
+    try {
+      if (scheduler.checkExists(notificationRetryJob.getKey())) {
+        scheduler.deleteJob(notificationRetryJob.getKey());
+      }
+      scheduler.scheduleJob(notificationRetryJob, notificationRetryTrigger);
+      scheduler.start();
+      ProjectLogger.log("NotificationRetryScheduler schedular started", LoggerEnum.INFO.name());
+    } catch (Exception e) {
+      ProjectLogger.log(e.getMessage(), e);
+    }
+  }
+
   private void scheduleUpdateUserCountJob(String identifier) {
     // add another job for updating user count to Location Table.
     // 1- create a job and bind with class which is implementing Job
@@ -6,7 +6,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import org.json.JSONException;
@@ -31,6 +30,10 @@ import org.sunbird.common.services.ProfileCompletenessService;
 import org.sunbird.common.services.impl.ProfileCompletenessFactory;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.util.CourseBatchSchedulerUtil;
+import org.sunbird.learner.util.DataCacheHandler;
+import org.sunbird.learner.util.DataCacheNotifier;
+import org.sunbird.learner.util.EsPartialUpdate;
+import org.sunbird.learner.util.EsWriteBehindBuffer;
 import org.sunbird.learner.util.UserUtility;
 import org.sunbird.learner.util.Util;
 import org.sunbird.learner.util.Util.DbInfo;
@@ -139,13 +142,10 @@ public class BackgroundJobManager extends UntypedAbstractActor {
       List<Map<String, Object>> badgesList =
           (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
       if (badgesList != null && !badgesList.isEmpty()) {
-        badgesList = removeDataFromMap(badgesList);
-        Map<String, Object> map = new HashMap<>();
-        map.put(JsonKey.BADGES, badgesList);
-        boolean updateResponse = updateDataToElastic(ProjectUtil.EsIndex.sunbird.getIndexName(),
+        List<Map<String, Object>> badges = removeDataFromMap(badgesList);
+        EsWriteBehindBuffer.update(ProjectUtil.EsIndex.sunbird.getIndexName(),
             ProjectUtil.EsType.user.getTypeName(), (String) userBadgeMap.get(JsonKey.RECEIVER_ID),
-            map);
-        ProjectLogger.log("User badge update response==" + updateResponse);
+            new EsPartialUpdate().set(JsonKey.BADGES, badges));
       }
     } else {
       ProjectLogger.log("No data found user badges to sync with user===", LoggerEnum.INFO.name());
@@ -173,24 +173,18 @@ public class BackgroundJobManager extends UntypedAbstractActor {
     List<String> roles = (List<String>) actorMessage.getRequest().get(JsonKey.ROLES);
     String type = (String) actorMessage.get(JsonKey.TYPE);
     String orgId = (String) actorMessage.get(JsonKey.ORGANISATION_ID);
-    Map<String, Object> result =
-        ElasticSearchUtil.getDataByIdentifier(ProjectUtil.EsIndex.sunbird.getIndexName(),
-            ProjectUtil.EsType.user.getTypeName(), (String) actorMessage.get(JsonKey.USER_ID));
+    EsPartialUpdate update = new EsPartialUpdate();
     if (type.equals(JsonKey.USER)) {
-      result.put(JsonKey.ROLES, roles);
+      update.set(JsonKey.ROLES, roles);
     } else if (type.equals(JsonKey.ORGANISATION)) {
-      List<Map<String, Object>> roleMapList =
-          (List<Map<String, Object>>) result.get(JsonKey.ORGANISATIONS);
-      if (null != roleMapList) {
-        for (Map<String, Object> map : roleMapList) {
-          if ((orgId.equalsIgnoreCase((String) map.get(JsonKey.ORGANISATION_ID)))) {
-            map.put(JsonKey.ROLES, roles);
-          }
-        }
-      }
+      Map<String, String> match = new HashMap<>();
+      match.put(JsonKey.ORGANISATION_ID, orgId);
+      Map<String, Object> values = new HashMap<>();
+      values.put(JsonKey.ROLES, roles);
+      update.update(JsonKey.ORGANISATIONS, match, values);
     }
-    updateDataToElastic(ProjectUtil.EsIndex.sunbird.getIndexName(),
-        ProjectUtil.EsType.user.getTypeName(), (String) result.get(JsonKey.IDENTIFIER), result);
+    EsWriteBehindBuffer.update(ProjectUtil.EsIndex.sunbird.getIndexName(),
+        ProjectUtil.EsType.user.getTypeName(), (String) actorMessage.get(JsonKey.USER_ID), update);
   }
 
   @SuppressWarnings("unchecked")
@@ -215,47 +209,20 @@ public class BackgroundJobManager extends UntypedAbstractActor {
   @SuppressWarnings("unchecked")
   private void removeUserOrgInfoToEs(Request actorMessage) {
     Map<String, Object> orgMap = (Map<String, Object>) actorMessage.getRequest().get(JsonKey.USER);
-    Map<String, Object> result =
-        ElasticSearchUtil.getDataByIdentifier(ProjectUtil.EsIndex.sunbird.getIndexName(),
-            ProjectUtil.EsType.user.getTypeName(), (String) orgMap.get(JsonKey.USER_ID));
-    if (result.containsKey(JsonKey.ORGANISATIONS) && null != result.get(JsonKey.ORGANISATIONS)) {
-      List<Map<String, Object>> orgMapList =
-          (List<Map<String, Object>>) result.get(JsonKey.ORGANISATIONS);
-      if (null != orgMapList) {
-        Iterator<Map<String, Object>> itr = orgMapList.iterator();
-        while (itr.hasNext()) {
-          Map<String, Object> map = itr.next();
-          if ((((String) map.get(JsonKey.USER_ID))
-              .equalsIgnoreCase((String) orgMap.get(JsonKey.USER_ID)))
-              && (((String) map.get(JsonKey.ORGANISATION_ID))
-                  .equalsIgnoreCase((String) orgMap.get(JsonKey.ORGANISATION_ID)))) {
-            itr.remove();
-          }
-        }
-      }
-    }
-    updateDataToElastic(ProjectUtil.EsIndex.sunbird.getIndexName(),
-        ProjectUtil.EsType.user.getTypeName(), (String) result.get(JsonKey.IDENTIFIER), result);
-
+    Map<String, String> match = new HashMap<>();
+    match.put(JsonKey.USER_ID, (String) orgMap.get(JsonKey.USER_ID));
+    match.put(JsonKey.ORGANISATION_ID, (String) orgMap.get(JsonKey.ORGANISATION_ID));
+    EsWriteBehindBuffer.update(ProjectUtil.EsIndex.sunbird.getIndexName(),
+        ProjectUtil.EsType.user.getTypeName(), (String) orgMap.get(JsonKey.USER_ID),
+        new EsPartialUpdate().remove(JsonKey.ORGANISATIONS, match));
   }
 
   @SuppressWarnings("unchecked")
   private void updateUserOrgInfoToEs(Request actorMessage) {
     Map<String, Object> orgMap = (Map<String, Object>) actorMessage.getRequest().get(JsonKey.USER);
-    Map<String, Object> result =
-        ElasticSearchUtil.getDataByIdentifier(ProjectUtil.EsIndex.sunbird.getIndexName(),
-            ProjectUtil.EsType.user.getTypeName(), (String) orgMap.get(JsonKey.USER_ID));
-    if (result.containsKey(JsonKey.ORGANISATIONS) && null != result.get(JsonKey.ORGANISATIONS)) {
-      List<Map<String, Object>> orgMapList =
-          (List<Map<String, Object>>) result.get(JsonKey.ORGANISATIONS);
-      orgMapList.add(orgMap);
-    } else {
-      List<Map<String, Object>> mapList = new ArrayList<>();
-      mapList.add(orgMap);
-      result.put(JsonKey.ORGANISATIONS, mapList);
-    }
-    updateDataToElastic(ProjectUtil.EsIndex.sunbird.getIndexName(),
-        ProjectUtil.EsType.user.getTypeName(), (String) result.get(JsonKey.IDENTIFIER), result);
+    EsWriteBehindBuffer.update(ProjectUtil.EsIndex.sunbird.getIndexName(),
+        ProjectUtil.EsType.user.getTypeName(), (String) orgMap.get(JsonKey.USER_ID),
+        new EsPartialUpdate().add(JsonKey.ORGANISATIONS, orgMap));
   }
 
   @SuppressWarnings("unchecked")
@@ -319,7 +286,8 @@ public class BackgroundJobManager extends UntypedAbstractActor {
       registertag(hashOrgId, "{}", CourseBatchSchedulerUtil.headerMap);
       insertDataToElastic(ProjectUtil.EsIndex.sunbird.getIndexName(),
           ProjectUtil.EsType.organisation.getTypeName(), id, esMap);
-
+      // channels and slugs are resolved from ES, forget the ones resolved before it was indexed
+      DataCacheNotifier.onChange(DataCacheHandler.ORG, id);
     }
   }
 
@@ -329,6 +297,7 @@ public class BackgroundJobManager extends UntypedAbstractActor {
         (Map<String, Object>) actorMessage.getRequest().get(JsonKey.ORGANISATION);
     updateDataToElastic(ProjectUtil.EsIndex.sunbird.getIndexName(),
         ProjectUtil.EsType.organisation.getTypeName(), (String) orgMap.get(JsonKey.ID), orgMap);
+    DataCacheNotifier.onChange(DataCacheHandler.ORG, (String) orgMap.get(JsonKey.ID));
   }
 
   private boolean updateDataToElastic(String indexName, String typeName, String identifier,
@@ -345,11 +314,19 @@ public class BackgroundJobManager extends UntypedAbstractActor {
 
   private void updateUserInfoToEs(Request actorMessage) {
     String userId = (String) actorMessage.getRequest().get(JsonKey.ID);
-    getUserProfile(userId);
+    EsWriteBehindBuffer.replace(ProjectUtil.EsIndex.sunbird.getIndexName(),
+        ProjectUtil.EsType.user.getTypeName(), userId, () -> getUserProfile(userId));
   }
 
+  /**
+   * Builds the ES user document from the user tables. The profile visibility document is indexed
+   * right away, the user document is returned to be indexed by the caller.
+   *
+   * @param userId user id
+   * @return Map<String, Object>, null if the user is not found
+   */
   @SuppressWarnings("unchecked")
-  private void getUserProfile(String userId) {
+  private Map<String, Object> getUserProfile(String userId) {
     ProjectLogger.log("get user profile method call started user Id : " + userId);
     Util.DbInfo userDbInfo = Util.dbInfoMap.get(JsonKey.USER_DB);
     Util.DbInfo addrDbInfo = Util.dbInfoMap.get(JsonKey.ADDRESS_DB);
@@ -527,13 +504,11 @@ public class BackgroundJobManager extends UntypedAbstractActor {
             ProjectUtil.EsType.userprofilevisibility.getTypeName(), userId, profileVisibilityMap);
         UserUtility.updateProfileVisibilityFields(profileVisibilityMap, map);
       }
-      insertDataToElastic(ProjectUtil.EsIndex.sunbird.getIndexName(),
-          ProjectUtil.EsType.user.getTypeName(), userId, map);
-      ProjectLogger.log("saving completed user to es userId : " + userId);
+      return map;
     } else {
       ProjectLogger.log("user data not found to save to ES userId : " + userId);
     }
-
+    return null;
   }
 
   /**
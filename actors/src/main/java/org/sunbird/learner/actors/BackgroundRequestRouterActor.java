@@ -1,7 +1,6 @@
 package org.sunbird.learner.actors;
 
 import akka.actor.ActorRef;
-import akka.actor.Props;
 import akka.actor.UntypedAbstractActor;
 import akka.routing.FromConfig;
 import java.util.HashMap;
@@ -13,7 +12,11 @@ import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.learner.actors.bulkupload.BulkUploadBackGroundJobActor;
 import org.sunbird.learner.actors.notificationservice.EmailServiceActor;
+import org.sunbird.learner.actors.notificationservice.NotificationDispatcherActor;
+import org.sunbird.learner.actors.syncjobmanager.EsSyncActor;
 import org.sunbird.learner.audit.impl.ActorAuditLogServiceImpl;
+import org.sunbird.learner.util.DataCacheNotifier;
+import org.sunbird.learner.util.actorutility.ActorDispatcher;
 import org.sunbird.metrics.actors.CourseMetricsBackgroundActor;
 import org.sunbird.metrics.actors.MetricsBackGroundJobActor;
 import org.sunbird.metrics.actors.OrganisationMetricsBackgroundActor;
@@ -34,11 +37,13 @@ public class BackgroundRequestRouterActor extends UntypedAbstractActor {
   private ActorRef courseMetricsBackgroundActor;
 
   private ActorRef emailServiceActor;
+  private ActorRef notificationDispatcherActor;
   
   private ActorRef backGroundServiceActor;
 
   private ActorRef channelRegistrationActor;
   private ActorRef telemetryProcessorActor;
+  private ActorRef esSyncActor;
 
 
  
@@ -53,51 +58,72 @@ public class BackgroundRequestRouterActor extends UntypedAbstractActor {
   private static final String ORG_METRICS_BACKGROUND_ACTOR = "organisationMetricsBackgroundActor";
   private static final String COURSE_METRICS_BACKGROUND_ACTOR = "courseMetricsBackgroundActor";
   private static final String EMAIL_SERVICE_ACTOR = "emailServiceActor";
+  private static final String NOTIFICATION_DISPATCHER_ACTOR = "notificationDispatcherActor";
   private static final String BACKGROUND_SERVICE_ACTOR = "backGroundServiceActor";
   private static final String CHANNEL_REG_ACTOR = "channelRegistrationActor";
 
   private static final String TELEMETRY_PROCESSOR_ACTOR = "telemetryProcessorActor";
+  private static final String ES_SYNC_ACTOR = "esSyncActor";
 
 
   /**
    * constructor to initialize router actor with child actor pool
    */
   public BackgroundRequestRouterActor() {
-   
+    DataCacheNotifier.init(getContext().system());
+
     backgroundJobManager = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(BackgroundJobManager.class)), BACKGROUND_JOB);
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), BackgroundJobManager.class)), BACKGROUND_JOB);
    
     bulkUploadBackGroundJobActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(BulkUploadBackGroundJobActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), BulkUploadBackGroundJobActor.class)),
         BULK_UPLOAD_BACKGROUND_ACTOR);
     
     metricsBackGroungJobActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(MetricsBackGroundJobActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), MetricsBackGroundJobActor.class)),
         METRICS_BACKGROUND_ACTOR);
     
     auditLogManagementActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(ActorAuditLogServiceImpl.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), ActorAuditLogServiceImpl.class)),
         AUDIT_LOG_MGMT_ACTOR);
     
     organisationMetricsBackgroundActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(OrganisationMetricsBackgroundActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), OrganisationMetricsBackgroundActor.class)),
         ORG_METRICS_BACKGROUND_ACTOR);
     
     courseMetricsBackgroundActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(CourseMetricsBackgroundActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), CourseMetricsBackgroundActor.class)),
         COURSE_METRICS_BACKGROUND_ACTOR);
 
     emailServiceActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(EmailServiceActor.class)), EMAIL_SERVICE_ACTOR);
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), EmailServiceActor.class)), EMAIL_SERVICE_ACTOR);
+    notificationDispatcherActor = getContext().actorOf(
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), NotificationDispatcherActor.class)),
+        NOTIFICATION_DISPATCHER_ACTOR);
     
     backGroundServiceActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(BackGroundServiceActor.class)), BACKGROUND_SERVICE_ACTOR);
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), BackGroundServiceActor.class)), BACKGROUND_SERVICE_ACTOR);
 
     channelRegistrationActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(ChannelRegistrationActor.class)), CHANNEL_REG_ACTOR);
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), ChannelRegistrationActor.class)), CHANNEL_REG_ACTOR);
 
     telemetryProcessorActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(TelemetryProcessorActor.class)), TELEMETRY_PROCESSOR_ACTOR);
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), TelemetryProcessorActor.class)), TELEMETRY_PROCESSOR_ACTOR);
+
+    esSyncActor = getContext().actorOf(
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), EsSyncActor.class)), ES_SYNC_ACTOR);
 
     initializeRouterMap();
   }
@@ -131,9 +157,11 @@ public class BackgroundRequestRouterActor extends UntypedAbstractActor {
     routerMap.put(ActorOperations.ORG_CONSUMPTION_METRICS_DATA.getValue(), organisationMetricsBackgroundActor);
     routerMap.put(ActorOperations.COURSE_PROGRESS_METRICS_DATA.getValue(), courseMetricsBackgroundActor);
     routerMap.put(ActorOperations.EMAIL_SERVICE.getValue(), emailServiceActor);
+    routerMap.put(NotificationDispatcherActor.DISPATCH_NOTIFICATIONS, notificationDispatcherActor);
     routerMap.put(ActorOperations.UPDATE_USER_COUNT_TO_LOCATIONID.getValue(), backGroundServiceActor);
     routerMap.put(ActorOperations.REG_CHANNEL.getValue(), channelRegistrationActor);
     routerMap.put(ActorOperations.TELEMETRY_PROCESSING.getValue(), telemetryProcessorActor);
+    routerMap.put(EsSyncActor.SYNC_RANGE, esSyncActor);
   }
 
 
@@ -144,7 +172,9 @@ public class BackgroundRequestRouterActor extends UntypedAbstractActor {
       Request actorMessage = (Request) message;
       org.sunbird.common.request.ExecutionContext.setRequestId(actorMessage.getRequestId());
       ActorRef ref = routerMap.get(actorMessage.getOperation());
-      if (null != ref) {
+      if (DataCacheNotifier.INVALIDATE_DATA_CACHE.equals(actorMessage.getOperation())) {
+        DataCacheNotifier.onInvalidation(actorMessage);
+      } else if (null != ref) {
         ref.tell(message, ActorRef.noSender());
       } else {
         ProjectLogger.log("UNSUPPORTED OPERATION TYPE");
@@ -0,0 +1,132 @@
+package org.sunbird.learner.actors;
+
+import static org.sunbird.common.models.util.ProjectUtil.isNotNull;
+
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.responsecode.ResponseCode;
+
+/**
+ * Merges the requested content states of an ADD_CONTENT request with their current state. One
+ * instance is used for all the contents of a request, so the date formatter, the write time and
+ * the formatted update time are created once per request and not per content.
+ */
+final class ContentStateUpdate {
+
+  private final String userId;
+  private final SimpleDateFormat dateFormat;
+  private final Timestamp dateTime;
+  private final String updatedTime;
+
+  /**
+   * @param userId id of the user whose content states are updated
+   */
+  ContentStateUpdate(String userId) {
+    this.userId = userId;
+    Date now = new Date();
+    this.dateFormat = ProjectUtil.getDateFormatter();
+    this.dateFormat.setLenient(false);
+    this.dateTime = new Timestamp(now.getTime());
+    this.updatedTime = dateFormat.format(now);
+  }
+
+  /**
+   * Sets the status, progress, counts, access and completion times of the requested content
+   * state from its current state, the requested map becomes the row to write.
+   *
+   * @param req requested content state, with its primary key
+   * @param result current content state, null if there is none
+   * @return requested status
+   */
+  int merge(Map<String, Object> req, Map<String, Object> result) {
+    Object status = req.get(JsonKey.STATUS);
+    int requestedStatus = null == status ? ProjectUtil.ProgressStatus.NOT_STARTED.getValue()
+        : ((BigInteger) status).intValue();
+    Date requestAccessTime = parseDate(req.get(JsonKey.LAST_ACCESS_TIME));
+    Date requestCompletedTime = parseDate(req.get(JsonKey.LAST_COMPLETED_TIME));
+    req.put(JsonKey.STATUS, requestedStatus);
+    req.put(JsonKey.CONTENT_PROGRESS, toInt(req.get(JsonKey.CONTENT_PROGRESS)));
+    req.put(JsonKey.LAST_UPDATED_TIME, updatedTime);
+    req.put(JsonKey.USER_ID, userId);
+    req.put(JsonKey.DATE_TIME, dateTime);
+
+    if (null != result) {
+      int currentStatus = (int) result.get(JsonKey.STATUS);
+      int currentProgress = getInt(result, JsonKey.CONTENT_PROGRESS);
+      if (currentProgress > (int) req.get(JsonKey.CONTENT_PROGRESS)) {
+        req.put(JsonKey.CONTENT_PROGRESS, currentProgress);
+      }
+      int completedCount = getInt(result, JsonKey.COMPLETED_COUNT);
+      req.put(JsonKey.VIEW_COUNT, getInt(result, JsonKey.VIEW_COUNT) + 1);
+      req.put(JsonKey.LAST_ACCESS_TIME,
+          compareTime(parseDate(result.get(JsonKey.LAST_ACCESS_TIME)), requestAccessTime));
+      if (requestedStatus >= currentStatus && requestedStatus == 2) {
+        req.put(JsonKey.COMPLETED_COUNT, completedCount + 1);
+        req.put(JsonKey.LAST_COMPLETED_TIME, compareTime(
+            parseDate(result.get(JsonKey.LAST_COMPLETED_TIME)), requestCompletedTime));
+      } else {
+        req.put(JsonKey.COMPLETED_COUNT, completedCount);
+      }
+      if (requestedStatus < currentStatus) {
+        req.put(JsonKey.STATUS, currentStatus);
+      }
+    } else {
+      // IT IS NEW CONTENT SIMPLY ADD IT
+      if (requestedStatus == 2) {
+        req.put(JsonKey.COMPLETED_COUNT, 1);
+        req.put(JsonKey.LAST_COMPLETED_TIME, compareTime(null, requestCompletedTime));
+      } else {
+        req.put(JsonKey.COMPLETED_COUNT, 0);
+      }
+      req.put(JsonKey.VIEW_COUNT, 1);
+      if (null == requestAccessTime) {
+        req.put(JsonKey.LAST_ACCESS_TIME, updatedTime);
+      }
+    }
+    return requestedStatus;
+  }
+
+  private static int toInt(Object value) {
+    return isNotNull(value) ? ((BigInteger) value).intValue() : 0;
+  }
+
+  private static int getInt(Map<String, Object> result, String key) {
+    Object value = result.get(key);
+    return null == value ? 0 : (int) value;
+  }
+
+  private Date parseDate(Object obj) {
+    if (null == obj || ((String) obj).equalsIgnoreCase(JsonKey.NULL)) {
+      return null;
+    }
+    try {
+      return dateFormat.parse((String) obj);
+    } catch (ParseException ex) {
+      ProjectLogger.log(ex.getMessage(), ex);
+      throw new ProjectCommonException(ResponseCode.invalidDateFormat.getErrorCode(),
+          ResponseCode.invalidDateFormat.getErrorMessage(),
+          ResponseCode.CLIENT_ERROR.getResponseCode());
+    }
+  }
+
+  // later of the two times, formatted, the update time if there is none
+  private String compareTime(Date currentValue, Date requestedValue) {
+    if (currentValue == null && requestedValue == null) {
+      return updatedTime;
+    } else if (currentValue == null) {
+      return dateFormat.format(requestedValue);
+    } else if (null == requestedValue) {
+      return dateFormat.format(currentValue);
+    }
+    return dateFormat.format(requestedValue.after(currentValue) ? requestedValue : currentValue);
+  }
+
+}
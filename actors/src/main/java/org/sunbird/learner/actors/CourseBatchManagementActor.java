@@ -27,6 +27,8 @@ import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.dto.SearchDTO;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.util.ActorUtil;
+import org.sunbird.learner.util.CourseBatchCache;
+import org.sunbird.learner.util.CourseBatchCache.CourseBatch;
 import org.sunbird.learner.util.TelemetryUtil;
 import org.sunbird.learner.util.Util;
 
@@ -118,14 +120,16 @@ public class CourseBatchManagementActor extends UntypedAbstractActor {
 
     Map<String, Object> req = (Map<String, Object>) actorMessage.getRequest().get(JsonKey.BATCH);
     String batchId = (String) req.get(JsonKey.BATCH_ID);
-    Response result =
-        cassandraOperation.getRecordById(dbInfo.getKeySpace(), dbInfo.getTableName(), batchId);
-    List<Map<String, Object>> courseList = (List<Map<String, Object>>) result.get(JsonKey.RESPONSE);
-    if ((courseList.isEmpty())) {
+    CourseBatch batch = CourseBatchCache.get(batchId);
+    if (null == batch) {
       throw new ProjectCommonException(ResponseCode.invalidCourseBatchId.getErrorCode(),
           ResponseCode.invalidCourseBatchId.getErrorMessage(),
           ResponseCode.CLIENT_ERROR.getResponseCode());
     }
+    List<Map<String, Object>> courseList = new ArrayList<>();
+    courseList.add(new HashMap<>(batch.getRecord()));
+    Response result = new Response();
+    result.put(JsonKey.RESPONSE, courseList);
     sender().tell(result, self());
   }
 
@@ -218,6 +222,7 @@ public class CourseBatchManagementActor extends UntypedAbstractActor {
 
     courseBatchObject.put(JsonKey.PARTICIPANT, participants);
     cassandraOperation.updateRecord(dbInfo.getKeySpace(), dbInfo.getTableName(), courseBatchObject);
+    CourseBatchCache.invalidate(batchId);
     sender().tell(response, self());
 
     ProjectLogger.log("method call going to satrt for ES--.....");
@@ -689,6 +694,7 @@ public class CourseBatchManagementActor extends UntypedAbstractActor {
 
       Response result =
           cassandraOperation.updateRecord(dbInfo.getKeySpace(), dbInfo.getTableName(), req);
+      CourseBatchCache.invalidate((String) req.get(JsonKey.ID));
       sender().tell(result, self());
 
       targetObject = TelemetryUtil.generateTargetObject((String)req.get(JsonKey.ID), JsonKey.BATCH, JsonKey.UPDATE, null);
@@ -20,6 +20,7 @@ import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.util.ActorUtil;
+import org.sunbird.learner.util.CourseBatchCache;
 import org.sunbird.learner.util.EkStepRequestUtil;
 import org.sunbird.learner.util.TelemetryUtil;
 import org.sunbird.learner.util.Util;
@@ -58,7 +59,6 @@ public class CourseEnrollmentActor extends UntypedAbstractActor {
         if (actorMessage.getOperation()
             .equalsIgnoreCase(ActorOperations.ENROLL_COURSE.getValue())) {
           Util.DbInfo courseEnrollmentdbInfo = Util.dbInfoMap.get(JsonKey.LEARNER_COURSE_DB);
-          Util.DbInfo batchDbInfo = Util.dbInfoMap.get(JsonKey.COURSE_BATCH_DB);
 
           // objects of telemetry event...
           Map<String, Object> targetObject = new HashMap<>();
@@ -71,11 +71,7 @@ public class CourseEnrollmentActor extends UntypedAbstractActor {
           if (ProjectUtil.isNull(courseMap.get(JsonKey.BATCH_ID))) {
             courseMap.put(JsonKey.BATCH_ID, DEFAULT_BATCH_ID);
           } else {
-            Response response = cassandraOperation.getRecordById(batchDbInfo.getKeySpace(),
-                batchDbInfo.getTableName(), (String) courseMap.get(JsonKey.BATCH_ID));
-            List<Map<String, Object>> responseList =
-                (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
-            if (responseList.isEmpty()) {
+            if (null == CourseBatchCache.get((String) courseMap.get(JsonKey.BATCH_ID))) {
               throw new ProjectCommonException(ResponseCode.invalidCourseBatchId.getErrorCode(),
                   ResponseCode.invalidCourseBatchId.getErrorMessage(),
                   ResponseCode.CLIENT_ERROR.getResponseCode());
@@ -0,0 +1,258 @@
+package org.sunbird.learner.actors;
+
+import akka.actor.ActorRef;
+import akka.actor.Cancellable;
+import akka.actor.UntypedAbstractActor;
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.ActorOperations;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.ProjectUtil.ProgressStatus;
+import org.sunbird.common.request.Request;
+import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.ActorUtil;
+import org.sunbird.learner.util.CassandraBatchWriter;
+import org.sunbird.learner.util.CourseProgressAggregator;
+import org.sunbird.learner.util.TtlCache;
+import org.sunbird.learner.util.Util;
+import scala.concurrent.duration.Duration;
+
+/**
+ * Shard of the course progress aggregator (see {@link CourseProgressAggregator}). The progress
+ * of an enrollment (user_courses row) is always sent to the same shard, which merges the
+ * increments received meanwhile and writes them every sunbird_course_progress_flush_interval_ms:
+ * the rows are read and written once per interval whatever the number of content state updates,
+ * and no two routees update the same row at the same time. The progress written last is kept in
+ * memory, an increment which completes the course is written right away.
+ *
+ * <p>The pending increments are held in memory only: they are written when the shard stops
+ * (postStop), but the ones received within the last flush interval are lost if the node crashes.
+ * The content states themselves are already written, only the course progress lags behind.
+ */
+public class CourseProgressActor extends UntypedAbstractActor {
+
+  private static final String FLUSH = "flushCourseProgress";
+  private static final int DEFAULT_FLUSH_INTERVAL = 1000;
+  private static final int DEFAULT_MAX_PENDING = 1000;
+  private static final int DEFAULT_STATE_TTL = 600000;
+  private static final int READ_BATCH_SIZE = 100;
+  private static final int flushInterval =
+      Util.getIntProperty("sunbird_course_progress_flush_interval_ms", DEFAULT_FLUSH_INTERVAL);
+  private static final int maxPending =
+      Util.getIntProperty("sunbird_course_progress_max_pending", DEFAULT_MAX_PENDING);
+
+  private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+  // increments not written yet, by user_courses id
+  private Map<String, Progress> pending = new LinkedHashMap<>();
+  // progress and leaf node count written last, by user_courses id
+  private TtlCache<int[]> states = new TtlCache<>(
+      Util.getIntProperty("sunbird_course_progress_state_ttl_ms", DEFAULT_STATE_TTL), maxPending);
+  private Cancellable flushTick;
+
+  /**
+   * Progress of an enrollment made by one or more content state updates.
+   */
+  public static final class Progress {
+    private final String id;
+    private int increment;
+    private String contentId;
+    private Integer contentStatus;
+    private String lastAccessTime;
+
+    /**
+     * @param id user_courses id
+     * @param increment number of contents completed for the first time
+     * @param contentId content read last
+     * @param contentStatus status of the content read last
+     * @param lastAccessTime access time of the content read last, may be null
+     */
+    public Progress(String id, int increment, String contentId, Integer contentStatus,
+        String lastAccessTime) {
+      this.id = id;
+      this.increment = increment;
+      this.contentId = contentId;
+      this.contentStatus = contentStatus;
+      this.lastAccessTime = lastAccessTime;
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public int getIncrement() {
+      return increment;
+    }
+
+    /**
+     * Adds the increment of given progress, and keeps the content accessed last.
+     *
+     * @param next progress of the same enrollment
+     * @param format non lenient formatter of the access times
+     */
+    public void merge(Progress next, SimpleDateFormat format) {
+      increment += next.increment;
+      if (isAfter(next.lastAccessTime, lastAccessTime, format)) {
+        contentId = next.contentId;
+        contentStatus = next.contentStatus;
+        lastAccessTime = next.lastAccessTime;
+      }
+    }
+
+    // true if next is not older than current, a missing time is the oldest
+    private static boolean isAfter(String next, String current, SimpleDateFormat format) {
+      if (null == current) {
+        return true;
+      } else if (null == next) {
+        return false;
+      }
+      try {
+        return !format.parse(current).after(format.parse(next));
+      } catch (ParseException e) {
+        ProjectLogger.log(e.getMessage(), e);
+      }
+      return true;
+    }
+  }
+
+  @Override
+  public void preStart() {
+    Duration interval = Duration.create(flushInterval, TimeUnit.MILLISECONDS);
+    flushTick = getContext().system().scheduler().schedule(interval, interval, self(), FLUSH,
+        getContext().dispatcher(), ActorRef.noSender());
+  }
+
+  @Override
+  public void postStop() {
+    if (null != flushTick) {
+      flushTick.cancel();
+    }
+    flush();
+  }
+
+  @Override
+  public void onReceive(Object message) throws Throwable {
+    if (message instanceof Progress) {
+      Progress progress = (Progress) message;
+      Progress current = pending.get(progress.getId());
+      if (null == current) {
+        pending.put(progress.getId(), progress);
+        current = progress;
+      } else {
+        SimpleDateFormat format = ProjectUtil.getDateFormatter();
+        format.setLenient(false);
+        current.merge(progress, format);
+      }
+      if (pending.size() >= maxPending || completes(current)) {
+        flush();
+      }
+    } else if (FLUSH.equals(message)) {
+      flush();
+    } else {
+      unhandled(message);
+    }
+  }
+
+  // true if the course is known not to be completed and the increment completes it
+  private boolean completes(Progress progress) {
+    int[] state = states.get(progress.getId());
+    return null != state && state[1] > 0 && state[0] < state[1]
+        && state[0] + progress.getIncrement() >= state[1];
+  }
+
+  /**
+   * Writes the pending progress, the rows are read with a query per READ_BATCH_SIZE rows and
+   * written in batches. Progress of an enrollment which does not exist is dropped, as before.
+   */
+  private void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    List<Progress> progressList = new ArrayList<>(pending.values());
+    pending = new LinkedHashMap<>();
+    Util.DbInfo dbInfo = Util.dbInfoMap.get(JsonKey.LEARNER_COURSE_DB);
+    for (int i = 0; i < progressList.size(); i += READ_BATCH_SIZE) {
+      try {
+        write(dbInfo, progressList.subList(i, Math.min(i + READ_BATCH_SIZE, progressList.size())));
+      } catch (Exception e) {
+        ProjectLogger.log(e.getMessage(), e);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void write(Util.DbInfo dbInfo, List<Progress> progressList) {
+    Map<Object, Progress> progressById = new LinkedHashMap<>();
+    for (Progress progress : progressList) {
+      progressById.put(progress.getId(), progress);
+    }
+    Response response = cassandraOperation.getRecordsByProperty(dbInfo.getKeySpace(),
+        dbInfo.getTableName(), JsonKey.ID, new ArrayList<>(progressById.keySet()));
+    List<Map<String, Object>> rows = new ArrayList<>();
+    Map<String, Integer> leafNodeCounts = new HashMap<>();
+    Timestamp ts = new Timestamp(new Date().getTime());
+    for (Map<String, Object> course : (List<Map<String, Object>>) response.getResult()
+        .get(JsonKey.RESPONSE)) {
+      Progress progress = progressById.get(course.get(JsonKey.ID));
+      if (null == progress) {
+        continue;
+      }
+      Map<String, Object> updateDb = new HashMap<>();
+      Integer courseProgress = 0;
+      if (ProjectUtil.isNotNull(course.get(JsonKey.COURSE_PROGRESS))) {
+        courseProgress = (Integer) course.get(JsonKey.COURSE_PROGRESS);
+      }
+      courseProgress = courseProgress + progress.getIncrement();
+      // update status on basis of leaf node count and progress ---
+      Integer leafNodeCount = (Integer) course.get(JsonKey.LEAF_NODE_COUNT);
+      if (null == leafNodeCount || 0 == leafNodeCount || leafNodeCount > courseProgress) {
+        updateDb.put(JsonKey.STATUS, ProgressStatus.STARTED.getValue());
+      } else {
+        updateDb.put(JsonKey.STATUS, ProgressStatus.COMPLETED.getValue());
+      }
+      updateDb.put(JsonKey.ID, progress.getId());
+      updateDb.put(JsonKey.COURSE_PROGRESS, courseProgress);
+      updateDb.put(JsonKey.DATE_TIME, ts);
+      updateDb.put(JsonKey.LAST_READ_CONTENTID, progress.contentId);
+      updateDb.put(JsonKey.LAST_READ_CONTENT_STATUS, progress.contentStatus);
+      rows.add(updateDb);
+      leafNodeCounts.put(progress.getId(), null == leafNodeCount ? 0 : leafNodeCount);
+    }
+    List<Map<String, Object>> failed = CassandraBatchWriter.upsert(dbInfo, rows);
+    for (Map<String, Object> updateDb : rows) {
+      String id = (String) updateDb.get(JsonKey.ID);
+      if (failed.contains(updateDb)) {
+        states.remove(id);
+        continue;
+      }
+      states.put(id, new int[] {(Integer) updateDb.get(JsonKey.COURSE_PROGRESS),
+          leafNodeCounts.get(id)});
+      // ES gets the formatted date, the Timestamp was only for Cassandra
+      updateDb.put(JsonKey.DATE_TIME, ProjectUtil.formatDate(ts));
+      updateUserCoursesToES(updateDb);
+    }
+  }
+
+  private void updateUserCoursesToES(Map<String, Object> courseMap) {
+    Request request = new Request();
+    request.setOperation(ActorOperations.UPDATE_USR_COURSES_INFO_ELASTIC.getValue());
+    request.getRequest().put(JsonKey.USER_COURSES, courseMap);
+    try {
+      ActorUtil.tell(request);
+    } catch (Exception ex) {
+      ProjectLogger.log("Exception Occured during saving user count to Es : ", ex);
+    }
+  }
+
+}
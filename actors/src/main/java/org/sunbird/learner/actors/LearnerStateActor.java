@@ -21,6 +21,7 @@ import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.dto.SearchDTO;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.CassandraMultiReader;
 import org.sunbird.learner.util.Util;
 
 /**
@@ -108,25 +109,7 @@ public class LearnerStateActor extends UntypedAbstractActor {
    */
   @SuppressWarnings("unchecked")
   private Response getContentByCourses(String userId, Map<String, Object> request) {
-
-    Response response = new Response();
-    Util.DbInfo dbInfo = Util.dbInfoMap.get(JsonKey.LEARNER_CONTENT_DB);
-    CopyOnWriteArrayList<String> courseIds =
-        new CopyOnWriteArrayList<String>((List<String>) request.get(JsonKey.COURSE_IDS));
-    List<Map<String, Object>> modifiedContentList = new ArrayList<Map<String, Object>>();
-
-    LinkedHashMap<String, Object> queryMap = new LinkedHashMap<String, Object>();
-    queryMap.put(JsonKey.USER_ID, userId);
-
-    for (String courseid : courseIds) {
-      queryMap.put(JsonKey.COURSE_ID, courseid);
-      response = cassandraOperation.getRecordsByProperties(dbInfo.getKeySpace(),
-          dbInfo.getTableName(), queryMap);
-      modifiedContentList
-          .addAll((List<Map<String, Object>>) response.getResult().get(JsonKey.RESPONSE));
-    }
-    response.getResult().put(JsonKey.RESPONSE, modifiedContentList);
-    return response;
+    return getContents(userId, JsonKey.COURSE_ID, (List<String>) request.get(JsonKey.COURSE_IDS));
   }
 
   /**
@@ -134,27 +117,21 @@ public class LearnerStateActor extends UntypedAbstractActor {
    */
   @SuppressWarnings("unchecked")
   private Response getContentByContents(String userId, Map<String, Object> request) {
-    Response response = null;
-    Util.DbInfo dbInfo = Util.dbInfoMap.get(JsonKey.LEARNER_CONTENT_DB);
-    CopyOnWriteArrayList<String> contentIds =
-        new CopyOnWriteArrayList<String>((List<String>) request.get(JsonKey.CONTENT_IDS));
+    return getContents(userId, JsonKey.CONTENT_ID,
+        (List<String>) request.get(JsonKey.CONTENT_IDS));
+  }
 
-    LinkedHashMap<String, Object> queryMap = new LinkedHashMap<String, Object>();
+  /**
+   * Reads the content states of the user having any of given values of a property, the queries
+   * of the values being run concurrently.
+   */
+  private Response getContents(String userId, String property, List<String> values) {
+    Util.DbInfo dbInfo = Util.dbInfoMap.get(JsonKey.LEARNER_CONTENT_DB);
+    Map<String, Object> queryMap = new HashMap<>();
     queryMap.put(JsonKey.USER_ID, userId);
-
-    List<Map<String, Object>> modifiedContentList = new ArrayList<Map<String, Object>>();
-
-    for (String contentid : contentIds) {
-      queryMap.put(JsonKey.CONTENT_ID, contentid);
-      response = cassandraOperation.getRecordsByProperties(dbInfo.getKeySpace(),
-          dbInfo.getTableName(), queryMap);
-      modifiedContentList
-          .addAll((List<Map<String, Object>>) response.getResult().get(JsonKey.RESPONSE));
-
-    }
-
-    response.getResult().put(JsonKey.RESPONSE, modifiedContentList);
-
+    Response response = new Response();
+    response.getResult().put(JsonKey.RESPONSE,
+        CassandraMultiReader.getRecordsByProperties(dbInfo, queryMap, property, values));
     return response;
   }
 
@@ -1,20 +1,17 @@
 package org.sunbird.learner.actors;
 
-import static org.sunbird.common.models.util.ProjectUtil.isNotNull;
-
 import akka.actor.ActorRef;
-import akka.actor.Props;
 import akka.actor.UntypedAbstractActor;
-import java.math.BigInteger;
-import java.sql.Timestamp;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Set;
 import org.sunbird.cassandra.CassandraOperation;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.models.response.Response;
@@ -27,6 +24,10 @@ import org.sunbird.common.request.ExecutionContext;
 import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.CassandraBatchWriter;
+import org.sunbird.learner.util.CourseBatchCache;
+import org.sunbird.learner.util.CourseBatchCache.CourseBatch;
+import org.sunbird.learner.util.CourseProgressAggregator;
 import org.sunbird.learner.util.TelemetryUtil;
 import org.sunbird.learner.util.Util;
 
@@ -38,11 +39,11 @@ import org.sunbird.learner.util.Util;
  */
 public class LearnerStateUpdateActor extends UntypedAbstractActor {
 
-  private static final String CONTENT_STATE_INFO = "contentStateInfo";
-
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
-  private ActorRef utilityActorRef =
-      context().actorOf(Props.create(UtilityActor.class), "utilityActor");
+
+  public LearnerStateUpdateActor() {
+    CourseProgressAggregator.init(getContext().system());
+  }
 
   /**
    * Receives the actor message and perform the add content operation .
@@ -63,7 +64,6 @@ public class LearnerStateUpdateActor extends UntypedAbstractActor {
         Response response = new Response();
         if (actorMessage.getOperation().equalsIgnoreCase(ActorOperations.ADD_CONTENT.getValue())) {
           Util.DbInfo dbInfo = Util.dbInfoMap.get(JsonKey.LEARNER_CONTENT_DB);
-          Util.DbInfo batchdbInfo = Util.dbInfoMap.get(JsonKey.COURSE_BATCH_DB);
           // objects of telemetry event...
           Map<String, Object> targetObject = null;
           List<Map<String, Object>> correlatedObject = null;
@@ -71,80 +71,92 @@ public class LearnerStateUpdateActor extends UntypedAbstractActor {
           String userId = (String) actorMessage.getRequest().get(JsonKey.USER_ID);
           List<Map<String, Object>> requestedcontentList =
               (List<Map<String, Object>>) actorMessage.getRequest().get(JsonKey.CONTENTS);
-          CopyOnWriteArrayList<Map<String, Object>> contentList =
-              new CopyOnWriteArrayList<>(requestedcontentList);
+          // contents written, the others are left out of the request
+          List<Map<String, Object>> contentList = new ArrayList<>(requestedcontentList.size());
           actorMessage.getRequest().put(JsonKey.CONTENTS, contentList);
           // map to hold the status of requested state of contents
           Map<String, Integer> contentStatusHolder = new HashMap<>();
 
-          if (!(contentList.isEmpty())) {
-            for (Map<String, Object> map : contentList) {
-              // replace the course id (equivalent to Ekstep content id) with One way hashing of
-              // userId#courseId , bcoz in cassndra we are saving course id as userId#courseId
-
-              String batchId = (String) map.get(JsonKey.BATCH_ID);
-              boolean flag = true;
-
+          if (!(requestedcontentList.isEmpty())) {
+            List<String> batchIds = new ArrayList<>(requestedcontentList.size());
+            for (Map<String, Object> map : requestedcontentList) {
+              batchIds.add((String) map.get(JsonKey.BATCH_ID));
+            }
+            Map<String, CourseBatch> batches = CourseBatchCache.getAll(batchIds);
+            LocalDate today = LocalDate.now();
+            List<Map<String, Object>> validContents =
+                new ArrayList<>(requestedcontentList.size());
+            for (Map<String, Object> map : requestedcontentList) {
               // code to validate the whether request for valid batch range(start and end date)
+              String batchId = (String) map.get(JsonKey.BATCH_ID);
               if (!(ProjectUtil.isStringNullOREmpty(batchId))) {
-                Response batchResponse = cassandraOperation.getRecordById(batchdbInfo.getKeySpace(),
-                    batchdbInfo.getTableName(), batchId);
-                List<Map<String, Object>> batches =
-                    (List<Map<String, Object>>) batchResponse.getResult().get(JsonKey.RESPONSE);
-                if (batches.isEmpty()) {
-                  flag = false;
-                } else {
-                  Map<String, Object> batchInfo = batches.get(0);
-                  flag = validateBatchRange(batchInfo);
-                }
-
-                if (!flag) {
+                CourseBatch batch = batches.get(batchId);
+                if (null == batch || !batch.isOpenOn(today)) {
                   response.getResult().put((String) map.get(JsonKey.CONTENT_ID),
                       "BATCH NOT STARTED OR BATCH CLOSED");
-                  contentList.remove(map);
                   continue;
                 }
-
               }
               map.putIfAbsent(JsonKey.COURSE_ID, JsonKey.NOT_AVAILABLE);
-              preOperation(map, userId, contentStatusHolder);
-              map.put(JsonKey.USER_ID, userId);
-              map.put(JsonKey.DATE_TIME, new Timestamp(new Date().getTime()));
-
-              try {
-                cassandraOperation.upsertRecord(dbInfo.getKeySpace(), dbInfo.getTableName(), map);
-                response.getResult().put((String) map.get(JsonKey.CONTENT_ID), JsonKey.SUCCESS);
-                // create telemetry for user for each content ...
-                targetObject =
-                    TelemetryUtil.generateTargetObject((String) map.get(JsonKey.BATCH_ID), JsonKey.BATCH, JsonKey.CREATE, null);
-                // since this event will generate multiple times so nedd to recreate correlated
-                // objects every time ...
-                correlatedObject = new ArrayList<>();
-                TelemetryUtil.generateCorrelatedObject((String) map.get(JsonKey.CONTENT_ID),
-                    JsonKey.CONTENT, null, correlatedObject);
-                TelemetryUtil.generateCorrelatedObject((String) map.get(JsonKey.COURSE_ID),
-                    JsonKey.COURSE, null, correlatedObject);
-                TelemetryUtil.generateCorrelatedObject((String) map.get(JsonKey.BATCH_ID),
-                    JsonKey.BATCH, null, correlatedObject);
-                TelemetryUtil.telemetryProcessingCall(actorMessage.getRequest(), targetObject,
-                    correlatedObject);
+              // replace the course id (equivalent to Ekstep content id) with One way hashing of
+              // userId#courseId , bcoz in cassndra we are saving course id as userId#courseId
+              map.put(JsonKey.ID, generatePrimaryKey(map, userId));
+              validContents.add(map);
+            }
 
-                Map<String, String> rollUp = new HashMap<>();
-                rollUp.put("l1", (String) map.get(JsonKey.COURSE_ID));
-                rollUp.put("l2", (String) map.get(JsonKey.CONTENT_ID));
-                TelemetryUtil.addTargetObjectRollUp(rollUp, targetObject);
+            // current state of all the contents read at once, a content sent more than once is
+            // merged with its previous state in the request and written once
+            Map<String, Map<String, Object>> contentStates =
+                getContentStates(dbInfo, validContents);
+            Map<String, Map<String, Object>> rows = new LinkedHashMap<>();
+            ContentStateUpdate update = new ContentStateUpdate(userId);
+            for (Map<String, Object> map : validContents) {
+              String id = (String) map.get(JsonKey.ID);
+              contentStatusHolder.put(id, update.merge(map, contentStates.get(id)));
+              contentStates.put(id, map);
+              rows.put(id, map);
+            }
+            Set<Object> failedIds = Collections.emptySet();
+            List<Map<String, Object>> failedRows =
+                CassandraBatchWriter.upsert(dbInfo, new ArrayList<>(rows.values()));
+            if (!failedRows.isEmpty()) {
+              failedIds = new HashSet<>();
+              for (Map<String, Object> row : failedRows) {
+                failedIds.add(row.get(JsonKey.ID));
+              }
+            }
 
-              } catch (Exception ex) {
+            for (Map<String, Object> map : validContents) {
+              if (failedIds.contains(map.get(JsonKey.ID))) {
                 response.getResult().put((String) map.get(JsonKey.CONTENT_ID), JsonKey.FAILED);
-                contentList.remove(map);
+                continue;
               }
+              contentList.add(map);
+              response.getResult().put((String) map.get(JsonKey.CONTENT_ID), JsonKey.SUCCESS);
+              // create telemetry for user for each content ...
+              targetObject = TelemetryUtil.generateTargetObject((String) map.get(JsonKey.BATCH_ID),
+                  JsonKey.BATCH, JsonKey.CREATE, null);
+              // since this event will generate multiple times so nedd to recreate correlated
+              // objects every time ...
+              correlatedObject = new ArrayList<>(3);
+              TelemetryUtil.generateCorrelatedObject((String) map.get(JsonKey.CONTENT_ID),
+                  JsonKey.CONTENT, null, correlatedObject);
+              TelemetryUtil.generateCorrelatedObject((String) map.get(JsonKey.COURSE_ID),
+                  JsonKey.COURSE, null, correlatedObject);
+              TelemetryUtil.generateCorrelatedObject((String) map.get(JsonKey.BATCH_ID),
+                  JsonKey.BATCH, null, correlatedObject);
+              TelemetryUtil.telemetryProcessingCall(actorMessage.getRequest(), targetObject,
+                  correlatedObject);
+
+              Map<String, String> rollUp = new HashMap<>();
+              rollUp.put("l1", (String) map.get(JsonKey.COURSE_ID));
+              rollUp.put("l2", (String) map.get(JsonKey.CONTENT_ID));
+              TelemetryUtil.addTargetObjectRollUp(rollUp, targetObject);
             }
           }
           sender().tell(response, self());
           // call to update the corresponding course
-          actorMessage.getRequest().put(CONTENT_STATE_INFO, contentStatusHolder);
-          // ActorUtil.tell(actorMessage);
-          utilityActorRef.tell(actorMessage, ActorRef.noSender());
+          CourseProgressAggregator.submit(contentList, contentStatusHolder);
         } else {
           ProjectLogger.log("UNSUPPORTED OPERATION");
           ProjectCommonException exception =
@@ -167,184 +179,29 @@ public class LearnerStateUpdateActor extends UntypedAbstractActor {
     }
   }
 
-  private boolean validateBatchRange(Map<String, Object> batchInfo) {
-
-    String start = (String) batchInfo.get(JsonKey.START_DATE);
-    String end = (String) batchInfo.get(JsonKey.END_DATE);
-
-    SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
-    Date todaydate = null;
-    Date startDate = null;
-    Date endDate = null;
-
-    try {
-      todaydate = format.parse((String) format.format(new Date()));
-      startDate = format.parse(start);
-      endDate = null;
-      if (!(ProjectUtil.isStringNullOREmpty(end))) {
-        endDate = format.parse(end);
-      }
-    } catch (ParseException e) {
-      ProjectLogger.log("Date parse exception while parsing batch start and end date", e);
-      return false;
-    }
-
-    if (todaydate.compareTo(startDate) < 0) {
-      return false;
-    }
-
-    return (!(null != endDate && todaydate.compareTo(endDate) > 0));
-  }
-
   /**
-   * Method te perform the per operation on contents like setting the status , last completed and
-   * access time etc.
+   * Reads the content states of the requested contents, in one query.
+   *
+   * @return content states by id
    */
   @SuppressWarnings("unchecked")
-  private void preOperation(Map<String, Object> req, String userId,
-      Map<String, Integer> contentStateHolder) throws ParseException {
-
-    SimpleDateFormat simpleDateFormat = ProjectUtil.getDateFormatter();
-    simpleDateFormat.setLenient(false);
-
-    Util.DbInfo dbInfo = Util.dbInfoMap.get(JsonKey.LEARNER_CONTENT_DB);
-    req.put(JsonKey.ID, generatePrimaryKey(req, userId));
-    contentStateHolder.put((String) req.get(JsonKey.ID),
-        ((BigInteger) req.get(JsonKey.STATUS)).intValue());
-    Response response = cassandraOperation.getRecordById(dbInfo.getKeySpace(),
-        dbInfo.getTableName(), (String) req.get(JsonKey.ID));
-
-    List<Map<String, Object>> resultList =
-        (List<Map<String, Object>>) response.getResult().get(JsonKey.RESPONSE);
-
-    if (!(resultList.isEmpty())) {
-      Map<String, Object> result = resultList.get(0);
-      int currentStatus = (int) result.get(JsonKey.STATUS);
-      int requestedStatus = ((BigInteger) req.get(JsonKey.STATUS)).intValue();
-
-      Integer currentProgressStatus = 0;
-      if (isNotNull(result.get(JsonKey.CONTENT_PROGRESS))) {
-        currentProgressStatus = (Integer) result.get(JsonKey.CONTENT_PROGRESS);
-      }
-      if (isNotNull(req.get(JsonKey.CONTENT_PROGRESS))) {
-        Integer requestedProgressStatus =
-            ((BigInteger) req.get(JsonKey.CONTENT_PROGRESS)).intValue();
-        if (requestedProgressStatus > currentProgressStatus) {
-          req.put(JsonKey.CONTENT_PROGRESS, requestedProgressStatus);
-        } else {
-          req.put(JsonKey.CONTENT_PROGRESS, currentProgressStatus);
-        }
-      } else {
-        req.put(JsonKey.CONTENT_PROGRESS, currentProgressStatus);
-      }
-
-      Date accessTime = parseDate(result.get(JsonKey.LAST_ACCESS_TIME), simpleDateFormat);
-      Date requestAccessTime = parseDate(req.get(JsonKey.LAST_ACCESS_TIME), simpleDateFormat);
-
-      Date completedDate = parseDate(result.get(JsonKey.LAST_COMPLETED_TIME), simpleDateFormat);
-      Date requestCompletedTime = parseDate(req.get(JsonKey.LAST_COMPLETED_TIME), simpleDateFormat);
-
-      int completedCount;
-      if (!(isNullCheck(result.get(JsonKey.COMPLETED_COUNT)))) {
-        completedCount = (int) result.get(JsonKey.COMPLETED_COUNT);
-      } else {
-        completedCount = 0;
-      }
-      int viewCount;
-      if (!(isNullCheck(result.get(JsonKey.VIEW_COUNT)))) {
-        viewCount = (int) result.get(JsonKey.VIEW_COUNT);
-      } else {
-        viewCount = 0;
-      }
-
-      if (requestedStatus >= currentStatus) {
-        req.put(JsonKey.STATUS, requestedStatus);
-        if (requestedStatus == 2) {
-          req.put(JsonKey.COMPLETED_COUNT, completedCount + 1);
-          req.put(JsonKey.LAST_COMPLETED_TIME, compareTime(completedDate, requestCompletedTime));
-        } else {
-          req.put(JsonKey.COMPLETED_COUNT, completedCount);
-        }
-        req.put(JsonKey.VIEW_COUNT, viewCount + 1);
-        req.put(JsonKey.LAST_ACCESS_TIME, compareTime(accessTime, requestAccessTime));
-        req.put(JsonKey.LAST_UPDATED_TIME, ProjectUtil.getFormattedDate());
-
-      } else {
-        req.put(JsonKey.STATUS, currentStatus);
-        req.put(JsonKey.VIEW_COUNT, viewCount + 1);
-        req.put(JsonKey.LAST_ACCESS_TIME, compareTime(accessTime, requestAccessTime));
-        req.put(JsonKey.LAST_UPDATED_TIME, ProjectUtil.getFormattedDate());
-        req.put(JsonKey.COMPLETED_COUNT, completedCount);
-      }
-
-    } else {
-      // IT IS NEW CONTENT SIMPLY ADD IT
-      Date requestCompletedTime = parseDate(req.get(JsonKey.LAST_COMPLETED_TIME), simpleDateFormat);
-      if (null != req.get(JsonKey.STATUS)) {
-        int requestedStatus = ((BigInteger) req.get(JsonKey.STATUS)).intValue();
-        req.put(JsonKey.STATUS, requestedStatus);
-        if (requestedStatus == 2) {
-          req.put(JsonKey.COMPLETED_COUNT, 1);
-          req.put(JsonKey.LAST_COMPLETED_TIME, compareTime(null, requestCompletedTime));
-          req.put(JsonKey.COMPLETED_COUNT, 1);
-        } else {
-          req.put(JsonKey.COMPLETED_COUNT, 0);
-        }
-
-      } else {
-        req.put(JsonKey.STATUS, ProjectUtil.ProgressStatus.NOT_STARTED.getValue());
-        req.put(JsonKey.COMPLETED_COUNT, 0);
-      }
-
-      int progressStatus = 0;
-      if (isNotNull(req.get(JsonKey.CONTENT_PROGRESS))) {
-        progressStatus = ((BigInteger) req.get(JsonKey.CONTENT_PROGRESS)).intValue();
-      }
-      req.put(JsonKey.CONTENT_PROGRESS, progressStatus);
-
-      req.put(JsonKey.VIEW_COUNT, 1);
-      Date requestAccessTime = parseDate(req.get(JsonKey.LAST_ACCESS_TIME), simpleDateFormat);
-
-      req.put(JsonKey.LAST_UPDATED_TIME, ProjectUtil.getFormattedDate());
-
-      if (requestAccessTime != null) {
-        req.put(JsonKey.LAST_ACCESS_TIME, (String) req.get(JsonKey.LAST_ACCESS_TIME));
-      } else {
-        req.put(JsonKey.LAST_ACCESS_TIME, ProjectUtil.getFormattedDate());
-      }
-
+  private Map<String, Map<String, Object>> getContentStates(Util.DbInfo dbInfo,
+      List<Map<String, Object>> contents) {
+    Set<Object> ids = new LinkedHashSet<>();
+    for (Map<String, Object> map : contents) {
+      ids.add(map.get(JsonKey.ID));
     }
-  }
-
-  private Date parseDate(Object obj, SimpleDateFormat formatter) throws ParseException {
-    if (null == obj || ((String) obj).equalsIgnoreCase(JsonKey.NULL)) {
-      return null;
+    Map<String, Map<String, Object>> records = new HashMap<>();
+    if (ids.isEmpty()) {
+      return records;
     }
-    Date date;
-    try {
-      date = formatter.parse((String) obj);
-    } catch (ParseException ex) {
-      ProjectLogger.log(ex.getMessage(), ex);
-      throw new ProjectCommonException(ResponseCode.invalidDateFormat.getErrorCode(),
-          ResponseCode.invalidDateFormat.getErrorMessage(),
-          ResponseCode.CLIENT_ERROR.getResponseCode());
-
+    Response response = cassandraOperation.getRecordsByProperty(dbInfo.getKeySpace(),
+        dbInfo.getTableName(), JsonKey.ID, new ArrayList<>(ids));
+    for (Map<String, Object> map : (List<Map<String, Object>>) response.getResult()
+        .get(JsonKey.RESPONSE)) {
+      records.put((String) map.get(JsonKey.ID), map);
     }
-    return date;
-  }
-
-  private String compareTime(Date currentValue, Date requestedValue) {
-    SimpleDateFormat simpleDateFormat = ProjectUtil.getDateFormatter();
-    simpleDateFormat.setLenient(false);
-    if (currentValue == null && requestedValue == null) {
-      return ProjectUtil.getFormattedDate();
-    } else if (currentValue == null) {
-      return simpleDateFormat.format(requestedValue);
-    } else if (null == requestedValue) {
-      return simpleDateFormat.format(currentValue);
-    }
-    return (requestedValue.after(currentValue) ? simpleDateFormat.format(requestedValue)
-        : simpleDateFormat.format(currentValue));
+    return records;
   }
 
   private String generatePrimaryKey(Map<String, Object> req, String userId) {
@@ -356,8 +213,4 @@ public class LearnerStateUpdateActor extends UntypedAbstractActor {
     return OneWayHashing.encryptVal(key);
   }
 
-  private boolean isNullCheck(Object obj) {
-    return null == obj;
-  }
-
 }
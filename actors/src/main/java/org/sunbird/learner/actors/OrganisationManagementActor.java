@@ -34,6 +34,8 @@ import org.sunbird.dto.SearchDTO;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.util.ActorUtil;
 import org.sunbird.learner.util.DataCacheHandler;
+import org.sunbird.learner.util.DataCacheNotifier;
+import org.sunbird.learner.util.OrgIdResolver;
 import org.sunbird.learner.util.TelemetryUtil;
 import org.sunbird.learner.util.Util;
 
@@ -155,15 +157,9 @@ public class OrganisationManagementActor extends UntypedAbstractActor {
       TelemetryUtil.telemetryProcessingCall(actorMessage.getRequest(), targetObject,
           correlatedObject);
       // update DataCacheHandler orgType map with new data
-      new Thread() {
-        @Override
-        public void run() {
-          if (((String) response.get(JsonKey.RESPONSE)).equalsIgnoreCase(JsonKey.SUCCESS)) {
-            DataCacheHandler.getOrgTypeMap().put(((String) request.get(JsonKey.NAME)).toLowerCase(),
-                (String) request.get(JsonKey.ID));
-          }
-        }
-      }.start();
+      if (JsonKey.SUCCESS.equalsIgnoreCase((String) response.get(JsonKey.RESPONSE))) {
+        DataCacheNotifier.onChange(DataCacheHandler.ORG_TYPE, (String) request.get(JsonKey.ID));
+      }
     } catch (Exception e) {
       ProjectLogger.log("Exception Occurred while updating data to orgType table :: ", e);
       sender().tell(e, self());
@@ -209,15 +205,9 @@ public class OrganisationManagementActor extends UntypedAbstractActor {
           correlatedObject);
 
       // update DataCacheHandler orgType map with new data
-      new Thread() {
-        @Override
-        public void run() {
-          if (((String) response.get(JsonKey.RESPONSE)).equalsIgnoreCase(JsonKey.SUCCESS)) {
-            DataCacheHandler.getOrgTypeMap().put(((String) request.get(JsonKey.NAME)).toLowerCase(),
-                (String) request.get(JsonKey.ID));
-          }
-        }
-      }.start();
+      if (JsonKey.SUCCESS.equalsIgnoreCase((String) response.get(JsonKey.RESPONSE))) {
+        DataCacheNotifier.onChange(DataCacheHandler.ORG_TYPE, (String) request.get(JsonKey.ID));
+      }
     } catch (Exception e) {
       ProjectLogger.log("Exception Occurred while inserting data to orgType table :: ", e);
       sender().tell(e, self());
@@ -420,6 +410,7 @@ public class OrganisationManagementActor extends UntypedAbstractActor {
       Response result =
           cassandraOperation.insertRecord(orgDbInfo.getKeySpace(), orgDbInfo.getTableName(), req);
       ProjectLogger.log("Org data saved into cassandra.");
+      DataCacheNotifier.onChange(DataCacheHandler.ORG, uniqueId);
       // create org_map if parentOrgId is present in request
       if (isValidParent) {
         upsertOrgMap(uniqueId, parentOrg, (String) req.get(JsonKey.ROOT_ORG_ID),
@@ -501,9 +492,8 @@ public class OrganisationManagementActor extends UntypedAbstractActor {
 
   private String validateOrgType(String orgType) {
     String orgTypeId = null;
-    if (!ProjectUtil.isStringNullOREmpty(
-        (String) DataCacheHandler.getOrgTypeMap().get(orgType.toLowerCase()))) {
-      orgTypeId = DataCacheHandler.getOrgTypeMap().get(orgType.toLowerCase());
+    if (!ProjectUtil.isStringNullOREmpty(DataCacheHandler.getOrgTypeId(orgType))) {
+      orgTypeId = DataCacheHandler.getOrgTypeId(orgType);
     } else {
       Util.DbInfo orgTypeDbInfo = Util.dbInfoMap.get(JsonKey.ORG_TYPE_DB);
       Response response = cassandraOperation.getAllRecords(orgTypeDbInfo.getKeySpace(),
@@ -514,7 +504,7 @@ public class OrganisationManagementActor extends UntypedAbstractActor {
           if ((((String) map.get(JsonKey.NAME)).toLowerCase())
               .equalsIgnoreCase(orgType.toLowerCase())) {
             orgTypeId = (String) map.get(JsonKey.ID);
-            DataCacheHandler.getOrgTypeMap().put(((String) map.get(JsonKey.NAME)).toLowerCase(),
+            DataCacheHandler.putOrgType((String) map.get(JsonKey.NAME),
                 (String) map.get(JsonKey.ID));
           }
         }
@@ -582,6 +572,7 @@ public class OrganisationManagementActor extends UntypedAbstractActor {
       Response response = cassandraOperation.updateRecord(orgDbInfo.getKeySpace(),
           orgDbInfo.getTableName(), updateOrgDBO);
       response.getResult().put(JsonKey.ORGANISATION_ID, orgDBO.get(JsonKey.ID));
+      DataCacheNotifier.onChange(DataCacheHandler.ORG, (String) orgDBO.get(JsonKey.ID));
       sender().tell(response, self());
 
       targetObject =
@@ -664,6 +655,7 @@ public class OrganisationManagementActor extends UntypedAbstractActor {
       Response response = cassandraOperation.updateRecord(orgDbInfo.getKeySpace(),
           orgDbInfo.getTableName(), updateOrgDBO);
       response.getResult().put(JsonKey.ORGANISATION_ID, orgDBO.get(JsonKey.ID));
+      DataCacheNotifier.onChange(DataCacheHandler.ORG, (String) orgDBO.get(JsonKey.ID));
       sender().tell(response, self());
 
       targetObject =
@@ -917,6 +909,7 @@ public class OrganisationManagementActor extends UntypedAbstractActor {
       Response response = cassandraOperation.updateRecord(orgDbInfo.getKeySpace(),
           orgDbInfo.getTableName(), updateOrgDBO);
       response.getResult().put(JsonKey.ORGANISATION_ID, orgDBO.get(JsonKey.ID));
+      DataCacheNotifier.onChange(DataCacheHandler.ORG, (String) orgDBO.get(JsonKey.ID));
       sender().tell(response, self());
 
       targetObject = TelemetryUtil.generateTargetObject((String) orgDBO.get(JsonKey.ID),
@@ -1916,39 +1909,11 @@ public class OrganisationManagementActor extends UntypedAbstractActor {
 
 
   private String getRootOrgIdFromChannel(String channel) {
-    if (!ProjectUtil.isStringNullOREmpty(channel)) {
-      Map<String, Object> filters = new HashMap<>();
-      filters.put(JsonKey.CHANNEL, channel);
-      filters.put(JsonKey.IS_ROOT_ORG, true);
-      Map<String, Object> esResult = elasticSearchComplexSearch(filters,
-          EsIndex.sunbird.getIndexName(), EsType.organisation.getTypeName());
-      if (isNotNull(esResult) && esResult.containsKey(JsonKey.CONTENT)
-          && isNotNull(esResult.get(JsonKey.CONTENT))
-          && ((List) esResult.get(JsonKey.CONTENT)).size() > 0) {
-        Map<String, Object> esContent =
-            ((List<Map<String, Object>>) esResult.get(JsonKey.CONTENT)).get(0);
-        return (String) esContent.getOrDefault(JsonKey.ID, "");
-      }
-    }
-    return "";
+    return OrgIdResolver.getRootOrgIdFromChannel(channel);
   }
 
   private String getRootOrgIdFromSlug(String slug) {
-    if (!ProjectUtil.isStringNullOREmpty(slug)) {
-      Map<String, Object> filters = new HashMap<>();
-      filters.put(JsonKey.SLUG, slug);
-      filters.put(JsonKey.IS_ROOT_ORG, true);
-      Map<String, Object> esResult = elasticSearchComplexSearch(filters,
-          EsIndex.sunbird.getIndexName(), EsType.organisation.getTypeName());
-      if (isNotNull(esResult) && esResult.containsKey(JsonKey.CONTENT)
-          && isNotNull(esResult.get(JsonKey.CONTENT))
-          && (!((List) esResult.get(JsonKey.CONTENT)).isEmpty())) {
-        Map<String, Object> esContent =
-            ((List<Map<String, Object>>) esResult.get(JsonKey.CONTENT)).get(0);
-        return (String) esContent.getOrDefault(JsonKey.ID, "");
-      }
-    }
-    return "";
+    return OrgIdResolver.getRootOrgIdFromSlug(slug);
   }
 
   private boolean isSlugUnique(String slug) {
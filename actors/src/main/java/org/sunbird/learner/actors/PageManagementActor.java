@@ -5,11 +5,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.sunbird.cassandra.CassandraOperation;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.models.response.Response;
@@ -22,8 +26,14 @@ import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.util.DataCacheHandler;
+import org.sunbird.learner.util.DataCacheNotifier;
 import org.sunbird.learner.util.EkStepRequestUtil;
+import org.sunbird.learner.util.OrgIdResolver;
+import org.sunbird.learner.util.PageTemplate;
+import org.sunbird.learner.util.RequestDeadline;
+import org.sunbird.learner.util.SectionTemplate;
 import org.sunbird.learner.util.TelemetryUtil;
+import org.sunbird.learner.util.TtlCache;
 import org.sunbird.learner.util.Util;
 
 /**
@@ -36,8 +46,31 @@ public class PageManagementActor extends UntypedAbstractActor {
   private Util.DbInfo pageDbInfo = Util.dbInfoMap.get(JsonKey.PAGE_MGMT_DB);
   private Util.DbInfo sectionDbInfo = Util.dbInfoMap.get(JsonKey.SECTION_MGMT_DB);
   private Util.DbInfo pageSectionDbInfo = Util.dbInfoMap.get(JsonKey.PAGE_SECTION_DB);
-  private Util.DbInfo orgDbInfo = Util.dbInfoMap.get(JsonKey.ORG_DB);
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+  private static final int DEFAULT_SECTION_WORKERS = 20;
+  private static final int DEFAULT_PAGE_TIMEOUT = 8000;
+  private static final int DEFAULT_SECTION_CACHE_TTL = 60000;
+  private static final int DEFAULT_SECTION_CACHE_SIZE = 1000;
+  private static final int pageTimeoutMs =
+      Util.getIntProperty("sunbird_page_assemble_timeout_ms", DEFAULT_PAGE_TIMEOUT);
+  // EkStep searches of the page sections, shared by all the page data requests of the node
+  private static ExecutorService sectionExecutor = Executors.newFixedThreadPool(
+      Util.getIntProperty("sunbird_page_section_workers", DEFAULT_SECTION_WORKERS), runnable -> {
+        Thread thread = new Thread(runnable, "page-section-search");
+        thread.setDaemon(true);
+        return thread;
+      });
+  // EkStep search results keyed by search query, filters applied, and forwarded headers
+  private static TtlCache<Map<String, Object>> sectionCache = new TtlCache<>(
+      Util.getIntProperty("sunbird_page_section_cache_ttl_ms", DEFAULT_SECTION_CACHE_TTL),
+      Util.getIntProperty("sunbird_page_section_cache_max_entries", DEFAULT_SECTION_CACHE_SIZE));
+
+  /**
+   * @return size, hit and miss counts of the cache of the EkStep section searches
+   */
+  public static Map<String, Object> getSectionCacheStats() {
+    return sectionCache.stats();
+  }
 
   @Override
   public void onReceive(Object message) throws Throwable {
@@ -167,14 +200,9 @@ public class PageManagementActor extends UntypedAbstractActor {
     //TelemetryUtil.generateCorrelatedObject(endoresedUserId, JsonKey.USER , null , correlatedObject);
 
     // update DataCacheHandler section map with updated page section data
-    new Thread() {
-      @Override
-      public void run() {
-        if (((String) response.get(JsonKey.RESPONSE)).equalsIgnoreCase(JsonKey.SUCCESS)) {
-          DataCacheHandler.getSectionMap().put((String) sectionMap.get(JsonKey.ID), sectionMap);
-        }
-      }
-    }.start();
+    if (JsonKey.SUCCESS.equalsIgnoreCase((String) response.get(JsonKey.RESPONSE))) {
+      DataCacheNotifier.onChange(DataCacheHandler.SECTION, (String) sectionMap.get(JsonKey.ID));
+    }
   }
 
   private void createPageSection(Request actorMessage) {
@@ -216,22 +244,15 @@ public class PageManagementActor extends UntypedAbstractActor {
     //TelemetryUtil.generateCorrelatedObject(endoresedUserId, JsonKey.USER , null , correlatedObject);
 
     // update DataCacheHandler section map with new page section data
-    new Thread() {
-      @Override
-      public void run() {
-        if (((String) response.get(JsonKey.RESPONSE)).equalsIgnoreCase(JsonKey.SUCCESS)) {
-          DataCacheHandler.getSectionMap().put((String) sectionMap.get(JsonKey.ID), sectionMap);
-        }
-      }
-    }.start();
+    if (JsonKey.SUCCESS.equalsIgnoreCase((String) response.get(JsonKey.RESPONSE))) {
+      DataCacheNotifier.onChange(DataCacheHandler.SECTION, uniqueId);
+    }
   }
 
   @SuppressWarnings("unchecked")
   private void getPageData(Request actorMessage) {
-    String sectionQuery = null;
     List<Map<String, Object>> sectionList = new ArrayList<>();
     Map<String, Object> filterMap = new HashMap<>();
-    Response response = null;
     Map<String, Object> req = (Map<String, Object>) actorMessage.getRequest().get(JsonKey.PAGE);
     String pageName = (String) req.get(JsonKey.PAGE_NAME);
     String source = (String) req.get(JsonKey.SOURCE);
@@ -245,63 +266,73 @@ public class PageManagementActor extends UntypedAbstractActor {
     filterMap.remove(JsonKey.FILTERS);
     filterMap.remove(JsonKey.CREATED_BY);
     Map<String, Object> reqFilters = (Map<String, Object>) req.get(JsonKey.FILTERS);
-    List<Map<String, Object>> result = null;
-    try {
-      if (!ProjectUtil.isStringNullOREmpty(orgCode)) {
-        response = cassandraOperation.getRecordsByProperty(orgDbInfo.getKeySpace(),
-            orgDbInfo.getTableName(), JsonKey.ORG_CODE, orgCode);
-        result = (List<Map<String, Object>>) response.getResult().get(JsonKey.RESPONSE);
-      }
-    } catch (Exception e) {
-      ProjectLogger.log(e.getMessage(), e);
-    }
-
-    Map<String, Object> map = null;
-    String orgId = "NA";
-    if (null != result && !result.isEmpty()) {
-      map = result.get(0);
-      orgId = (String) map.get(JsonKey.ID);
+    String orgId = OrgIdResolver.getOrgIdFromOrgCode(orgCode);
+    if (ProjectUtil.isStringNullOREmpty(orgId)) {
+      orgId = "NA";
     }
 
-    Map<String, Object> pageMap = DataCacheHandler.getPageMap().get(orgId + ":" + pageName);
+    PageTemplate page = DataCacheHandler.getPageTemplate(orgId, pageName);
     /**
      * if requested page for this organization is not found, return default NTP page
      */
-    if (null == pageMap) {
-      pageMap = DataCacheHandler.getPageMap().get("NA" + ":" + pageName);
+    if (null == page) {
+      page = DataCacheHandler.getPageTemplate("NA", pageName);
     }
-    if (source.equalsIgnoreCase(ProjectUtil.Source.WEB.getValue())) {
-      if (null != pageMap && null != pageMap.get(JsonKey.PORTAL_MAP)) {
-        sectionQuery = (String) pageMap.get(JsonKey.PORTAL_MAP);
-      }
-    } else {
-      if (null != pageMap && null != pageMap.get(JsonKey.APP_MAP)) {
-        sectionQuery = (String) pageMap.get(JsonKey.APP_MAP);
-      }
+    List<PageTemplate.Section> sections = null == page ? null
+        : page.getSections(source.equalsIgnoreCase(ProjectUtil.Source.WEB.getValue()));
+    if (null == sections) {
+      throw new ProjectCommonException(ResponseCode.invalidRequestData.getErrorCode(),
+          ResponseCode.invalidRequestData.getErrorMessage(),
+          ResponseCode.CLIENT_ERROR.getResponseCode());
     }
-    ObjectMapper mapper = new ObjectMapper();
     Map<String, Object> responseMap = new HashMap<>();
 
-    try {
-      Object[] arr = mapper.readValue(sectionQuery, Object[].class);
-
-      for (Object obj : arr) {
-        Map<String, Object> sectionMap = (Map<String, Object>) obj;
-        Map<String, Object> sectionData = new HashMap<>(
-            DataCacheHandler.getSectionMap().get((String) sectionMap.get(JsonKey.ID)));
-        getContentData(sectionData, reqFilters, headers, filterMap);
-        sectionData.put(JsonKey.GROUP, sectionMap.get(JsonKey.GROUP));
-        sectionData.put(JsonKey.INDEX, sectionMap.get(JsonKey.INDEX));
-        removeUnwantedData(sectionData, "getPageData");
-        sectionList.add(sectionData);
+    RequestDeadline.checkDeadline(actorMessage);
+    // sections are searched in parallel, up to the assemble timeout or the request deadline
+    long deadline = System.currentTimeMillis()
+        + Math.min(pageTimeoutMs, RequestDeadline.getRemainingTime(actorMessage));
+    Map<String, Object> requestContext = ExecutionContext.getCurrent().getRequestContext();
+    List<Future<Map<String, Object>>> futures = new ArrayList<>();
+    for (PageTemplate.Section section : sections) {
+      Map<String, Object> cachedSection = DataCacheHandler.getSection(section.getId());
+      SectionTemplate template = DataCacheHandler.getSectionTemplate(section.getId());
+      if (null == cachedSection || null == template) {
+        ProjectLogger.log("Page " + pageName + " section " + section.getId() + " not found");
+        continue;
       }
-
-      responseMap.put(JsonKey.NAME, pageMap.get(JsonKey.NAME));
-      responseMap.put(JsonKey.ID, pageMap.get(JsonKey.ID));
-      responseMap.put(JsonKey.SECTIONS, sectionList);
-    } catch (IOException e) {
-      ProjectLogger.log(e.getMessage(), e);
+      Map<String, Object> sectionData = new HashMap<>(cachedSection);
+      sectionData.put(JsonKey.GROUP, section.getGroup());
+      sectionData.put(JsonKey.INDEX, section.getIndex());
+      sectionList.add(sectionData);
+      Map<String, String> sectionHeaders =
+          null == headers ? new HashMap<>() : new HashMap<>(headers);
+      futures.add(sectionExecutor.submit(() -> {
+        ExecutionContext.getCurrent().setRequestContext(requestContext);
+        return getContentData(template, reqFilters, sectionHeaders, filterMap);
+      }));
+    }
+    for (int i = 0; i < futures.size(); i++) {
+      Map<String, Object> sectionData = sectionList.get(i);
+      try {
+        setContentData(sectionData, futures.get(i)
+            .get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS));
+      } catch (TimeoutException e) {
+        futures.get(i).cancel(true);
+        ProjectLogger.log("Page " + pageName + " section " + sectionData.get(JsonKey.ID)
+            + " returned without contents, EkStep search timed out");
+      } catch (ExecutionException e) {
+        ProjectLogger.log(e.getMessage(), e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        ProjectLogger.log(e.getMessage(), e);
+      }
+      removeUnwantedData(sectionData, "getPageData");
     }
+    RequestDeadline.checkDeadline(actorMessage);
+
+    responseMap.put(JsonKey.NAME, page.getName());
+    responseMap.put(JsonKey.ID, page.getId());
+    responseMap.put(JsonKey.SECTIONS, sectionList);
     Response pageResponse = new Response();
     pageResponse.put(JsonKey.RESPONSE, responseMap);
     sender().tell(pageResponse, self());
@@ -396,19 +427,9 @@ public class PageManagementActor extends UntypedAbstractActor {
     TelemetryUtil.telemetryProcessingCall(actorMessage.getRequest(), targetObject, correlatedObject);
     //TelemetryUtil.generateCorrelatedObject(endoresedUserId, JsonKey.USER , null , correlatedObject);
     // update DataCacheHandler page map with updated page data
-    new Thread() {
-      @Override
-      public void run() {
-        if (((String) response.get(JsonKey.RESPONSE)).equalsIgnoreCase(JsonKey.SUCCESS)) {
-          String orgId = "NA";
-          if (pageMap.containsKey(JsonKey.ORGANISATION_ID)) {
-            orgId = (String) pageMap.get(JsonKey.ORGANISATION_ID);
-          }
-          DataCacheHandler.getPageMap().put(orgId + ":" + (String) pageMap.get(JsonKey.PAGE_NAME),
-              pageMap);
-        }
-      }
-    }.start();
+    if (JsonKey.SUCCESS.equalsIgnoreCase((String) response.get(JsonKey.RESPONSE))) {
+      DataCacheNotifier.onChange(DataCacheHandler.PAGE, (String) pageMap.get(JsonKey.ID));
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -466,111 +487,53 @@ public class PageManagementActor extends UntypedAbstractActor {
     TelemetryUtil.telemetryProcessingCall(actorMessage.getRequest(), targetObject, correlatedObject);
 
     // update DataCacheHandler page map with new page data
-    new Thread() {
-      @Override
-      public void run() {
-        if (((String) response.get(JsonKey.RESPONSE)).equalsIgnoreCase(JsonKey.SUCCESS)) {
-          String orgId = "NA";
-          if (pageMap.containsKey(JsonKey.ORGANISATION_ID)) {
-            orgId = (String) pageMap.get(JsonKey.ORGANISATION_ID);
-          }
-          DataCacheHandler.getPageMap().put(orgId + ":" + (String) pageMap.get(JsonKey.PAGE_NAME),
-              pageMap);
-        }
-      }
-    }.start();
-  }
-
-  @SuppressWarnings("unchecked")
-  private void getContentData(Map<String, Object> section, Map<String, Object> reqFilters,
-      Map<String, String> headers, Map<String, Object> filterMap) {
-    ObjectMapper mapper = new ObjectMapper();
-    Map<String, Object> map = new HashMap<>();
-    try {
-      map = mapper.readValue((String) section.get(JsonKey.SEARCH_QUERY), HashMap.class);
-    } catch (IOException e) {
-      ProjectLogger.log(e.getMessage(), e);
-    }
-    Set<Entry<String, Object>> filterEntrySet = filterMap.entrySet();
-    for (Entry<String, Object> entry : filterEntrySet) {
-      if (!entry.getKey().equalsIgnoreCase(JsonKey.FILTERS)) {
-        ((Map<String, Object>) map.get(JsonKey.REQUEST)).put(entry.getKey(), entry.getValue());
-      }
+    if (JsonKey.SUCCESS.equalsIgnoreCase((String) response.get(JsonKey.RESPONSE))) {
+      DataCacheNotifier.onChange(DataCacheHandler.PAGE, uniqueId);
     }
-    Map<String, Object> filters =
-        (Map<String, Object>) ((Map<String, Object>) map.get(JsonKey.REQUEST)).get(JsonKey.FILTERS);
-    ProjectLogger.log("default search query for ekstep for page data assemble api : "
-        + (String) section.get(JsonKey.SEARCH_QUERY));
-    applyFilters(filters, reqFilters);
-    String query = "";
+  }
 
-    try {
-      query = mapper.writeValueAsString(map);
-    } catch (Exception e) {
-      ProjectLogger.log("Exception occurred while parsing filters for Ekstep search query", e);
-    }
-    if (ProjectUtil.isStringNullOREmpty(query)) {
-      query = (String) section.get(JsonKey.SEARCH_QUERY);
+  /**
+   * Searches the contents of a section in EkStep, the results being cached by query and forwarded
+   * headers (e.g. X-Channel-Id) for a short time so popular pages do not search EkStep on every
+   * request. The cache holds its own copy of a result, callers get another one.
+   *
+   * @param template compiled search query of the section
+   * @param headers headers of the EkStep request, updated by the search
+   * @return EkStep search result, empty if the search failed
+   */
+  private Map<String, Object> getContentData(SectionTemplate template,
+      Map<String, Object> reqFilters, Map<String, String> headers, Map<String, Object> filterMap) {
+    String query = template.bind(filterMap, reqFilters);
+    String cacheKey = getSectionCacheKey(query, headers);
+    Map<String, Object> result = sectionCache.get(cacheKey);
+    if (null != result) {
+      return new HashMap<>(result);
     }
     ProjectLogger
         .log("search query after applying filter for ekstep for page data assemble api : " + query);
-    Map<String,Object> result = EkStepRequestUtil.searchContent(query, headers);
+    result = EkStepRequestUtil.searchContent(query, headers);
     if (null != result && !result.isEmpty()) {
-      section.put(JsonKey.CONTENTS, result.get(JsonKey.CONTENTS));
-      Map<String,Object> tempMap = (Map<String, Object>) result.get(JsonKey.PARAMS);
-      section.put(JsonKey.RES_MSG_ID, tempMap.get(JsonKey.RES_MSG_ID));
-      section.put(JsonKey.API_ID, tempMap.get(JsonKey.API_ID));
+      sectionCache.put(cacheKey, new HashMap<>(result));
     }
+    return result;
+  }
+
+  // the authorization and content type headers are set by the search itself
+  private static String getSectionCacheKey(String query, Map<String, String> headers) {
+    Map<String, String> forwarded = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    forwarded.putAll(headers);
+    forwarded.remove(JsonKey.AUTHORIZATION);
+    forwarded.remove("Content-Type");
+    return forwarded + query;
   }
 
   @SuppressWarnings("unchecked")
-  /**
-   * combine both requested page filters with default page filters.
-   *
-   * @param filters
-   * @param reqFilters
-   */
-  private void applyFilters(Map<String, Object> filters, Map<String, Object> reqFilters) {
-    if (null != reqFilters) {
-      Set<Entry<String, Object>> entrySet = reqFilters.entrySet();
-      for (Entry<String, Object> entry : entrySet) {
-        String key = entry.getKey();
-        if (filters.containsKey(key)) {
-          Object obj = entry.getValue();
-          if (obj instanceof List) {
-            if (filters.get(key) instanceof List) {
-              Set<Object> set = new HashSet<>((List<Object>) filters.get(key));
-              set.addAll((List<Object>) obj);
-              ((List<Object>) filters.get(key)).clear();
-              ((List<Object>) filters.get(key)).addAll(set);
-            } else if (filters.get(key) instanceof Map) {
-              filters.put(key, obj);
-            } else {
-              if (!(((List<Object>) obj).contains((String) filters.get(key)))) {
-                ((List<Object>) obj).add((String) filters.get(key));
-              }
-              filters.put(key, obj);
-            }
-          } else if (obj instanceof Map) {
-            filters.put(key, obj);
-          } else {
-            if (filters.get(key) instanceof List) {
-              if (!(((List<Object>) filters.get(key)).contains(obj))) {
-                ((List<Object>) filters.get(key)).add(obj);
-              }
-            } else if (filters.get(key) instanceof Map) {
-              filters.put(key, obj);
-            } else {
-              List<Object> list = new ArrayList<>();
-              list.add(filters.get(key));
-              list.add(obj);
-              filters.put(key, list);
-            }
-          }
-        } else {
-          filters.put(key, entry.getValue());
-        }
-      }
+  private void setContentData(Map<String, Object> section, Map<String, Object> result) {
+    if (null != result && !result.isEmpty()) {
+      section.put(JsonKey.CONTENTS, result.get(JsonKey.CONTENTS));
+      Map<String, Object> tempMap = (Map<String, Object>) result.get(JsonKey.PARAMS);
+      section.put(JsonKey.RES_MSG_ID, tempMap.get(JsonKey.RES_MSG_ID));
+      section.put(JsonKey.API_ID, tempMap.get(JsonKey.API_ID));
     }
   }
 
@@ -3,9 +3,9 @@ package org.sunbird.learner.actors;
 import akka.actor.ActorRef;
 import akka.actor.ActorSelection;
 import akka.actor.ActorSystem;
-import akka.actor.Props;
 import akka.actor.UntypedAbstractActor;
 import akka.dispatch.OnComplete;
+import akka.pattern.AskTimeoutException;
 import akka.pattern.Patterns;
 import akka.routing.FromConfig;
 import akka.util.Timeout;
@@ -34,6 +34,7 @@ import org.sunbird.learner.actors.client.ClientManagementActor;
 import org.sunbird.learner.actors.fileuploadservice.FileUploadServiceActor;
 import org.sunbird.learner.actors.geolocation.GeoLocationManagementActor;
 import org.sunbird.learner.actors.notificationservice.EmailServiceActor;
+import org.sunbird.learner.actors.notificationservice.NotificationDispatcherActor;
 import org.sunbird.learner.actors.recommend.RecommendorActor;
 import org.sunbird.learner.actors.search.CourseSearchActor;
 import org.sunbird.learner.actors.search.SearchHandlerActor;
@@ -43,8 +44,14 @@ import org.sunbird.learner.actors.syncjobmanager.KeyCloakSyncActor;
 import org.sunbird.learner.actors.tenantpreference.TenantPreferenceManagementActor;
 import org.sunbird.learner.audit.impl.ActorAuditLogServiceImpl;
 import org.sunbird.learner.datapersistence.DbOperationActor;
+import org.sunbird.learner.util.AdmissionController;
 import org.sunbird.learner.util.AuditOperation;
+import org.sunbird.learner.util.DataCacheNotifier;
+import org.sunbird.learner.util.RequestDeadline;
 import org.sunbird.learner.util.Util;
+import org.sunbird.learner.util.actorutility.ActorDispatcher;
+import org.sunbird.learner.util.metrics.OperationMetrics.Outcome;
+import org.sunbird.learner.util.metrics.RequestMetricsRegistry;
 import org.sunbird.metrics.actors.CourseMetricsActor;
 import org.sunbird.metrics.actors.OrganisationMetricsActor;
 import scala.concurrent.ExecutionContext;
@@ -80,6 +87,7 @@ public class RequestRouterActor extends UntypedAbstractActor {
   private ActorRef courseBatchActor;
   private ActorRef esSyncActor;
   private ActorRef emailServiceActor;
+  private ActorRef notificationDispatcherActor;
   private ActorRef fileUploadServiceActor;
   private ActorRef notesActor;
   private ActorRef auditLogManagementActor;
@@ -119,6 +127,7 @@ public class RequestRouterActor extends UntypedAbstractActor {
   private static final String ES_SYNC_ROUTER = "esSyncActor";
   private static final String SCHEDULAR_ACTOR = "schedularActor";
   private static final String EMAIL_SERVICE_ACTOR = "emailServiceActor";
+  private static final String NOTIFICATION_DISPATCHER_ACTOR = "notificationDispatcherActor";
   private static final String FILE_UPLOAD_ACTOR = "fileUploadActor";
   private static final String BADGES_ACTOR = "badgesActor";
   private static final String NOTES_ACTOR = "notesActor";
@@ -132,6 +141,10 @@ public class RequestRouterActor extends UntypedAbstractActor {
   private static final String KEYCLOAK_SYNC_ACTOR = "keyCloakSyncActor";
   private static final String APPLICATION_CONFIG_ACTOR = "applicationConfigActor";
   private static final String DBOPERATION_ACTOR = "dbOperationActor";
+  /**
+   * Operation to read the request metrics (latency histogram and counters) of this actor system.
+   */
+  public static final String GET_REQUEST_METRICS = "getRequestMetrics";
 
   /**
    * @return the system
@@ -151,91 +164,126 @@ public class RequestRouterActor extends UntypedAbstractActor {
    * constructor to initialize router actor with child actor pool
    */
   public RequestRouterActor() {
+    DataCacheNotifier.init(getContext().system());
     courseEnrollmentActorRouter = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(CourseEnrollmentActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), CourseEnrollmentActor.class)),
         COURSE_ENROLLMENT_ROUTER);
     learnerStateActorRouter =
-        getContext().actorOf(FromConfig.getInstance().props(Props.create(LearnerStateActor.class)),
+        getContext().actorOf(FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), LearnerStateActor.class)),
             LEARNER_ACTOR_ROUTER);
     learnerStateUpdateActorRouter = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(LearnerStateUpdateActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), LearnerStateUpdateActor.class)),
         LEARNER_STATE_ROUTER);
     userManagementRouter = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(UserManagementActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), UserManagementActor.class)),
         USER_MANAGEMENT_ROUTER);
     courseManagementRouter = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(CourseManagementActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), CourseManagementActor.class)),
         COURSE_MANAGEMENT_ROUTER);
     pageManagementRouter = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(PageManagementActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), PageManagementActor.class)),
         PAGE_MANAGEMENT_ROUTER);
     organisationManagementRouter = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(OrganisationManagementActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), OrganisationManagementActor.class)),
         ORGANISATION_MANAGEMENT_ROUTER);
     courseSearchActorRouter =
-        getContext().actorOf(FromConfig.getInstance().props(Props.create(CourseSearchActor.class)),
+        getContext().actorOf(FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), CourseSearchActor.class)),
             COURSE_SEARCH_ACTOR_ROUTER);
     assessmentItemActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(AssessmentItemActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), AssessmentItemActor.class)),
         ASSESSMENT_ITEM_ACTOR_ROUTER);
     recommendorActorRouter =
-        getContext().actorOf(FromConfig.getInstance().props(Props.create(RecommendorActor.class)),
+        getContext().actorOf(FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), RecommendorActor.class)),
             RECOMMENDOR_ACTOR_ROUTER);
     searchHandlerActor =
-        getContext().actorOf(FromConfig.getInstance().props(Props.create(SearchHandlerActor.class)),
+        getContext().actorOf(FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), SearchHandlerActor.class)),
             SEARCH_HANDLER_ACTOR_ROUTER);
     bulkUploadManagementActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(BulkUploadManagementActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), BulkUploadManagementActor.class)),
         BULK_UPLOAD_MGMT_ACTOR);
     courseBatchActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(CourseBatchManagementActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), CourseBatchManagementActor.class)),
         COURSE_BATCH_MANAGEMENT_ACTOR);
     organisationMetricsRouter = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(OrganisationMetricsActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), OrganisationMetricsActor.class)),
         ORGANISATION_METRICS_ROUTER);
     courseMetricsRouter =
-        getContext().actorOf(FromConfig.getInstance().props(Props.create(CourseMetricsActor.class)),
+        getContext().actorOf(FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), CourseMetricsActor.class)),
             COURSE_METRICS_ROUTER);
     esSyncActor = getContext()
-        .actorOf(FromConfig.getInstance().props(Props.create(EsSyncActor.class)), ES_SYNC_ROUTER);
+        .actorOf(FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), EsSyncActor.class)), ES_SYNC_ROUTER);
     fileUploadServiceActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(FileUploadServiceActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), FileUploadServiceActor.class)),
         FILE_UPLOAD_ACTOR);
     schedularActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(SchedularActor.class)), SCHEDULAR_ACTOR);
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), SchedularActor.class)), SCHEDULAR_ACTOR);
     emailServiceActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(EmailServiceActor.class)), EMAIL_SERVICE_ACTOR);
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), EmailServiceActor.class)), EMAIL_SERVICE_ACTOR);
+    notificationDispatcherActor = getContext().actorOf(
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), NotificationDispatcherActor.class)),
+        NOTIFICATION_DISPATCHER_ACTOR);
     badgesActor = getContext()
-        .actorOf(FromConfig.getInstance().props(Props.create(BadgesActor.class)), BADGES_ACTOR);
+        .actorOf(FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), BadgesActor.class)), BADGES_ACTOR);
     notesActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(NotesManagementActor.class)), NOTES_ACTOR);
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), NotesManagementActor.class)), NOTES_ACTOR);
     userDataEncryptionDecryptionServiceActor = getContext().actorOf(
         FromConfig.getInstance()
-            .props(Props.create(UserDataEncryptionDecryptionServiceActor.class)),
+            .props(
+            ActorDispatcher.props(getContext().system(), UserDataEncryptionDecryptionServiceActor.class)),
         USER_DATA_ENC_DEC_SERVICE_ACTOR);
     auditLogManagementActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(ActorAuditLogServiceImpl.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), ActorAuditLogServiceImpl.class)),
         AUDIT_LOG_MGMT_ACTOR);
     skillManagementActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(SkillmanagementActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), SkillmanagementActor.class)),
         SKILL_MANAGEMENT_ACTOR);
     tenantPrefManagementActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(TenantPreferenceManagementActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), TenantPreferenceManagementActor.class)),
         TENANT_PREFERENCE_MNGT_ACTOR);
     clientManagementActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(ClientManagementActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), ClientManagementActor.class)),
         CLIENT_MANAGEMENT_ACTOR);
     geoLocationManagementActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(GeoLocationManagementActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), GeoLocationManagementActor.class)),
         GEO_LOCATION_MANAGEMENT_ACTOR);
     keyCloakSyncActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(KeyCloakSyncActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), KeyCloakSyncActor.class)),
         KEYCLOAK_SYNC_ACTOR);
     applicationConfigActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(ApplicationConfigActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), ApplicationConfigActor.class)),
         APPLICATION_CONFIG_ACTOR);
     dbOperationActor = getContext().actorOf(
-        FromConfig.getInstance().props(Props.create(DbOperationActor.class)),
+        FromConfig.getInstance().props(
+            ActorDispatcher.props(getContext().system(), DbOperationActor.class)),
         DBOPERATION_ACTOR);
     ec = getContext().dispatcher();
     initializeRouterMap();
@@ -326,8 +374,10 @@ public class RequestRouterActor extends UntypedAbstractActor {
     routerMap.put(ActorOperations.COURSE_CREATION_METRICS_REPORT.getValue(), courseMetricsRouter);
 
     routerMap.put(ActorOperations.EMAIL_SERVICE.getValue(), emailServiceActor);
+    routerMap.put(NotificationDispatcherActor.DISPATCH_NOTIFICATIONS, notificationDispatcherActor);
 
     routerMap.put(ActorOperations.SYNC.getValue(), esSyncActor);
+    routerMap.put(EsSyncActor.SYNC_STATUS, esSyncActor);
     routerMap.put(ActorOperations.FILE_STORAGE_SERVICE.getValue(), fileUploadServiceActor);
     routerMap.put(ActorOperations.GET_ALL_BADGE.getValue(), badgesActor);
     routerMap.put(ActorOperations.ADD_USER_BADGE.getValue(), badgesActor);
@@ -386,7 +436,13 @@ public class RequestRouterActor extends UntypedAbstractActor {
       Request actorMessage = (Request) message;
       org.sunbird.common.request.ExecutionContext.setRequestId(actorMessage.getRequestId());
       ActorRef ref = routerMap.get(actorMessage.getOperation());
-      if (null != ref) {
+      if (GET_REQUEST_METRICS.equalsIgnoreCase(actorMessage.getOperation())) {
+        Response response = new Response();
+        response.put(JsonKey.RESPONSE, RequestMetricsRegistry.snapshot());
+        sender().tell(response, self());
+      } else if (DataCacheNotifier.INVALIDATE_DATA_CACHE.equals(actorMessage.getOperation())) {
+        DataCacheNotifier.onInvalidation(actorMessage);
+      } else if (null != ref) {
         route(ref, actorMessage);
       } else {
         ProjectLogger.log("UNSUPPORTED OPERATION TYPE");
@@ -418,12 +474,29 @@ public class RequestRouterActor extends UntypedAbstractActor {
     long startTime = System.currentTimeMillis();
     ProjectLogger.log("Actor Service Call start  for  api ==" + message.getOperation()
         + " start time " + startTime, LoggerEnum.PERF_LOG);
+    String routerName = router.path().name();
+    if (!AdmissionController.admit(routerName)) {
+      RequestMetricsRegistry.onRejected(message.getOperation(), routerName);
+      sender().tell(AdmissionController.overloaded(), ActorRef.noSender());
+      return false;
+    }
+    AdmissionController.onRoute(message, routerName);
+    RequestDeadline.setDeadline(message, TimeUnit.SECONDS.toMillis(WAIT_TIME_VALUE));
     Timeout timeout = new Timeout(Duration.create(WAIT_TIME_VALUE, TimeUnit.SECONDS));
+    long metricsStartTime = RequestMetricsRegistry.onStart(message.getOperation(), routerName);
     Future<Object> future = Patterns.ask(router, message, timeout);
     ActorRef parent = sender();
     future.onComplete(new OnComplete<Object>() {
       @Override
       public void onComplete(Throwable failure, Object result) {
+        Outcome outcome = Outcome.SUCCESS;
+        if (failure instanceof AskTimeoutException) {
+          outcome = Outcome.TIMEOUT;
+        } else if (failure != null || result instanceof Throwable) {
+          outcome = Outcome.FAILURE;
+        }
+        RequestMetricsRegistry.onComplete(message.getOperation(), routerName, metricsStartTime,
+            outcome);
         if (failure != null) {
           ProjectLogger.log("Actor Service Call Ended on Failure for  api =="
               + message.getOperation() + " end time " + System.currentTimeMillis() + "  Time taken "
@@ -11,6 +11,7 @@ import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.request.Request;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.actors.bulkupload.BulkUploadChunks;
 import org.sunbird.learner.util.ActorUtil;
 import org.sunbird.learner.util.UserUtility;
 import org.sunbird.learner.util.Util;
@@ -55,9 +56,13 @@ public class SchedularActor extends UntypedAbstractActor {
       }
       if (retryCount > 2) {
         String data = (String) map.get(JsonKey.DATA);
+        // rows of a chunked upload are dropped instead of being kept encrypted
+        BulkUploadChunks.delete((String) map.get(JsonKey.ID), BulkUploadChunks.getChunkCount(map));
         try {
           Map<String, Object> bulkMap = new HashMap<>();
-          bulkMap.put(JsonKey.DATA, UserUtility.encryptData(data));
+          if (null != data) {
+            bulkMap.put(JsonKey.DATA, UserUtility.encryptData(data));
+          }
           bulkMap.put(JsonKey.PROCESS_ID, map.get(JsonKey.ID));
           bulkMap.put(JsonKey.STATUS, ProjectUtil.BulkProcessStatus.FAILED.getValue());
           cassandraOperation.updateRecord(bulkDb.getKeySpace(), bulkDb.getTableName(), bulkMap);
@@ -4,9 +4,9 @@ import static org.sunbird.learner.util.Util.isNotNull;
 import static org.sunbird.learner.util.Util.isNull;
 
 import akka.actor.UntypedAbstractActor;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -14,7 +14,13 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.commons.lang.StringUtils;
 import org.sunbird.cassandra.CassandraOperation;
 import org.sunbird.common.ElasticSearchUtil;
 import org.sunbird.common.exception.ProjectCommonException;
@@ -36,16 +42,16 @@ import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.dto.SearchDTO;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.actors.notificationservice.NotificationQueue;
 import org.sunbird.learner.util.ActorUtil;
 import org.sunbird.learner.util.AuditOperation;
+import org.sunbird.learner.util.CourseBatchCache;
 import org.sunbird.learner.util.DataCacheHandler;
 import org.sunbird.learner.util.SocialMediaType;
 import org.sunbird.learner.util.TelemetryUtil;
 import org.sunbird.learner.util.UserUtility;
 import org.sunbird.learner.util.Util;
 import org.sunbird.learner.util.Util.DbInfo;
-import org.sunbird.notification.sms.provider.ISmsProvider;
-import org.sunbird.notification.utils.SMSFactory;
 import org.sunbird.services.sso.SSOManager;
 import org.sunbird.services.sso.SSOServiceFactory;
 
@@ -62,11 +68,17 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
       org.sunbird.common.models.util.datasecurity.impl.ServiceFactory
           .getEncryptionServiceInstance(null);
   private PropertiesCache propertiesCache = PropertiesCache.getInstance();
-  private List<String> locnIdList = new ArrayList<>();
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
   private SSOManager ssoManager = SSOServiceFactory.getInstance();
   private static final String SUNBIRD_WEB_URL = "sunbird_web_url";
   private static final String SUNBIRD_APP_URL = "sunbird_app_url";
+  private static final int DEFAULT_WORKERS = 8;
+  private static ExecutorService workerPool = Executors.newFixedThreadPool(
+      Util.getIntProperty("sunbird_bulk_upload_workers", DEFAULT_WORKERS), runnable -> {
+        Thread thread = new Thread(runnable, "bulk-upload-worker");
+        thread.setDaemon(true);
+        return thread;
+      });
 
   @Override
   public void onReceive(Object message) throws Throwable {
@@ -92,17 +104,22 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
   }
 
   private void process(Request actorMessage) {
-    ObjectMapper mapper = new ObjectMapper();
     processId = (String) actorMessage.get(JsonKey.PROCESS_ID);
     Map<String, Object> dataMap = getBulkData(processId);
     int status = (int) dataMap.get(JsonKey.STATUS);
     if (!(status == (ProjectUtil.BulkProcessStatus.COMPLETED.getValue())
         || status == (ProjectUtil.BulkProcessStatus.INTERRUPT.getValue()))) {
-      TypeReference<List<Map<String, Object>>> mapType =
-          new TypeReference<List<Map<String, Object>>>() {};
+      int chunks = BulkUploadChunks.getChunkCount(dataMap);
+      if (chunks > 0 && !((String) dataMap.get(JsonKey.OBJECT_TYPE))
+          .equalsIgnoreCase(JsonKey.ORGANISATION)) {
+        if (processChunks(dataMap, chunks)) {
+          BulkUploadChunks.clearRows(processId, chunks);
+        }
+        return;
+      }
       List<Map<String, Object>> jsonList = null;
       try {
-        jsonList = mapper.readValue((String) dataMap.get(JsonKey.DATA), mapType);
+        jsonList = BulkUploadChunks.readAll(dataMap);
       } catch (IOException e) {
         ProjectLogger.log(
             "Exception occurred while converting json String to List in BulkUploadBackGroundJobActor : ",
@@ -117,63 +134,164 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
       } else if (((String) dataMap.get(JsonKey.OBJECT_TYPE)).equalsIgnoreCase(JsonKey.BATCH)) {
         processBatchEnrollment(jsonList, processId);
       }
+      BulkUploadChunks.delete(processId, BulkUploadChunks.getChunkCount(dataMap));
     }
   }
 
+  /**
+   * Processes a chunked user or batch upload. The chunks of a user upload are processed in
+   * parallel on the worker pool, those of a batch upload one after the other on the actor thread,
+   * as the rows of a batch read and write back its whole participant list. Each chunk commits its
+   * results once processed, so an upload picked up again by the scheduler after a crash only
+   * processes the chunks not committed yet. The results stay in the chunks, where the upload
+   * status API reads them. The existing users of a user upload are resolved once for the rows of
+   * all its pending chunks.
+   *
+   * @return false if some chunk failed, the upload is then left in progress
+   */
   @SuppressWarnings("unchecked")
+  private boolean processChunks(Map<String, Object> dataMap, int chunks) {
+    String jobId = processId;
+    String objectType = (String) dataMap.get(JsonKey.OBJECT_TYPE);
+    String uploadedBy = (String) dataMap.get(JsonKey.UPLOADED_BY);
+    updateStatusForProcessing(jobId);
+    Object totalCount = dataMap.get(BulkUploadProgress.TOTAL_COUNT);
+    BulkUploadProgress progress =
+        new BulkUploadProgress(jobId, null == totalCount ? 0 : ((Number) totalCount).intValue());
+    Map<String, Object> requestContext = ExecutionContext.getCurrent().getRequestContext();
+    Executor executor = JsonKey.BATCH.equalsIgnoreCase(objectType) ? Runnable::run : workerPool;
+    UserUploadIndex userIndex = null;
+    if (JsonKey.USER.equalsIgnoreCase(objectType)) {
+      try {
+        userIndex = UserUploadIndex.load(getPendingRows(jobId, chunks), encryptionService);
+      } catch (IOException e) {
+        ProjectLogger.log("Bulk upload " + jobId + " stopped, it resumes from its pending chunks",
+            e);
+        return false;
+      }
+    }
+    UserUploadIndex index = userIndex;
+    List<CompletableFuture<Void>> futures = new ArrayList<>(chunks);
+    for (int i = 0; i < chunks; i++) {
+      int chunkIndex = i;
+      futures.add(CompletableFuture.runAsync(() -> {
+        ExecutionContext.getCurrent().setRequestContext(requestContext);
+        processChunk(jobId, chunkIndex, objectType, uploadedBy, index, progress);
+      }, executor));
+    }
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[chunks])).join();
+    } catch (CompletionException e) {
+      ProjectLogger.log("Bulk upload " + jobId + " stopped, it resumes from its pending chunks",
+          e.getCause());
+      return false;
+    }
+    progress.save();
+    saveResult(jobId, objectType, null, null);
+    return true;
+  }
+
+  private static List<Map<String, Object>> getPendingRows(String processId, int chunks)
+      throws IOException {
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (int i = 0; i < chunks; i++) {
+      Map<String, Object> chunk = BulkUploadChunks.load(processId, i);
+      if (null != chunk && !BulkUploadChunks.isCommitted(chunk)) {
+        rows.addAll(BulkUploadChunks.getRows(chunk));
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * @param userIndex existing users of a user upload, null for a batch upload
+   */
+  private void processChunk(String processId, int index, String objectType, String uploadedBy,
+      UserUploadIndex userIndex, BulkUploadProgress progress) {
+    Map<String, Object> chunk = BulkUploadChunks.load(processId, index);
+    if (null == chunk) {
+      return;
+    }
+    if (BulkUploadChunks.isCommitted(chunk)) {
+      progress.resume(BulkUploadChunks.getSuccessCount(chunk),
+          BulkUploadChunks.getFailureCount(chunk));
+      return;
+    }
+    List<Map<String, Object>> rows;
+    try {
+      rows = BulkUploadChunks.getRows(chunk);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    List<Map<String, Object>> successList = new ArrayList<>();
+    List<Map<String, Object>> failureList = new ArrayList<>();
+    List<Map<String, Object>> notifications = new ArrayList<>();
+    for (Map<String, Object> row : rows) {
+      Object lock = null == userIndex ? null : userIndex.getLock(row);
+      if (null != lock) {
+        synchronized (lock) {
+          processUser(row, uploadedBy, userIndex, notifications, successList, failureList);
+        }
+      } else if (null != userIndex) {
+        processUser(row, uploadedBy, userIndex, notifications, successList, failureList);
+      } else {
+        processBatch(row, successList, failureList);
+      }
+    }
+    // enqueued before the commit, a chunk processed again only updates its users
+    NotificationQueue.enqueue(notifications);
+    BulkUploadChunks.commit(processId, index, encryptResult(objectType, successList),
+        encryptResult(objectType, failureList), successList.size(), failureList.size());
+    progress.add(successList.size(), failureList.size());
+    ProjectLogger.log("Bulk upload " + processId + " chunk " + index + " committed with "
+        + successList.size() + " success and " + failureList.size() + " failure");
+  }
+
   private void processBatchEnrollment(List<Map<String, Object>> jsonList, String processId) {
     // update status from NEW to INProgress
     updateStatusForProcessing(processId);
-    Util.DbInfo dbInfo = Util.dbInfoMap.get(JsonKey.COURSE_BATCH_DB);
     List<Map<String, Object>> successResultList = new ArrayList<>();
     List<Map<String, Object>> failureResultList = new ArrayList<>();
-
-    Map<String, Object> successListMap = null;
-    Map<String, Object> failureListMap = null;
+    BulkUploadProgress progress = new BulkUploadProgress(processId, jsonList.size());
     for (Map<String, Object> batchMap : jsonList) {
-      successListMap = new HashMap<>();
-      failureListMap = new HashMap<>();
-      Map<String, Object> tempFailList = new HashMap<>();
-      Map<String, Object> tempSuccessList = new HashMap<>();
-
-      String batchId = (String) batchMap.get(JsonKey.BATCH_ID);
-      Response courseBatchResult =
-          cassandraOperation.getRecordById(dbInfo.getKeySpace(), dbInfo.getTableName(), batchId);
-      String msg = validateBatchInfo(courseBatchResult);
-      if (msg.equals(JsonKey.SUCCESS)) {
-        List<Map<String, Object>> courseList =
-            (List<Map<String, Object>>) courseBatchResult.get(JsonKey.RESPONSE);
-        List<String> userList =
-            new ArrayList<>(Arrays.asList((((String) batchMap.get(JsonKey.USER_IDs)).split(","))));
-        validateBatchUserListAndAdd(courseList.get(0), batchId, userList, tempFailList,
-            tempSuccessList);
-        failureListMap.put(batchId, tempFailList.get(JsonKey.FAILURE_RESULT));
-        successListMap.put(batchId, tempSuccessList.get(JsonKey.SUCCESS_RESULT));
-      } else {
-        batchMap.put(JsonKey.ERROR_MSG, msg);
-        failureResultList.add(batchMap);
-      }
-      if (!successListMap.isEmpty()) {
-        successResultList.add(successListMap);
-      }
-      if (!failureListMap.isEmpty()) {
-        failureResultList.add(failureListMap);
-      }
+      processBatch(batchMap, successResultList, failureResultList);
+      progress.set(successResultList.size(), failureResultList.size());
     }
+    progress.save();
+    saveResult(processId, JsonKey.BATCH, successResultList, failureResultList);
+  }
 
-    // Insert record to BulkDb table
-    Map<String, Object> map = new HashMap<>();
-    map.put(JsonKey.ID, processId);
-    map.put(JsonKey.SUCCESS_RESULT, convertMapToJsonString(successResultList));
-    map.put(JsonKey.FAILURE_RESULT, convertMapToJsonString(failureResultList));
-    map.put(JsonKey.PROCESS_END_TIME, ProjectUtil.getFormattedDate());
-    map.put(JsonKey.STATUS, ProjectUtil.BulkProcessStatus.COMPLETED.getValue());
-    try {
-      cassandraOperation.updateRecord(bulkDb.getKeySpace(), bulkDb.getTableName(), map);
-    } catch (Exception e) {
-      ProjectLogger.log(
-          "Exception Occurred while updating bulk_upload_process in BulkUploadBackGroundJobActor : ",
-          e);
+  @SuppressWarnings("unchecked")
+  private void processBatch(Map<String, Object> batchMap,
+      List<Map<String, Object>> successResultList, List<Map<String, Object>> failureResultList) {
+    Util.DbInfo dbInfo = Util.dbInfoMap.get(JsonKey.COURSE_BATCH_DB);
+    Map<String, Object> successListMap = new HashMap<>();
+    Map<String, Object> failureListMap = new HashMap<>();
+    Map<String, Object> tempFailList = new HashMap<>();
+    Map<String, Object> tempSuccessList = new HashMap<>();
+
+    String batchId = (String) batchMap.get(JsonKey.BATCH_ID);
+    Response courseBatchResult =
+        cassandraOperation.getRecordById(dbInfo.getKeySpace(), dbInfo.getTableName(), batchId);
+    String msg = validateBatchInfo(courseBatchResult);
+    if (msg.equals(JsonKey.SUCCESS)) {
+      List<Map<String, Object>> courseList =
+          (List<Map<String, Object>>) courseBatchResult.get(JsonKey.RESPONSE);
+      List<String> userList =
+          new ArrayList<>(Arrays.asList((((String) batchMap.get(JsonKey.USER_IDs)).split(","))));
+      validateBatchUserListAndAdd(courseList.get(0), batchId, userList, tempFailList,
+          tempSuccessList);
+      failureListMap.put(batchId, tempFailList.get(JsonKey.FAILURE_RESULT));
+      successListMap.put(batchId, tempSuccessList.get(JsonKey.SUCCESS_RESULT));
+    } else {
+      batchMap.put(JsonKey.ERROR_MSG, msg);
+      failureResultList.add(batchMap);
+    }
+    if (!successListMap.isEmpty()) {
+      successResultList.add(successListMap);
+    }
+    if (!failureListMap.isEmpty()) {
+      failureResultList.add(failureListMap);
     }
   }
 
@@ -234,6 +352,7 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
     }
     courseBatchObject.put(JsonKey.PARTICIPANT, participants);
     cassandraOperation.updateRecord(dbInfo.getKeySpace(), dbInfo.getTableName(), courseBatchObject);
+    CourseBatchCache.invalidate(batchId);
     successList.put(JsonKey.SUCCESS_RESULT, passedUserList);
     failList.put(JsonKey.FAILURE_RESULT, failedUserList);
     // process Audit Log
@@ -344,16 +463,18 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
   private void processOrgInfo(CopyOnWriteArrayList<Map<String, Object>> jsonList,
       Map<String, Object> dataMap) {
 
-    Map<String, String> channelToRootOrgCache = new HashMap<>();
+    OrgUploadIndex index = OrgUploadIndex.load(jsonList);
     List<Map<String, Object>> successList = new ArrayList<>();
     List<Map<String, Object>> failureList = new ArrayList<>();
+    BulkUploadProgress progress =
+        new BulkUploadProgress((String) dataMap.get(JsonKey.ID), jsonList.size());
     // Iteration for rootorg
     for (Map<String, Object> map : jsonList) {
       try {
         if (map.containsKey(JsonKey.IS_ROOT_ORG) && isNotNull(map.get(JsonKey.IS_ROOT_ORG))) {
           Boolean isRootOrg = Boolean.valueOf((String) map.get(JsonKey.IS_ROOT_ORG));
           if (isRootOrg) {
-            processOrg(map, dataMap, successList, failureList, channelToRootOrgCache);
+            processOrg(map, dataMap, successList, failureList, index);
             jsonList.remove(map);
           }
         }
@@ -362,17 +483,19 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
         map.put(JsonKey.ERROR_MSG, ex.getMessage());
         failureList.add(map);
       }
+      progress.set(successList.size(), failureList.size());
     }
 
     // Iteration for non root org
     for (Map<String, Object> map : jsonList) {
       try {
-        processOrg(map, dataMap, successList, failureList, channelToRootOrgCache);
+        processOrg(map, dataMap, successList, failureList, index);
       } catch (Exception ex) {
         ProjectLogger.log("Exception occurs  ", ex);
         map.put(JsonKey.ERROR_MSG, ex.getMessage());
         failureList.add(map);
       }
+      progress.set(successList.size(), failureList.size());
     }
 
     dataMap.put(JsonKey.SUCCESS_RESULT, convertMapToJsonString(successList));
@@ -380,13 +503,15 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
     dataMap.put(JsonKey.STATUS, BulkProcessStatus.COMPLETED.getValue());
 
     cassandraOperation.updateRecord(bulkDb.getKeySpace(), bulkDb.getTableName(), dataMap);
+    // saved last, dataMap holding the progress read before the upload was processed
+    progress.save();
 
   }
 
   @SuppressWarnings("unchecked")
   private void processOrg(Map<String, Object> map, Map<String, Object> dataMap,
       List<Map<String, Object>> successList, List<Map<String, Object>> failureList,
-      Map<String, String> channelToRootOrgCache) {
+      OrgUploadIndex index) {
 
     Map<String, Object> concurrentHashMap = map;
     Util.DbInfo orgDbInfo = Util.dbInfoMap.get(JsonKey.ORG_DB);
@@ -399,7 +524,7 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
 
     if (concurrentHashMap.containsKey(JsonKey.ORG_TYPE)
         && !ProjectUtil.isStringNullOREmpty((String) concurrentHashMap.get(JsonKey.ORG_TYPE))) {
-      String orgTypeId = validateOrgType((String) concurrentHashMap.get(JsonKey.ORG_TYPE));
+      String orgTypeId = index.getOrgTypeId((String) concurrentHashMap.get(JsonKey.ORG_TYPE));
       if (null == orgTypeId) {
         concurrentHashMap.put(JsonKey.ERROR_MSG, "Invalid OrgType.");
         failureList.add(concurrentHashMap);
@@ -411,13 +536,10 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
 
     if (concurrentHashMap.containsKey(JsonKey.LOC_ID)
         && !ProjectUtil.isStringNullOREmpty((String) concurrentHashMap.get(JsonKey.LOC_ID))) {
-      String locId = validateLocationId((String) concurrentHashMap.get(JsonKey.LOC_ID));
-      if (null == locId) {
+      if (!index.isLocationId((String) concurrentHashMap.get(JsonKey.LOC_ID))) {
         concurrentHashMap.put(JsonKey.ERROR_MSG, "Invalid Location Id.");
         failureList.add(concurrentHashMap);
         return;
-      } else {
-        concurrentHashMap.put(JsonKey.LOC_ID, locId);
       }
     }
 
@@ -465,17 +587,11 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
         return;
       }
 
-      Map<String, Object> dbMap = new HashMap<>();
-      dbMap.put(JsonKey.PROVIDER, concurrentHashMap.get(JsonKey.PROVIDER));
-      dbMap.put(JsonKey.EXTERNAL_ID, concurrentHashMap.get(JsonKey.EXTERNAL_ID));
-      Response result = cassandraOperation.getRecordsByProperties(orgDbInfo.getKeySpace(),
-          orgDbInfo.getTableName(), dbMap);
-      List<Map<String, Object>> list = (List<Map<String, Object>>) result.get(JsonKey.RESPONSE);
-      if (!(list.isEmpty())) {
+      Map<String, Object> orgResult = index.getOrg((String) concurrentHashMap.get(JsonKey.PROVIDER),
+          (String) concurrentHashMap.get(JsonKey.EXTERNAL_ID));
+      if (null != orgResult) {
 
-        Map<String, Object> orgResult = list.get(0);
-
-        boolean dbRootOrg = (boolean) orgResult.get(JsonKey.IS_ROOT_ORG);
+        boolean dbRootOrg = Boolean.TRUE.equals(orgResult.get(JsonKey.IS_ROOT_ORG));
         if (isRootOrg != dbRootOrg) {
           ProjectLogger.log("Can not update isRootorg value ");
           concurrentHashMap.put(JsonKey.ERROR_MSG, "Can not update isRootorg value ");
@@ -498,13 +614,7 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
           String requestedHashTagId = (String) concurrentHashMap.get(JsonKey.HASHTAGID);
           // if both are not equal ...
           if (!requestedHashTagId.equals(orgResult.get(JsonKey.HASHTAGID))) {
-            Map<String, Object> dbMap1 = new HashMap<>();
-            dbMap1.put(JsonKey.HASHTAGID, concurrentHashMap.get(JsonKey.HASHTAGID));
-            Response result1 = cassandraOperation.getRecordsByProperties(orgDbInfo.getKeySpace(),
-                orgDbInfo.getTableName(), dbMap1);
-            List<Map<String, Object>> list1 =
-                (List<Map<String, Object>>) result1.get(JsonKey.RESPONSE);
-            if (!list1.isEmpty()) {
+            if (index.isHashTagIdUsed(requestedHashTagId)) {
               ProjectLogger.log("Can not update hashtag value , since it is already exist ");
               concurrentHashMap.put(JsonKey.ERROR_MSG,
                   "Hash Tag ID already exist for another org ");
@@ -518,6 +628,7 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
         try {
           cassandraOperation.upsertRecord(orgDbInfo.getKeySpace(), orgDbInfo.getTableName(),
               concurrentHashMap);
+          index.register(concurrentHashMap);
           Response orgResponse = new Response();
 
           // sending the org contact as List if it is null simply remove from map
@@ -556,22 +667,12 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
       }
 
       // check for unique root org for channel -----
-      Map<String, Object> filters = new HashMap<>();
-      filters.put(JsonKey.CHANNEL, (String) concurrentHashMap.get(JsonKey.CHANNEL));
-      filters.put(JsonKey.IS_ROOT_ORG, true);
-
-      Map<String, Object> esResult = elasticSearchComplexSearch(filters,
-          EsIndex.sunbird.getIndexName(), EsType.organisation.getTypeName());
+      Map<String, Object> rootOrgInfo =
+          index.getRootOrg((String) concurrentHashMap.get(JsonKey.CHANNEL));
 
       // if for root org true for this channel means simply update the existing record ...
-      if (isNotNull(esResult) && esResult.containsKey(JsonKey.CONTENT)
-          && isNotNull(esResult.get(JsonKey.CONTENT))
-          && ((List) esResult.get(JsonKey.CONTENT)).size() > 0) {
-
-        List<Map<String, Object>> contentList =
-            (List<Map<String, Object>>) esResult.get(JsonKey.CONTENT);
-        Map<String, Object> rootOrgInfo = contentList.get(0);
-        concurrentHashMap.put(JsonKey.ID, contentList.get(0).get(JsonKey.ID));
+      if (null != rootOrgInfo) {
+        concurrentHashMap.put(JsonKey.ID, rootOrgInfo.get(JsonKey.ID));
 
         if (!compareStrings((String) concurrentHashMap.get(JsonKey.EXTERNAL_ID),
             (String) rootOrgInfo.get(JsonKey.EXTERNAL_ID))) {
@@ -594,13 +695,7 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
           String requestedHashTagId = (String) concurrentHashMap.get(JsonKey.HASHTAGID);
           // if both are not equal ...
           if (!requestedHashTagId.equalsIgnoreCase((String) rootOrgInfo.get(JsonKey.HASHTAGID))) {
-            Map<String, Object> dbMap1 = new HashMap<>();
-            dbMap1.put(JsonKey.HASHTAGID, concurrentHashMap.get(JsonKey.HASHTAGID));
-            Response result1 = cassandraOperation.getRecordsByProperties(orgDbInfo.getKeySpace(),
-                orgDbInfo.getTableName(), dbMap1);
-            List<Map<String, Object>> list1 =
-                (List<Map<String, Object>>) result1.get(JsonKey.RESPONSE);
-            if (!list1.isEmpty()) {
+            if (index.isHashTagIdUsed(requestedHashTagId)) {
               ProjectLogger.log("Can not update hashtag value , since it is already exist ");
               concurrentHashMap.put(JsonKey.ERROR_MSG,
                   "Hash Tag ID already exist for another org ");
@@ -613,6 +708,7 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
         try {
           cassandraOperation.upsertRecord(orgDbInfo.getKeySpace(), orgDbInfo.getTableName(),
               concurrentHashMap);
+          index.register(concurrentHashMap);
           Response orgResponse = new Response();
 
           // sending the org contact as List if it is null simply remove from map
@@ -623,7 +719,7 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
           orgResponse.put(JsonKey.ORGANISATION, concurrentHashMap);
           orgResponse.put(JsonKey.OPERATION, ActorOperations.INSERT_ORG_INFO_ELASTIC.getValue());
           ProjectLogger.log("Calling background job to save org data into ES"
-              + contentList.get(0).get(JsonKey.ID));
+              + rootOrgInfo.get(JsonKey.ID));
           Request request = new Request();
           request.setOperation(ActorOperations.INSERT_ORG_INFO_ELASTIC.getValue());
           request.getRequest().put(JsonKey.ORGANISATION, concurrentHashMap);
@@ -643,40 +739,21 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
 
       }
       concurrentHashMap.put(JsonKey.ROOT_ORG_ID, JsonKey.DEFAULT_ROOT_ORG_ID);
-      channelToRootOrgCache.put((String) concurrentHashMap.get(JsonKey.CHANNEL),
-          (String) concurrentHashMap.get(JsonKey.ORGANISATION_NAME));
 
     } else {
 
       if (concurrentHashMap.containsKey(JsonKey.CHANNEL)
           && !(ProjectUtil.isStringNullOREmpty((String) concurrentHashMap.get(JsonKey.CHANNEL)))) {
-        String channel = (String) concurrentHashMap.get(JsonKey.CHANNEL);
-        if (channelToRootOrgCache.containsKey(channel)) {
-          concurrentHashMap.put(JsonKey.ROOT_ORG_ID, channelToRootOrgCache.get(channel));
+        Map<String, Object> rootOrg =
+            index.getRootOrg((String) concurrentHashMap.get(JsonKey.CHANNEL));
+        if (null != rootOrg) {
+          concurrentHashMap.put(JsonKey.ROOT_ORG_ID, rootOrg.get(JsonKey.ID));
         } else {
-          Map<String, Object> filters = new HashMap<>();
-          filters.put(JsonKey.CHANNEL, (String) concurrentHashMap.get(JsonKey.CHANNEL));
-          filters.put(JsonKey.IS_ROOT_ORG, true);
-
-          Map<String, Object> esResult = elasticSearchComplexSearch(filters,
-              EsIndex.sunbird.getIndexName(), EsType.organisation.getTypeName());
-          if (isNotNull(esResult) && esResult.containsKey(JsonKey.CONTENT)
-              && isNotNull(esResult.get(JsonKey.CONTENT))
-              && ((List) esResult.get(JsonKey.CONTENT)).size() > 0) {
-
-            Map<String, Object> esContent =
-                ((List<Map<String, Object>>) esResult.get(JsonKey.CONTENT)).get(0);
-            concurrentHashMap.put(JsonKey.ROOT_ORG_ID, esContent.get(JsonKey.ID));
-            channelToRootOrgCache.put((String) concurrentHashMap.get(JsonKey.CHANNEL),
-                (String) esContent.get(JsonKey.ID));
-
-          } else {
-            concurrentHashMap.put(JsonKey.ERROR_MSG,
-                "This is not root org and No Root Org id exist for channel  "
-                    + concurrentHashMap.get(JsonKey.CHANNEL));
-            failureList.add(concurrentHashMap);
-            return;
-          }
+          concurrentHashMap.put(JsonKey.ERROR_MSG,
+              "This is not root org and No Root Org id exist for channel  "
+                  + concurrentHashMap.get(JsonKey.CHANNEL));
+          failureList.add(concurrentHashMap);
+          return;
         }
       } else if (concurrentHashMap.containsKey(JsonKey.PROVIDER)
           && !(ProjectUtil.isStringNullOREmpty(JsonKey.PROVIDER))) {
@@ -699,12 +776,7 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
     // ...
     if (!ProjectUtil.isStringNullOREmpty((String) concurrentHashMap.get(JsonKey.HASHTAGID))) {
 
-      Map<String, Object> dbMap1 = new HashMap<>();
-      dbMap1.put(JsonKey.HASHTAGID, concurrentHashMap.get(JsonKey.HASHTAGID));
-      Response result1 = cassandraOperation.getRecordsByProperties(orgDbInfo.getKeySpace(),
-          orgDbInfo.getTableName(), dbMap1);
-      List<Map<String, Object>> list1 = (List<Map<String, Object>>) result1.get(JsonKey.RESPONSE);
-      if (!list1.isEmpty()) {
+      if (index.isHashTagIdUsed((String) concurrentHashMap.get(JsonKey.HASHTAGID))) {
         ProjectLogger.log("Can not update hashtag value , since it is already exist ");
         concurrentHashMap.put(JsonKey.ERROR_MSG, "Hash Tag ID already exist for another org ");
         failureList.add(concurrentHashMap);
@@ -772,6 +844,7 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
     try {
       cassandraOperation.upsertRecord(orgDbInfo.getKeySpace(), orgDbInfo.getTableName(),
           concurrentHashMap);
+      index.register(concurrentHashMap);
       Response orgResponse = new Response();
 
       // sending the org contact as List if it is null simply remove from map
@@ -803,59 +876,6 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
     TelemetryUtil.telemetryProcessingCall(map, targetObject, correlatedObject);
   }
 
-  private String validateLocationId(String locId) {
-    String locnId = null;
-    try {
-      if (locnIdList.isEmpty()) {
-        Util.DbInfo geoLocDbInfo = Util.dbInfoMap.get(JsonKey.GEO_LOCATION_DB);
-        Response response = cassandraOperation.getAllRecords(geoLocDbInfo.getKeySpace(),
-            geoLocDbInfo.getTableName());
-        List<Map<String, Object>> list = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
-        if (!list.isEmpty()) {
-          for (Map<String, Object> map : list) {
-            locnIdList.add(((String) map.get(JsonKey.ID)));
-          }
-        }
-      }
-      if (locnIdList.contains(locId)) {
-        return locId;
-      } else {
-        return null;
-      }
-    } catch (Exception ex) {
-      ProjectLogger.log("Exception occurred while validating location id ", ex);
-    }
-    return locnId;
-  }
-
-  private String validateOrgType(String orgType) {
-    String orgTypeId = null;
-    try {
-      if (!ProjectUtil.isStringNullOREmpty(
-          (String) DataCacheHandler.getOrgTypeMap().get(orgType.toLowerCase()))) {
-        orgTypeId = DataCacheHandler.getOrgTypeMap().get(orgType.toLowerCase());
-      } else {
-        Util.DbInfo orgTypeDbInfo = Util.dbInfoMap.get(JsonKey.ORG_TYPE_DB);
-        Response response = cassandraOperation.getAllRecords(orgTypeDbInfo.getKeySpace(),
-            orgTypeDbInfo.getTableName());
-        List<Map<String, Object>> list = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
-        if (!list.isEmpty()) {
-          for (Map<String, Object> map : list) {
-            if ((((String) map.get(JsonKey.NAME)).toLowerCase())
-                .equalsIgnoreCase(orgType.toLowerCase())) {
-              orgTypeId = (String) map.get(JsonKey.ID);
-              DataCacheHandler.getOrgTypeMap().put(((String) map.get(JsonKey.NAME)).toLowerCase(),
-                  (String) map.get(JsonKey.ID));
-            }
-          }
-        }
-      }
-    } catch (Exception ex) {
-      ProjectLogger.log("Exception occurred while getting orgTypeId from OrgType", ex);
-    }
-    return orgTypeId;
-  }
-
   private Map<String, Object> elasticSearchComplexSearch(Map<String, Object> filters, String index,
       String type) {
 
@@ -867,238 +887,279 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
   }
 
 
-  @SuppressWarnings("unchecked")
   private void processUserInfo(List<Map<String, Object>> dataMapList, String processId,
       String updatedBy) {
     // update status from NEW to INProgress
     updateStatusForProcessing(processId);
-    Util.DbInfo usrDbInfo = Util.dbInfoMap.get(JsonKey.USER_DB);
     List<Map<String, Object>> failureUserReq = new ArrayList<>();
     List<Map<String, Object>> successUserReq = new ArrayList<>();
-    Map<String, Object> userMap = null;
-    for (int i = 0; i < dataMapList.size(); i++) {
-      userMap = dataMapList.get(i);
-      Map<String, Object> welcomeMailTemplateMap = new HashMap<>();
-      if (ProjectUtil.isStringNullOREmpty((String) userMap.get(JsonKey.PASSWORD))) {
-        String randomPassword = ProjectUtil.generateRandomPassword();
-        userMap.put(JsonKey.PASSWORD, randomPassword);
-        welcomeMailTemplateMap.put(JsonKey.TEMPORARY_PASSWORD, randomPassword);
-      } else {
-        welcomeMailTemplateMap.put(JsonKey.TEMPORARY_PASSWORD,
-            (String) userMap.get(JsonKey.PASSWORD));
-      }
-      String errMsg = validateUser(userMap);
-      if (errMsg.equalsIgnoreCase(JsonKey.SUCCESS)) {
-        try {
-          // this role is part of organization
-          if (null != userMap.get(JsonKey.ROLES)) {
-            String[] userRole = ((String) userMap.get(JsonKey.ROLES)).split(",");
-            List<String> list = new ArrayList<>(Arrays.asList(userRole));
-            // validating roles
-            if (null != list && !list.isEmpty()) {
-              String msg = Util.validateRoles(list);
-              if (!msg.equalsIgnoreCase(JsonKey.SUCCESS)) {
-                userMap.put(JsonKey.ERROR_MSG, msg);
-                failureUserReq.add(userMap);
-                continue;
-              }
+    List<Map<String, Object>> notifications = new ArrayList<>();
+    UserUploadIndex index = UserUploadIndex.load(dataMapList, encryptionService);
+    BulkUploadProgress progress = new BulkUploadProgress(processId, dataMapList.size());
+    for (Map<String, Object> userMap : dataMapList) {
+      processUser(userMap, updatedBy, index, notifications, successUserReq, failureUserReq);
+      progress.set(successUserReq.size(), failureUserReq.size());
+    }
+    progress.save();
+    NotificationQueue.enqueue(notifications);
+    saveResult(processId, JsonKey.USER, successUserReq, failureUserReq);
+  }
+
+  /**
+   * Marks the upload completed with its success and failure results. The results of a user upload
+   * are encrypted and its data is cleared.
+   *
+   * @param successList null for a chunked upload, whose results stay in its chunks
+   * @param failureList null for a chunked upload
+   */
+  private void saveResult(String processId, String objectType,
+      List<Map<String, Object>> successList, List<Map<String, Object>> failureList) {
+    Map<String, Object> map = new HashMap<>();
+    map.put(JsonKey.ID, processId);
+    if (null != successList) {
+      map.put(JsonKey.SUCCESS_RESULT, encryptResult(objectType, successList));
+      map.put(JsonKey.FAILURE_RESULT, encryptResult(objectType, failureList));
+    }
+    map.put(JsonKey.PROCESS_END_TIME, ProjectUtil.getFormattedDate());
+    map.put(JsonKey.STATUS, ProjectUtil.BulkProcessStatus.COMPLETED.getValue());
+    if (JsonKey.USER.equalsIgnoreCase(objectType)) {
+      map.put(JsonKey.DATA, "");
+    }
+    try {
+      cassandraOperation.updateRecord(bulkDb.getKeySpace(), bulkDb.getTableName(), map);
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "Exception Occurred while updating bulk_upload_process in BulkUploadBackGroundJobActor : ",
+          e);
+    }
+  }
+
+  private String encryptResult(String objectType, List<Map<String, Object>> resultList) {
+    String result = convertMapToJsonString(resultList);
+    if (!JsonKey.USER.equalsIgnoreCase(objectType)) {
+      return result;
+    }
+    try {
+      return UserUtility.encryptData(result);
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "Exception occurred while encrypting success and failure result in bulk upload process : ",
+          e);
+    }
+    return null;
+  }
+
+  /**
+   * Creates or updates the user of one row of the upload, adding the row to the success or to the
+   * failure list.
+   *
+   * @param index existing users of the rows being processed
+   * @param notifications gets the welcome mail or SMS of a created user, to enqueue
+   */
+  @SuppressWarnings("unchecked")
+  private void processUser(Map<String, Object> userMap, String updatedBy, UserUploadIndex index,
+      List<Map<String, Object>> notifications, List<Map<String, Object>> successUserReq,
+      List<Map<String, Object>> failureUserReq) {
+    Util.DbInfo usrDbInfo = Util.dbInfoMap.get(JsonKey.USER_DB);
+    String email = (String) userMap.get(JsonKey.EMAIL);
+    String phone = (String) userMap.get(JsonKey.PHONE);
+    Map<String, Object> welcomeMailTemplateMap = new HashMap<>();
+    if (ProjectUtil.isStringNullOREmpty((String) userMap.get(JsonKey.PASSWORD))) {
+      String randomPassword = ProjectUtil.generateRandomPassword();
+      userMap.put(JsonKey.PASSWORD, randomPassword);
+      welcomeMailTemplateMap.put(JsonKey.TEMPORARY_PASSWORD, randomPassword);
+    } else {
+      welcomeMailTemplateMap.put(JsonKey.TEMPORARY_PASSWORD,
+          (String) userMap.get(JsonKey.PASSWORD));
+    }
+    String errMsg = validateUser(userMap);
+    if (errMsg.equalsIgnoreCase(JsonKey.SUCCESS)) {
+      try {
+        // this role is part of organization
+        if (null != userMap.get(JsonKey.ROLES)) {
+          String[] userRole = ((String) userMap.get(JsonKey.ROLES)).split(",");
+          List<String> list = new ArrayList<>(Arrays.asList(userRole));
+          // validating roles
+          if (null != list && !list.isEmpty()) {
+            String msg = Util.validateRoles(list);
+            if (!msg.equalsIgnoreCase(JsonKey.SUCCESS)) {
+              userMap.put(JsonKey.ERROR_MSG, msg);
+              failureUserReq.add(userMap);
+              return;
             }
-            userMap.put(JsonKey.ROLES, list);
           }
+          userMap.put(JsonKey.ROLES, list);
+        }
 
-          if (null != userMap.get(JsonKey.GRADE)) {
-            String[] userGrade = ((String) userMap.get(JsonKey.GRADE)).split(",");
-            List<String> list = new ArrayList<>(Arrays.asList(userGrade));
-            userMap.put(JsonKey.GRADE, list);
-          }
+        if (null != userMap.get(JsonKey.GRADE)) {
+          String[] userGrade = ((String) userMap.get(JsonKey.GRADE)).split(",");
+          List<String> list = new ArrayList<>(Arrays.asList(userGrade));
+          userMap.put(JsonKey.GRADE, list);
+        }
 
-          if (null != userMap.get(JsonKey.SUBJECT)) {
-            String[] subjects = ((String) userMap.get(JsonKey.SUBJECT)).split(",");
-            List<String> list = new ArrayList<>(Arrays.asList(subjects));
-            userMap.put(JsonKey.SUBJECT, list);
-          }
+        if (null != userMap.get(JsonKey.SUBJECT)) {
+          String[] subjects = ((String) userMap.get(JsonKey.SUBJECT)).split(",");
+          List<String> list = new ArrayList<>(Arrays.asList(subjects));
+          userMap.put(JsonKey.SUBJECT, list);
+        }
 
-          if (null != userMap.get(JsonKey.LANGUAGE)) {
-            String[] languages = ((String) userMap.get(JsonKey.LANGUAGE)).split(",");
-            List<String> list = new ArrayList<>(Arrays.asList(languages));
-            userMap.put(JsonKey.LANGUAGE, list);
-          }
+        if (null != userMap.get(JsonKey.LANGUAGE)) {
+          String[] languages = ((String) userMap.get(JsonKey.LANGUAGE)).split(",");
+          List<String> list = new ArrayList<>(Arrays.asList(languages));
+          userMap.put(JsonKey.LANGUAGE, list);
+        }
 
-          if (null != userMap.get(JsonKey.WEB_PAGES)) {
-            String webPageString = (String) userMap.get(JsonKey.WEB_PAGES);
-            webPageString = webPageString.replaceAll("'", "\"");
-            List<Map<String, String>> webPages = new ArrayList<>();
-            try {
-              ObjectMapper mapper = new ObjectMapper();
-              webPages = mapper.readValue(webPageString, List.class);
-            } catch (Exception ex) {
-              ProjectLogger.log("Unable to parse Web Page Details ", ex);
-              userMap.put(JsonKey.ERROR_MSG, "Unable to parse Web Page Details ");
-              failureUserReq.add(userMap);
-              continue;
-            }
-            SocialMediaType.validateSocialMedia(webPages);
-            userMap.put(JsonKey.WEB_PAGES, webPages);
+        if (null != userMap.get(JsonKey.WEB_PAGES)) {
+          String webPageString = (String) userMap.get(JsonKey.WEB_PAGES);
+          webPageString = webPageString.replaceAll("'", "\"");
+          List<Map<String, String>> webPages = new ArrayList<>();
+          try {
+            ObjectMapper mapper = new ObjectMapper();
+            webPages = mapper.readValue(webPageString, List.class);
+          } catch (Exception ex) {
+            ProjectLogger.log("Unable to parse Web Page Details ", ex);
+            userMap.put(JsonKey.ERROR_MSG, "Unable to parse Web Page Details ");
+            failureUserReq.add(userMap);
+            return;
           }
-          // convert userName,provide,loginId,externalId.. value to lowercase
-          updateMapSomeValueTOLowerCase(userMap);
-          userMap = insertRecordToKeyCloak(userMap);
-          Map<String, Object> tempMap = new HashMap<>();
-          tempMap.putAll(userMap);
-          tempMap.remove(JsonKey.EMAIL_VERIFIED);
-          tempMap.remove(JsonKey.PHONE_VERIFIED);
-          tempMap.remove(JsonKey.POSITION);
-          tempMap.put(JsonKey.EMAIL_VERIFIED, false);
-          Response response = null;
-          if (null == tempMap.get(JsonKey.OPERATION)) {
-            // insert user record
-            // Add only PUBLIC role to user
-            List<String> list = new ArrayList<>();
-            list.add(JsonKey.PUBLIC);
-            tempMap.put(JsonKey.ROLES, list);
-            try {
-              UserUtility.encryptUserData(tempMap);
-            } catch (Exception ex) {
-              ProjectLogger.log(
-                  "Exception occurred while bulk user upload in BulkUploadBackGroundJobActor during data encryption :",
-                  ex);
-              throw new ProjectCommonException(ResponseCode.userDataEncryptionError.getErrorCode(),
-                  ResponseCode.userDataEncryptionError.getErrorMessage(),
-                  ResponseCode.SERVER_ERROR.getResponseCode());
-            }
-            tempMap.put(JsonKey.CREATED_BY, updatedBy);
-            try {
-              response = cassandraOperation.insertRecord(usrDbInfo.getKeySpace(),
-                  usrDbInfo.getTableName(), tempMap);
-            } catch (Exception ex) {
-              ProjectLogger.log(
-                  "Exception occurred while bulk user upload in BulkUploadBackGroundJobActor:", ex);
-              userMap.remove(JsonKey.ID);
-              userMap.remove(JsonKey.PASSWORD);
-              userMap.put(JsonKey.ERROR_MSG, ex.getMessage() + " ,user insertion failed.");
-              failureUserReq.add(userMap);
-              continue;
-            } finally {
-              if (null == response) {
-                ssoManager.removeUser(userMap);
-              }
-            }
-            // insert details to user_org table
-            insertRecordToUserOrgTable(userMap);
-            // send the welcome mail to user
-            welcomeMailTemplateMap.putAll(userMap);
-            // the loginid will become user id for logon purpose .
-            welcomeMailTemplateMap.put(JsonKey.USERNAME, userMap.get(JsonKey.LOGIN_ID));
-            sendOnboardingMail(welcomeMailTemplateMap);
-            sendSMS(userMap);
-            // process Audit Log
-            processAuditLog(userMap, ActorOperations.CREATE_USER.getValue(), updatedBy,
-                JsonKey.USER);
-            // generate telemetry for new user creation
-            // object of telemetry event...
-            Map<String, Object> targetObject = null;
-            List<Map<String, Object>> correlatedObject = new ArrayList<>();
-
-            targetObject = TelemetryUtil.generateTargetObject((String) userMap.get(JsonKey.ID),
-                JsonKey.USER, JsonKey.CREATE, null);
-            TelemetryUtil.telemetryProcessingCall(userMap, targetObject,
-                correlatedObject);
-          } else {
-            // update user record
-            tempMap.remove(JsonKey.OPERATION);
-            tempMap.remove(JsonKey.REGISTERED_ORG_ID);
-            tempMap.remove(JsonKey.ROOT_ORG_ID);
-            tempMap.put(JsonKey.UPDATED_BY, updatedBy);
-            tempMap.put(JsonKey.UPDATED_DATE, ProjectUtil.getFormattedDate());
-            try {
-              UserUtility.encryptUserData(tempMap);
-            } catch (Exception ex) {
-              ProjectLogger.log(
-                  "Exception occurred while bulk user upload in BulkUploadBackGroundJobActor during data encryption :",
-                  ex);
-              throw new ProjectCommonException(ResponseCode.userDataEncryptionError.getErrorCode(),
-                  ResponseCode.userDataEncryptionError.getErrorMessage(),
-                  ResponseCode.SERVER_ERROR.getResponseCode());
-            }
-            try {
-              response = cassandraOperation.updateRecord(usrDbInfo.getKeySpace(),
-                  usrDbInfo.getTableName(), tempMap);
-            } catch (Exception ex) {
-              ProjectLogger.log(
-                  "Exception occurred while bulk user upload in BulkUploadBackGroundJobActor:", ex);
-              userMap.remove(JsonKey.ID);
-              userMap.remove(JsonKey.PASSWORD);
-              userMap.put(JsonKey.ERROR_MSG, ex.getMessage() + " ,user updation failed.");
-              failureUserReq.add(userMap);
-              continue;
+          SocialMediaType.validateSocialMedia(webPages);
+          userMap.put(JsonKey.WEB_PAGES, webPages);
+        }
+        // convert userName,provide,loginId,externalId.. value to lowercase
+        updateMapSomeValueTOLowerCase(userMap);
+        userMap = insertRecordToKeyCloak(userMap, index);
+        Map<String, Object> tempMap = new HashMap<>();
+        tempMap.putAll(userMap);
+        tempMap.remove(JsonKey.EMAIL_VERIFIED);
+        tempMap.remove(JsonKey.PHONE_VERIFIED);
+        tempMap.remove(JsonKey.POSITION);
+        tempMap.put(JsonKey.EMAIL_VERIFIED, false);
+        Response response = null;
+        if (null == tempMap.get(JsonKey.OPERATION)) {
+          // insert user record
+          // Add only PUBLIC role to user
+          List<String> list = new ArrayList<>();
+          list.add(JsonKey.PUBLIC);
+          tempMap.put(JsonKey.ROLES, list);
+          try {
+            UserUtility.encryptUserData(tempMap);
+          } catch (Exception ex) {
+            ProjectLogger.log(
+                "Exception occurred while bulk user upload in BulkUploadBackGroundJobActor during data encryption :",
+                ex);
+            throw new ProjectCommonException(ResponseCode.userDataEncryptionError.getErrorCode(),
+                ResponseCode.userDataEncryptionError.getErrorMessage(),
+                ResponseCode.SERVER_ERROR.getResponseCode());
+          }
+          tempMap.put(JsonKey.CREATED_BY, updatedBy);
+          try {
+            response = cassandraOperation.insertRecord(usrDbInfo.getKeySpace(),
+                usrDbInfo.getTableName(), tempMap);
+          } catch (Exception ex) {
+            ProjectLogger.log(
+                "Exception occurred while bulk user upload in BulkUploadBackGroundJobActor:", ex);
+            userMap.remove(JsonKey.ID);
+            userMap.remove(JsonKey.PASSWORD);
+            userMap.put(JsonKey.ERROR_MSG, ex.getMessage() + " ,user insertion failed.");
+            failureUserReq.add(userMap);
+            return;
+          } finally {
+            if (null == response) {
+              ssoManager.removeUser(userMap);
             }
-            // Process Audit Log
-            processAuditLog(userMap, ActorOperations.UPDATE_USER.getValue(), updatedBy,
-                JsonKey.USER);
           }
-          // save successfully created user data
-          tempMap.putAll(userMap);
-          tempMap.remove(JsonKey.STATUS);
-          tempMap.remove(JsonKey.CREATED_DATE);
-          tempMap.remove(JsonKey.CREATED_BY);
-          tempMap.remove(JsonKey.ID);
-          tempMap.put(JsonKey.PASSWORD, "*****");
-          successUserReq.add(tempMap);
-
-          // insert details to user Ext Identity table
-          insertRecordToUserExtTable(userMap);
-          // update elastic search
-          ProjectLogger
-              .log("making a call to save user data to ES in BulkUploadBackGroundJobActor");
-          Request request = new Request();
-          request.setOperation(ActorOperations.UPDATE_USER_INFO_ELASTIC.getValue());
-          request.getRequest().put(JsonKey.ID, userMap.get(JsonKey.ID));
-          ActorUtil.tell(request);
-          // generate telemetry for update user
+          // insert details to user_org table
+          insertRecordToUserOrgTable(userMap);
+          // send the welcome mail to user
+          welcomeMailTemplateMap.putAll(userMap);
+          // the loginid will become user id for logon purpose .
+          welcomeMailTemplateMap.put(JsonKey.USERNAME, userMap.get(JsonKey.LOGIN_ID));
+          addOnboardingMail(welcomeMailTemplateMap, notifications);
+          addWelcomeSms(userMap, notifications);
+          // process Audit Log
+          processAuditLog(userMap, ActorOperations.CREATE_USER.getValue(), updatedBy,
+              JsonKey.USER);
+          // generate telemetry for new user creation
           // object of telemetry event...
           Map<String, Object> targetObject = null;
           List<Map<String, Object>> correlatedObject = new ArrayList<>();
+
           targetObject = TelemetryUtil.generateTargetObject((String) userMap.get(JsonKey.ID),
-              JsonKey.USER, JsonKey.UPDATE, null);
+              JsonKey.USER, JsonKey.CREATE, null);
           TelemetryUtil.telemetryProcessingCall(userMap, targetObject,
               correlatedObject);
-        } catch (Exception ex) {
-          ProjectLogger.log(
-              "Exception occurred while bulk user upload in BulkUploadBackGroundJobActor:", ex);
-          userMap.remove(JsonKey.ID);
-          userMap.remove(JsonKey.PASSWORD);
-          userMap.put(JsonKey.ERROR_MSG, ex.getMessage());
-          failureUserReq.add(userMap);
+        } else {
+          // update user record
+          tempMap.remove(JsonKey.OPERATION);
+          tempMap.remove(JsonKey.REGISTERED_ORG_ID);
+          tempMap.remove(JsonKey.ROOT_ORG_ID);
+          tempMap.put(JsonKey.UPDATED_BY, updatedBy);
+          tempMap.put(JsonKey.UPDATED_DATE, ProjectUtil.getFormattedDate());
+          try {
+            UserUtility.encryptUserData(tempMap);
+          } catch (Exception ex) {
+            ProjectLogger.log(
+                "Exception occurred while bulk user upload in BulkUploadBackGroundJobActor during data encryption :",
+                ex);
+            throw new ProjectCommonException(ResponseCode.userDataEncryptionError.getErrorCode(),
+                ResponseCode.userDataEncryptionError.getErrorMessage(),
+                ResponseCode.SERVER_ERROR.getResponseCode());
+          }
+          try {
+            response = cassandraOperation.updateRecord(usrDbInfo.getKeySpace(),
+                usrDbInfo.getTableName(), tempMap);
+          } catch (Exception ex) {
+            ProjectLogger.log(
+                "Exception occurred while bulk user upload in BulkUploadBackGroundJobActor:", ex);
+            userMap.remove(JsonKey.ID);
+            userMap.remove(JsonKey.PASSWORD);
+            userMap.put(JsonKey.ERROR_MSG, ex.getMessage() + " ,user updation failed.");
+            failureUserReq.add(userMap);
+            return;
+          }
+          // Process Audit Log
+          processAuditLog(userMap, ActorOperations.UPDATE_USER.getValue(), updatedBy,
+              JsonKey.USER);
         }
-      } else {
-        userMap.put(JsonKey.ERROR_MSG, errMsg);
+        index.register((String) userMap.get(JsonKey.ID), (String) userMap.get(JsonKey.LOGIN_ID),
+            email, phone);
+        // save successfully created user data
+        tempMap.putAll(userMap);
+        tempMap.remove(JsonKey.STATUS);
+        tempMap.remove(JsonKey.CREATED_DATE);
+        tempMap.remove(JsonKey.CREATED_BY);
+        tempMap.remove(JsonKey.ID);
+        tempMap.put(JsonKey.PASSWORD, "*****");
+        successUserReq.add(tempMap);
+
+        // insert details to user Ext Identity table
+        insertRecordToUserExtTable(userMap);
+        // update elastic search
+        ProjectLogger
+            .log("making a call to save user data to ES in BulkUploadBackGroundJobActor");
+        Request request = new Request();
+        request.setOperation(ActorOperations.UPDATE_USER_INFO_ELASTIC.getValue());
+        request.getRequest().put(JsonKey.ID, userMap.get(JsonKey.ID));
+        ActorUtil.tell(request);
+        // generate telemetry for update user
+        // object of telemetry event...
+        Map<String, Object> targetObject = null;
+        List<Map<String, Object>> correlatedObject = new ArrayList<>();
+        targetObject = TelemetryUtil.generateTargetObject((String) userMap.get(JsonKey.ID),
+            JsonKey.USER, JsonKey.UPDATE, null);
+        TelemetryUtil.telemetryProcessingCall(userMap, targetObject,
+            correlatedObject);
+      } catch (Exception ex) {
+        ProjectLogger.log(
+            "Exception occurred while bulk user upload in BulkUploadBackGroundJobActor:", ex);
+        userMap.remove(JsonKey.ID);
+        userMap.remove(JsonKey.PASSWORD);
+        userMap.put(JsonKey.ERROR_MSG, ex.getMessage());
         failureUserReq.add(userMap);
       }
-    }
-    // Insert record to BulkDb table
-    // After Successful completion of bulk upload process , encrypt the success and failure result
-    // and delete the user data(csv file data)
-    Map<String, Object> map = new HashMap<>();
-    map.put(JsonKey.ID, processId);
-    try {
-      map.put(JsonKey.SUCCESS_RESULT,
-          UserUtility.encryptData(convertMapToJsonString(successUserReq)));
-      map.put(JsonKey.FAILURE_RESULT,
-          UserUtility.encryptData(convertMapToJsonString(failureUserReq)));
-    } catch (Exception e1) {
-      ProjectLogger.log(
-          "Exception occurred while encrypting success and failure result in bulk upload process : ",
-          e1);
-    }
-    map.put(JsonKey.PROCESS_END_TIME, ProjectUtil.getFormattedDate());
-    map.put(JsonKey.STATUS, ProjectUtil.BulkProcessStatus.COMPLETED.getValue());
-    map.put(JsonKey.DATA, "");
-    try {
-      cassandraOperation.updateRecord(bulkDb.getKeySpace(), bulkDb.getTableName(), map);
-    } catch (Exception e) {
-      ProjectLogger.log(
-          "Exception Occurred while updating bulk_upload_process in BulkUploadBackGroundJobActor : ",
-          e);
+    } else {
+      userMap.put(JsonKey.ERROR_MSG, errMsg);
+      failureUserReq.add(userMap);
     }
   }
 
@@ -1282,7 +1343,8 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
   }
 
   @SuppressWarnings("unchecked")
-  private Map<String, Object> insertRecordToKeyCloak(Map<String, Object> userMap) {
+  private Map<String, Object> insertRecordToKeyCloak(Map<String, Object> userMap,
+      UserUploadIndex index) {
     Util.DbInfo usrDbInfo = Util.dbInfoMap.get(JsonKey.USER_DB);
     if (userMap.containsKey(JsonKey.PROVIDER)
         && !ProjectUtil.isStringNullOREmpty((String) userMap.get(JsonKey.PROVIDER))) {
@@ -1304,18 +1366,26 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
             ResponseCode.userDataEncryptionError.getErrorMessage(),
             ResponseCode.SERVER_ERROR.getResponseCode());
       }
-      Response resultFrUserName = cassandraOperation.getRecordsByProperty(usrDbInfo.getKeySpace(),
-          usrDbInfo.getTableName(), JsonKey.LOGIN_ID, loginId);
-      if (!(((List<Map<String, Object>>) resultFrUserName.get(JsonKey.RESPONSE)).isEmpty())) {
+      // the index tells whether the user exists, its record is read by id only if it does
+      Map<String, Object> map = null;
+      String existingUserId = index.getUserId((String) userMap.get(JsonKey.LOGIN_ID));
+      if (null != existingUserId) {
+        Response resultFrUserName = cassandraOperation.getRecordById(usrDbInfo.getKeySpace(),
+            usrDbInfo.getTableName(), existingUserId);
+        List<Map<String, Object>> list =
+            (List<Map<String, Object>>) resultFrUserName.get(JsonKey.RESPONSE);
+        if (!list.isEmpty() && loginId.equals(list.get(0).get(JsonKey.LOGIN_ID))) {
+          map = list.get(0);
+        }
+      }
+      if (null != map) {
         // user exist
-        Map<String, Object> map =
-            ((List<Map<String, Object>>) resultFrUserName.get(JsonKey.RESPONSE)).get(0);
         userMap.put(JsonKey.ID, map.get(JsonKey.ID));
         userMap.put(JsonKey.USER_ID, map.get(JsonKey.ID));
         userMap.put(JsonKey.OPERATION, JsonKey.UPDATE);
         if (userMap.get(JsonKey.REGISTERED_ORG_ID).equals(map.get(JsonKey.REGISTERED_ORG_ID))) {
-          checkEmailUniqueness(userMap, JsonKey.UPDATE);
-          checkPhoneUniqueness(userMap, JsonKey.UPDATE);
+          checkEmailUniqueness(userMap, index, JsonKey.UPDATE);
+          checkPhoneUniqueness(userMap, index, JsonKey.UPDATE);
           String email = "";
           try {
             email = encryptionService.encryptData((String) userMap.get(JsonKey.EMAIL));
@@ -1346,8 +1416,8 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
         try {
           String userId = "";
           userMap.put(JsonKey.BULK_USER_UPLOAD, true);
-          checkEmailUniqueness(userMap, JsonKey.CREATE);
-          checkPhoneUniqueness(userMap, JsonKey.CREATE);
+          checkEmailUniqueness(userMap, index, JsonKey.CREATE);
+          checkPhoneUniqueness(userMap, index, JsonKey.CREATE);
           Map<String, String> userKeyClaokResp = ssoManager.createUser(userMap);
           userMap.remove(JsonKey.BULK_USER_UPLOAD);
           userId = userKeyClaokResp.get(JsonKey.USER_ID);
@@ -1397,81 +1467,35 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
     return userMap;
   }
 
-  private void checkEmailUniqueness(Map<String, Object> userMap, String opType) {
+  private void checkEmailUniqueness(Map<String, Object> userMap, UserUploadIndex index,
+      String opType) {
     // Get Email configuration if not found , by default Email can be duplicate across the
     // application
-    String emailSetting = DataCacheHandler.getConfigSettings().get(JsonKey.EMAIL);
+    String emailSetting = DataCacheHandler.getConfigSetting(JsonKey.EMAIL);
     if (null != emailSetting && JsonKey.UNIQUE.equalsIgnoreCase(emailSetting)) {
       String email = (String) userMap.get(JsonKey.EMAIL);
-      if (!ProjectUtil.isStringNullOREmpty(email)) {
-        try {
-          email = encryptionService.encryptData(email);
-        } catch (Exception e) {
-          ProjectLogger.log("Exception occured while encrypting Email ", e);
-        }
-        Map<String, Object> filters = new HashMap<>();
-        filters.put(JsonKey.ENC_EMAIL, email);
-        Map<String, Object> map = new HashMap<>();
-        map.put(JsonKey.FILTERS, filters);
-        SearchDTO searchDto = Util.createSearchDto(map);
-        Map<String, Object> result = ElasticSearchUtil.complexSearch(searchDto,
-            ProjectUtil.EsIndex.sunbird.getIndexName(), ProjectUtil.EsType.user.getTypeName());
-        List<Map<String, Object>> userMapList =
-            (List<Map<String, Object>>) result.get(JsonKey.CONTENT);
-        if (!userMapList.isEmpty()) {
-          if (opType.equalsIgnoreCase(JsonKey.CREATE)) {
-            throw new ProjectCommonException(ResponseCode.emailInUse.getErrorCode(),
-                ResponseCode.emailInUse.getErrorMessage(),
-                ResponseCode.CLIENT_ERROR.getResponseCode());
-          } else {
-            Map<String, Object> user = userMapList.get(0);
-            if (!(((String) user.get(JsonKey.ID))
-                .equalsIgnoreCase((String) userMap.get(JsonKey.ID)))) {
-              throw new ProjectCommonException(ResponseCode.emailInUse.getErrorCode(),
-                  ResponseCode.emailInUse.getErrorMessage(),
-                  ResponseCode.CLIENT_ERROR.getResponseCode());
-            }
-          }
-        }
+      String userId =
+          opType.equalsIgnoreCase(JsonKey.CREATE) ? null : (String) userMap.get(JsonKey.ID);
+      if (!ProjectUtil.isStringNullOREmpty(email) && index.isEmailInUse(email, userId)) {
+        throw new ProjectCommonException(ResponseCode.emailInUse.getErrorCode(),
+            ResponseCode.emailInUse.getErrorMessage(),
+            ResponseCode.CLIENT_ERROR.getResponseCode());
       }
     }
   }
 
-  private void checkPhoneUniqueness(Map<String, Object> userMap, String opType) {
+  private void checkPhoneUniqueness(Map<String, Object> userMap, UserUploadIndex index,
+      String opType) {
     // Get Phone configuration if not found , by default phone will be unique across the application
-    String phoneSetting = DataCacheHandler.getConfigSettings().get(JsonKey.PHONE);
+    String phoneSetting = DataCacheHandler.getConfigSetting(JsonKey.PHONE);
     if (null != phoneSetting && JsonKey.UNIQUE.equalsIgnoreCase(phoneSetting)) {
       String phone = (String) userMap.get(JsonKey.PHONE);
-      if (!ProjectUtil.isStringNullOREmpty(phone)) {
-        try {
-          phone = encryptionService.encryptData(phone);
-        } catch (Exception e) {
-          ProjectLogger.log("Exception occured while encrypting phone number ", e);
-        }
-        Map<String, Object> filters = new HashMap<>();
-        filters.put(JsonKey.ENC_PHONE, phone);
-        Map<String, Object> map = new HashMap<>();
-        map.put(JsonKey.FILTERS, filters);
-        SearchDTO searchDto = Util.createSearchDto(map);
-        Map<String, Object> result = ElasticSearchUtil.complexSearch(searchDto,
-            ProjectUtil.EsIndex.sunbird.getIndexName(), ProjectUtil.EsType.user.getTypeName());
-        List<Map<String, Object>> userMapList =
-            (List<Map<String, Object>>) result.get(JsonKey.CONTENT);
-        if (!userMapList.isEmpty()) {
-          if (opType.equalsIgnoreCase(JsonKey.CREATE)) {
-            throw new ProjectCommonException(ResponseCode.PhoneNumberInUse.getErrorCode(),
-                ResponseCode.PhoneNumberInUse.getErrorMessage(),
-                ResponseCode.CLIENT_ERROR.getResponseCode());
-          } else {
-            Map<String, Object> user = userMapList.get(0);
-            if (!(((String) user.get(JsonKey.ID))
-                .equalsIgnoreCase((String) userMap.get(JsonKey.ID)))) {
-              throw new ProjectCommonException(ResponseCode.PhoneNumberInUse.getErrorCode(),
-                  ResponseCode.PhoneNumberInUse.getErrorMessage(),
-                  ResponseCode.CLIENT_ERROR.getResponseCode());
-            }
-          }
-        }
+      String userId =
+          opType.equalsIgnoreCase(JsonKey.CREATE) ? null : (String) userMap.get(JsonKey.ID);
+      if (!ProjectUtil.isStringNullOREmpty(phone) && index.isPhoneInUse(phone, userId)) {
+        throw new ProjectCommonException(ResponseCode.PhoneNumberInUse.getErrorCode(),
+            ResponseCode.PhoneNumberInUse.getErrorMessage(),
+            ResponseCode.CLIENT_ERROR.getResponseCode());
       }
     }
   }
@@ -1645,7 +1669,8 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
     ActorUtil.tell(request);
   }
 
-  private void sendOnboardingMail(Map<String, Object> emailTemplateMap) {
+  private void addOnboardingMail(Map<String, Object> emailTemplateMap,
+      List<Map<String, Object>> notifications) {
 
     if (!(ProjectUtil.isStringNullOREmpty((String) emailTemplateMap.get(JsonKey.EMAIL)))) {
 
@@ -1685,11 +1710,12 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
           ProjectUtil.formatMessage(welcomeMessage, envName));
 
       emailTemplateMap.put(JsonKey.EMAIL_TEMPLATE_TYPE, "welcome");
+      emailTemplateMap.put(JsonKey.NAME,
+          StringUtils.capitalize((String) emailTemplateMap.get(JsonKey.FIRST_NAME)));
+      emailTemplateMap.remove(JsonKey.PASSWORD);
 
-      Request request = new Request();
-      request.setOperation(ActorOperations.EMAIL_SERVICE.getValue());
-      request.put(JsonKey.EMAIL_REQUEST, emailTemplateMap);
-      ActorUtil.tell(request);
+      notifications.add(NotificationQueue.newNotification(NotificationQueue.EMAIL,
+          emailTemplateMap));
     }
   }
 
@@ -1708,7 +1734,8 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
     return false;
   }
   
-  private void sendSMS(Map<String, Object> userMap) {
+  private void addWelcomeSms(Map<String, Object> userMap,
+      List<Map<String, Object>> notifications) {
     if (ProjectUtil.isStringNullOREmpty((String) userMap.get(JsonKey.EMAIL))
         && !ProjectUtil.isStringNullOREmpty((String) userMap.get(JsonKey.PHONE))) {
       UserUtility.decryptUserData(userMap);
@@ -1734,14 +1761,11 @@ public class BulkUploadBackGroundJobActor extends UntypedAbstractActor {
       } else {
         countryCode = (String) userMap.get(JsonKey.COUNTRY_CODE);
       }
-      ISmsProvider smsProvider = SMSFactory.getInstance("91SMS");
-      boolean response = smsProvider.send((String) userMap.get(JsonKey.PHONE), countryCode, sms);
-      if (response) {
-        ProjectLogger
-            .log("Welcome Message sent successfully to ." + (String) userMap.get(JsonKey.PHONE));
-      } else {
-        ProjectLogger.log("Welcome Message failed for ." + (String) userMap.get(JsonKey.PHONE));
-      }
+      Map<String, Object> payload = new HashMap<>();
+      payload.put(JsonKey.PHONE, userMap.get(JsonKey.PHONE));
+      payload.put(JsonKey.COUNTRY_CODE, countryCode);
+      payload.put(JsonKey.BODY, sms);
+      notifications.add(NotificationQueue.newNotification(NotificationQueue.SMS, payload));
     }
   }
 }
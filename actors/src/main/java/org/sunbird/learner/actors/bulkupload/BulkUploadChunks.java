@@ -0,0 +1,183 @@
+package org.sunbird.learner.actors.bulkupload;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.Util;
+
+/**
+ * Rows of a bulk upload file, stored in fixed size chunks in the bulk_upload_chunk table with id
+ * {@code <processId>_<chunk index>}. The number of chunks is kept in the {@link #CHUNKS} column of
+ * the bulk_upload_process row, so the upload can be read back one chunk at a time. Once processed,
+ * a chunk is committed along with its results, which are then read back one chunk at a time by the
+ * upload status API.
+ */
+public final class BulkUploadChunks {
+
+  /** Column of bulk_upload_process holding the number of chunks of the upload. */
+  public static final String CHUNKS = "chunks";
+
+  private static final String KEY_SPACE = "sunbird";
+  private static final String TABLE = "bulk_upload_chunk";
+  private static final String PROCESS_ID = "process_id";
+  private static final String CHUNK_INDEX = "chunk_index";
+  private static final String SUCCESS_RESULT = "success_result";
+  private static final String FAILURE_RESULT = "failure_result";
+  private static final String COMMITTED = "committed";
+  private static final String SUCCESS_COUNT = "success_count";
+  private static final String FAILURE_COUNT = "failure_count";
+  private static final int DEFAULT_CHUNK_SIZE = 500;
+  private static final int chunkSize =
+      Util.getIntProperty("sunbird_bulk_upload_chunk_size", DEFAULT_CHUNK_SIZE);
+
+  private static CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+  private static ObjectMapper mapper = new ObjectMapper();
+
+  private BulkUploadChunks() {}
+
+  public static int getChunkSize() {
+    return chunkSize;
+  }
+
+  public static void write(String processId, int index, List<Map<String, Object>> rows)
+      throws IOException {
+    Map<String, Object> map = new HashMap<>();
+    map.put(JsonKey.ID, getId(processId, index));
+    map.put(PROCESS_ID, processId);
+    map.put(CHUNK_INDEX, index);
+    map.put(JsonKey.DATA, mapper.writeValueAsString(rows));
+    cassandraOperation.insertRecord(KEY_SPACE, TABLE, map);
+  }
+
+  /**
+   * @return rows of given chunk, empty if the chunk does not exist
+   */
+  public static List<Map<String, Object>> read(String processId, int index) throws IOException {
+    Map<String, Object> chunk = load(processId, index);
+    return null == chunk ? new ArrayList<>() : getRows(chunk);
+  }
+
+  /**
+   * @return bulk_upload_chunk row of given chunk, null if it does not exist
+   */
+  @SuppressWarnings("unchecked")
+  public static Map<String, Object> load(String processId, int index) {
+    Response response =
+        cassandraOperation.getRecordById(KEY_SPACE, TABLE, getId(processId, index));
+    List<Map<String, Object>> list = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+    return null == list || list.isEmpty() ? null : list.get(0);
+  }
+
+  public static List<Map<String, Object>> getRows(Map<String, Object> chunk) throws IOException {
+    return mapper.readValue((String) chunk.get(JsonKey.DATA),
+        new TypeReference<List<Map<String, Object>>>() {});
+  }
+
+  /**
+   * Stores the results of a processed chunk, it is then skipped if the upload is processed again.
+   *
+   * @param successResult success list as stored in bulk_upload_process
+   * @param failureResult failure list as stored in bulk_upload_process
+   * @param successCount size of the success list
+   * @param failureCount size of the failure list
+   */
+  public static void commit(String processId, int index, String successResult,
+      String failureResult, int successCount, int failureCount) {
+    Map<String, Object> map = new HashMap<>();
+    map.put(JsonKey.ID, getId(processId, index));
+    map.put(SUCCESS_RESULT, successResult);
+    map.put(FAILURE_RESULT, failureResult);
+    map.put(SUCCESS_COUNT, successCount);
+    map.put(FAILURE_COUNT, failureCount);
+    map.put(COMMITTED, true);
+    cassandraOperation.updateRecord(KEY_SPACE, TABLE, map);
+  }
+
+  public static boolean isCommitted(Map<String, Object> chunk) {
+    return Boolean.TRUE.equals(chunk.get(COMMITTED));
+  }
+
+  public static String getSuccessResult(Map<String, Object> chunk) {
+    return (String) chunk.get(SUCCESS_RESULT);
+  }
+
+  public static String getFailureResult(Map<String, Object> chunk) {
+    return (String) chunk.get(FAILURE_RESULT);
+  }
+
+  public static int getSuccessCount(Map<String, Object> chunk) {
+    Object count = chunk.get(SUCCESS_COUNT);
+    return null == count ? 0 : ((Number) count).intValue();
+  }
+
+  public static int getFailureCount(Map<String, Object> chunk) {
+    Object count = chunk.get(FAILURE_COUNT);
+    return null == count ? 0 : ((Number) count).intValue();
+  }
+
+  /**
+   * Reads the rows of an upload, from its chunks if it has some, else from the data column where
+   * they were stored as a whole before chunks were introduced.
+   *
+   * @param bulkData bulk_upload_process row
+   * @return List<Map<String, Object>>
+   */
+  public static List<Map<String, Object>> readAll(Map<String, Object> bulkData)
+      throws IOException {
+    int chunks = getChunkCount(bulkData);
+    if (chunks == 0) {
+      return mapper.readValue((String) bulkData.get(JsonKey.DATA),
+          new TypeReference<List<Map<String, Object>>>() {});
+    }
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (int i = 0; i < chunks; i++) {
+      rows.addAll(read((String) bulkData.get(JsonKey.ID), i));
+    }
+    return rows;
+  }
+
+  public static int getChunkCount(Map<String, Object> bulkData) {
+    Object chunks = bulkData.get(CHUNKS);
+    return null == chunks ? 0 : ((Number) chunks).intValue();
+  }
+
+  public static void delete(String processId, int count) {
+    for (int i = 0; i < count; i++) {
+      try {
+        cassandraOperation.deleteRecord(KEY_SPACE, TABLE, getId(processId, i));
+      } catch (Exception e) {
+        ProjectLogger.log("Bulk upload chunk delete failed for " + getId(processId, i), e);
+      }
+    }
+  }
+
+  /**
+   * Clears the rows of the chunks of a completed upload, keeping their results.
+   */
+  public static void clearRows(String processId, int count) {
+    for (int i = 0; i < count; i++) {
+      Map<String, Object> map = new HashMap<>();
+      map.put(JsonKey.ID, getId(processId, i));
+      map.put(JsonKey.DATA, "");
+      try {
+        cassandraOperation.updateRecord(KEY_SPACE, TABLE, map);
+      } catch (Exception e) {
+        ProjectLogger.log("Bulk upload chunk update failed for " + getId(processId, i), e);
+      }
+    }
+  }
+
+  private static String getId(String processId, int index) {
+    return processId + "_" + index;
+  }
+
+}
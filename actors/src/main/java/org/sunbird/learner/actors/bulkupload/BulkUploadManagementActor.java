@@ -5,15 +5,16 @@ import static org.sunbird.learner.util.Util.isNotNull;
 import akka.actor.UntypedAbstractActor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.opencsv.CSVReader;
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.FileReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.sunbird.cassandra.CassandraOperation;
 import org.sunbird.common.ElasticSearchUtil;
 import org.sunbird.common.exception.ProjectCommonException;
@@ -42,12 +43,15 @@ import org.sunbird.learner.util.Util.DbInfo;
  */
 public class BulkUploadManagementActor extends UntypedAbstractActor {
 
-  private static final String CSV_FILE_EXTENSION = ".csv";
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
   private Util.DbInfo bulkDb = Util.dbInfoMap.get(JsonKey.BULK_OP_DB);
-  private int userDataSize = 0;
-  private int orgDataSize = 0;
-  private int batchDataSize = 0;
+  private DecryptionService decryptionService =
+      org.sunbird.common.models.util.datasecurity.impl.ServiceFactory
+          .getDecryptionServiceInstance(null);
+  private ObjectMapper mapper = new ObjectMapper();
+  // paging of the upload status results, a page holding the results of one chunk
+  private static final String RESULT_PAGE = "page";
+  private static final String RESULT_PAGES = "pages";
 
   @Override
   public void onReceive(Object message) throws Throwable {
@@ -87,61 +91,168 @@ public class BulkUploadManagementActor extends UntypedAbstractActor {
     }
   }
 
+  /**
+   * Returns the status of an upload along with its progress. The results of a completed upload are
+   * returned as a whole, unless a page is requested. A page holds the results of one chunk of the
+   * upload, and can be read as soon as the chunk is processed, so large results are neither
+   * decrypted nor returned in one go.
+   */
   private void getUploadStatus(Request actorMessage) {
     String processId = (String) actorMessage.getRequest().get(JsonKey.PROCESS_ID);
-    DecryptionService decryptionService =
-        org.sunbird.common.models.util.datasecurity.impl.ServiceFactory
-            .getDecryptionServiceInstance(null);
     Response response = null;
     response =
         cassandraOperation.getRecordById(bulkDb.getKeySpace(), bulkDb.getTableName(), processId);
     @SuppressWarnings("unchecked")
     List<Map<String, Object>> resList =
         ((List<Map<String, Object>>) response.get(JsonKey.RESPONSE));
-    if (!resList.isEmpty()) {
-      Map<String, Object> resMap = resList.get(0);
-      if ((int) resMap.get(JsonKey.STATUS) == ProjectUtil.BulkProcessStatus.COMPLETED.getValue()) {
-        resMap.remove(JsonKey.STATUS);
-        resMap.remove(JsonKey.PROCESS_END_TIME);
-        resMap.remove(JsonKey.PROCESS_START_TIME);
-        resMap.remove(JsonKey.DATA);
-        resMap.remove(JsonKey.UPLOADED_BY);
-        resMap.remove(JsonKey.UPLOADED_DATE);
-        resMap.remove(JsonKey.ORGANISATION_ID);
-        resMap.put(JsonKey.PROCESS_ID, resMap.get(JsonKey.ID));
-        resMap.remove(JsonKey.ID);
-        ObjectMapper mapper = new ObjectMapper();
-        Object[] successMap = null;
-        Object[] failureMap = null;
-        try {
-          if (null != resMap.get(JsonKey.SUCCESS_RESULT)) {
-            successMap = mapper.readValue(
-                decryptionService.decryptData((String) resMap.get(JsonKey.SUCCESS_RESULT)),
-                Object[].class);
-            resMap.put(JsonKey.SUCCESS_RESULT, successMap);
-          }
-          if (null != resMap.get(JsonKey.FAILURE_RESULT)) {
-            failureMap = mapper.readValue(
-                decryptionService.decryptData((String) resMap.get(JsonKey.FAILURE_RESULT)),
-                Object[].class);
-            resMap.put(JsonKey.FAILURE_RESULT, failureMap);
+    if (resList.isEmpty()) {
+      throw new ProjectCommonException(ResponseCode.invalidProcessId.getErrorCode(),
+          ResponseCode.invalidProcessId.getErrorMessage(),
+          ResponseCode.RESOURCE_NOT_FOUND.getResponseCode());
+    }
+    Map<String, Object> resMap = resList.get(0);
+    Object page = actorMessage.getRequest().get(RESULT_PAGE);
+    if (null != page) {
+      response = new Response();
+      response.put(JsonKey.RESPONSE, Arrays.asList(getResultPage(resMap, getPage(page))));
+      sender().tell(response, self());
+    } else if ((int) resMap.get(JsonKey.STATUS) == ProjectUtil.BulkProcessStatus.COMPLETED
+        .getValue()) {
+      Map<String, Object> progress = BulkUploadProgress.getProgress(resMap);
+      int chunks = BulkUploadChunks.getChunkCount(resMap);
+      removeInternalColumns(resMap);
+      resMap.putAll(progress);
+      if (null == resMap.get(JsonKey.SUCCESS_RESULT) && chunks > 0) {
+        // results of a chunked upload stay in its chunks
+        List<Object> successList = new ArrayList<>();
+        List<Object> failureList = new ArrayList<>();
+        for (int i = 0; i < chunks; i++) {
+          Map<String, Object> chunk = BulkUploadChunks.load(processId, i);
+          if (null != chunk) {
+            addAll(successList, readResult(BulkUploadChunks.getSuccessResult(chunk)));
+            addAll(failureList, readResult(BulkUploadChunks.getFailureResult(chunk)));
           }
-        } catch (IOException e) {
-          ProjectLogger.log(e.getMessage(), e);
         }
-        sender().tell(response, self());
+        resMap.put(JsonKey.SUCCESS_RESULT, successList.toArray());
+        resMap.put(JsonKey.FAILURE_RESULT, failureList.toArray());
       } else {
-        response = new Response();
-        response.put(JsonKey.RESPONSE,
-            "Operation is still in progress, Please try after some time.");
-        sender().tell(response, self());
+        if (null != resMap.get(JsonKey.SUCCESS_RESULT)) {
+          resMap.put(JsonKey.SUCCESS_RESULT,
+              readResult((String) resMap.get(JsonKey.SUCCESS_RESULT)));
+        }
+        if (null != resMap.get(JsonKey.FAILURE_RESULT)) {
+          resMap.put(JsonKey.FAILURE_RESULT,
+              readResult((String) resMap.get(JsonKey.FAILURE_RESULT)));
+        }
       }
+      sender().tell(response, self());
     } else {
-      throw new ProjectCommonException(ResponseCode.invalidProcessId.getErrorCode(),
-          ResponseCode.invalidProcessId.getErrorMessage(),
-          ResponseCode.RESOURCE_NOT_FOUND.getResponseCode());
+      response = new Response();
+      response.put(JsonKey.RESPONSE,
+          "Operation is still in progress, Please try after some time.");
+      response.put(JsonKey.PROCESS_ID, processId);
+      response.put(JsonKey.PROGRESS, BulkUploadProgress.getProgress(resMap));
+      sender().tell(response, self());
+    }
+  }
+
+  /**
+   * @param bulkData bulk_upload_process row
+   * @param page index of the chunk whose results are read, 0 for an upload not chunked
+   * @return progress of the upload with the results of given page, without them if the page is not
+   *         processed yet
+   */
+  private Map<String, Object> getResultPage(Map<String, Object> bulkData, int page) {
+    String processId = (String) bulkData.get(JsonKey.ID);
+    Map<String, Object> result = new HashMap<>(BulkUploadProgress.getProgress(bulkData));
+    result.put(JsonKey.PROCESS_ID, processId);
+    result.put(JsonKey.OBJECT_TYPE, bulkData.get(JsonKey.OBJECT_TYPE));
+    result.put(RESULT_PAGE, page);
+    String successResult = (String) bulkData.get(JsonKey.SUCCESS_RESULT);
+    String failureResult = (String) bulkData.get(JsonKey.FAILURE_RESULT);
+    int chunks = BulkUploadChunks.getChunkCount(bulkData);
+    if (null != successResult || null != failureResult || chunks == 0) {
+      // results stored as a whole
+      result.put(RESULT_PAGES, 1);
+      if (page > 0) {
+        throw invalidPage();
+      }
+    } else {
+      result.put(RESULT_PAGES, chunks);
+      if (page >= chunks) {
+        throw invalidPage();
+      }
+      Map<String, Object> chunk = BulkUploadChunks.load(processId, page);
+      if (null != chunk && BulkUploadChunks.isCommitted(chunk)) {
+        successResult = BulkUploadChunks.getSuccessResult(chunk);
+        failureResult = BulkUploadChunks.getFailureResult(chunk);
+      }
+    }
+    if (null != successResult) {
+      result.put(JsonKey.SUCCESS_RESULT, readResult(successResult));
+    }
+    if (null != failureResult) {
+      result.put(JsonKey.FAILURE_RESULT, readResult(failureResult));
+    }
+    return result;
+  }
+
+  private int getPage(Object page) {
+    try {
+      int value = Integer.parseInt(String.valueOf(page));
+      if (value >= 0) {
+        return value;
+      }
+    } catch (NumberFormatException e) {
+      ProjectLogger.log("Invalid bulk upload result page " + page);
+    }
+    throw invalidPage();
+  }
+
+  private ProjectCommonException invalidPage() {
+    return new ProjectCommonException(ResponseCode.invalidRequestData.getErrorCode(),
+        ResponseCode.invalidRequestData.getErrorMessage(),
+        ResponseCode.CLIENT_ERROR.getResponseCode());
+  }
+
+  private void removeInternalColumns(Map<String, Object> resMap) {
+    resMap.remove(JsonKey.STATUS);
+    resMap.remove(JsonKey.PROCESS_END_TIME);
+    resMap.remove(JsonKey.PROCESS_START_TIME);
+    resMap.remove(JsonKey.DATA);
+    resMap.remove(JsonKey.UPLOADED_BY);
+    resMap.remove(JsonKey.UPLOADED_DATE);
+    resMap.remove(JsonKey.ORGANISATION_ID);
+    resMap.remove(BulkUploadChunks.CHUNKS);
+    resMap.remove(BulkUploadProgress.TOTAL_COUNT);
+    resMap.remove(BulkUploadProgress.PROCESSED_COUNT);
+    resMap.remove(BulkUploadProgress.SUCCESS_COUNT);
+    resMap.remove(BulkUploadProgress.FAILURE_COUNT);
+    resMap.remove(BulkUploadProgress.ROWS_PER_SECOND);
+    resMap.put(JsonKey.PROCESS_ID, resMap.get(JsonKey.ID));
+    resMap.remove(JsonKey.ID);
+  }
+
+  /**
+   * @param result success or failure result as stored, encrypted for a user upload
+   * @return the result list, null if it can not be read
+   */
+  private Object[] readResult(String result) {
+    if (null == result) {
+      return null;
+    }
+    try {
+      return mapper.readValue(decryptionService.decryptData(result), Object[].class);
+    } catch (IOException e) {
+      ProjectLogger.log(e.getMessage(), e);
     }
+    return null;
+  }
 
+  private static void addAll(List<Object> list, Object[] values) {
+    if (null != values) {
+      list.addAll(Arrays.asList(values));
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -159,105 +270,18 @@ public class BulkUploadManagementActor extends UntypedAbstractActor {
 
   }
 
-  private void processBulkBatchEnrollment(Map<String, Object> req, String processId) {
-    File file = new File("bulk.csv");
-    FileOutputStream fos = null;
-    try {
-      fos = new FileOutputStream(file);
-      fos.write((byte[]) req.get(JsonKey.FILE));
-    } catch (IOException e) {
-      ProjectLogger.log("Exception Occurred while reading file in BulkUploadManagementActor", e);
-    } finally {
-      try {
-        fos.close();
-      } catch (IOException e) {
-        ProjectLogger.log(
-            "Exception Occurred while closing fileInputStream in BulkUploadManagementActor", e);
-      }
-    }
-
-    List<String[]> batchList = parseCsvFile(file);
-    if (null != batchList) {
-
-      if (null != PropertiesCache.getInstance().getProperty(JsonKey.BULK_UPLOAD_BATCH_DATA_SIZE)) {
-        batchDataSize = (Integer.parseInt(
-            PropertiesCache.getInstance().getProperty(JsonKey.BULK_UPLOAD_BATCH_DATA_SIZE)));
-        ProjectLogger.log("bulk upload batch data size read from config file " + batchDataSize);
-      }
-      if (batchDataSize > 0 && batchList.size() > batchDataSize) {
-        throw new ProjectCommonException(ResponseCode.dataSizeError.getErrorCode(),
-            ProjectUtil.formatMessage(ResponseCode.dataSizeError.getErrorMessage(), batchDataSize),
-            ResponseCode.CLIENT_ERROR.getResponseCode());
-      }
-      if (!batchList.isEmpty()) {
-        String[] columns = batchList.get(0);
-        validateBatchProperty(columns);
-      } else {
-        throw new ProjectCommonException(ResponseCode.csvError.getErrorCode(),
-            ResponseCode.csvError.getErrorMessage(), ResponseCode.CLIENT_ERROR.getResponseCode());
-      }
-    } else {
-      throw new ProjectCommonException(ResponseCode.csvError.getErrorCode(),
-          ResponseCode.csvError.getErrorMessage(), ResponseCode.CLIENT_ERROR.getResponseCode());
-    }
-    // save csv file to db
-    uploadCsvToDB(batchList, processId, null, JsonKey.BATCH, (String) req.get(JsonKey.CREATED_BY),
-        null);
-
+  private void processBulkBatchEnrollment(Map<String, Object> req, String processId)
+      throws IOException {
+    int rows = ingestCsv(req, processId, getDataSize(JsonKey.BULK_UPLOAD_BATCH_DATA_SIZE),
+        this::validateBatchProperty, null);
+    saveUploadProcess(processId, rows, JsonKey.BATCH, (String) req.get(JsonKey.CREATED_BY));
   }
 
   private void processBulkOrgUpload(Map<String, Object> req, String processId) throws IOException {
-
-    File file = new File("bulk-" + processId + CSV_FILE_EXTENSION);
-    List<String[]> orgList = null;
-    FileOutputStream fos = null;
-    try {
-      fos = new FileOutputStream(file);
-      fos.write((byte[]) req.get(JsonKey.FILE));
-      orgList = parseCsvFile(file);
-    } catch (IOException e) {
-      ProjectLogger.log("Exception Occurred while reading file in BulkUploadManagementActor", e);
-      throw e;
-    } finally {
-      try {
-        if (ProjectUtil.isNotNull(fos)) {
-          fos.close();
-        }
-        if (ProjectUtil.isNotNull(file)) {
-          file.delete();
-        }
-      } catch (IOException e) {
-        ProjectLogger.log(
-            "Exception Occurred while closing fileInputStream in BulkUploadManagementActor", e);
-      }
-    }
-    if (null != orgList) {
-      if (null != PropertiesCache.getInstance().getProperty(JsonKey.BULK_UPLOAD_ORG_DATA_SIZE)) {
-        orgDataSize = (Integer.parseInt(
-            PropertiesCache.getInstance().getProperty(JsonKey.BULK_UPLOAD_ORG_DATA_SIZE)));
-        ProjectLogger.log("bulk upload org data size read from config file " + orgDataSize);
-      }
-      if (orgDataSize > 0 && orgList.size() > orgDataSize) {
-        throw new ProjectCommonException(ResponseCode.dataSizeError.getErrorCode(),
-            ProjectUtil.formatMessage(ResponseCode.dataSizeError.getErrorMessage(), orgDataSize),
-            ResponseCode.CLIENT_ERROR.getResponseCode());
-      }
-      if (!orgList.isEmpty()) {
-        String[] columns = orgList.get(0);
-        validateOrgProperty(columns);
-      } else {
-        throw new ProjectCommonException(ResponseCode.dataSizeError.getErrorCode(),
-            ProjectUtil.formatMessage(ResponseCode.dataSizeError.getErrorMessage(), orgDataSize),
-            ResponseCode.CLIENT_ERROR.getResponseCode());
-      }
-    } else {
-      throw new ProjectCommonException(ResponseCode.dataSizeError.getErrorCode(),
-          ProjectUtil.formatMessage(ResponseCode.dataSizeError.getErrorMessage(), orgDataSize),
-          ResponseCode.CLIENT_ERROR.getResponseCode());
-    }
-    // save csv file to db
-    uploadCsvToDB(orgList, processId, null, JsonKey.ORGANISATION,
-        (String) req.get(JsonKey.CREATED_BY), null);
+    int rows = ingestCsv(req, processId, getDataSize(JsonKey.BULK_UPLOAD_ORG_DATA_SIZE),
+        this::validateOrgProperty, null);
+    saveUploadProcess(processId, rows, JsonKey.ORGANISATION,
+        (String) req.get(JsonKey.CREATED_BY));
   }
 
   private void validateOrgProperty(String[] property) {
@@ -279,7 +303,8 @@ public class BulkUploadManagementActor extends UntypedAbstractActor {
   }
 
   @SuppressWarnings("unchecked")
-  private void processBulkUserUpload(Map<String, Object> req, String processId) {
+  private void processBulkUserUpload(Map<String, Object> req, String processId)
+      throws IOException {
 
     DbInfo orgDb = Util.dbInfoMap.get(JsonKey.ORG_DB);
     String orgId = "";
@@ -341,96 +366,96 @@ public class BulkUploadManagementActor extends UntypedAbstractActor {
         rootOrgId = JsonKey.DEFAULT_ROOT_ORG_ID;
       }
     }
-    // --------------------------------------------------
-    File file = new File("bulk.csv");
-    FileOutputStream fos = null;
-    try {
-      fos = new FileOutputStream(file);
-      fos.write((byte[]) req.get(JsonKey.FILE));
-    } catch (IOException e) {
-      ProjectLogger.log("Exception Occurred while reading file in BulkUploadManagementActor", e);
-    } finally {
-      try {
-        fos.close();
-      } catch (IOException e) {
-        ProjectLogger.log(
-            "Exception Occurred while closing fileInputStream in BulkUploadManagementActor", e);
-      }
-    }
-
-    List<String[]> userList = parseCsvFile(file);
-    if (null != userList) {
-      if (null != PropertiesCache.getInstance().getProperty(JsonKey.BULK_UPLOAD_USER_DATA_SIZE)) {
-        userDataSize = (Integer.parseInt(
-            PropertiesCache.getInstance().getProperty(JsonKey.BULK_UPLOAD_USER_DATA_SIZE)));
+    Map<String, Object> userFields = new HashMap<>();
+    userFields.put(JsonKey.REGISTERED_ORG_ID, orgId.trim());
+    userFields.put(JsonKey.ROOT_ORG_ID, rootOrgId.trim());
+    int rows = ingestCsv(req, processId, getDataSize(JsonKey.BULK_UPLOAD_USER_DATA_SIZE),
+        this::validateUserProperty, userFields);
+    saveUploadProcess(processId, rows, JsonKey.USER, (String) req.get(JsonKey.CREATED_BY));
+  }
 
-        ProjectLogger.log("bulk upload user data size read from config file " + userDataSize);
+  /**
+   * Reads the uploaded csv file row by row and stores the rows in chunks of
+   * {@link BulkUploadChunks#getChunkSize()} rows, so the parsed file is never held in memory as a
+   * whole. The header is validated before any row is read, the chunks already stored are removed
+   * if the file turns out to be invalid.
+   *
+   * @param req request holding the file
+   * @param processId process id of the upload
+   * @param maxSize maximum number of lines (header included), 0 for no limit
+   * @param headerValidator throws ProjectCommonException for an invalid header
+   * @param extraFields values added to every row, may be null
+   * @return number of rows stored
+   */
+  private int ingestCsv(Map<String, Object> req, String processId, int maxSize,
+      Consumer<String[]> headerValidator, Map<String, Object> extraFields) throws IOException {
+    byte[] file = (byte[]) req.remove(JsonKey.FILE);
+    if (null == file) {
+      throw csvError();
+    }
+    int chunkCount = 0;
+    int rowCount = 0;
+    try (CSVReader csvReader = new CSVReader(
+        new InputStreamReader(new ByteArrayInputStream(file), StandardCharsets.UTF_8), ',', '"',
+        0)) {
+      String[] columns = csvReader.readNext();
+      if (null == columns) {
+        throw csvError();
       }
-      if (userDataSize > 0 && userList.size() > userDataSize) {
-        throw new ProjectCommonException(ResponseCode.dataSizeError.getErrorCode(),
-            ProjectUtil.formatMessage(ResponseCode.dataSizeError.getErrorMessage(), userDataSize),
-            ResponseCode.CLIENT_ERROR.getResponseCode());
+      columns = trimColumnAttriutes(columns);
+      headerValidator.accept(columns);
+      List<Map<String, Object>> chunk = new ArrayList<>();
+      String[] values;
+      while ((values = csvReader.readNext()) != null) {
+        rowCount++;
+        if (maxSize > 0 && rowCount + 1 > maxSize) {
+          throw new ProjectCommonException(ResponseCode.dataSizeError.getErrorCode(),
+              ProjectUtil.formatMessage(ResponseCode.dataSizeError.getErrorMessage(), maxSize),
+              ResponseCode.CLIENT_ERROR.getResponseCode());
+        }
+        chunk.add(toRow(columns, values, extraFields));
+        if (chunk.size() == BulkUploadChunks.getChunkSize()) {
+          BulkUploadChunks.write(processId, chunkCount++, chunk);
+          chunk = new ArrayList<>();
+        }
       }
-      if (!userList.isEmpty()) {
-        String[] columns = userList.get(0);
-        validateUserProperty(columns);
-      } else {
-        throw new ProjectCommonException(ResponseCode.csvError.getErrorCode(),
-            ResponseCode.csvError.getErrorMessage(), ResponseCode.CLIENT_ERROR.getResponseCode());
+      if (!chunk.isEmpty()) {
+        BulkUploadChunks.write(processId, chunkCount++, chunk);
       }
-    } else {
-      throw new ProjectCommonException(ResponseCode.csvError.getErrorCode(),
-          ResponseCode.csvError.getErrorMessage(), ResponseCode.CLIENT_ERROR.getResponseCode());
+    } catch (ProjectCommonException | IOException e) {
+      BulkUploadChunks.delete(processId, chunkCount);
+      throw e;
     }
-    // save csv file to db
-    uploadCsvToDB(userList, processId, orgId, JsonKey.USER, (String) req.get(JsonKey.CREATED_BY),
-        rootOrgId);
-  }
-
-  private void uploadCsvToDB(List<String[]> dataList, String processId, String orgId,
-      String objectType, String requestedBy, String rootOrgId) {
-    List<Map<String, Object>> dataMapList = new ArrayList<>();
-    if (dataList.size() > 1) {
-      try {
-        String[] columnArr = dataList.get(0);
-        columnArr = trimColumnAttriutes(columnArr);
-        Map<String, Object> dataMap = null;
-        for (int i = 1; i < dataList.size(); i++) {
-          dataMap = new HashMap<>();
-          String[] valueArr = dataList.get(i);
-          for (int j = 0; j < valueArr.length; j++) {
-            String value = (valueArr[j].trim().length() == 0 ? null : valueArr[j].trim());
-            dataMap.put(columnArr[j], value);
-          }
-          if (!ProjectUtil.isStringNullOREmpty(objectType)
-              && objectType.equalsIgnoreCase(JsonKey.USER)) {
-            dataMap.put(JsonKey.REGISTERED_ORG_ID, orgId.trim());
-            dataMap.put(JsonKey.ROOT_ORG_ID, rootOrgId.trim());
-          }
-          dataMapList.add(dataMap);
-        }
-      } catch (Exception e) {
-        ProjectLogger.log(e.getMessage(), e);
-        throw new ProjectCommonException(ResponseCode.csvError.getErrorCode(),
-            ResponseCode.csvError.getErrorMessage(), ResponseCode.CLIENT_ERROR.getResponseCode());
-      }
-    } else {
+    if (rowCount == 0) {
       // tell sender that csv file is empty
-      throw new ProjectCommonException(ResponseCode.csvError.getErrorCode(),
-          ResponseCode.csvError.getErrorMessage(), ResponseCode.CLIENT_ERROR.getResponseCode());
+      throw csvError();
     }
-    // convert userMapList to json string
-    Map<String, Object> map = new HashMap<>();
+    return rowCount;
+  }
 
-    ObjectMapper mapper = new ObjectMapper();
-    try {
-      map.put(JsonKey.DATA, mapper.writeValueAsString(dataMapList));
-    } catch (IOException e) {
-      ProjectLogger.log(e.getMessage(), e);
+  private Map<String, Object> toRow(String[] columns, String[] values,
+      Map<String, Object> extraFields) {
+    if (values.length > columns.length) {
+      throw csvError();
     }
+    Map<String, Object> dataMap = new HashMap<>();
+    for (int j = 0; j < values.length; j++) {
+      String value = (values[j].trim().length() == 0 ? null : values[j].trim());
+      dataMap.put(columns[j], value);
+    }
+    if (null != extraFields) {
+      dataMap.putAll(extraFields);
+    }
+    return dataMap;
+  }
 
-
+  private void saveUploadProcess(String processId, int rows, String objectType,
+      String requestedBy) {
+    Map<String, Object> map = new HashMap<>();
     map.put(JsonKey.ID, processId);
+    map.put(BulkUploadChunks.CHUNKS,
+        (rows + BulkUploadChunks.getChunkSize() - 1) / BulkUploadChunks.getChunkSize());
+    map.put(BulkUploadProgress.TOTAL_COUNT, rows);
     map.put(JsonKey.OBJECT_TYPE, objectType);
     map.put(JsonKey.UPLOADED_BY, requestedBy);
     map.put(JsonKey.UPLOADED_DATE, ProjectUtil.getFormattedDate());
@@ -449,6 +474,21 @@ public class BulkUploadManagementActor extends UntypedAbstractActor {
     }
   }
 
+  private int getDataSize(String key) {
+    String size = PropertiesCache.getInstance().getProperty(key);
+    if (null == size) {
+      return 0;
+    }
+    int dataSize = Integer.parseInt(size);
+    ProjectLogger.log("bulk upload data size read from config file " + key + " " + dataSize);
+    return dataSize;
+  }
+
+  private ProjectCommonException csvError() {
+    return new ProjectCommonException(ResponseCode.csvError.getErrorCode(),
+        ResponseCode.csvError.getErrorMessage(), ResponseCode.CLIENT_ERROR.getResponseCode());
+  }
+
   private String[] trimColumnAttriutes(String[] columnArr) {
 
     for (int i = 0; i < columnArr.length; i++) {
@@ -457,36 +497,6 @@ public class BulkUploadManagementActor extends UntypedAbstractActor {
     return columnArr;
   }
 
-  private List<String[]> parseCsvFile(File file) {
-    CSVReader csvReader = null;
-    // Create List for holding objects
-    List<String[]> rows = new ArrayList<>();
-    try {
-      // Reading the csv file
-      csvReader = new CSVReader(new FileReader(file), ',', '"', 0);
-      String[] nextLine;
-      // Read one line at a time
-      while ((nextLine = csvReader.readNext()) != null) {
-        List<String> list = new ArrayList<>();
-        for (String token : nextLine) {
-          list.add(token);
-        }
-        rows.add(list.toArray(list.toArray(new String[nextLine.length])));
-      }
-    } catch (Exception e) {
-      ProjectLogger.log("Exception occured while processing csv file : ", e);
-    } finally {
-      try {
-        // closing the reader
-        csvReader.close();
-        file.delete();
-      } catch (Exception e) {
-        ProjectLogger.log("Exception occured while closing csv reader : ", e);
-      }
-    }
-    return rows;
-  }
-
   private void validateUserProperty(String[] property) {
     ArrayList<String> properties =
         new ArrayList<>(Arrays.asList(JsonKey.FIRST_NAME, JsonKey.COUNTRY_CODE, JsonKey.LAST_NAME,
@@ -0,0 +1,128 @@
+package org.sunbird.learner.actors.bulkupload;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.Util;
+
+/**
+ * Progress of a bulk upload being processed, stored in the bulk_upload_process row every
+ * sunbird_bulk_upload_progress_interval rows so the upload status API can report it before the
+ * upload is completed. The rate only counts the rows processed since the upload was (re)started.
+ */
+final class BulkUploadProgress {
+
+  /** Column of bulk_upload_process holding the number of rows of the upload. */
+  static final String TOTAL_COUNT = "total_count";
+  static final String PROCESSED_COUNT = "processed_count";
+  static final String SUCCESS_COUNT = "success_count";
+  static final String FAILURE_COUNT = "failure_count";
+  static final String ROWS_PER_SECOND = "rows_per_second";
+  private static final int DEFAULT_INTERVAL = 100;
+  private static final int interval =
+      Util.getIntProperty("sunbird_bulk_upload_progress_interval", DEFAULT_INTERVAL);
+
+  private static CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+  private static Util.DbInfo bulkDb = Util.dbInfoMap.get(JsonKey.BULK_OP_DB);
+
+  private final String processId;
+  private final int totalCount;
+  private final long startTime = System.currentTimeMillis();
+  private int successCount;
+  private int failureCount;
+  private int processedSinceStart;
+  private int processedAtLastSave;
+
+  /**
+   * @param totalCount number of rows of the upload, 0 if unknown
+   */
+  BulkUploadProgress(String processId, int totalCount) {
+    this.processId = processId;
+    this.totalCount = totalCount;
+  }
+
+  /**
+   * Counts rows processed before the upload was restarted, not taken into account in the rate.
+   */
+  synchronized void resume(int success, int failure) {
+    successCount += success;
+    failureCount += failure;
+  }
+
+  /**
+   * Counts processed rows, the progress being saved once enough rows are processed.
+   */
+  synchronized void add(int success, int failure) {
+    successCount += success;
+    failureCount += failure;
+    processedSinceStart += success + failure;
+    if (processedSinceStart - processedAtLastSave >= interval) {
+      save();
+    }
+  }
+
+  /**
+   * Sets the counts of an upload processed as a whole.
+   */
+  synchronized void set(int success, int failure) {
+    add(success - successCount, failure - failureCount);
+  }
+
+  synchronized void save() {
+    processedAtLastSave = processedSinceStart;
+    long elapsed = System.currentTimeMillis() - startTime;
+    Map<String, Object> map = new HashMap<>();
+    map.put(JsonKey.ID, processId);
+    if (totalCount > 0) {
+      map.put(TOTAL_COUNT, totalCount);
+    }
+    map.put(PROCESSED_COUNT, successCount + failureCount);
+    map.put(SUCCESS_COUNT, successCount);
+    map.put(FAILURE_COUNT, failureCount);
+    map.put(ROWS_PER_SECOND, elapsed > 0 ? processedSinceStart * 1000.0 / elapsed : 0.0);
+    try {
+      cassandraOperation.updateRecord(bulkDb.getKeySpace(), bulkDb.getTableName(), map);
+    } catch (Exception e) {
+      ProjectLogger.log("Exception occurred while saving progress of bulk upload " + processId,
+          e);
+    }
+  }
+
+  /**
+   * Reads the progress of an upload, with the estimated number of seconds left when the upload is
+   * in progress and its rate is known.
+   *
+   * @param bulkData bulk_upload_process row
+   * @return totalCount, processedCount, successCount, failureCount, rowsPerSecond and eta, each
+   *         only when known
+   */
+  static Map<String, Object> getProgress(Map<String, Object> bulkData) {
+    Map<String, Object> progress = new HashMap<>();
+    putIfNotNull(progress, "totalCount", bulkData.get(TOTAL_COUNT));
+    putIfNotNull(progress, "processedCount", bulkData.get(PROCESSED_COUNT));
+    putIfNotNull(progress, "successCount", bulkData.get(SUCCESS_COUNT));
+    putIfNotNull(progress, "failureCount", bulkData.get(FAILURE_COUNT));
+    putIfNotNull(progress, "rowsPerSecond", bulkData.get(ROWS_PER_SECOND));
+    Object total = bulkData.get(TOTAL_COUNT);
+    Object processed = bulkData.get(PROCESSED_COUNT);
+    Object rate = bulkData.get(ROWS_PER_SECOND);
+    Object status = bulkData.get(JsonKey.STATUS);
+    if (null != total && null != processed && null != rate && ((Number) rate).doubleValue() > 0
+        && !Integer.valueOf(ProjectUtil.BulkProcessStatus.COMPLETED.getValue()).equals(status)) {
+      int left = Math.max(((Number) total).intValue() - ((Number) processed).intValue(), 0);
+      progress.put("eta", (long) Math.ceil(left / ((Number) rate).doubleValue()));
+    }
+    return progress;
+  }
+
+  private static void putIfNotNull(Map<String, Object> map, String key, Object value) {
+    if (null != value) {
+      map.put(key, value);
+    }
+  }
+
+}
@@ -0,0 +1,200 @@
+package org.sunbird.learner.actors.bulkupload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.ElasticSearchUtil;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.ProjectUtil.EsIndex;
+import org.sunbird.common.models.util.ProjectUtil.EsType;
+import org.sunbird.dto.SearchDTO;
+import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.DataCacheHandler;
+import org.sunbird.learner.util.Util;
+
+/**
+ * Lookup tables used to validate the rows of an organisation bulk upload, loaded once when the
+ * upload is processed: location ids, org types, orgs already having one of the external ids of the
+ * file, root orgs of its channels and hash tag ids in use. Rows are then validated in memory, and
+ * each org written is registered so the following rows of the same file see it.
+ */
+final class OrgUploadIndex {
+
+  private static final int BATCH_SIZE = 1000;
+  private static final int MAX_RESULTS = 10000;
+  private static final List<String> ORG_FIELDS = Arrays.asList(JsonKey.ID, JsonKey.EXTERNAL_ID,
+      JsonKey.PROVIDER, JsonKey.CHANNEL, JsonKey.IS_ROOT_ORG, JsonKey.HASHTAGID);
+
+  private final Set<String> locationIds = new HashSet<>();
+  private final Map<String, String> orgTypeIds = new HashMap<>();
+  private final Map<String, Map<String, Object>> orgsByExternalId = new HashMap<>();
+  private final Map<String, Map<String, Object>> rootOrgsByChannel = new HashMap<>();
+  private final Set<String> hashTagIds = new HashSet<>();
+
+  /**
+   * Loads the lookup tables needed by given rows, with one query per table, the orgs being searched
+   * by batches of {@value #BATCH_SIZE} values.
+   *
+   * @param rows rows of the upload
+   * @return OrgUploadIndex
+   */
+  @SuppressWarnings("unchecked")
+  static OrgUploadIndex load(List<Map<String, Object>> rows) {
+    long startTime = System.currentTimeMillis();
+    OrgUploadIndex index = new OrgUploadIndex();
+    CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+    Util.DbInfo geoLocDbInfo = Util.dbInfoMap.get(JsonKey.GEO_LOCATION_DB);
+    Response response =
+        cassandraOperation.getAllRecords(geoLocDbInfo.getKeySpace(), geoLocDbInfo.getTableName());
+    for (Map<String, Object> map : (List<Map<String, Object>>) response.get(JsonKey.RESPONSE)) {
+      index.locationIds.add((String) map.get(JsonKey.ID));
+    }
+    Util.DbInfo orgTypeDbInfo = Util.dbInfoMap.get(JsonKey.ORG_TYPE_DB);
+    response =
+        cassandraOperation.getAllRecords(orgTypeDbInfo.getKeySpace(), orgTypeDbInfo.getTableName());
+    for (Map<String, Object> map : (List<Map<String, Object>>) response.get(JsonKey.RESPONSE)) {
+      index.addOrgType((String) map.get(JsonKey.NAME), (String) map.get(JsonKey.ID));
+      DataCacheHandler.putOrgType((String) map.get(JsonKey.NAME), (String) map.get(JsonKey.ID));
+    }
+
+    Set<String> externalIds = new LinkedHashSet<>();
+    Set<String> channels = new LinkedHashSet<>();
+    Set<String> hashTags = new LinkedHashSet<>();
+    for (Map<String, Object> row : rows) {
+      String externalId = (String) row.get(JsonKey.EXTERNAL_ID);
+      if (!ProjectUtil.isStringNullOREmpty(externalId)) {
+        externalIds.add(externalId.toLowerCase());
+      }
+      String channel = (String) row.get(JsonKey.CHANNEL);
+      if (!ProjectUtil.isStringNullOREmpty(channel)) {
+        channels.add(channel);
+      }
+      String hashTagId = (String) row.get(JsonKey.HASHTAGID);
+      if (!ProjectUtil.isStringNullOREmpty(hashTagId)) {
+        hashTags.add(hashTagId);
+      }
+    }
+    for (Map<String, Object> org : searchOrgs(JsonKey.EXTERNAL_ID, externalIds, false)) {
+      index.register(org);
+    }
+    for (Map<String, Object> org : searchOrgs(JsonKey.CHANNEL, channels, true)) {
+      index.register(org);
+    }
+    for (Map<String, Object> org : searchOrgs(JsonKey.HASHTAGID, hashTags, false)) {
+      index.register(org);
+    }
+    ProjectLogger.log("OrgUploadIndex loaded for " + rows.size() + " rows in "
+        + (System.currentTimeMillis() - startTime) + " ms");
+    return index;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> searchOrgs(String field, Set<String> values,
+      boolean rootOrgsOnly) {
+    List<Map<String, Object>> orgs = new ArrayList<>();
+    List<String> list = new ArrayList<>(values);
+    for (int i = 0; i < list.size(); i += BATCH_SIZE) {
+      Map<String, Object> filters = new HashMap<>();
+      filters.put(field, list.subList(i, Math.min(i + BATCH_SIZE, list.size())));
+      if (rootOrgsOnly) {
+        filters.put(JsonKey.IS_ROOT_ORG, true);
+      }
+      SearchDTO searchDTO = new SearchDTO();
+      searchDTO.getAdditionalProperties().put(JsonKey.FILTERS, filters);
+      searchDTO.setFields(ORG_FIELDS);
+      searchDTO.setLimit(MAX_RESULTS);
+      Map<String, Object> result = ElasticSearchUtil.complexSearch(searchDTO,
+          EsIndex.sunbird.getIndexName(), EsType.organisation.getTypeName());
+      if (null != result && null != result.get(JsonKey.CONTENT)) {
+        orgs.addAll((List<Map<String, Object>>) result.get(JsonKey.CONTENT));
+      }
+    }
+    return orgs;
+  }
+
+  void addOrgType(String name, String id) {
+    if (null != name) {
+      orgTypeIds.put(name.toLowerCase(), id);
+    }
+  }
+
+  /**
+   * Records an org read from ES or written by the upload.
+   *
+   * @param org org having at least its id, and its external id, provider, channel, isRootOrg and
+   *        hash tag id if set
+   */
+  void register(Map<String, Object> org) {
+    Map<String, Object> entry = new HashMap<>();
+    for (String field : ORG_FIELDS) {
+      if (null != org.get(field)) {
+        entry.put(field, org.get(field));
+      }
+    }
+    String key = getExternalIdKey((String) org.get(JsonKey.PROVIDER),
+        (String) org.get(JsonKey.EXTERNAL_ID));
+    if (null != key) {
+      orgsByExternalId.put(key, entry);
+    }
+    String channel = (String) org.get(JsonKey.CHANNEL);
+    if (isRootOrg(org) && !ProjectUtil.isStringNullOREmpty(channel)) {
+      rootOrgsByChannel.put(channel, entry);
+    }
+    String hashTagId = (String) org.get(JsonKey.HASHTAGID);
+    if (!ProjectUtil.isStringNullOREmpty(hashTagId)) {
+      hashTagIds.add(hashTagId);
+    }
+  }
+
+  boolean isLocationId(String locationId) {
+    return locationIds.contains(locationId);
+  }
+
+  /**
+   * @return id of the org type having given name, ignoring case, null if there is none
+   */
+  String getOrgTypeId(String name) {
+    return orgTypeIds.get(name.toLowerCase());
+  }
+
+  /**
+   * @return org having given provider and external id, ignoring case, null if there is none
+   */
+  Map<String, Object> getOrg(String provider, String externalId) {
+    String key = getExternalIdKey(provider, externalId);
+    return null == key ? null : orgsByExternalId.get(key);
+  }
+
+  /**
+   * @return root org of given channel, null if there is none
+   */
+  Map<String, Object> getRootOrg(String channel) {
+    return rootOrgsByChannel.get(channel);
+  }
+
+  boolean isHashTagIdUsed(String hashTagId) {
+    return hashTagIds.contains(hashTagId);
+  }
+
+  private static boolean isRootOrg(Map<String, Object> org) {
+    Object isRootOrg = org.get(JsonKey.IS_ROOT_ORG);
+    return Boolean.TRUE.equals(isRootOrg) || "true".equals(isRootOrg);
+  }
+
+  private static String getExternalIdKey(String provider, String externalId) {
+    if (ProjectUtil.isStringNullOREmpty(provider) || ProjectUtil.isStringNullOREmpty(externalId)) {
+      return null;
+    }
+    return provider.toLowerCase() + "/" + externalId.toLowerCase();
+  }
+
+}
@@ -0,0 +1,251 @@
+package org.sunbird.learner.actors.bulkupload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.sunbird.common.ElasticSearchUtil;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.ProjectUtil.EsIndex;
+import org.sunbird.common.models.util.ProjectUtil.EsType;
+import org.sunbird.common.models.util.datasecurity.EncryptionService;
+import org.sunbird.dto.SearchDTO;
+import org.sunbird.learner.util.DataCacheHandler;
+
+/**
+ * Existing users having the login ids, emails or phones of the rows of a bulk upload, resolved up
+ * front with a few terms queries instead of one lookup per row. Email and phone are only resolved
+ * when they are configured to be unique. The index is loaded once per upload and shared by the
+ * chunks processed in parallel. Each user written is registered, so duplicates within the file are
+ * detected against the rows already processed, and the rows sharing a login id, email or phone are
+ * processed one at a time (see {@link #getLock(Map)}).
+ */
+final class UserUploadIndex {
+
+  private static final int BATCH_SIZE = 1000;
+  private static final int MAX_RESULTS = 10000;
+
+  private final Map<String, String> userIdsByLoginId = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> userIdsByEmail = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> userIdsByPhone = new ConcurrentHashMap<>();
+  // lock of each login id, email or phone key (see getKeys) of rows sharing a value with another
+  private final Map<String, Object> locks = new HashMap<>();
+  private final boolean uniqueEmail;
+  private final boolean uniquePhone;
+
+  private UserUploadIndex(boolean uniqueEmail, boolean uniquePhone) {
+    this.uniqueEmail = uniqueEmail;
+    this.uniquePhone = uniquePhone;
+  }
+
+  /**
+   * @param rows rows of the upload, before their values are converted
+   * @return UserUploadIndex
+   */
+  static UserUploadIndex load(List<Map<String, Object>> rows,
+      EncryptionService encryptionService) {
+    long startTime = System.currentTimeMillis();
+    boolean uniqueEmail = JsonKey.UNIQUE.equalsIgnoreCase(
+        DataCacheHandler.getConfigSetting(JsonKey.EMAIL));
+    boolean uniquePhone = JsonKey.UNIQUE.equalsIgnoreCase(
+        DataCacheHandler.getConfigSetting(JsonKey.PHONE));
+    // encrypted value to plain value, ES holding the encrypted ones
+    Map<String, String> loginIds = new HashMap<>();
+    Map<String, String> emails = new HashMap<>();
+    Map<String, String> phones = new HashMap<>();
+    UserUploadIndex index = new UserUploadIndex(uniqueEmail, uniquePhone);
+    // keys linked by a row, so the rows sharing keys directly or through other rows are grouped
+    Map<String, String> parents = new HashMap<>();
+    Set<String> sharedKeys = new HashSet<>();
+    for (Map<String, Object> row : rows) {
+      List<String> keys = index.getKeys(row);
+      for (String key : keys) {
+        if (null != parents.putIfAbsent(key, key)) {
+          sharedKeys.add(key);
+        }
+        parents.put(getRoot(parents, key), getRoot(parents, keys.get(0)));
+      }
+      putEncrypted(loginIds, getLoginId(row), encryptionService);
+      if (uniqueEmail) {
+        putEncrypted(emails, (String) row.get(JsonKey.EMAIL), encryptionService);
+      }
+      if (uniquePhone) {
+        putEncrypted(phones, (String) row.get(JsonKey.PHONE), encryptionService);
+      }
+    }
+    Map<String, Object> rootLocks = new HashMap<>();
+    for (String key : sharedKeys) {
+      rootLocks.putIfAbsent(getRoot(parents, key), new Object());
+    }
+    for (String key : parents.keySet()) {
+      Object lock = rootLocks.get(getRoot(parents, key));
+      if (null != lock) {
+        index.locks.put(key, lock);
+      }
+    }
+    for (Map<String, Object> user : searchUsers(JsonKey.LOGIN_ID, loginIds.keySet())) {
+      index.userIdsByLoginId.put(loginIds.get(user.get(JsonKey.LOGIN_ID)),
+          (String) user.get(JsonKey.ID));
+    }
+    for (Map<String, Object> user : searchUsers(JsonKey.ENC_EMAIL, emails.keySet())) {
+      add(index.userIdsByEmail, emails.get(user.get(JsonKey.ENC_EMAIL)),
+          (String) user.get(JsonKey.ID));
+    }
+    for (Map<String, Object> user : searchUsers(JsonKey.ENC_PHONE, phones.keySet())) {
+      add(index.userIdsByPhone, phones.get(user.get(JsonKey.ENC_PHONE)),
+          (String) user.get(JsonKey.ID));
+    }
+    ProjectLogger.log("UserUploadIndex loaded for " + rows.size() + " rows in "
+        + (System.currentTimeMillis() - startTime) + " ms");
+    return index;
+  }
+
+  /**
+   * @return login id of the user of given row, its user name qualified by its provider if any
+   */
+  static String getLoginId(Map<String, Object> row) {
+    String userName = (String) row.get(JsonKey.USERNAME);
+    if (null == userName) {
+      return null;
+    }
+    String provider = (String) row.get(JsonKey.PROVIDER);
+    String loginId =
+        ProjectUtil.isStringNullOREmpty(provider) ? userName : userName + "@" + provider;
+    return loginId.toLowerCase();
+  }
+
+  private static void putEncrypted(Map<String, String> values, String value,
+      EncryptionService encryptionService) {
+    if (ProjectUtil.isStringNullOREmpty(value)) {
+      return;
+    }
+    try {
+      values.put(encryptionService.encryptData(value), value);
+    } catch (Exception e) {
+      ProjectLogger.log("Exception occurred while encrypting bulk upload user data ", e);
+    }
+  }
+
+  /**
+   * @return keys of the login id, and of the email and phone when unique, of given row
+   */
+  private List<String> getKeys(Map<String, Object> row) {
+    List<String> keys = new ArrayList<>(3);
+    String loginId = getLoginId(row);
+    if (null != loginId) {
+      keys.add(JsonKey.LOGIN_ID + ":" + loginId);
+    }
+    String email = (String) row.get(JsonKey.EMAIL);
+    if (uniqueEmail && !ProjectUtil.isStringNullOREmpty(email)) {
+      keys.add(JsonKey.EMAIL + ":" + email);
+    }
+    String phone = (String) row.get(JsonKey.PHONE);
+    if (uniquePhone && !ProjectUtil.isStringNullOREmpty(phone)) {
+      keys.add(JsonKey.PHONE + ":" + phone);
+    }
+    return keys;
+  }
+
+  private static String getRoot(Map<String, String> parents, String key) {
+    String root = key;
+    while (!root.equals(parents.get(root))) {
+      root = parents.get(root);
+    }
+    // path compression
+    while (!key.equals(root)) {
+      key = parents.put(key, root);
+    }
+    return root;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> searchUsers(String field, Set<String> values) {
+    List<Map<String, Object>> users = new ArrayList<>();
+    List<String> list = new ArrayList<>(values);
+    for (int i = 0; i < list.size(); i += BATCH_SIZE) {
+      Map<String, Object> filters = new HashMap<>();
+      filters.put(field, list.subList(i, Math.min(i + BATCH_SIZE, list.size())));
+      SearchDTO searchDTO = new SearchDTO();
+      searchDTO.getAdditionalProperties().put(JsonKey.FILTERS, filters);
+      searchDTO.setFields(Arrays.asList(JsonKey.ID, field));
+      searchDTO.setLimit(MAX_RESULTS);
+      Map<String, Object> result = ElasticSearchUtil.complexSearch(searchDTO,
+          EsIndex.sunbird.getIndexName(), EsType.user.getTypeName());
+      if (null != result && null != result.get(JsonKey.CONTENT)) {
+        users.addAll((List<Map<String, Object>>) result.get(JsonKey.CONTENT));
+      }
+    }
+    return users;
+  }
+
+  private static void add(Map<String, Set<String>> map, String key, String userId) {
+    if (null != key && null != userId) {
+      map.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(userId);
+    }
+  }
+
+  /**
+   * Records a user written by the upload.
+   */
+  void register(String userId, String loginId, String email, String phone) {
+    if (null != loginId) {
+      userIdsByLoginId.put(loginId, userId);
+    }
+    if (!ProjectUtil.isStringNullOREmpty(email)) {
+      add(userIdsByEmail, email, userId);
+    }
+    if (!ProjectUtil.isStringNullOREmpty(phone)) {
+      add(userIdsByPhone, phone, userId);
+    }
+  }
+
+  /**
+   * Returns the lock given row must be processed under, from its uniqueness checks to the
+   * registration of its user, so it sees the user written by another row of the file having the
+   * same login id, email or phone. Rows sharing values with each other share the same lock.
+   *
+   * @param row row of the upload, before its values are converted
+   * @return lock of the row, null if no other row of the file has its login id, email or phone
+   */
+  Object getLock(Map<String, Object> row) {
+    List<String> keys = getKeys(row);
+    return keys.isEmpty() ? null : locks.get(keys.get(0));
+  }
+
+  /**
+   * @return id of the user having given login id, null if there is none
+   */
+  String getUserId(String loginId) {
+    return userIdsByLoginId.get(loginId);
+  }
+
+  /**
+   * @param userId user having the email, null for a new user
+   * @return true if another user has given email
+   */
+  boolean isEmailInUse(String email, String userId) {
+    return isInUse(userIdsByEmail.get(email), userId);
+  }
+
+  /**
+   * @param userId user having the phone, null for a new user
+   * @return true if another user has given phone
+   */
+  boolean isPhoneInUse(String phone, String userId) {
+    return isInUse(userIdsByPhone.get(phone), userId);
+  }
+
+  private static boolean isInUse(Set<String> userIds, String userId) {
+    if (null == userIds || userIds.isEmpty()) {
+      return false;
+    }
+    return null == userId || userIds.size() > 1 || !userIds.contains(userId);
+  }
+
+}
@@ -0,0 +1,34 @@
+package org.sunbird.learner.actors.notificationservice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Provider which only logs and keeps the notifications it is given, used for all the types when
+ * sunbird_notification_provider is local, so an environment without mail or SMS account (or a
+ * test) can run the whole notification pipeline.
+ */
+public class LocalNotificationProvider implements NotificationProvider {
+
+  private final List<Map<String, Object>> sent = Collections.synchronizedList(new ArrayList<>());
+
+  @Override
+  public boolean send(Map<String, Object> payload) {
+    ProjectLogger.log("LocalNotificationProvider: notification delivered locally",
+        LoggerEnum.INFO.name());
+    sent.add(payload);
+    return true;
+  }
+
+  /**
+   * @return payloads of the notifications sent so far
+   */
+  public List<Map<String, Object>> getSent() {
+    return new ArrayList<>(sent);
+  }
+
+}
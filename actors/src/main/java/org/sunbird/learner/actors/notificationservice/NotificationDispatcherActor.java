@@ -0,0 +1,198 @@
+package org.sunbird.learner.actors.notificationservice;
+
+import akka.actor.UntypedAbstractActor;
+import com.google.common.util.concurrent.RateLimiter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.models.util.mail.SendMail;
+import org.sunbird.common.request.Request;
+import org.sunbird.common.responsecode.ResponseCode;
+import org.sunbird.learner.util.Util;
+import org.sunbird.notification.sms.provider.ISmsProvider;
+import org.sunbird.notification.utils.SMSFactory;
+
+/**
+ * Sends the notifications of the {@link NotificationQueue}. Each type of notification has its
+ * provider and a rate limit shared by all the dispatchers of the node, so a big bulk upload does
+ * not flood the mail or SMS gateway. A failed notification is retried by the
+ * NotificationRetryScheduler job with an exponential backoff, and marked failed after
+ * sunbird_notification_max_attempts attempts.
+ */
+public class NotificationDispatcherActor extends UntypedAbstractActor {
+
+  public static final String DISPATCH_NOTIFICATIONS = "dispatchNotifications";
+  static final String NOTIFICATION_IDS = "notificationIds";
+  private static final String LOCAL_PROVIDER = "local";
+  private static final int DEFAULT_MAX_ATTEMPTS = 5;
+  private static final int DEFAULT_RETRY_DELAY = 60000;
+  private static final int DEFAULT_EMAIL_RATE = 20;
+  private static final int DEFAULT_SMS_RATE = 10;
+  private static final int maxAttempts =
+      Util.getIntProperty("sunbird_notification_max_attempts", DEFAULT_MAX_ATTEMPTS);
+  private static final int retryDelayMs =
+      Util.getIntProperty("sunbird_notification_retry_delay_ms", DEFAULT_RETRY_DELAY);
+
+  private static Map<String, NotificationProvider> providers = new ConcurrentHashMap<>();
+  private static Map<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+  static {
+    String provider = System.getenv("sunbird_notification_provider");
+    if (ProjectUtil.isStringNullOREmpty(provider)) {
+      provider = PropertiesCache.getInstance().getProperty("sunbird_notification_provider");
+    }
+    if (LOCAL_PROVIDER.equalsIgnoreCase(provider)) {
+      LocalNotificationProvider localProvider = new LocalNotificationProvider();
+      providers.put(NotificationQueue.EMAIL, localProvider);
+      providers.put(NotificationQueue.SMS, localProvider);
+    } else {
+      providers.put(NotificationQueue.EMAIL, NotificationDispatcherActor::sendMail);
+      providers.put(NotificationQueue.SMS, NotificationDispatcherActor::sendSms);
+    }
+    rateLimiters.put(NotificationQueue.EMAIL, RateLimiter
+        .create(Util.getIntProperty("sunbird_email_rate_per_second", DEFAULT_EMAIL_RATE)));
+    rateLimiters.put(NotificationQueue.SMS, RateLimiter
+        .create(Util.getIntProperty("sunbird_sms_rate_per_second", DEFAULT_SMS_RATE)));
+  }
+
+  @Override
+  public void onReceive(Object message) throws Throwable {
+    if (message instanceof Request) {
+      try {
+        Request actorMessage = (Request) message;
+        if (DISPATCH_NOTIFICATIONS.equalsIgnoreCase(actorMessage.getOperation())) {
+          dispatch(actorMessage);
+        } else {
+          ProjectLogger.log("UNSUPPORTED OPERATION");
+          ProjectCommonException exception =
+              new ProjectCommonException(ResponseCode.invalidOperationName.getErrorCode(),
+                  ResponseCode.invalidOperationName.getErrorMessage(),
+                  ResponseCode.CLIENT_ERROR.getResponseCode());
+          sender().tell(exception, self());
+        }
+      } catch (Exception ex) {
+        ProjectLogger.log(ex.getMessage(), ex);
+      }
+    } else {
+      ProjectLogger.log("UNSUPPORTED MESSAGE");
+    }
+  }
+
+  /**
+   * Replaces the provider of a type of notification.
+   */
+  public static void setProvider(String type, NotificationProvider provider) {
+    providers.put(type, provider);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void dispatch(Request request) {
+    List<String> ids = (List<String>) request.get(NOTIFICATION_IDS);
+    int sent = 0;
+    for (String id : ids) {
+      try {
+        Map<String, Object> row = NotificationQueue.load(id);
+        // already sent, failed or being sent by another dispatcher
+        if (null == row || !Integer.valueOf(NotificationQueue.PENDING)
+            .equals(row.get(JsonKey.STATUS))) {
+          continue;
+        }
+        String type = (String) row.get(NotificationQueue.TYPE);
+        RateLimiter rateLimiter = rateLimiters.get(type);
+        if (null != rateLimiter) {
+          rateLimiter.acquire();
+        }
+        Long leaseEnd = NotificationQueue.claim(row);
+        if (null == leaseEnd) {
+          continue;
+        }
+        Map<String, Object> payload = null;
+        try {
+          payload = NotificationQueue.getPayload(row);
+        } catch (Exception e) {
+          ProjectLogger.log("Unable to read notification " + id, e);
+        }
+        Object attempts = row.get(NotificationQueue.ATTEMPTS);
+        Map<String, Object> update = deliver(providers.get(type), payload,
+            null == attempts ? 0 : ((Number) attempts).intValue(), System.currentTimeMillis());
+        NotificationQueue.update(id, leaseEnd, update);
+        if (Integer.valueOf(NotificationQueue.SENT).equals(update.get(JsonKey.STATUS))) {
+          sent++;
+        }
+      } catch (Exception e) {
+        ProjectLogger.log("Exception occurred while dispatching notification " + id, e);
+      }
+    }
+    ProjectLogger.log("NotificationDispatcherActor sent " + sent + " of " + ids.size()
+        + " notifications", LoggerEnum.INFO.name());
+  }
+
+  /**
+   * Sends one notification.
+   *
+   * @param provider provider of the type of the notification, null if there is none
+   * @param payload payload of the notification, null if it could not be read
+   * @param attempts number of attempts already made
+   * @param now current time
+   * @return status, attempts, last error and next attempt time to store for the notification, the
+   *         payload being removed once the notification is sent or failed
+   */
+  static Map<String, Object> deliver(NotificationProvider provider, Map<String, Object> payload,
+      int attempts, long now) {
+    Map<String, Object> update = new HashMap<>();
+    update.put(NotificationQueue.ATTEMPTS, attempts + 1);
+    String error;
+    try {
+      if (null == provider || null == payload) {
+        error = null == provider ? "No provider for notification" : "Unreadable payload";
+      } else if (provider.send(payload)) {
+        update.put(JsonKey.STATUS, NotificationQueue.SENT);
+        update.put(NotificationQueue.PAYLOAD, null);
+        return update;
+      } else {
+        error = "Notification not delivered by provider";
+      }
+    } catch (Exception e) {
+      error = e.getMessage();
+    }
+    update.put(NotificationQueue.LAST_ERROR, error);
+    if (attempts + 1 >= maxAttempts) {
+      update.put(JsonKey.STATUS, NotificationQueue.FAILED);
+      update.put(NotificationQueue.PAYLOAD, null);
+    } else {
+      update.put(JsonKey.STATUS, NotificationQueue.PENDING);
+      update.put(NotificationQueue.NEXT_ATTEMPT_TIME, now + getRetryDelay(attempts + 1));
+    }
+    return update;
+  }
+
+  /**
+   * @param attempts number of attempts made
+   * @return delay before the next attempt, doubled after each attempt
+   */
+  static long getRetryDelay(int attempts) {
+    return (long) retryDelayMs << Math.min(Math.max(attempts - 1, 0), 16);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static boolean sendMail(Map<String, Object> payload) {
+    List<String> recipients = (List<String>) payload.get(JsonKey.RECIPIENT_EMAILS);
+    return SendMail.sendMail(recipients.toArray(new String[recipients.size()]),
+        (String) payload.get(JsonKey.SUBJECT), ProjectUtil.getContext(payload),
+        ProjectUtil.getTemplate(payload));
+  }
+
+  private static boolean sendSms(Map<String, Object> payload) {
+    ISmsProvider smsProvider = SMSFactory.getInstance("91SMS");
+    return smsProvider.send((String) payload.get(JsonKey.PHONE),
+        (String) payload.get(JsonKey.COUNTRY_CODE), (String) payload.get(JsonKey.BODY));
+  }
+
+}
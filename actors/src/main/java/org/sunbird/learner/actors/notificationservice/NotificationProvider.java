@@ -0,0 +1,16 @@
+package org.sunbird.learner.actors.notificationservice;
+
+import java.util.Map;
+
+/**
+ * Sends the notifications of one type, like mails or SMS.
+ */
+public interface NotificationProvider {
+
+  /**
+   * @param payload payload of the notification, as enqueued
+   * @return true if the notification was delivered
+   * @throws Exception if it could not be sent, it is then retried like a failed delivery
+   */
+  boolean send(Map<String, Object> payload) throws Exception;
+}
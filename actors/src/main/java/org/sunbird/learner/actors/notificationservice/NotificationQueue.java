@@ -0,0 +1,243 @@
+package org.sunbird.learner.actors.notificationservice;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.models.util.datasecurity.DecryptionService;
+import org.sunbird.common.request.Request;
+import org.sunbird.helper.CassandraConnectionManager;
+import org.sunbird.helper.CassandraConnectionMngrFactory;
+import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.ActorUtil;
+import org.sunbird.learner.util.UserUtility;
+import org.sunbird.learner.util.Util;
+
+/**
+ * Outbound notifications (mails and SMS) waiting to be sent, stored in the notification_queue
+ * table so they survive a restart. Producers enqueue them and go on, the
+ * {@link NotificationDispatcherActor} sends them and records their delivery status. The payload
+ * is stored encrypted since it may hold a temporary password, and removed once the notification
+ * is sent or failed.
+ *
+ * <p>A dispatcher claims a notification before sending it with a conditional update of its next
+ * attempt time, which moves it sunbird_notification_lease_ms ahead: only one dispatcher wins the
+ * claim, and the notification becomes due again only if its sender dies before recording the
+ * result. The due time of each pending notification is also stored in the notification_due
+ * table, by hour, so the retry job reads the last sunbird_notification_due_lookback_hours
+ * (default 24) hours instead of scanning all the pending notifications.
+ */
+public final class NotificationQueue {
+
+  public static final String EMAIL = "email";
+  public static final String SMS = "sms";
+  public static final int PENDING = 0;
+  public static final int SENT = 1;
+  public static final int FAILED = 2;
+
+  static final String TYPE = "type";
+  static final String PAYLOAD = "payload";
+  static final String ATTEMPTS = "attempts";
+  static final String NEXT_ATTEMPT_TIME = "next_attempt_time";
+  static final String LAST_ERROR = "last_error";
+  private static final String KEY_SPACE = "sunbird";
+  private static final String TABLE = "notification_queue";
+  private static final String DUE_TABLE = "notification_due";
+  private static final long BUCKET_MS = 3600000L;
+  private static final String CREATED_DATE = "created_date";
+  private static final String UPDATED_DATE = "updated_date";
+  private static final int DEFAULT_LEASE = 1800000;
+  private static final int DEFAULT_DISPATCH_BATCH = 500;
+  private static final int DEFAULT_DUE_LOOKBACK = 24;
+  // time after which a notification not sent yet is dispatched again by the retry job
+  private static final int leaseMs =
+      Util.getIntProperty("sunbird_notification_lease_ms", DEFAULT_LEASE);
+  private static final int dispatchBatch =
+      Util.getIntProperty("sunbird_notification_dispatch_batch", DEFAULT_DISPATCH_BATCH);
+  private static final int dueLookback =
+      Util.getIntProperty("sunbird_notification_due_lookback_hours", DEFAULT_DUE_LOOKBACK);
+
+  private static CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+  private static DecryptionService decryptionService =
+      org.sunbird.common.models.util.datasecurity.impl.ServiceFactory
+          .getDecryptionServiceInstance(null);
+  private static ObjectMapper mapper = new ObjectMapper();
+  private static CassandraConnectionManager manager = CassandraConnectionMngrFactory
+      .getObject(PropertiesCache.getInstance().getProperty(JsonKey.SUNBIRD_CASSANDRA_MODE));
+  private static Session session;
+  private static PreparedStatement claimStatement;
+  private static PreparedStatement addDueStatement;
+  private static PreparedStatement removeDueStatement;
+  private static PreparedStatement dueStatement;
+
+  private NotificationQueue() {}
+
+  /**
+   * Builds a notification to enqueue.
+   *
+   * @param type {@link #EMAIL} or {@link #SMS}
+   * @param payload what the provider of the type needs to send it
+   */
+  public static Map<String, Object> newNotification(String type, Map<String, Object> payload) {
+    Map<String, Object> notification = new HashMap<>();
+    notification.put(TYPE, type);
+    notification.put(PAYLOAD, payload);
+    return notification;
+  }
+
+  /**
+   * Stores the notifications and hands them to the dispatcher, by batches.
+   *
+   * @param notifications notifications built with {@link #newNotification(String, Map)}
+   */
+  @SuppressWarnings("unchecked")
+  public static void enqueue(List<Map<String, Object>> notifications) {
+    List<String> ids = new ArrayList<>();
+    for (Map<String, Object> notification : notifications) {
+      String id = ProjectUtil.getUniqueIdFromTimestamp(1);
+      try {
+        Map<String, Object> map = new HashMap<>();
+        map.put(JsonKey.ID, id);
+        map.put(TYPE, notification.get(TYPE));
+        map.put(PAYLOAD, UserUtility.encryptData(
+            mapper.writeValueAsString((Map<String, Object>) notification.get(PAYLOAD))));
+        map.put(JsonKey.STATUS, PENDING);
+        map.put(ATTEMPTS, 0);
+        long nextAttemptTime = System.currentTimeMillis() + leaseMs;
+        map.put(NEXT_ATTEMPT_TIME, nextAttemptTime);
+        map.put(CREATED_DATE, ProjectUtil.getFormattedDate());
+        cassandraOperation.insertRecord(KEY_SPACE, TABLE, map);
+        addDue(id, nextAttemptTime);
+        ids.add(id);
+      } catch (Exception e) {
+        ProjectLogger.log("Exception occurred while enqueuing " + notification.get(TYPE)
+            + " notification ", e);
+      }
+    }
+    dispatch(ids);
+  }
+
+  /**
+   * Tells the dispatcher to send given notifications, by batches.
+   */
+  public static void dispatch(List<String> ids) {
+    for (int i = 0; i < ids.size(); i += dispatchBatch) {
+      Request request = new Request();
+      request.setOperation(NotificationDispatcherActor.DISPATCH_NOTIFICATIONS);
+      request.put(NotificationDispatcherActor.NOTIFICATION_IDS,
+          new ArrayList<>(ids.subList(i, Math.min(i + dispatchBatch, ids.size()))));
+      ActorUtil.tell(request);
+    }
+  }
+
+  /**
+   * @return notification_queue row, null if it does not exist
+   */
+  @SuppressWarnings("unchecked")
+  static Map<String, Object> load(String id) {
+    Response response = cassandraOperation.getRecordById(KEY_SPACE, TABLE, id);
+    List<Map<String, Object>> list = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+    return null == list || list.isEmpty() ? null : list.get(0);
+  }
+
+  static Map<String, Object> getPayload(Map<String, Object> row) throws Exception {
+    return mapper.readValue(decryptionService.decryptData((String) row.get(PAYLOAD)),
+        new TypeReference<Map<String, Object>>() {});
+  }
+
+  /**
+   * Claims a pending notification before sending it, its next attempt time being moved to the end
+   * of the lease if it did not change since the row was read.
+   *
+   * @param row notification_queue row read by the caller
+   * @return end of the lease, null if another dispatcher claimed the notification meanwhile
+   */
+  static Long claim(Map<String, Object> row) {
+    prepare();
+    String id = (String) row.get(JsonKey.ID);
+    Object nextAttemptTime = row.get(NEXT_ATTEMPT_TIME);
+    Long current = null == nextAttemptTime ? null : ((Number) nextAttemptTime).longValue();
+    long leaseEnd = System.currentTimeMillis() + leaseMs;
+    if (!session.execute(claimStatement.bind(leaseEnd, id, PENDING, current)).wasApplied()) {
+      return null;
+    }
+    if (null != current) {
+      removeDue(id, current);
+    }
+    addDue(id, leaseEnd);
+    return leaseEnd;
+  }
+
+  /**
+   * Records the delivery status of a notification claimed with {@link #claim(Map)}.
+   *
+   * @param leaseEnd end of the lease returned by the claim
+   * @param update status, attempts, next attempt time, last error and payload to store
+   */
+  static void update(String id, long leaseEnd, Map<String, Object> update) {
+    Map<String, Object> map = new HashMap<>(update);
+    map.put(JsonKey.ID, id);
+    map.put(UPDATED_DATE, ProjectUtil.getFormattedDate());
+    cassandraOperation.updateRecord(KEY_SPACE, TABLE, map);
+    removeDue(id, leaseEnd);
+    Object nextAttemptTime = update.get(NEXT_ATTEMPT_TIME);
+    if (Integer.valueOf(PENDING).equals(update.get(JsonKey.STATUS)) && null != nextAttemptTime) {
+      addDue(id, ((Number) nextAttemptTime).longValue());
+    }
+  }
+
+  /**
+   * @return ids of the pending notifications due for a new attempt, within the lookback hours
+   */
+  public static List<String> getDue(long now) {
+    prepare();
+    List<String> ids = new ArrayList<>();
+    long current = now / BUCKET_MS;
+    for (long bucket = current - dueLookback; bucket <= current; bucket++) {
+      for (Row row : session.execute(dueStatement.bind(bucket, now))) {
+        ids.add(row.getString(JsonKey.ID));
+      }
+    }
+    return ids;
+  }
+
+  private static void addDue(String id, long time) {
+    prepare();
+    session.execute(addDueStatement.bind(time / BUCKET_MS, time, id));
+  }
+
+  private static void removeDue(String id, long time) {
+    prepare();
+    session.execute(removeDueStatement.bind(time / BUCKET_MS, time, id));
+  }
+
+  private static synchronized void prepare() {
+    if (null != session) {
+      return;
+    }
+    Session newSession = manager.getSession(KEY_SPACE);
+    String table = KEY_SPACE + "." + TABLE;
+    String dueTable = KEY_SPACE + "." + DUE_TABLE;
+    claimStatement = newSession.prepare("UPDATE " + table + " SET " + NEXT_ATTEMPT_TIME
+        + " = ? WHERE id = ? IF status = ? AND " + NEXT_ATTEMPT_TIME + " = ?");
+    addDueStatement = newSession.prepare(
+        "INSERT INTO " + dueTable + " (bucket, next_attempt_time, id) VALUES (?, ?, ?)");
+    removeDueStatement = newSession.prepare("DELETE FROM " + dueTable
+        + " WHERE bucket = ? AND next_attempt_time = ? AND id = ?");
+    dueStatement = newSession.prepare(
+        "SELECT id FROM " + dueTable + " WHERE bucket = ? AND next_attempt_time <= ?");
+    session = newSession;
+  }
+
+}
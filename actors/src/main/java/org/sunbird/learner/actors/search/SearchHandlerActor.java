@@ -20,6 +20,7 @@ import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.dto.SearchDTO;
 import org.sunbird.learner.util.ActorUtil;
+import org.sunbird.learner.util.RequestDeadline;
 import org.sunbird.learner.util.TelemetryUtil;
 import org.sunbird.learner.util.UserUtility;
 import org.sunbird.learner.util.Util;
@@ -41,61 +42,67 @@ public class SearchHandlerActor extends UntypedAbstractActor {
     if (message instanceof Request) {
       ProjectLogger.log("CompositeSearch  onReceive called");
       Request actorMessage = (Request) message;
-      Util.initializeContext(actorMessage, JsonKey.USER);
-      //set request id fto thread loacl...
-      ExecutionContext.setRequestId(actorMessage.getRequestId());
-
-      if (actorMessage.getOperation()
-          .equalsIgnoreCase(ActorOperations.COMPOSITE_SEARCH.getValue())) {
-        Map<String, Object> searchQueryMap = actorMessage.getRequest();
-        Object objectType =
-            ((Map<String, Object>) searchQueryMap.get(JsonKey.FILTERS)).get(JsonKey.OBJECT_TYPE);
-        String[] types = null;
-        if (objectType != null && objectType instanceof List) {
-          List<String> list = (List) objectType;
-          types = list.toArray(new String[list.size()]);
-        }
-        ((Map<String, Object>) searchQueryMap.get(JsonKey.FILTERS)).remove(JsonKey.OBJECT_TYPE);
-        String filterObjectType = "";
-        for (String type : types) {
-          if (EsType.user.getTypeName().equalsIgnoreCase(type)) {
-            filterObjectType = EsType.user.getTypeName();
-            UserUtility.encryptUserSearchFilterQueryData(searchQueryMap);
+      try {
+        Util.initializeContext(actorMessage, JsonKey.USER);
+        //set request id fto thread loacl...
+        ExecutionContext.setRequestId(actorMessage.getRequestId());
+
+        if (actorMessage.getOperation()
+            .equalsIgnoreCase(ActorOperations.COMPOSITE_SEARCH.getValue())) {
+          Map<String, Object> searchQueryMap = actorMessage.getRequest();
+          Object objectType =
+              ((Map<String, Object>) searchQueryMap.get(JsonKey.FILTERS)).get(JsonKey.OBJECT_TYPE);
+          String[] types = null;
+          if (objectType != null && objectType instanceof List) {
+            List<String> list = (List) objectType;
+            types = list.toArray(new String[list.size()]);
           }
-        }
-        SearchDTO searchDto = Util.createSearchDto(searchQueryMap);
-        if (filterObjectType.equalsIgnoreCase(EsType.user.getTypeName())) {
-          searchDto.setExcludedFields(Arrays.asList(ProjectUtil.excludes));
-        }
-        Map<String, Object> result = ElasticSearchUtil.complexSearch(searchDto,
-            ProjectUtil.EsIndex.sunbird.getIndexName(), types);
-        // Decrypt the data
-        if (EsType.user.getTypeName().equalsIgnoreCase(filterObjectType)) {
-          List<Map<String, Object>> userMapList =
-              (List<Map<String, Object>>) result.get(JsonKey.CONTENT);
-          for (Map<String, Object> userMap : userMapList) {
-            UserUtility.decryptUserDataFrmES(userMap);
-            userMap.remove(JsonKey.ENC_EMAIL);
-            userMap.remove(JsonKey.ENC_PHONE);
+          ((Map<String, Object>) searchQueryMap.get(JsonKey.FILTERS)).remove(JsonKey.OBJECT_TYPE);
+          String filterObjectType = "";
+          for (String type : types) {
+            if (EsType.user.getTypeName().equalsIgnoreCase(type)) {
+              filterObjectType = EsType.user.getTypeName();
+              UserUtility.encryptUserSearchFilterQueryData(searchQueryMap);
+            }
           }
-        }
-        Response response = new Response();
-        if (result != null) {
-          response.put(JsonKey.RESPONSE, result);
+          SearchDTO searchDto = Util.createSearchDto(searchQueryMap);
+          RequestDeadline.checkDeadline(actorMessage);
+          if (filterObjectType.equalsIgnoreCase(EsType.user.getTypeName())) {
+            searchDto.setExcludedFields(Arrays.asList(ProjectUtil.excludes));
+          }
+          Map<String, Object> result = ElasticSearchUtil.complexSearch(searchDto,
+              ProjectUtil.EsIndex.sunbird.getIndexName(), types);
+          // Decrypt the data
+          if (EsType.user.getTypeName().equalsIgnoreCase(filterObjectType)) {
+            List<Map<String, Object>> userMapList =
+                (List<Map<String, Object>>) result.get(JsonKey.CONTENT);
+            for (Map<String, Object> userMap : userMapList) {
+              UserUtility.decryptUserDataFrmES(userMap);
+              userMap.remove(JsonKey.ENC_EMAIL);
+              userMap.remove(JsonKey.ENC_PHONE);
+            }
+          }
+          Response response = new Response();
+          if (result != null) {
+            response.put(JsonKey.RESPONSE, result);
+          } else {
+            result = new HashMap<>();
+            response.put(JsonKey.RESPONSE, result);
+          }
+          sender().tell(response, self());
+          // create search telemetry event here ...
+          generateSearchTelemetryEvent(searchDto , types, result);
         } else {
-          result = new HashMap<>();
-          response.put(JsonKey.RESPONSE, result);
+          ProjectLogger.log("UNSUPPORTED OPERATION");
+          ProjectCommonException exception =
+              new ProjectCommonException(ResponseCode.invalidOperationName.getErrorCode(),
+                  ResponseCode.invalidOperationName.getErrorMessage(),
+                  ResponseCode.CLIENT_ERROR.getResponseCode());
+          sender().tell(exception, self());
         }
-        sender().tell(response, self());
-        // create search telemetry event here ...
-        generateSearchTelemetryEvent(searchDto , types, result);
-      } else {
-        ProjectLogger.log("UNSUPPORTED OPERATION");
-        ProjectCommonException exception =
-            new ProjectCommonException(ResponseCode.invalidOperationName.getErrorCode(),
-                ResponseCode.invalidOperationName.getErrorMessage(),
-                ResponseCode.CLIENT_ERROR.getResponseCode());
-        sender().tell(exception, self());
+      } catch (Exception ex) {
+        ProjectLogger.log(ex.getMessage(), ex);
+        sender().tell(ex, self());
       }
     } else {
       ProjectLogger.log("UNSUPPORTED MESSAGE");
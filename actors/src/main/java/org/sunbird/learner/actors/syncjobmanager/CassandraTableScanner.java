@@ -0,0 +1,108 @@
+package org.sunbird.learner.actors.syncjobmanager;
+
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.sunbird.common.CassandraUtil;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.helper.CassandraConnectionManager;
+import org.sunbird.helper.CassandraConnectionMngrFactory;
+import org.sunbird.learner.util.Util.DbInfo;
+
+/**
+ * Reads a Cassandra table (partition key id) page by page in token order, so a whole table can be
+ * processed without loading it in memory. Each page is handed over to the {@link PageHandler}
+ * before the next one is read, along with the token of its last row which can be stored as
+ * checkpoint to resume the scan later.
+ */
+public class CassandraTableScanner {
+
+  /** Lowest token of the Murmur3 partitioner, exclusive start of the ring. */
+  public static final long MIN_TOKEN = Long.MIN_VALUE;
+  /** Highest token of the Murmur3 partitioner. */
+  public static final long MAX_TOKEN = Long.MAX_VALUE;
+
+  private static CassandraConnectionManager manager = CassandraConnectionMngrFactory
+      .getObject(PropertiesCache.getInstance().getProperty(JsonKey.SUNBIRD_CASSANDRA_MODE));
+
+  private final DbInfo dbInfo;
+  private final int pageSize;
+  private Session session;
+  private PreparedStatement pageStatement;
+  private Metadata metadata;
+
+  /**
+   * Handles one page of rows read by the scanner.
+   */
+  public interface PageHandler {
+
+    /**
+     * @param rows rows of the page, in token order
+     * @param lastToken token of the last row of the page
+     */
+    void onPage(List<Map<String, Object>> rows, long lastToken) throws Exception;
+  }
+
+  public CassandraTableScanner(DbInfo dbInfo, int pageSize) {
+    this.dbInfo = dbInfo;
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Reads all the rows having token in (startToken, endToken].
+   *
+   * @param startToken exclusive start token, last token of the previous run to resume a scan
+   * @param endToken inclusive end token
+   * @param handler PageHandler
+   * @return number of rows read
+   */
+  @SuppressWarnings("unchecked")
+  public long scan(long startToken, long endToken, PageHandler handler) throws Exception {
+    prepare();
+    long token = startToken;
+    long count = 0;
+    while (token < endToken) {
+      ResultSet resultSet = session.execute(pageStatement.bind(token, endToken));
+      Response response = CassandraUtil.createResponse(resultSet);
+      List<Map<String, Object>> rows = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+      if (null == rows || rows.isEmpty()) {
+        break;
+      }
+      long lastToken = getToken((String) rows.get(rows.size() - 1).get(JsonKey.ID));
+      handler.onPage(rows, lastToken);
+      count += rows.size();
+      if (rows.size() < pageSize) {
+        break;
+      }
+      token = lastToken;
+    }
+    return count;
+  }
+
+  // token of the partition key computed by the driver, as the cluster partitioner would
+  private long getToken(String id) {
+    return (Long) metadata.newToken(ByteBuffer.wrap(id.getBytes(StandardCharsets.UTF_8)))
+        .getValue();
+  }
+
+  private void prepare() {
+    if (null != session) {
+      return;
+    }
+    session = manager.getSession(dbInfo.getKeySpace());
+    String table = dbInfo.getKeySpace() + "." + dbInfo.getTableName();
+    pageStatement = session.prepare("SELECT * FROM " + table
+        + " WHERE token(id) > ? AND token(id) <= ? LIMIT " + pageSize);
+    metadata = session.getCluster().getMetadata();
+    ProjectLogger.log("Prepared token range scan for " + table);
+  }
+
+}
@@ -1,20 +1,26 @@
 package org.sunbird.learner.actors.syncjobmanager;
 
+import akka.actor.ActorRef;
 import akka.actor.UntypedAbstractActor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.sunbird.cassandra.CassandraOperation;
 import org.sunbird.common.ElasticSearchUtil;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.models.response.Response;
 import org.sunbird.common.models.util.ActorOperations;
 import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.models.util.PropertiesCache;
@@ -27,9 +33,11 @@ import org.sunbird.common.services.ProfileCompletenessService;
 import org.sunbird.common.services.impl.ProfileCompletenessFactory;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.actors.BackgroundJobManager;
+import org.sunbird.learner.util.ActorUtil;
 import org.sunbird.learner.util.UserUtility;
 import org.sunbird.learner.util.Util;
 import org.sunbird.learner.util.Util.DbInfo;
+import scala.concurrent.duration.Duration;
 
 /**
  * This class is used to sync the ElasticSearch and DB.
@@ -39,8 +47,33 @@ import org.sunbird.learner.util.Util.DbInfo;
  */
 public class EsSyncActor extends UntypedAbstractActor {
 
+  public static final String SYNC_STATUS = "esSyncStatus";
+  public static final String SYNC_RANGE = "esSyncRange";
+  private static final String RANGE_INDEX = "rangeIndex";
+  private static final String START_TOKEN = "startToken";
+  private static final String END_TOKEN = "endToken";
+  private static final String WORKER_ACTOR_PATHS = "sunbird_es_sync_worker_actor_paths";
+  private static final int DEFAULT_RANGE_COUNT = 16;
+  private static final int DEFAULT_MAX_RETRIES = 3;
+  private static final long RETRY_DELAY = 5000;
+  private static final int rangeCount =
+      Util.getIntProperty("sunbird_es_sync_token_ranges", DEFAULT_RANGE_COUNT);
+  private static final int maxRetries =
+      Util.getIntProperty("sunbird_es_sync_range_retries", DEFAULT_MAX_RETRIES);
+  private static final int DEFAULT_BATCH_SIZE = 500;
+  private static final int batchSize =
+      Util.getIntProperty("sunbird_es_sync_batch_size", DEFAULT_BATCH_SIZE);
+  private static final int DEFAULT_ENRICHMENT_THREADS = 16;
+  // daemon threads, the pool must not keep the JVM alive once the actor system is terminated
+  private static ExecutorService enrichmentPool = Executors.newFixedThreadPool(
+      Util.getIntProperty("sunbird_es_sync_enrichment_threads", DEFAULT_ENRICHMENT_THREADS),
+      runnable -> {
+        Thread thread = new Thread(runnable, "es-sync-enrichment");
+        thread.setDaemon(true);
+        return thread;
+      });
+
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
-  private Util.DbInfo userSkillDbInfo = Util.dbInfoMap.get(JsonKey.USER_SKILL_DB);
   private EncryptionService service =
       org.sunbird.common.models.util.datasecurity.impl.ServiceFactory
           .getEncryptionServiceInstance(null);
@@ -65,6 +98,12 @@ public class EsSyncActor extends UntypedAbstractActor {
           response.put(JsonKey.RESPONSE, JsonKey.SUCCESS);
           sender().tell(response, self());
           syncData(actorMessage);
+        } else if (requestedOperation.equalsIgnoreCase(SYNC_RANGE)) {
+          syncRange(actorMessage);
+        } else if (requestedOperation.equalsIgnoreCase(SYNC_STATUS)) {
+          Response response = new Response();
+          response.put(JsonKey.RESPONSE, getSyncStatus(actorMessage));
+          sender().tell(response, self());
         } else {
           ProjectLogger.log("UNSUPPORTED OPERATION");
           ProjectCommonException exception =
@@ -81,6 +120,8 @@ public class EsSyncActor extends UntypedAbstractActor {
         sender().tell(ex, self());
         return;
       }
+    } else if (message instanceof RangeSync) {
+      scanRange((RangeSync) message);
     } else {
       ProjectLogger.log("UNSUPPORTED MESSAGE FOR BACKGROUND JOB MANAGER");
       ProjectCommonException exception =
@@ -92,13 +133,11 @@ public class EsSyncActor extends UntypedAbstractActor {
     }
   }
 
+  @SuppressWarnings("unchecked")
   private void syncData(Request message) {
     ProjectLogger.log("DB data sync operation to elastic search started ");
     long startTime = System.currentTimeMillis();
     Map<String, Object> req = message.getRequest();
-    Map<String, Object> responseMap = new HashMap<>();
-    List<Map<String, Object>> reponseList = null;
-    List<Map<String, Object>> result = new ArrayList<>();
     Map<String, Object> dataMap = (Map<String, Object>) req.get(JsonKey.DATA);
     String objectType = (String) dataMap.get(JsonKey.OBJECT_TYPE);
     List<Object> objectIds = null;
@@ -111,50 +150,192 @@ public class EsSyncActor extends UntypedAbstractActor {
           ResponseCode.invalidObjectType.getErrorMessage(),
           ResponseCode.CLIENT_ERROR.getResponseCode());
     }
+    long count = 0;
     if (null != objectIds && !objectIds.isEmpty()) {
+      count = syncByIds(dbInfo, objectType, objectIds);
+    }
+    if (count == 0) {
+      dispatchRanges(objectType);
+      return;
+    }
+    long stopTime = System.currentTimeMillis();
+    long elapsedTime = stopTime - startTime;
+    ProjectLogger.log("total time taken to sync " + count + " db data for " + objectType
+        + " to Elastic search " + elapsedTime + " ms.");
+  }
+
+  @SuppressWarnings("unchecked")
+  private long syncByIds(DbInfo dbInfo, String objectType, List<Object> objectIds) {
+    long count = 0;
+    for (int i = 0; i < objectIds.size(); i += batchSize) {
+      List<Object> ids = new ArrayList<>(objectIds.subList(i,
+          Math.min(i + batchSize, objectIds.size())));
       ProjectLogger.log("fetching data for " + objectType + " for these ids "
-          + Arrays.toString(objectIds.toArray()) + " started");
+          + Arrays.toString(ids.toArray()) + " started");
       Response response = cassandraOperation.getRecordsByProperty(dbInfo.getKeySpace(),
-          dbInfo.getTableName(), JsonKey.ID, objectIds);
-      reponseList = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
-      ProjectLogger.log("fetching data for " + objectType + " for these ids "
-          + Arrays.toString(objectIds.toArray()) + " done");
+          dbInfo.getTableName(), JsonKey.ID, ids);
+      List<Map<String, Object>> reponseList =
+          (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+      if (null != reponseList && !reponseList.isEmpty()) {
+        indexBatch(objectType, reponseList);
+        count += reponseList.size();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Splits the full sync in token ranges and hands them over to the esSyncActor pool of the
+   * background actor system, or round robin to the background nodes listed in
+   * sunbird_es_sync_worker_actor_paths. If the previous run is unfinished only its pending ranges
+   * are dispatched again, and they resume from their checkpoint.
+   */
+  private void dispatchRanges(String objectType) {
+    Set<String> completed = SyncCheckpoint.getResumableRun(objectType, rangeCount);
+    if (null == completed) {
+      SyncCheckpoint.deleteAll(objectType);
+      completed = Collections.emptySet();
     }
-    if (null != reponseList && !reponseList.isEmpty()) {
-      for (Map<String, Object> map : reponseList) {
-        responseMap.put((String) map.get(JsonKey.ID), map);
+    List<String> workerPaths = getWorkerPaths();
+    int dispatched = 0;
+    for (SyncCheckpoint range : SyncCheckpoint.split(objectType, rangeCount)) {
+      if (completed.contains(range.getId())) {
+        continue;
       }
-    } else {
-      ProjectLogger.log("fetching all data for " + objectType + " started");
-      Response response =
-          cassandraOperation.getAllRecords(dbInfo.getKeySpace(), dbInfo.getTableName());
-      reponseList = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
-      ProjectLogger.log("fetching all data for " + objectType + " done");
-      ProjectLogger.log(
-          "total db data to sync for " + objectType + " to Elastic search " + reponseList.size());
-      if (null != reponseList) {
-        for (Map<String, Object> map : reponseList) {
-          responseMap.put((String) map.get(JsonKey.ID), map);
-        }
+      Map<String, Object> rangeMap = new HashMap<>();
+      rangeMap.put(JsonKey.OBJECT_TYPE, objectType);
+      rangeMap.put(RANGE_INDEX, range.getRangeIndex());
+      rangeMap.put(START_TOKEN, range.getStartToken());
+      rangeMap.put(END_TOKEN, range.getEndToken());
+      Request request = new Request();
+      request.setOperation(SYNC_RANGE);
+      request.setRequest(rangeMap);
+      if (workerPaths.isEmpty()) {
+        ActorUtil.tell(request);
+      } else {
+        getContext().actorSelection(workerPaths.get(dispatched % workerPaths.size()))
+            .tell(request, ActorRef.noSender());
       }
+      dispatched++;
     }
-    Iterator<Entry<String, Object>> itr = responseMap.entrySet().iterator();
-    while (itr.hasNext()) {
-      if (objectType.equals(JsonKey.USER)) {
-        result.add(getUserDetails(itr.next()));
-      } else if (objectType.equals(JsonKey.ORGANISATION)) {
-        result.add(getOrgDetails(itr.next()));
-      } else if (objectType.equals(JsonKey.BATCH) || objectType.equals(JsonKey.USER_COURSE)) {
-        result.add((Map<String, Object>) (itr.next().getValue()));
+    ProjectLogger.log("Es sync for " + objectType + " dispatched " + dispatched + " of "
+        + rangeCount + " token ranges", LoggerEnum.INFO.name());
+  }
+
+  /**
+   * Syncs one token range page by page. The next page is read only once the previous one is
+   * indexed, so at most one batch is held in memory, and every indexed page is checkpointed. A
+   * failed range is retried from its checkpoint.
+   */
+  private void syncRange(Request message) {
+    Map<String, Object> req = message.getRequest();
+    String objectType = (String) req.get(JsonKey.OBJECT_TYPE);
+    DbInfo dbInfo = getDbInfoObj(objectType);
+    SyncCheckpoint checkpoint = new SyncCheckpoint(objectType,
+        ((Number) req.get(RANGE_INDEX)).intValue(), ((Number) req.get(START_TOKEN)).longValue(),
+        ((Number) req.get(END_TOKEN)).longValue());
+    if (null == dbInfo || !checkpoint.start()) {
+      return;
+    }
+    scanRange(new RangeSync(objectType, dbInfo, checkpoint, System.currentTimeMillis(), 1));
+  }
+
+  /**
+   * Runs one attempt of a range sync. On failure the next attempt is scheduled on this actor
+   * after RETRY_DELAY times the attempt number, the actor handles other messages meanwhile.
+   */
+  private void scanRange(RangeSync range) {
+    SyncCheckpoint checkpoint = range.checkpoint;
+    CassandraTableScanner scanner = new CassandraTableScanner(range.dbInfo, batchSize);
+    try {
+      long count = scanner.scan(checkpoint.getLastToken(), checkpoint.getEndToken(),
+          (rows, lastToken) -> {
+            indexBatch(range.objectType, rows);
+            checkpoint.onProgress(rows.size(), lastToken);
+          });
+      checkpoint.complete();
+      ProjectLogger.log("Es sync of range " + checkpoint.getId() + " completed, " + count
+          + " docs in " + (System.currentTimeMillis() - range.startTime) + " ms.",
+          LoggerEnum.INFO.name());
+    } catch (Exception e) {
+      ProjectLogger.log("Es sync of range " + checkpoint.getId() + " failed at token "
+          + checkpoint.getLastToken() + " attempt " + range.attempt, e);
+      if (range.attempt >= maxRetries) {
+        checkpoint.fail(e);
+        return;
+      }
+      getContext().system().scheduler().scheduleOnce(
+          Duration.create(RETRY_DELAY * range.attempt, TimeUnit.MILLISECONDS), self(),
+          range.nextAttempt(), getContext().dispatcher(), ActorRef.noSender());
+    }
+  }
+
+  /**
+   * Range being synced by this actor, sent to itself to retry it.
+   */
+  private static final class RangeSync {
+    private final String objectType;
+    private final DbInfo dbInfo;
+    private final SyncCheckpoint checkpoint;
+    private final long startTime;
+    private final int attempt;
+
+    RangeSync(String objectType, DbInfo dbInfo, SyncCheckpoint checkpoint, long startTime,
+        int attempt) {
+      this.objectType = objectType;
+      this.dbInfo = dbInfo;
+      this.checkpoint = checkpoint;
+      this.startTime = startTime;
+      this.attempt = attempt;
+    }
+
+    RangeSync nextAttempt() {
+      return new RangeSync(objectType, dbInfo, checkpoint, startTime, attempt + 1);
+    }
+  }
+
+  private static List<String> getWorkerPaths() {
+    List<String> paths = new ArrayList<>();
+    String value = System.getenv(WORKER_ACTOR_PATHS);
+    if (ProjectUtil.isStringNullOREmpty(value)) {
+      value = PropertiesCache.getInstance().getProperty(WORKER_ACTOR_PATHS);
+    }
+    if (!ProjectUtil.isStringNullOREmpty(value) && !WORKER_ACTOR_PATHS.equals(value)) {
+      for (String path : value.split(",")) {
+        if (!ProjectUtil.isStringNullOREmpty(path.trim())) {
+          paths.add(path.trim());
+        }
       }
     }
+    return paths;
+  }
 
+  private void indexBatch(String objectType, List<Map<String, Object>> rows) {
+    List<Map<String, Object>> result = new ArrayList<>(rows.size());
+    if (objectType.equals(JsonKey.USER)) {
+      result = getUserDetails(rows);
+    } else if (objectType.equals(JsonKey.ORGANISATION)) {
+      for (Map<String, Object> map : rows) {
+        result.add(getOrgDetails(map));
+      }
+    } else if (objectType.equals(JsonKey.BATCH) || objectType.equals(JsonKey.USER_COURSE)) {
+      result.addAll(rows);
+    }
     ElasticSearchUtil.bulkInsertData(ProjectUtil.EsIndex.sunbird.getIndexName(),
         getType(objectType), result);
-    long stopTime = System.currentTimeMillis();
-    long elapsedTime = stopTime - startTime;
-    ProjectLogger.log("total time taken to sync db data for " + objectType + " to Elastic search "
-        + elapsedTime + " ms.");
+  }
+
+  private Map<String, Object> getSyncStatus(Request message) {
+    String objectType = (String) message.getRequest().get(JsonKey.OBJECT_TYPE);
+    if (!ProjectUtil.isStringNullOREmpty(objectType)) {
+      return SyncCheckpoint.getStatus(objectType);
+    }
+    Map<String, Object> statusMap = new HashMap<>();
+    for (String type : Arrays.asList(JsonKey.USER, JsonKey.ORGANISATION, JsonKey.BATCH,
+        JsonKey.USER_COURSE)) {
+      statusMap.put(type, SyncCheckpoint.getStatus(type));
+    }
+    return statusMap;
   }
 
   private String getType(String objectType) {
@@ -171,9 +352,8 @@ public class EsSyncActor extends UntypedAbstractActor {
     return type;
   }
 
-  private Map<String, Object> getOrgDetails(Entry<String, Object> entry) {
+  private Map<String, Object> getOrgDetails(Map<String, Object> orgMap) {
     ProjectLogger.log("fetching org data started");
-    Map<String, Object> orgMap = (Map<String, Object>) entry.getValue();
     orgMap.remove(JsonKey.ORG_TYPE);
     if (orgMap.containsKey(JsonKey.ADDRESS_ID)
         && !ProjectUtil.isStringNullOREmpty((String) orgMap.get(JsonKey.ADDRESS_ID))) {
@@ -184,17 +364,46 @@ public class EsSyncActor extends UntypedAbstractActor {
     return orgMap;
   }
 
-  @SuppressWarnings("unchecked")
-  private Map<String, Object> getUserDetails(Entry<String, Object> entry) {
-    String userId = entry.getKey();
-    ProjectLogger.log("fetching user data started");
-    Map<String, Object> userMap = (Map<String, Object>) entry.getValue();
-    Util.removeAttributes(userMap, Arrays.asList(JsonKey.PASSWORD, JsonKey.UPDATED_BY));
-    if (ProjectUtil.isStringNullOREmpty((String) userMap.get(JsonKey.COUNTRY_CODE))) {
-      userMap.put(JsonKey.COUNTRY_CODE,
-          PropertiesCache.getInstance().getProperty("sunbird_default_country_code"));
+  /**
+   * Builds the ES documents of a batch of users. The child rows of every user (address,
+   * education, job profile, organisations, badges and skills) are fetched concurrently, the
+   * addresses of education and job profile rows are then read with a single multi-key query, and
+   * everything is joined in memory.
+   *
+   * @param users user rows of the batch
+   * @return user documents
+   */
+  private List<Map<String, Object>> getUserDetails(List<Map<String, Object>> users) {
+    List<CompletableFuture<Map<String, List<Map<String, Object>>>>> futures =
+        new ArrayList<>(users.size());
+    for (Map<String, Object> userMap : users) {
+      futures.add(fetchUserChildren((String) userMap.get(JsonKey.ID)));
     }
-    ProjectLogger.log("fetching user address data started");
+    List<Map<String, List<Map<String, Object>>>> children = new ArrayList<>(users.size());
+    List<Object> addressIds = new ArrayList<>();
+    for (CompletableFuture<Map<String, List<Map<String, Object>>>> future : futures) {
+      Map<String, List<Map<String, Object>>> childMap = future.join();
+      children.add(childMap);
+      collectAddressIds(childMap.get(JsonKey.EDUCATION), addressIds);
+      collectAddressIds(childMap.get(JsonKey.JOB_PROFILE), addressIds);
+    }
+    Map<String, Map<String, Object>> addresses = getAddresses(addressIds);
+    List<CompletableFuture<Map<String, Object>>> userFutures = new ArrayList<>(users.size());
+    for (int i = 0; i < users.size(); i++) {
+      Map<String, Object> userMap = users.get(i);
+      Map<String, List<Map<String, Object>>> childMap = children.get(i);
+      userFutures.add(CompletableFuture.supplyAsync(
+          () -> getUserDetails(userMap, childMap, addresses), enrichmentPool));
+    }
+    List<Map<String, Object>> result = new ArrayList<>(users.size());
+    for (CompletableFuture<Map<String, Object>> future : userFutures) {
+      result.add(future.join());
+    }
+    return result;
+  }
+
+  private CompletableFuture<Map<String, List<Map<String, Object>>>> fetchUserChildren(
+      String userId) {
     String encryption = PropertiesCache.getInstance().getProperty(JsonKey.SUNBIRD_ENCRYPTION);
     String uid = userId;
     if ("ON".equalsIgnoreCase(encryption)) {
@@ -204,40 +413,89 @@ public class EsSyncActor extends UntypedAbstractActor {
         ProjectLogger.log("Exception Occurred while encrypting userId in user search api ", e);
       }
     }
-    userMap.put(JsonKey.ADDRESS,
-        getDetails(Util.dbInfoMap.get(JsonKey.ADDRESS_DB), uid, JsonKey.USER_ID));
-    ProjectLogger.log("fetching user education data started");
-    List<Map<String, Object>> eduMap =
-        getDetails(Util.dbInfoMap.get(JsonKey.EDUCATION_DB), userId, JsonKey.USER_ID);
-    for (Map<String, Object> map : eduMap) {
+    Map<String, List<Map<String, Object>>> childMap = new ConcurrentHashMap<>();
+    CompletableFuture<?>[] lookups = new CompletableFuture<?>[] {
+        fetchChild(childMap, JsonKey.ADDRESS, JsonKey.ADDRESS_DB, uid, JsonKey.USER_ID),
+        fetchChild(childMap, JsonKey.EDUCATION, JsonKey.EDUCATION_DB, userId, JsonKey.USER_ID),
+        fetchChild(childMap, JsonKey.JOB_PROFILE, JsonKey.JOB_PROFILE_DB, userId,
+            JsonKey.USER_ID),
+        fetchChild(childMap, JsonKey.ORGANISATIONS, JsonKey.USER_ORG_DB, userId,
+            JsonKey.USER_ID),
+        fetchChild(childMap, JsonKey.BADGES, JsonKey.USER_BADGES_DB, userId, JsonKey.RECEIVER_ID),
+        fetchChild(childMap, JsonKey.SKILLS, JsonKey.USER_SKILL_DB, userId, JsonKey.USER_ID)};
+    return CompletableFuture.allOf(lookups).thenApply(v -> childMap);
+  }
+
+  private CompletableFuture<Void> fetchChild(Map<String, List<Map<String, Object>>> childMap,
+      String key, String dbName, String id, String property) {
+    return CompletableFuture.runAsync(
+        () -> {
+          List<Map<String, Object>> rows = getDetails(Util.dbInfoMap.get(dbName), id, property);
+          childMap.put(key, null == rows ? new ArrayList<>() : rows);
+        }, enrichmentPool);
+  }
+
+  private void collectAddressIds(List<Map<String, Object>> rows, List<Object> addressIds) {
+    for (Map<String, Object> map : rows) {
       if (map.containsKey(JsonKey.ADDRESS_ID)
           && !ProjectUtil.isStringNullOREmpty((String) map.get(JsonKey.ADDRESS_ID))) {
-        map.put(JsonKey.ADDRESS, getDetailsById(Util.dbInfoMap.get(JsonKey.ADDRESS_DB),
-            (String) map.get(JsonKey.ADDRESS_ID)));
+        addressIds.add(map.get(JsonKey.ADDRESS_ID));
       }
     }
-    userMap.put(JsonKey.EDUCATION, eduMap);
-    ProjectLogger.log("fetching user job profile data started");
-    List<Map<String, Object>> jobMap =
-        getDetails(Util.dbInfoMap.get(JsonKey.JOB_PROFILE_DB), userId, JsonKey.USER_ID);
-    for (Map<String, Object> map : jobMap) {
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Map<String, Object>> getAddresses(List<Object> addressIds) {
+    Map<String, Map<String, Object>> addresses = new HashMap<>();
+    DbInfo addressDbInfo = Util.dbInfoMap.get(JsonKey.ADDRESS_DB);
+    for (int i = 0; i < addressIds.size(); i += batchSize) {
+      List<Object> ids =
+          new ArrayList<>(addressIds.subList(i, Math.min(i + batchSize, addressIds.size())));
+      try {
+        Response response = cassandraOperation.getRecordsByProperty(addressDbInfo.getKeySpace(),
+            addressDbInfo.getTableName(), JsonKey.ID, ids);
+        for (Map<String, Object> address : (List<Map<String, Object>>) response
+            .get(JsonKey.RESPONSE)) {
+          addresses.put((String) address.get(JsonKey.ID), address);
+        }
+      } catch (Exception ex) {
+        ProjectLogger.log(ex.getMessage(), ex);
+      }
+    }
+    return addresses;
+  }
+
+  private void addAddress(List<Map<String, Object>> rows,
+      Map<String, Map<String, Object>> addresses) {
+    for (Map<String, Object> map : rows) {
       if (map.containsKey(JsonKey.ADDRESS_ID)
           && !ProjectUtil.isStringNullOREmpty((String) map.get(JsonKey.ADDRESS_ID))) {
-        map.put(JsonKey.ADDRESS, getDetailsById(Util.dbInfoMap.get(JsonKey.ADDRESS_DB),
-            (String) map.get(JsonKey.ADDRESS_ID)));
+        Map<String, Object> address = addresses.get(map.get(JsonKey.ADDRESS_ID));
+        map.put(JsonKey.ADDRESS, null == address ? new HashMap<>() : address);
       }
     }
-    userMap.put(JsonKey.JOB_PROFILE, jobMap);
-    ProjectLogger.log("fetching user orga data started");
-    List<Map<String, Object>> orgMap =
-        getDetails(Util.dbInfoMap.get(JsonKey.USER_ORG_DB), userId, JsonKey.USER_ID);
-    userMap.put(JsonKey.ORGANISATIONS, orgMap);
+  }
 
-    ProjectLogger.log("fetching user Badge data  started");
-    List<Map<String, Object>> badgesMap =
-        getDetails(Util.dbInfoMap.get(JsonKey.USER_BADGES_DB), userId, JsonKey.RECEIVER_ID);
-    badgesMap = BackgroundJobManager.removeDataFromMap(badgesMap);
-    userMap.put(JsonKey.BADGES, badgesMap);
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> getUserDetails(Map<String, Object> userMap,
+      Map<String, List<Map<String, Object>>> childMap,
+      Map<String, Map<String, Object>> addresses) {
+    String userId = (String) userMap.get(JsonKey.ID);
+    Util.removeAttributes(userMap, Arrays.asList(JsonKey.PASSWORD, JsonKey.UPDATED_BY));
+    if (ProjectUtil.isStringNullOREmpty((String) userMap.get(JsonKey.COUNTRY_CODE))) {
+      userMap.put(JsonKey.COUNTRY_CODE,
+          PropertiesCache.getInstance().getProperty("sunbird_default_country_code"));
+    }
+    userMap.put(JsonKey.ADDRESS, childMap.get(JsonKey.ADDRESS));
+    List<Map<String, Object>> eduMap = childMap.get(JsonKey.EDUCATION);
+    addAddress(eduMap, addresses);
+    userMap.put(JsonKey.EDUCATION, eduMap);
+    List<Map<String, Object>> jobMap = childMap.get(JsonKey.JOB_PROFILE);
+    addAddress(jobMap, addresses);
+    userMap.put(JsonKey.JOB_PROFILE, jobMap);
+    userMap.put(JsonKey.ORGANISATIONS, childMap.get(JsonKey.ORGANISATIONS));
+    userMap.put(JsonKey.BADGES,
+        BackgroundJobManager.removeDataFromMap(childMap.get(JsonKey.BADGES)));
 
     // save masked email and phone number
     String phone = (String) userMap.get(JsonKey.PHONE);
@@ -251,11 +509,7 @@ public class EsSyncActor extends UntypedAbstractActor {
       userMap.put(JsonKey.EMAIL, maskingService.maskEmail(decService.decryptData(email)));
     }
     // add the skills column into ES
-    Response skillresponse = cassandraOperation.getRecordsByProperty(userSkillDbInfo.getKeySpace(),
-        userSkillDbInfo.getTableName(), JsonKey.USER_ID, userId);
-    List<Map<String, Object>> responseList =
-        (List<Map<String, Object>>) skillresponse.get(JsonKey.RESPONSE);
-    userMap.put(JsonKey.SKILLS, responseList);
+    userMap.put(JsonKey.SKILLS, childMap.get(JsonKey.SKILLS));
     // compute profile completeness and error field.
     ProfileCompletenessService profileService = ProfileCompletenessFactory.getInstance();
     Map<String, Object> profileResponse = profileService.computeProfile(userMap);
@@ -273,12 +527,9 @@ public class EsSyncActor extends UntypedAbstractActor {
     } else {
       userMap.put(JsonKey.PROFILE_VISIBILITY, new HashMap<String, String>());
     }
-    ProjectLogger.log("fetching user data completed");
     return userMap;
   }
 
-
-
   private Map<String, Object> getDetailsById(DbInfo dbInfo, String userId) {
     try {
       Response response =
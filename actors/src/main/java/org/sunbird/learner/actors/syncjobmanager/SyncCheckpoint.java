@@ -0,0 +1,284 @@
+package org.sunbird.learner.actors.syncjobmanager;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.helper.ServiceFactory;
+
+/**
+ * Progress of the full sync of one token range of an object type, stored in the es_sync_status
+ * table so a failed or interrupted sync resumes from the last indexed page and the status can be
+ * read from any node.
+ */
+public class SyncCheckpoint {
+
+  public static final String RUNNING = "RUNNING";
+  public static final String COMPLETED = "COMPLETED";
+  public static final String FAILED = "FAILED";
+
+  private static final String KEY_SPACE = "sunbird";
+  private static final String TABLE = "es_sync_status";
+  private static final String OBJECT_TYPE = "object_type";
+  private static final String STATUS = "status";
+  private static final String START_TOKEN = "start_token";
+  private static final String END_TOKEN = "end_token";
+  private static final String LAST_TOKEN = "last_token";
+  private static final String DOCS_INDEXED = "docs_indexed";
+  private static final String START_TIME = "start_time";
+  private static final String UPDATED_TIME = "updated_time";
+  private static final String ERROR = "error";
+  /** A running checkpoint not updated for this long belongs to a dead sync. */
+  private static final long STALE_TIME = 10 * 60 * 1000L;
+
+  private static CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+
+  private final String id;
+  private final String objectType;
+  private final int rangeIndex;
+  private final long startToken;
+  private final long endToken;
+  private long lastToken;
+  private long docsIndexed;
+  private long startTime;
+  private long updatedTime;
+  private String status;
+
+  public SyncCheckpoint(String objectType, int rangeIndex, long startToken, long endToken) {
+    this.id = objectType + "_" + rangeIndex;
+    this.objectType = objectType;
+    this.rangeIndex = rangeIndex;
+    this.startToken = startToken;
+    this.endToken = endToken;
+    this.lastToken = startToken;
+  }
+
+  /**
+   * Starts the sync of this range. A range left unfinished by a previous run resumes from its last
+   * token, a completed one starts over.
+   *
+   * @return false if the range is being synced by another run
+   */
+  public boolean start() {
+    Map<String, Object> saved = load(id);
+    long now = System.currentTimeMillis();
+    if (null != saved && RUNNING.equals(saved.get(STATUS))
+        && now - getLong(saved, UPDATED_TIME) < STALE_TIME) {
+      ProjectLogger.log("Es sync already running for " + id);
+      return false;
+    }
+    if (null != saved && !COMPLETED.equals(saved.get(STATUS))
+        && startToken == getLong(saved, START_TOKEN) && endToken == getLong(saved, END_TOKEN)) {
+      lastToken = getLong(saved, LAST_TOKEN);
+      docsIndexed = getLong(saved, DOCS_INDEXED);
+      startTime = getLong(saved, START_TIME);
+      ProjectLogger.log("Es sync for " + id + " resumed from token " + lastToken);
+    } else {
+      startTime = now;
+    }
+    status = RUNNING;
+    save(null);
+    return true;
+  }
+
+  public void onProgress(int count, long token) {
+    docsIndexed += count;
+    lastToken = token;
+    save(null);
+  }
+
+  public void complete() {
+    lastToken = endToken;
+    status = COMPLETED;
+    save(null);
+  }
+
+  public void fail(Exception e) {
+    status = FAILED;
+    save(e.getMessage());
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public int getRangeIndex() {
+    return rangeIndex;
+  }
+
+  public long getStartToken() {
+    return startToken;
+  }
+
+  public long getEndToken() {
+    return endToken;
+  }
+
+  public long getLastToken() {
+    return lastToken;
+  }
+
+  private void save(String error) {
+    updatedTime = System.currentTimeMillis();
+    Map<String, Object> map = new HashMap<>();
+    map.put(JsonKey.ID, id);
+    map.put(OBJECT_TYPE, objectType);
+    map.put(STATUS, status);
+    map.put(START_TOKEN, startToken);
+    map.put(END_TOKEN, endToken);
+    map.put(LAST_TOKEN, lastToken);
+    map.put(DOCS_INDEXED, docsIndexed);
+    map.put(START_TIME, startTime);
+    map.put(UPDATED_TIME, updatedTime);
+    map.put(ERROR, error);
+    try {
+      cassandraOperation.upsertRecord(KEY_SPACE, TABLE, map);
+    } catch (Exception e) {
+      ProjectLogger.log("Es sync checkpoint save failed for " + id, e);
+    }
+  }
+
+  /**
+   * Summary of the last full sync of given object type, with the indexing rate and the estimated
+   * remaining work. Progress is measured on the token ring, rows being spread uniformly over it.
+   *
+   * @param objectType object type
+   * @return Map<String, Object>
+   */
+  public static Map<String, Object> getStatus(String objectType) {
+    Map<String, Object> statusMap = new HashMap<>();
+    statusMap.put(JsonKey.OBJECT_TYPE, objectType);
+    List<Map<String, Object>> ranges = loadAll(objectType);
+    if (ranges.isEmpty()) {
+      return statusMap;
+    }
+    long docs = 0;
+    long startTime = Long.MAX_VALUE;
+    long updatedTime = 0;
+    BigInteger covered = BigInteger.ZERO;
+    BigInteger total = BigInteger.ZERO;
+    String status = COMPLETED;
+    List<Map<String, Object>> rangeList = new ArrayList<>();
+    for (Map<String, Object> range : ranges) {
+      docs += getLong(range, DOCS_INDEXED);
+      startTime = Math.min(startTime, getLong(range, START_TIME));
+      updatedTime = Math.max(updatedTime, getLong(range, UPDATED_TIME));
+      BigInteger start = BigInteger.valueOf(getLong(range, START_TOKEN));
+      covered = covered.add(BigInteger.valueOf(getLong(range, LAST_TOKEN)).subtract(start));
+      total = total.add(BigInteger.valueOf(getLong(range, END_TOKEN)).subtract(start));
+      if (FAILED.equals(range.get(STATUS))) {
+        status = FAILED;
+      } else if (RUNNING.equals(range.get(STATUS)) && !FAILED.equals(status)) {
+        status = RUNNING;
+      }
+      rangeList.add(range);
+    }
+    double progress = total.signum() == 0 ? 1.0 : covered.doubleValue() / total.doubleValue();
+    long elapsed = Math.max(1, updatedTime - startTime);
+    double docsPerSec = docs * 1000.0 / elapsed;
+    statusMap.put(STATUS, status);
+    statusMap.put(DOCS_INDEXED, docs);
+    statusMap.put(START_TIME, startTime);
+    statusMap.put(UPDATED_TIME, updatedTime);
+    statusMap.put("docsPerSec", docsPerSec);
+    statusMap.put("progress", progress);
+    if (progress > 0 && progress < 1) {
+      statusMap.put("estimatedRemainingDocs", (long) (docs / progress - docs));
+      statusMap.put("estimatedRemainingSec", (long) (elapsed * (1 - progress) / progress / 1000));
+    }
+    statusMap.put("ranges", rangeList);
+    return statusMap;
+  }
+
+  /**
+   * Splits the token ring into given number of equal ranges.
+   *
+   * @param objectType object type
+   * @param count number of ranges
+   * @return List<SyncCheckpoint>
+   */
+  public static List<SyncCheckpoint> split(String objectType, int count) {
+    List<SyncCheckpoint> ranges = new ArrayList<>(count);
+    BigInteger min = BigInteger.valueOf(CassandraTableScanner.MIN_TOKEN);
+    BigInteger step = BigInteger.valueOf(CassandraTableScanner.MAX_TOKEN).subtract(min)
+        .divide(BigInteger.valueOf(count));
+    for (int i = 0; i < count; i++) {
+      long start = min.add(step.multiply(BigInteger.valueOf(i))).longValue();
+      long end = (i == count - 1) ? CassandraTableScanner.MAX_TOKEN
+          : min.add(step.multiply(BigInteger.valueOf(i + 1))).longValue();
+      ranges.add(new SyncCheckpoint(objectType, i, start, end));
+    }
+    return ranges;
+  }
+
+  /**
+   * @param objectType object type
+   * @param count number of ranges of the new run
+   * @return ids of the completed ranges of the last run if it is unfinished and was split in the
+   *         same number of ranges, null if a new run must start from scratch
+   */
+  public static Set<String> getResumableRun(String objectType, int count) {
+    List<Map<String, Object>> ranges = loadAll(objectType);
+    if (ranges.size() != count) {
+      return null;
+    }
+    Set<String> completed = new HashSet<>();
+    for (Map<String, Object> range : ranges) {
+      if (COMPLETED.equals(range.get(STATUS))) {
+        completed.add((String) range.get(JsonKey.ID));
+      }
+    }
+    return completed.size() == count ? null : completed;
+  }
+
+  /**
+   * Removes the checkpoints of the previous run of given object type.
+   */
+  public static void deleteAll(String objectType) {
+    for (Map<String, Object> range : loadAll(objectType)) {
+      cassandraOperation.deleteRecord(KEY_SPACE, TABLE, (String) range.get(JsonKey.ID));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> loadAll(String objectType) {
+    try {
+      Response response =
+          cassandraOperation.getRecordsByProperty(KEY_SPACE, TABLE, OBJECT_TYPE, objectType);
+      List<Map<String, Object>> list = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+      if (null != list) {
+        return list;
+      }
+    } catch (Exception e) {
+      ProjectLogger.log("Es sync checkpoint read failed for " + objectType, e);
+    }
+    return new ArrayList<>();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> load(String id) {
+    try {
+      Response response = cassandraOperation.getRecordById(KEY_SPACE, TABLE, id);
+      List<Map<String, Object>> list = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+      if (null != list && !list.isEmpty()) {
+        return list.get(0);
+      }
+    } catch (Exception e) {
+      ProjectLogger.log("Es sync checkpoint read failed for " + id, e);
+    }
+    return null;
+  }
+
+  private static long getLong(Map<String, Object> map, String key) {
+    Object value = map.get(key);
+    return null == value ? 0 : ((Number) value).longValue();
+  }
+
+}
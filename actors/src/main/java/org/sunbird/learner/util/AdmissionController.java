@@ -0,0 +1,130 @@
+package org.sunbird.learner.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.request.Request;
+import org.sunbird.learner.util.metrics.RequestMetricsRegistry;
+
+/**
+ * Admission control for the request router. A request is rejected up front when its router has
+ * too many requests in flight or when requests are waiting too long in the routees' mailboxes, so
+ * latency stays bounded during traffic spikes instead of every request timing out.
+ *
+ * Limits are read from sunbird_router_max_in_flight and sunbird_router_max_queue_age (milli
+ * seconds), and can be overridden per router by suffixing the router name, e.g.
+ * sunbird_router_max_in_flight_pageManagementRouter.
+ */
+public final class AdmissionController {
+
+  public static final String ROUTER = "router";
+  public static final String ROUTED_AT = "routedAt";
+  public static final String SERVICE_OVERLOADED = "SERVICE_OVERLOADED";
+  public static final String SERVICE_OVERLOADED_MESSAGE =
+      "Service is overloaded, please try again later.";
+
+  private static final String MAX_IN_FLIGHT = "sunbird_router_max_in_flight";
+  private static final String MAX_QUEUE_AGE = "sunbird_router_max_queue_age";
+  private static final int DEFAULT_MAX_IN_FLIGHT = 500;
+  private static final int DEFAULT_MAX_QUEUE_AGE = 3000;
+  private static final double QUEUE_AGE_WEIGHT = 0.2;
+
+  private static Map<String, RouterState> routerStates = new ConcurrentHashMap<>();
+
+  private AdmissionController() {}
+
+  /**
+   * Checks whether the router can take one more request.
+   *
+   * @param router router name
+   * @return true if the request can be routed
+   */
+  public static boolean admit(String router) {
+    RouterState state = getState(router);
+    long inFlight = RequestMetricsRegistry.getRouterMetrics(router).getInFlight();
+    if (inFlight >= state.maxInFlight) {
+      ProjectLogger.log("Request rejected for router " + router + " in flight " + inFlight,
+          LoggerEnum.PERF_LOG);
+      return false;
+    }
+    long queueAge = state.getQueueAge();
+    if (queueAge > state.maxQueueAge) {
+      ProjectLogger.log("Request rejected for router " + router + " queue age " + queueAge,
+          LoggerEnum.PERF_LOG);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Stamps the request with the router name and routing time so that the routee can report how
+   * long the request waited in its mailbox.
+   *
+   * @param request Request
+   * @param router router name
+   */
+  public static void onRoute(Request request, String router) {
+    request.getContext().put(ROUTER, router);
+    request.getContext().put(ROUTED_AT, System.currentTimeMillis());
+  }
+
+  /**
+   * Called by the routee when it picks up the request, records the time the request spent
+   * waiting in the mailbox.
+   *
+   * @param request Request
+   */
+  public static void onReceive(Request request) {
+    Object router = request.getContext().get(ROUTER);
+    Object routedAt = request.getContext().get(ROUTED_AT);
+    if (router instanceof String && routedAt instanceof Long) {
+      getState((String) router).recordQueueWait(System.currentTimeMillis() - (Long) routedAt);
+    }
+  }
+
+  public static ProjectCommonException overloaded() {
+    return new ProjectCommonException(SERVICE_OVERLOADED, SERVICE_OVERLOADED_MESSAGE,
+        RequestDeadline.SERVICE_UNAVAILABLE);
+  }
+
+  private static RouterState getState(String router) {
+    return routerStates.computeIfAbsent(router, RouterState::new);
+  }
+
+  /**
+   * Limits and exponentially weighted queue wait time of one router.
+   */
+  private static class RouterState {
+
+    private final int maxInFlight;
+    private final int maxQueueAge;
+    private volatile double queueAge;
+    private volatile long lastUpdated;
+
+    RouterState(String router) {
+      maxInFlight = Util.getIntProperty(MAX_IN_FLIGHT + "_" + router,
+          Util.getIntProperty(MAX_IN_FLIGHT, DEFAULT_MAX_IN_FLIGHT));
+      maxQueueAge = Util.getIntProperty(MAX_QUEUE_AGE + "_" + router,
+          Util.getIntProperty(MAX_QUEUE_AGE, DEFAULT_MAX_QUEUE_AGE));
+    }
+
+    void recordQueueWait(long wait) {
+      queueAge = queueAge + QUEUE_AGE_WEIGHT * (wait - queueAge);
+      lastUpdated = System.currentTimeMillis();
+    }
+
+    /**
+     * The queue age is only trusted while it is fresh, once nothing was picked up for longer than
+     * the limit itself the router is given a chance again.
+     */
+    long getQueueAge() {
+      if (System.currentTimeMillis() - lastUpdated > maxQueueAge) {
+        return 0;
+      }
+      return (long) queueAge;
+    }
+  }
+
+}
@@ -0,0 +1,162 @@
+package org.sunbird.learner.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import org.sunbird.learner.util.metrics.LatencyHistogram;
+
+/**
+ * One cached table of {@link DataCacheHandler}. Readers always see an immutable snapshot which is
+ * swapped atomically on every change, and each change bumps the version of the table. Entries
+ * put or removed while a full refresh was loading keep their value, as the refresh may have read
+ * the row before it was changed.
+ *
+ * @param <V> type of cached value
+ */
+public class CacheTable<V> {
+
+  private final String name;
+  private volatile Map<String, V> snapshot = Collections.emptyMap();
+  private final AtomicLong version = new AtomicLong();
+  private volatile long lastRefreshed;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LatencyHistogram refreshTime = new LatencyHistogram();
+  // time of the last put or removal of the keys changed since the last refresh
+  private final Map<String, Long> changedKeys = new HashMap<>();
+
+  public CacheTable(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the cached value for given key and counts the lookup as hit or miss.
+   *
+   * @param key cache key
+   * @return V or null
+   */
+  public V get(String key) {
+    V value = null == key ? null : snapshot.get(key);
+    if (null == value) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return value;
+  }
+
+  /**
+   * @return current immutable snapshot of the table
+   */
+  public Map<String, V> snapshot() {
+    return snapshot;
+  }
+
+  public long getVersion() {
+    return version.get();
+  }
+
+  public synchronized void put(String key, V value) {
+    Map<String, V> map = new HashMap<>(snapshot);
+    map.put(key, value);
+    changedKeys.put(key, System.currentTimeMillis());
+    swap(map);
+  }
+
+  /**
+   * Removes the entries matching given condition and puts the new value, in a single swap. Used
+   * when a row is reloaded and its cache key may have changed (e.g. page renamed).
+   *
+   * @param evict condition for the entries to remove
+   * @param key cache key of new value, can be null to only remove
+   * @param value new value
+   */
+  public synchronized void replace(Predicate<Entry<String, V>> evict, String key, V value) {
+    Map<String, V> map = new HashMap<>(snapshot);
+    long now = System.currentTimeMillis();
+    map.entrySet().removeIf(entry -> {
+      if (evict.test(entry)) {
+        changedKeys.put(entry.getKey(), now);
+        return true;
+      }
+      return false;
+    });
+    if (null != key && null != value) {
+      map.put(key, value);
+      changedKeys.put(key, now);
+    }
+    swap(map);
+  }
+
+  /**
+   * Applies a freshly loaded copy of the table. The snapshot is swapped only when something has
+   * changed, so the version tells the readers whether the data really moved. Entries put or
+   * removed since the load started are left as they are.
+   *
+   * @param loaded freshly loaded data
+   * @param startTime time the load started, to record the refresh duration
+   * @return number of changed, added or removed entries
+   */
+  public synchronized int refresh(Map<String, V> loaded, long startTime) {
+    Map<String, V> current = snapshot;
+    Map<String, V> fresh = new HashMap<>(loaded);
+    for (Entry<String, Long> entry : changedKeys.entrySet()) {
+      if (entry.getValue() < startTime) {
+        continue;
+      }
+      if (current.containsKey(entry.getKey())) {
+        fresh.put(entry.getKey(), current.get(entry.getKey()));
+      } else {
+        fresh.remove(entry.getKey());
+      }
+    }
+    changedKeys.values().removeIf(time -> time < startTime);
+    int changed = 0;
+    for (Entry<String, V> entry : fresh.entrySet()) {
+      if (!Objects.equals(entry.getValue(), current.get(entry.getKey()))) {
+        changed++;
+      }
+    }
+    for (String key : current.keySet()) {
+      if (!fresh.containsKey(key)) {
+        changed++;
+      }
+    }
+    if (changed > 0) {
+      swap(fresh);
+    }
+    lastRefreshed = System.currentTimeMillis();
+    refreshTime.record(lastRefreshed - startTime);
+    return changed;
+  }
+
+  public synchronized void set(Map<String, V> map) {
+    swap(new HashMap<>(map));
+  }
+
+  public Map<String, Object> metrics() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("size", snapshot.size());
+    map.put("version", version.get());
+    map.put("lastRefreshed", lastRefreshed);
+    map.put("hits", hits.sum());
+    map.put("misses", misses.sum());
+    map.put("refreshTimeMs", refreshTime.snapshot());
+    return map;
+  }
+
+  private void swap(Map<String, V> map) {
+    snapshot = Collections.unmodifiableMap(map);
+    version.incrementAndGet();
+  }
+
+}
@@ -0,0 +1,99 @@
+package org.sunbird.learner.util;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.CassandraUtil;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.helper.CassandraConnectionManager;
+import org.sunbird.helper.CassandraConnectionMngrFactory;
+import org.sunbird.helper.ServiceFactory;
+
+/**
+ * Writes many rows of a table in unlogged batches executed concurrently, instead of one upsert
+ * round trip per row. The rows are cut into batches of sunbird_cassandra_write_batch_size (default
+ * 20) so a batch stays far below the Cassandra batch size thresholds. Rows of a failed batch are
+ * written again one by one, so a single bad row does not fail the others.
+ */
+public final class CassandraBatchWriter {
+
+  private static final int DEFAULT_BATCH_SIZE = 20;
+  private static final int batchSize =
+      Util.getIntProperty("sunbird_cassandra_write_batch_size", DEFAULT_BATCH_SIZE);
+  private static CassandraConnectionManager manager = CassandraConnectionMngrFactory
+      .getObject(PropertiesCache.getInstance().getProperty(JsonKey.SUNBIRD_CASSANDRA_MODE));
+  private static CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+  // insert statement by query, a query per table and set of columns
+  private static Map<String, PreparedStatement> statements = new ConcurrentHashMap<>();
+
+  private CassandraBatchWriter() {}
+
+  /**
+   * Upserts given rows, a row is a map of column name and value as for
+   * {@link CassandraOperation#upsertRecord(String, String, Map)}.
+   *
+   * @param dbInfo table to write
+   * @param rows rows to write
+   * @return rows which could not be written, empty if all were written
+   */
+  public static List<Map<String, Object>> upsert(Util.DbInfo dbInfo,
+      List<Map<String, Object>> rows) {
+    List<Map<String, Object>> failed = new ArrayList<>();
+    if (rows.isEmpty()) {
+      return failed;
+    }
+    Session session = manager.getSession(dbInfo.getKeySpace());
+    List<List<Map<String, Object>>> batches = new ArrayList<>();
+    List<ResultSetFuture> futures = new ArrayList<>();
+    for (int i = 0; i < rows.size(); i += batchSize) {
+      List<Map<String, Object>> batch = rows.subList(i, Math.min(i + batchSize, rows.size()));
+      try {
+        BatchStatement statement = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        for (Map<String, Object> row : batch) {
+          statement.add(getStatement(session, dbInfo, row).bind(row.values().toArray()));
+        }
+        futures.add(session.executeAsync(statement));
+      } catch (Exception e) {
+        ProjectLogger.log(e.getMessage(), e);
+        futures.add(null);
+      }
+      batches.add(batch);
+    }
+    for (int i = 0; i < batches.size(); i++) {
+      try {
+        if (null != futures.get(i)) {
+          futures.get(i).getUninterruptibly();
+          continue;
+        }
+      } catch (Exception e) {
+        ProjectLogger.log("Batch write to " + dbInfo.getTableName() + " failed, writing "
+            + batches.get(i).size() + " rows one by one", e);
+      }
+      for (Map<String, Object> row : batches.get(i)) {
+        try {
+          cassandraOperation.upsertRecord(dbInfo.getKeySpace(), dbInfo.getTableName(), row);
+        } catch (Exception e) {
+          ProjectLogger.log(e.getMessage(), e);
+          failed.add(row);
+        }
+      }
+    }
+    return failed;
+  }
+
+  private static PreparedStatement getStatement(Session session, Util.DbInfo dbInfo,
+      Map<String, Object> row) {
+    String query =
+        CassandraUtil.getPreparedStatement(dbInfo.getKeySpace(), dbInfo.getTableName(), row);
+    return statements.computeIfAbsent(query, session::prepare);
+  }
+
+}
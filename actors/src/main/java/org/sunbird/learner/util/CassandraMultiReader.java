@@ -0,0 +1,111 @@
+package org.sunbird.learner.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.responsecode.ResponseCode;
+import org.sunbird.helper.ServiceFactory;
+
+/**
+ * Reads the rows matching many values of a column, one query per value, the queries being run
+ * concurrently instead of one after the other. Meant for the lookups by indexed columns which
+ * cannot be done with a single IN query, for IN queries on the partition key use
+ * {@link CassandraOperation#getRecordsByProperty(String, String, String, List)}. A read runs at
+ * most sunbird_cassandra_multi_read_concurrency (default 8) queries at a time, on a pool of
+ * sunbird_cassandra_multi_read_workers (default 32) threads shared by all the reads of the node.
+ */
+public final class CassandraMultiReader {
+
+  private static final int DEFAULT_CONCURRENCY = 8;
+  private static final int DEFAULT_WORKERS = 32;
+  private static final int concurrency =
+      Util.getIntProperty("sunbird_cassandra_multi_read_concurrency", DEFAULT_CONCURRENCY);
+  private static ExecutorService readExecutor = Executors.newFixedThreadPool(
+      Util.getIntProperty("sunbird_cassandra_multi_read_workers", DEFAULT_WORKERS),
+      runnable -> {
+        Thread thread = new Thread(runnable, "cassandra-multi-read");
+        thread.setDaemon(true);
+        return thread;
+      });
+  private static CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+
+  private CassandraMultiReader() {}
+
+  /**
+   * Reads the rows matching given properties and each of given values of one more property, as
+   * {@link CassandraOperation#getRecordsByProperties(String, String, Map)} called for every value.
+   *
+   * @param dbInfo table to read
+   * @param properties properties every row must match
+   * @param property property taking the values
+   * @param values values of the property
+   * @return matching rows, in the order of the values
+   */
+  public static List<Map<String, Object>> getRecordsByProperties(Util.DbInfo dbInfo,
+      Map<String, Object> properties, String property, List<?> values) {
+    List<Map<String, Object>> rows = new ArrayList<>();
+    if (values.size() == 1) {
+      rows.addAll(read(dbInfo, properties, property, values.get(0)));
+      return rows;
+    }
+    // queries in flight, oldest first, the next one starts when the oldest is done
+    Deque<Future<List<Map<String, Object>>>> futures = new ArrayDeque<>();
+    try {
+      for (Object value : values) {
+        if (futures.size() >= concurrency) {
+          rows.addAll(futures.poll().get());
+        }
+        futures.add(readExecutor.submit(() -> read(dbInfo, properties, property, value)));
+      }
+      while (!futures.isEmpty()) {
+        rows.addAll(futures.poll().get());
+      }
+    } catch (ExecutionException e) {
+      cancel(futures);
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw internalError(e);
+    } catch (InterruptedException e) {
+      cancel(futures);
+      Thread.currentThread().interrupt();
+      throw internalError(e);
+    }
+    return rows;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> read(Util.DbInfo dbInfo,
+      Map<String, Object> properties, String property, Object value) {
+    Map<String, Object> queryMap = new LinkedHashMap<>(properties);
+    queryMap.put(property, value);
+    Response response = cassandraOperation.getRecordsByProperties(dbInfo.getKeySpace(),
+        dbInfo.getTableName(), queryMap);
+    return (List<Map<String, Object>>) response.getResult().get(JsonKey.RESPONSE);
+  }
+
+  private static void cancel(Deque<Future<List<Map<String, Object>>>> futures) {
+    for (Future<List<Map<String, Object>>> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  private static ProjectCommonException internalError(Exception e) {
+    ProjectLogger.log(e.getMessage(), e);
+    return new ProjectCommonException(ResponseCode.internalError.getErrorCode(),
+        ResponseCode.internalError.getErrorMessage(), ResponseCode.SERVER_ERROR.getResponseCode());
+  }
+
+}
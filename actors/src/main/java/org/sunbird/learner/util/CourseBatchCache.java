@@ -0,0 +1,178 @@
+package org.sunbird.learner.util;
+
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.helper.ServiceFactory;
+
+/**
+ * Read-through cache of the course_batch rows used to validate learner state updates and
+ * enrollments, with the start and end dates of the batch parsed once. Rows are kept for
+ * sunbird_course_batch_cache_ttl_ms (default 60000), unknown batch ids are not cached so a new
+ * batch can be used right away. A batch is removed from the cache of every node when it is
+ * written, see {@link #invalidate(String)}. Actors which update the batch from the row they read
+ * (participants) read it from Cassandra instead.
+ */
+public final class CourseBatchCache {
+
+  private static final int DEFAULT_TTL = 60000;
+  private static final int DEFAULT_MAX_ENTRIES = 10000;
+  // as SimpleDateFormat("yyyy-MM-dd") used to parse them, trailing text is ignored
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-M-d");
+
+  private static TtlCache<CourseBatch> batches =
+      new TtlCache<>(Util.getIntProperty("sunbird_course_batch_cache_ttl_ms", DEFAULT_TTL),
+          Util.getIntProperty("sunbird_course_batch_cache_max_entries", DEFAULT_MAX_ENTRIES));
+  private static CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+
+  /**
+   * Course batch row along with its parsed start and end date.
+   */
+  public static final class CourseBatch {
+    private final Map<String, Object> record;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final boolean validDates;
+
+    CourseBatch(Map<String, Object> record) {
+      this.record = Collections.unmodifiableMap(record);
+      String start = (String) record.get(JsonKey.START_DATE);
+      String end = (String) record.get(JsonKey.END_DATE);
+      this.startDate = parseDate(start);
+      this.endDate = ProjectUtil.isStringNullOREmpty(end) ? null : parseDate(end);
+      this.validDates =
+          null != startDate && (ProjectUtil.isStringNullOREmpty(end) || null != endDate);
+    }
+
+    /**
+     * @return course_batch row, shared by all the readers of the cache, not to be modified
+     */
+    public Map<String, Object> getRecord() {
+      return record;
+    }
+
+    public LocalDate getStartDate() {
+      return startDate;
+    }
+
+    /**
+     * @return end date, null if the batch has none
+     */
+    public LocalDate getEndDate() {
+      return endDate;
+    }
+
+    /**
+     * @param date LocalDate
+     * @return true if the batch has started on given date and is not over, false if it has not or
+     *         if its dates are invalid
+     */
+    public boolean isOpenOn(LocalDate date) {
+      return validDates && !date.isBefore(startDate)
+          && (null == endDate || !date.isAfter(endDate));
+    }
+  }
+
+  private CourseBatchCache() {}
+
+  private static LocalDate parseDate(String date) {
+    if (ProjectUtil.isStringNullOREmpty(date)) {
+      return null;
+    }
+    try {
+      return LocalDate.from(DATE_FORMAT.parse(date.trim(), new ParsePosition(0)));
+    } catch (RuntimeException e) {
+      ProjectLogger.log("Invalid course batch date " + date, e);
+    }
+    return null;
+  }
+
+  /**
+   * @param batchId course batch id
+   * @return course batch, null if there is none
+   */
+  public static CourseBatch get(String batchId) {
+    if (ProjectUtil.isStringNullOREmpty(batchId)) {
+      return null;
+    }
+    return getAll(Collections.singletonList(batchId)).get(batchId);
+  }
+
+  /**
+   * Returns the cached batches and reads the others with a single query.
+   *
+   * @param batchIds course batch ids
+   * @return course batches by id, the unknown ids are left out
+   */
+  @SuppressWarnings("unchecked")
+  public static Map<String, CourseBatch> getAll(Collection<String> batchIds) {
+    Map<String, CourseBatch> result = new HashMap<>();
+    Set<Object> missing = new LinkedHashSet<>();
+    for (String batchId : batchIds) {
+      if (ProjectUtil.isStringNullOREmpty(batchId) || result.containsKey(batchId)) {
+        continue;
+      }
+      CourseBatch batch = batches.get(batchId);
+      if (null == batch) {
+        missing.add(batchId);
+      } else {
+        result.put(batchId, batch);
+      }
+    }
+    if (missing.isEmpty()) {
+      return result;
+    }
+    Util.DbInfo dbInfo = Util.dbInfoMap.get(JsonKey.COURSE_BATCH_DB);
+    Response response = cassandraOperation.getRecordsByProperty(dbInfo.getKeySpace(),
+        dbInfo.getTableName(), JsonKey.ID, new ArrayList<>(missing));
+    for (Map<String, Object> record : (List<Map<String, Object>>) response
+        .get(JsonKey.RESPONSE)) {
+      CourseBatch batch = new CourseBatch(record);
+      String batchId = (String) record.get(JsonKey.ID);
+      batches.put(batchId, batch);
+      result.put(batchId, batch);
+    }
+    return result;
+  }
+
+  /**
+   * Removes given batch from the cache of this node and of the peers, called after the batch is
+   * written.
+   *
+   * @param batchId course batch id
+   */
+  public static void invalidate(String batchId) {
+    if (ProjectUtil.isStringNullOREmpty(batchId)) {
+      return;
+    }
+    remove(batchId);
+    DataCacheNotifier.publish(DataCacheHandler.COURSE_BATCH, batchId);
+  }
+
+  /**
+   * Removes given batch from the cache of this node.
+   *
+   * @param batchId course batch id
+   */
+  public static void remove(String batchId) {
+    batches.remove(batchId);
+  }
+
+  public static Map<String, Object> getStats() {
+    return batches.stats();
+  }
+
+}
@@ -119,6 +119,7 @@ public final class CourseBatchSchedulerUtil {
         boolean flag = updateDataIntoES(map);
         if(flag){
           cassandraOperation.updateRecord(courseBatchDBInfo.getKeySpace(), courseBatchDBInfo.getTableName(), map);
+          CourseBatchCache.invalidate((String) map.get(JsonKey.ID));
         }
       }else{
         ProjectLogger.log("Ekstep content updatation failed.",LoggerEnum.INFO.name());
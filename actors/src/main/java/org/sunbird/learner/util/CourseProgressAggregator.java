@@ -0,0 +1,107 @@
+package org.sunbird.learner.util;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.routing.ConsistentHashingPool;
+import akka.routing.ConsistentHashingRouter.ConsistentHashableEnvelope;
+import java.text.SimpleDateFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.datasecurity.OneWayHashing;
+import org.sunbird.learner.actors.CourseProgressActor;
+import org.sunbird.learner.actors.CourseProgressActor.Progress;
+import org.sunbird.learner.util.actorutility.ActorDispatcher;
+
+/**
+ * Updates the course progress (user_courses) of the learners from their content state updates.
+ * The progress is sent to sunbird_course_progress_shards (default 4) {@link CourseProgressActor}
+ * shards, the shard of an enrollment being chosen by consistent hashing of its id, so a single
+ * actor of the node merges and writes the progress of an enrollment.
+ */
+public final class CourseProgressAggregator {
+
+  private static final int DEFAULT_SHARDS = 4;
+  private static final String COURSE_PROGRESS_ROUTER = "courseProgressAggregator";
+
+  private static ActorRef router;
+
+  private CourseProgressAggregator() {}
+
+  /**
+   * Creates the shards in given actor system, only the first call takes effect.
+   *
+   * @param system ActorSystem
+   */
+  public static synchronized void init(ActorSystem system) {
+    if (null != router) {
+      return;
+    }
+    int shards = Util.getIntProperty("sunbird_course_progress_shards", DEFAULT_SHARDS);
+    router = system.actorOf(new ConsistentHashingPool(shards)
+        .props(ActorDispatcher.props(system, CourseProgressActor.class)), COURSE_PROGRESS_ROUTER);
+    ProjectLogger.log("Course progress aggregator started with " + shards + " shards",
+        LoggerEnum.INFO.name());
+  }
+
+  /**
+   * Sends the progress made by the updated content states to the shards, the contents of an
+   * enrollment are merged first: the number of contents completed for the first time is added
+   * to the course progress and the content accessed last becomes the last read content.
+   *
+   * @param contents updated content states, with their id, user id, course id, batch id, status
+   *        and completed count
+   * @param contentStateInfo requested status by content state id
+   */
+  public static void submit(List<Map<String, Object>> contents,
+      Map<String, Integer> contentStateInfo) {
+    if (null == router) {
+      ProjectLogger.log("Course progress aggregator is not started, progress dropped",
+          LoggerEnum.ERROR.name());
+      return;
+    }
+    SimpleDateFormat format = ProjectUtil.getDateFormatter();
+    format.setLenient(false);
+    Map<String, Progress> progressById = new LinkedHashMap<>();
+    for (Map<String, Object> map : contents) {
+      if (null == map.get(JsonKey.COURSE_ID)) {
+        continue;
+      }
+      String contentStateId = (String) map.get(JsonKey.ID);
+      Integer status = contentStateInfo.get(contentStateId);
+      int increment = ((int) map.get(JsonKey.COMPLETED_COUNT)) == 1 && null != status
+          && status == 2 ? 1 : 0;
+      Progress progress = new Progress(generateUserCoursesPrimaryKey(map), increment,
+          (String) map.get(JsonKey.CONTENT_ID), status, (String) map.get(JsonKey.LAST_ACCESS_TIME));
+      Progress current = progressById.get(progress.getId());
+      if (null == current) {
+        progressById.put(progress.getId(), progress);
+      } else {
+        current.merge(progress, format);
+      }
+    }
+    for (Progress progress : progressById.values()) {
+      router.tell(new ConsistentHashableEnvelope(progress, progress.getId()),
+          ActorRef.noSender());
+    }
+  }
+
+  /**
+   * This method will combined map values with delimiter and create an encrypted key.
+   *
+   * @param req Map<String , Object>
+   * @return String encrypted value
+   */
+  private static String generateUserCoursesPrimaryKey(Map<String, Object> req) {
+    String userId = (String) req.get(JsonKey.USER_ID);
+    String courseId = (String) req.get(JsonKey.COURSE_ID);
+    String batchId = (String) req.get(JsonKey.BATCH_ID);
+    return OneWayHashing.encryptVal(userId + JsonKey.PRIMARY_KEY_DELIMETER + courseId
+        + JsonKey.PRIMARY_KEY_DELIMETER + batchId);
+  }
+
+}
@@ -1,47 +1,148 @@
 /**
- * 
+ *
  */
 package org.sunbird.learner.util;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import org.sunbird.cassandra.CassandraOperation;
 import org.sunbird.common.models.response.Response;
 import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.helper.ServiceFactory;
 
 /**
- * This class will handle the data cache.
- * 
+ * This class will handle the data cache. Every table is kept as an immutable snapshot (see
+ * {@link CacheTable}) which is swapped atomically, the scheduled run reloads the tables and only
+ * applies the rows that changed, and single rows are reloaded on invalidation messages sent by
+ * {@link DataCacheNotifier}.
+ *
  * @author Amit Kumar
  */
 public class DataCacheHandler implements Runnable {
+
+  public static final String PAGE = "page";
+  public static final String SECTION = "section";
+  public static final String ROLE = "role";
+  public static final String ORG_TYPE = "orgType";
+  public static final String SYSTEM_SETTINGS = "systemSettings";
+  // not cached tables, invalidate the org ids resolved by OrgIdResolver and CourseBatchCache
+  public static final String ORG = "org";
+  public static final String COURSE_BATCH = "courseBatch";
   /**
    * pageMap is the map of (orgId:pageName) and page Object (i.e map of string , object) sectionMap
    * is the map of section Id and section Object (i.e map of string , object)
    */
-  private static Map<String, Map<String, Object>> pageMap = new ConcurrentHashMap<>();
-  private static Map<String, Map<String, Object>> sectionMap = new ConcurrentHashMap<>();
-  private static Map<String, Object> roleMap = new ConcurrentHashMap<>();
-  private static Map<String, String> orgTypeMap = new ConcurrentHashMap<>();
-  private static Map<String, String> configSettings = new ConcurrentHashMap<>();
-  private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+  private static CacheTable<Map<String, Object>> pageMap = new CacheTable<>(PAGE);
+  private static CacheTable<Map<String, Object>> sectionMap = new CacheTable<>(SECTION);
+  private static CacheTable<Object> roleMap = new CacheTable<>(ROLE);
+  private static CacheTable<String> orgTypeMap = new CacheTable<>(ORG_TYPE);
+  private static CacheTable<String> configSettings = new CacheTable<>(SYSTEM_SETTINGS);
+  // pages and sections compiled for the page data api, kept in step with pageMap and sectionMap
+  private static CacheTable<PageTemplate> pageTemplateMap = new CacheTable<>("pageTemplate");
+  private static CacheTable<SectionTemplate> sectionTemplateMap =
+      new CacheTable<>("sectionTemplate");
+  private static CassandraOperation cassandraOperation = ServiceFactory.getInstance();
   private static final String KEY_SPACE_NAME = "sunbird";
+  private static final String PAGE_TABLE = "page_management";
+  private static final String SECTION_TABLE = "page_section";
 
   @Override
   public void run() {
     ProjectLogger.log("Data cache started..");
-    cache(pageMap, "page_management");
-    cache(sectionMap, "page_section");
-    roleCache(roleMap);
-    orgTypeCache(orgTypeMap);
-    cacheSystemConfig(configSettings);
+    refresh(pageMap, DataCacheHandler::loadPages);
+    refresh(pageTemplateMap, () -> compilePages(pageMap.snapshot()));
+    refresh(sectionMap, DataCacheHandler::loadSections);
+    refresh(sectionTemplateMap, () -> compileSections(sectionMap.snapshot()));
+    refresh(roleMap, DataCacheHandler::loadRoles);
+    refresh(orgTypeMap, DataCacheHandler::loadOrgTypes);
+    refresh(configSettings, DataCacheHandler::loadSystemConfig);
+  }
+
+  private static <V> void refresh(CacheTable<V> table, Supplier<Map<String, V>> loader) {
+    long startTime = System.currentTimeMillis();
+    try {
+      Map<String, V> data = loader.get();
+      if (null == data) {
+        return;
+      }
+      int changed = table.refresh(data, startTime);
+      ProjectLogger.log("Data cache " + table.getName() + " refreshed, changed entries " + changed
+          + " version " + table.getVersion(), LoggerEnum.INFO.name());
+    } catch (Exception e) {
+      ProjectLogger.log(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Reloads one row of given cache table from Cassandra, or the whole table for the small tables
+   * (roles and system settings). Called when an invalidation message is received.
+   *
+   * @param table one of PAGE, SECTION, ROLE, ORG_TYPE, SYSTEM_SETTINGS, ORG, COURSE_BATCH
+   * @param id id of the changed row
+   */
+  public static void reload(String table, String id) {
+    ProjectLogger.log("Data cache reload for table " + table + " id " + id);
+    try {
+      switch (table) {
+        case PAGE:
+          Map<String, Object> page = getRecordById(PAGE_TABLE, id);
+          pageMap.replace(entry -> id.equals(entry.getValue().get(JsonKey.ID)),
+              null == page ? null : getPageKey(page), page);
+          pageTemplateMap.replace(entry -> id.equals(entry.getValue().getId()),
+              null == page ? null : getPageKey(page),
+              null == page ? null : PageTemplate.compile(page));
+          break;
+        case SECTION:
+          Map<String, Object> section = getRecordById(SECTION_TABLE, id);
+          sectionMap.replace(entry -> id.equals(entry.getKey()), id, section);
+          sectionTemplateMap.replace(entry -> id.equals(entry.getKey()), id,
+              null == section ? null : SectionTemplate.compile(section));
+          break;
+        case ORG_TYPE:
+          Map<String, Object> orgType = getRecordById(JsonKey.ORG_TYPE_DB, id);
+          orgTypeMap.replace(entry -> id.equals(entry.getValue()),
+              null == orgType ? null : ((String) orgType.get(JsonKey.NAME)).toLowerCase(), id);
+          break;
+        case ROLE:
+          refresh(roleMap, DataCacheHandler::loadRoles);
+          break;
+        case SYSTEM_SETTINGS:
+          refresh(configSettings, DataCacheHandler::loadSystemConfig);
+          break;
+        case ORG:
+          OrgIdResolver.invalidate(id,
+              getRecordById(Util.dbInfoMap.get(JsonKey.ORG_DB).getTableName(), id));
+          break;
+        case COURSE_BATCH:
+          CourseBatchCache.remove(id);
+          break;
+        default:
+          ProjectLogger.log("Data cache reload requested for unknown table " + table);
+      }
+    } catch (Exception e) {
+      ProjectLogger.log(e.getMessage(), e);
+    }
   }
 
-  private void cacheSystemConfig(Map<String, String> configSettings) {
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> getRecordById(String tableName, String id) {
+    Response response = cassandraOperation.getRecordById(KEY_SPACE_NAME, tableName, id);
+    List<Map<String, Object>> responseList =
+        (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+    if (null != responseList && !responseList.isEmpty()) {
+      return responseList.get(0);
+    }
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, String> loadSystemConfig() {
+    Map<String, String> configSettings = new HashMap<>();
     Response response =
         cassandraOperation.getAllRecords(KEY_SPACE_NAME, JsonKey.SYSTEM_SETTINGS_DB);
     List<Map<String, Object>> responseList =
@@ -63,9 +164,12 @@ public class DataCacheHandler implements Runnable {
       configSettings.put(JsonKey.PHONE_UNIQUE, String.valueOf(false));
       configSettings.put(JsonKey.EMAIL_UNIQUE, String.valueOf(false));
     }
+    return configSettings;
   }
 
-  private void orgTypeCache(Map<String, String> orgTypeMap) {
+  @SuppressWarnings("unchecked")
+  private static Map<String, String> loadOrgTypes() {
+    Map<String, String> orgTypeMap = new HashMap<>();
     Response response = cassandraOperation.getAllRecords(KEY_SPACE_NAME, JsonKey.ORG_TYPE_DB);
     List<Map<String, Object>> responseList =
         (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
@@ -75,9 +179,12 @@ public class DataCacheHandler implements Runnable {
             (String) resultMap.get(JsonKey.ID));
       }
     }
+    return orgTypeMap;
   }
 
-  private void roleCache(Map<String, Object> roleMap) {
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> loadRoles() {
+    Map<String, Object> roleMap = new HashMap<>();
     Response response = cassandraOperation.getAllRecords(KEY_SPACE_NAME, JsonKey.ROLE_GROUP);
     List<Map<String, Object>> responseList =
         (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
@@ -94,100 +201,226 @@ public class DataCacheHandler implements Runnable {
         roleMap.put((String) resultMap2.get(JsonKey.ID), resultMap2.get(JsonKey.ID));
       }
     }
+    return roleMap;
   }
 
+  private static Map<String, Map<String, Object>> loadSections() {
+    Map<String, Map<String, Object>> map = new HashMap<>();
+    List<Map<String, Object>> responseList = getAllRecords(SECTION_TABLE);
+    if (null == responseList) {
+      return null;
+    }
+    for (Map<String, Object> resultMap : responseList) {
+      map.put((String) resultMap.get(JsonKey.ID), resultMap);
+    }
+    ProjectLogger.log("sectionmap size" + map.size());
+    return map;
+  }
+
+  private static Map<String, Map<String, Object>> loadPages() {
+    Map<String, Map<String, Object>> map = new HashMap<>();
+    List<Map<String, Object>> responseList = getAllRecords(PAGE_TABLE);
+    if (null == responseList) {
+      return null;
+    }
+    for (Map<String, Object> resultMap : responseList) {
+      map.put(getPageKey(resultMap), resultMap);
+    }
+    ProjectLogger.log("pagemap size" + map.size());
+    ProjectLogger.log("pagemap keyset " + map.keySet());
+    return map;
+  }
+
+  private static Map<String, PageTemplate> compilePages(Map<String, Map<String, Object>> pages) {
+    Map<String, PageTemplate> map = new HashMap<>();
+    for (Map.Entry<String, Map<String, Object>> entry : pages.entrySet()) {
+      map.put(entry.getKey(), PageTemplate.compile(entry.getValue()));
+    }
+    return map;
+  }
+
+  private static Map<String, SectionTemplate> compileSections(
+      Map<String, Map<String, Object>> sections) {
+    Map<String, SectionTemplate> map = new HashMap<>();
+    for (Map.Entry<String, Map<String, Object>> entry : sections.entrySet()) {
+      map.put(entry.getKey(), SectionTemplate.compile(entry.getValue()));
+    }
+    return map;
+  }
+
+  /**
+   * Returns null (not an empty list) when the table could not be read, so a failed load does not
+   * wipe the cached data.
+   */
   @SuppressWarnings("unchecked")
-  private void cache(Map<String, Map<String, Object>> map, String tableName) {
+  private static List<Map<String, Object>> getAllRecords(String tableName) {
     try {
       Response response = cassandraOperation.getAllRecords(KEY_SPACE_NAME, tableName);
-      List<Map<String, Object>> responseList =
-          (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
-      if (null != responseList && !responseList.isEmpty()) {
-        for (Map<String, Object> resultMap : responseList) {
-          if (tableName.equalsIgnoreCase(JsonKey.PAGE_SECTION)) {
-            map.put((String) resultMap.get(JsonKey.ID), resultMap);
-          } else {
-            String orgId = (((String) resultMap.get(JsonKey.ORGANISATION_ID)) == null ? "NA"
-                : (String) resultMap.get(JsonKey.ORGANISATION_ID));
-            map.put(orgId + ":" + ((String) resultMap.get(JsonKey.PAGE_NAME)), resultMap);
-          }
-        }
-      }
-      ProjectLogger.log("pagemap size" + map.size());
-      ProjectLogger.log("pagemap keyset " + map.keySet());
+      return (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
     } catch (Exception e) {
       ProjectLogger.log(e.getMessage(), e);
     }
+    return null;
+  }
+
+  /**
+   * @param page page row
+   * @return cache key (orgId:pageName) of the page
+   */
+  public static String getPageKey(Map<String, Object> page) {
+    String orgId = (((String) page.get(JsonKey.ORGANISATION_ID)) == null ? "NA"
+        : (String) page.get(JsonKey.ORGANISATION_ID));
+    return orgId + ":" + ((String) page.get(JsonKey.PAGE_NAME));
+  }
+
+  /**
+   * @param orgId organisation id, NA for the default pages
+   * @param pageName page name
+   * @return cached page or null
+   */
+  public static Map<String, Object> getPage(String orgId, String pageName) {
+    return pageMap.get(orgId + ":" + pageName);
+  }
+
+  /**
+   * @param orgId organisation id, NA for the default pages
+   * @param pageName page name
+   * @return compiled page or null
+   */
+  public static PageTemplate getPageTemplate(String orgId, String pageName) {
+    return pageTemplateMap.get(orgId + ":" + pageName);
+  }
+
+  public static void putPage(Map<String, Object> page) {
+    String id = (String) page.get(JsonKey.ID);
+    pageMap.replace(entry -> null != id && id.equals(entry.getValue().get(JsonKey.ID)),
+        getPageKey(page), page);
+    pageTemplateMap.replace(entry -> null != id && id.equals(entry.getValue().getId()),
+        getPageKey(page), PageTemplate.compile(page));
+  }
+
+  public static Map<String, Object> getSection(String sectionId) {
+    return sectionMap.get(sectionId);
+  }
+
+  /**
+   * @return compiled search query of given section or null
+   */
+  public static SectionTemplate getSectionTemplate(String sectionId) {
+    return sectionTemplateMap.get(sectionId);
+  }
+
+  public static void putSection(Map<String, Object> section) {
+    sectionMap.put((String) section.get(JsonKey.ID), section);
+    sectionTemplateMap.put((String) section.get(JsonKey.ID), SectionTemplate.compile(section));
+  }
+
+  public static String getOrgTypeId(String orgTypeName) {
+    return orgTypeMap.get(orgTypeName.toLowerCase());
+  }
+
+  public static void putOrgType(String orgTypeName, String orgTypeId) {
+    orgTypeMap.replace(entry -> entry.getValue().equals(orgTypeId), orgTypeName.toLowerCase(),
+        orgTypeId);
+  }
+
+  public static String getConfigSetting(String field) {
+    return configSettings.get(field);
+  }
+
+  public static void putConfigSetting(String field, String value) {
+    configSettings.put(field, value);
+  }
+
+  /**
+   * Size, version, hit/miss count and refresh time of every cached table.
+   *
+   * @return Map<String, Object>
+   */
+  public static Map<String, Object> getCacheMetrics() {
+    Map<String, Object> map = new HashMap<>();
+    map.put(PAGE, pageMap.metrics());
+    map.put(SECTION, sectionMap.metrics());
+    map.put(ROLE, roleMap.metrics());
+    map.put(ORG_TYPE, orgTypeMap.metrics());
+    map.put(SYSTEM_SETTINGS, configSettings.metrics());
+    map.put(pageTemplateMap.getName(), pageTemplateMap.metrics());
+    map.put(sectionTemplateMap.getName(), sectionTemplateMap.metrics());
+    map.put(ORG, OrgIdResolver.getStats());
+    map.put(COURSE_BATCH, CourseBatchCache.getStats());
+    return map;
   }
 
   /**
    * @return the pageMap
    */
   public static Map<String, Map<String, Object>> getPageMap() {
-    return pageMap;
+    return pageMap.snapshot();
   }
 
   /**
    * @param pageMap the pageMap to set
    */
   public static void setPageMap(Map<String, Map<String, Object>> pageMap) {
-    DataCacheHandler.pageMap = pageMap;
+    DataCacheHandler.pageMap.set(pageMap);
+    pageTemplateMap.set(compilePages(pageMap));
   }
 
   /**
    * @return the sectionMap
    */
   public static Map<String, Map<String, Object>> getSectionMap() {
-    return sectionMap;
+    return sectionMap.snapshot();
   }
 
   /**
    * @param sectionMap the sectionMap to set
    */
   public static void setSectionMap(Map<String, Map<String, Object>> sectionMap) {
-    DataCacheHandler.sectionMap = sectionMap;
+    DataCacheHandler.sectionMap.set(sectionMap);
+    sectionTemplateMap.set(compileSections(sectionMap));
   }
 
   /**
    * @return the roleMap
    */
   public static Map<String, Object> getRoleMap() {
-    return roleMap;
+    return roleMap.snapshot();
   }
 
   /**
    * @param roleMap the roleMap to set
    */
   public static void setRoleMap(Map<String, Object> roleMap) {
-    DataCacheHandler.roleMap = roleMap;
+    DataCacheHandler.roleMap.set(roleMap);
   }
 
   /**
    * @return the orgTypeMap
    */
   public static Map<String, String> getOrgTypeMap() {
-    return orgTypeMap;
+    return orgTypeMap.snapshot();
   }
 
   /**
    * @param orgTypeMap the orgTypeMap to set
    */
   public static void setOrgTypeMap(Map<String, String> orgTypeMap) {
-    DataCacheHandler.orgTypeMap = orgTypeMap;
+    DataCacheHandler.orgTypeMap.set(orgTypeMap);
   }
 
   /**
    * @return the configSettings
    */
   public static Map<String, String> getConfigSettings() {
-    return configSettings;
+    return configSettings.snapshot();
   }
 
   /**
    * @param configSettings the configSettings to set
    */
   public static void setConfigSettings(Map<String, String> configSettings) {
-    DataCacheHandler.configSettings = configSettings;
+    DataCacheHandler.configSettings.set(configSettings);
   }
 
 }
@@ -0,0 +1,111 @@
+package org.sunbird.learner.util;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.request.Request;
+
+/**
+ * Broadcasts data cache invalidation messages to the other actor system nodes, so a page, section
+ * or org type changed on one node is reloaded everywhere without waiting for the scheduled
+ * refresh. Peers are the request router actor paths configured (comma separated) in
+ * sunbird_cache_peer_actor_paths, e.g.
+ * akka.tcp://RemoteMiddlewareActorSystem@10.0.0.2:8088/user/RequestRouterActor.
+ */
+public final class DataCacheNotifier {
+
+  public static final String INVALIDATE_DATA_CACHE = "invalidateDataCache";
+  private static final String TABLE = "table";
+  private static final String ID = "id";
+  private static final String CACHE_PEER_ACTOR_PATHS = "sunbird_cache_peer_actor_paths";
+
+  private static ActorSystem system;
+  private static List<String> peerPaths = new ArrayList<>();
+
+  private DataCacheNotifier() {}
+
+  /**
+   * Initializes the notifier with the actor system used to reach the peers, only the first call
+   * takes effect.
+   *
+   * @param actorSystem ActorSystem
+   */
+  public static synchronized void init(ActorSystem actorSystem) {
+    if (null != system) {
+      return;
+    }
+    system = actorSystem;
+    String paths = System.getenv(CACHE_PEER_ACTOR_PATHS);
+    if (ProjectUtil.isStringNullOREmpty(paths)) {
+      paths = PropertiesCache.getInstance().getProperty(CACHE_PEER_ACTOR_PATHS);
+    }
+    if (!ProjectUtil.isStringNullOREmpty(paths) && !CACHE_PEER_ACTOR_PATHS.equals(paths)) {
+      for (String path : paths.split(",")) {
+        if (!ProjectUtil.isStringNullOREmpty(path.trim())) {
+          peerPaths.add(path.trim());
+        }
+      }
+    }
+    ProjectLogger.log("Data cache peers " + peerPaths, LoggerEnum.INFO.name());
+  }
+
+  /**
+   * Sends the invalidation of given row to all the peers. The local cache is expected to be
+   * updated by the caller.
+   *
+   * @param table one of the DataCacheHandler table names
+   * @param id id of the changed row
+   */
+  public static void publish(String table, String id) {
+    if (null == system || peerPaths.isEmpty()) {
+      return;
+    }
+    Map<String, Object> map = new HashMap<>();
+    map.put(TABLE, table);
+    map.put(ID, id);
+    Request request = new Request();
+    request.setOperation(INVALIDATE_DATA_CACHE);
+    request.setRequest(map);
+    for (String path : peerPaths) {
+      system.actorSelection(path).tell(request, ActorRef.noSender());
+    }
+  }
+
+  /**
+   * Reloads the changed row into the local cache, off the caller thread, and sends the
+   * invalidation to all the peers. Called by the actors after a successful write.
+   *
+   * @param table one of the DataCacheHandler table names
+   * @param id id of the changed row
+   */
+  public static void onChange(String table, String id) {
+    if (ProjectUtil.isStringNullOREmpty(id)) {
+      return;
+    }
+    ExecutorManager.getExecutorService().execute(() -> DataCacheHandler.reload(table, id));
+    publish(table, id);
+  }
+
+  /**
+   * Handles an invalidation message received from a peer, the row is reloaded off the router
+   * thread.
+   *
+   * @param request Request
+   */
+  public static void onInvalidation(Request request) {
+    String table = (String) request.getRequest().get(TABLE);
+    String id = (String) request.getRequest().get(ID);
+    if (ProjectUtil.isStringNullOREmpty(table) || ProjectUtil.isStringNullOREmpty(id)) {
+      return;
+    }
+    ExecutorManager.getExecutorService().execute(() -> DataCacheHandler.reload(table, id));
+  }
+
+}
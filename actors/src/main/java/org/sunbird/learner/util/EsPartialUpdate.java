@@ -0,0 +1,166 @@
+package org.sunbird.learner.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.sunbird.learner.util.EsWriteBehindBuffer.Mutation;
+
+/**
+ * Targeted change of an ES document: top level fields to set and elements of an array field (like
+ * the organisations of a user) to add, remove or update. It is sent as a scripted update so only
+ * the changed values travel to ES, and ES applies it on the latest version of the document,
+ * retrying on version conflict, so concurrent changes of the same document are not lost. Elements
+ * are matched on some of their fields, case insensitively.
+ */
+public class EsPartialUpdate implements Mutation {
+
+  private static final String ADD = "add";
+  private static final String REMOVE = "remove";
+  private static final String UPDATE = "update";
+  private static final String SET = "set";
+  private static final String OPS = "ops";
+  private static final String TYPE = "type";
+  private static final String FIELD = "field";
+  private static final String MATCH = "match";
+  private static final String VALUE = "value";
+
+  private static final String SCRIPT = "for (op in params.ops) {"
+      + " if (op.type == 'set') { ctx._source[op.field] = op.value; continue; }"
+      + " def list = ctx._source[op.field];"
+      + " if (list == null) { list = new ArrayList(); ctx._source[op.field] = list; }"
+      + " if (op.type == 'add') { list.add(op.value); continue; }"
+      + " Iterator it = list.iterator();"
+      + " while (it.hasNext()) {"
+      + "  def item = it.next(); boolean matched = true;"
+      + "  for (entry in op.match.entrySet()) {"
+      + "   def value = item[entry.getKey()];"
+      + "   if (value == null || !entry.getValue().equalsIgnoreCase(value)) {"
+      + "    matched = false; break; } }"
+      + "  if (matched) {"
+      + "   if (op.type == 'remove') { it.remove(); } else { item.putAll(op.value); } }"
+      + " } }";
+
+  private final List<Map<String, Object>> ops = new ArrayList<>();
+
+  /**
+   * Sets a top level field of the document.
+   */
+  public EsPartialUpdate set(String field, Object value) {
+    ops.add(op(SET, field, null, value));
+    return this;
+  }
+
+  /**
+   * Appends an element to an array field, the field is created if missing.
+   */
+  public EsPartialUpdate add(String field, Map<String, Object> element) {
+    ops.add(op(ADD, field, null, element));
+    return this;
+  }
+
+  /**
+   * Removes the elements of an array field having the given values.
+   *
+   * @param match field values of the elements to remove
+   */
+  public EsPartialUpdate remove(String field, Map<String, String> match) {
+    ops.add(op(REMOVE, field, match, null));
+    return this;
+  }
+
+  /**
+   * Puts the given values in the elements of an array field having the matching values.
+   *
+   * @param match field values of the elements to update
+   * @param values values to put in the matching elements
+   */
+  public EsPartialUpdate update(String field, Map<String, String> match,
+      Map<String, Object> values) {
+    ops.add(op(UPDATE, field, match, values));
+    return this;
+  }
+
+  /**
+   * Appends the changes of given update to this one.
+   */
+  public EsPartialUpdate merge(EsPartialUpdate other) {
+    ops.addAll(other.ops);
+    return this;
+  }
+
+  /**
+   * @param retryOnConflict number of times ES retries the update if the document changes meanwhile
+   * @return UpdateRequest applying the changes with a script
+   */
+  public UpdateRequest toUpdateRequest(String index, String type, String id,
+      int retryOnConflict) {
+    Map<String, Object> params = new HashMap<>();
+    params.put(OPS, ops);
+    return new UpdateRequest(index, type, id)
+        .script(new Script(ScriptType.INLINE, "painless", SCRIPT, params))
+        .retryOnConflict(retryOnConflict);
+  }
+
+  /**
+   * Applies the changes on a document held in memory, the same way the script does.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public Map<String, Object> apply(Map<String, Object> document) {
+    for (Map<String, Object> op : ops) {
+      String field = (String) op.get(FIELD);
+      if (SET.equals(op.get(TYPE))) {
+        document.put(field, op.get(VALUE));
+        continue;
+      }
+      List<Map<String, Object>> list = (List<Map<String, Object>>) document.get(field);
+      if (null == list) {
+        list = new ArrayList<>();
+        document.put(field, list);
+      }
+      if (ADD.equals(op.get(TYPE))) {
+        list.add(new HashMap<>((Map<String, Object>) op.get(VALUE)));
+        continue;
+      }
+      Iterator<Map<String, Object>> itr = list.iterator();
+      while (itr.hasNext()) {
+        Map<String, Object> item = itr.next();
+        if (matches(item, (Map<String, String>) op.get(MATCH))) {
+          if (REMOVE.equals(op.get(TYPE))) {
+            itr.remove();
+          } else {
+            item.putAll((Map<String, Object>) op.get(VALUE));
+          }
+        }
+      }
+    }
+    return document;
+  }
+
+  private static boolean matches(Map<String, Object> item, Map<String, String> match) {
+    for (Entry<String, String> entry : match.entrySet()) {
+      Object value = item.get(entry.getKey());
+      if (!(value instanceof String) || !entry.getValue().equalsIgnoreCase((String) value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Map<String, Object> op(String type, String field, Map<String, String> match,
+      Object value) {
+    Map<String, Object> op = new HashMap<>();
+    op.put(TYPE, type);
+    op.put(FIELD, field);
+    op.put(MATCH, match);
+    op.put(VALUE, value);
+    return op;
+  }
+
+}
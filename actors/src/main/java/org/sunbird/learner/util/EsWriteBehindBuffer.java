@@ -0,0 +1,349 @@
+package org.sunbird.learner.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.rest.RestStatus;
+import org.sunbird.common.ConnectionManager;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.learner.util.metrics.LatencyHistogram;
+
+/**
+ * Write-behind buffer for the ES documents updated by the background jobs. Changes are queued per
+ * document and flushed every few hundred milliseconds with one bulk request: all the changes of a
+ * document queued within one window are applied in order and written once. A burst of updates for
+ * the same user thus costs one write. Documents having only {@link EsPartialUpdate} changes are
+ * updated by script without being read, others are read, changed and written back only if their
+ * version did not change meanwhile, else the changes are applied again on the new version, so
+ * concurrent changes of the same document are never lost.
+ *
+ * <p>The windows are flushed on sunbird_es_write_behind_flush_threads (default 2) threads, a
+ * document being written by one flush at a time so its changes stay in order. When
+ * sunbird_es_write_behind_max_pending (default 10000) documents are queued, the caller flushes
+ * the queue itself, which slows the producers down instead of growing the queue. The queue is
+ * held in memory only: the changes queued and not written yet, at most one window, are lost if
+ * the node crashes, and the documents stay stale until they change again or are synced from
+ * Cassandra with the es sync.
+ */
+public final class EsWriteBehindBuffer {
+
+  private static final int DEFAULT_WINDOW = 500;
+  private static final int DEFAULT_MAX_DOCS = 1000;
+  private static final int DEFAULT_MAX_PENDING = 10000;
+  private static final int DEFAULT_FLUSH_THREADS = 2;
+  private static final int RETRY_ON_CONFLICT = 3;
+  private static final int MAX_ATTEMPTS = 3;
+  private static final int windowMs =
+      Util.getIntProperty("sunbird_es_write_behind_window_ms", DEFAULT_WINDOW);
+  private static final int maxDocs =
+      Util.getIntProperty("sunbird_es_write_behind_max_docs", DEFAULT_MAX_DOCS);
+  private static final int maxPending =
+      Util.getIntProperty("sunbird_es_write_behind_max_pending", DEFAULT_MAX_PENDING);
+
+  private static Map<String, PendingDocument> pending = new LinkedHashMap<>();
+  // keys of the documents being written by a flush
+  private static final Set<String> inFlight = new HashSet<>();
+  private static final Object lock = new Object();
+  private static final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private static final ScheduledExecutorService flusher =
+      Executors.newScheduledThreadPool(
+          Util.getIntProperty("sunbird_es_write_behind_flush_threads", DEFAULT_FLUSH_THREADS),
+          runnable -> {
+            Thread thread = new Thread(runnable, "es-write-behind");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private static final LongAdder submitted = new LongAdder();
+  private static final LongAdder written = new LongAdder();
+  private static final LongAdder conflicts = new LongAdder();
+  private static final LongAdder failed = new LongAdder();
+  private static final LatencyHistogram flushLatency = new LatencyHistogram();
+
+  private EsWriteBehindBuffer() {}
+
+  /**
+   * Change of a document, applied on its current content at flush time.
+   */
+  public interface Mutation {
+
+    /**
+     * @param document current document
+     * @return the document to index, null to leave it unchanged
+     */
+    Map<String, Object> apply(Map<String, Object> document);
+  }
+
+  /**
+   * Queues a change of given document, it is dropped if the document is not indexed.
+   */
+  public static void update(String index, String type, String id, Mutation mutation) {
+    submit(index, type, id, mutation, false);
+  }
+
+  /**
+   * Queues a rebuild of given document from its source of truth. The supplier is called at flush
+   * time, so the changes queued before it are dropped, they are already part of the rebuilt
+   * document.
+   *
+   * @param supplier builds the whole document, returns null if it must not be indexed
+   */
+  public static void replace(String index, String type, String id,
+      Supplier<Map<String, Object>> supplier) {
+    submit(index, type, id, document -> supplier.get(), true);
+  }
+
+  private static void submit(String index, String type, String id, Mutation mutation,
+      boolean replace) {
+    submitted.increment();
+    int size;
+    synchronized (lock) {
+      String key = index + "/" + type + "/" + id;
+      PendingDocument document = pending.get(key);
+      if (null == document) {
+        document = new PendingDocument(key, index, type, id);
+        pending.put(key, document);
+      }
+      if (replace) {
+        document.mutations.clear();
+        document.replace = true;
+      }
+      document.mutations.add(mutation);
+      size = pending.size();
+    }
+    schedule(size);
+  }
+
+  private static void schedule(int size) {
+    if (size >= maxPending) {
+      flush();
+    } else {
+      scheduleFlush(size);
+    }
+  }
+
+  private static void scheduleFlush(int size) {
+    if (size >= maxDocs) {
+      flusher.execute(EsWriteBehindBuffer::flush);
+    } else if (flushScheduled.compareAndSet(false, true)) {
+      flusher.schedule(EsWriteBehindBuffer::flush, windowMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Writes the queued changes with one bulk request. The documents being written by another
+   * flush are left in the queue, changes queued meanwhile go to the next window.
+   */
+  static void flush() {
+    flushScheduled.set(false);
+    Map<String, PendingDocument> documents = new LinkedHashMap<>();
+    synchronized (lock) {
+      Iterator<PendingDocument> iterator = pending.values().iterator();
+      while (iterator.hasNext()) {
+        PendingDocument document = iterator.next();
+        if (inFlight.add(document.key)) {
+          documents.put(document.key, document);
+          iterator.remove();
+        }
+      }
+    }
+    if (documents.isEmpty()) {
+      return;
+    }
+    try {
+      write(documents);
+    } finally {
+      int size;
+      synchronized (lock) {
+        inFlight.removeAll(documents.keySet());
+        size = pending.size();
+      }
+      if (size > 0) {
+        scheduleFlush(size);
+      }
+    }
+  }
+
+  private static void write(Map<String, PendingDocument> documents) {
+    long startTime = System.currentTimeMillis();
+    Client client = ConnectionManager.getClient();
+    BulkRequestBuilder bulk = client.prepareBulk();
+    List<PendingDocument> requests = new ArrayList<>();
+    for (PendingDocument document : documents.values()) {
+      try {
+        if (document.addTo(client, bulk)) {
+          requests.add(document);
+        }
+      } catch (Exception e) {
+        failed.increment();
+        ProjectLogger.log("Es write behind failed to apply changes of " + document.id, e);
+      }
+    }
+    if (!requests.isEmpty()) {
+      try {
+        BulkItemResponse[] items = bulk.get().getItems();
+        for (int i = 0; i < items.length; i++) {
+          onResponse(requests.get(i), items[i]);
+        }
+      } catch (Exception e) {
+        failed.add(requests.size());
+        ProjectLogger.log("Es write behind bulk write failed for " + requests.size()
+            + " documents", e);
+      }
+    }
+    flushLatency.record(System.currentTimeMillis() - startTime);
+  }
+
+  private static void onResponse(PendingDocument document, BulkItemResponse item) {
+    if (!item.isFailed()) {
+      written.increment();
+    } else if (RestStatus.CONFLICT == item.getFailure().getStatus()
+        && document.attempts < MAX_ATTEMPTS) {
+      conflicts.increment();
+      requeue(document);
+    } else {
+      failed.increment();
+      ProjectLogger.log("Es write behind failed for " + document.id + " : "
+          + item.getFailureMessage(), LoggerEnum.ERROR.name());
+    }
+  }
+
+  /**
+   * Queues again the changes of a document which was modified by someone else since it was read,
+   * ahead of the changes queued meanwhile, so they are applied on the new version.
+   */
+  private static void requeue(PendingDocument document) {
+    document.attempts++;
+    int size;
+    synchronized (lock) {
+      PendingDocument newer = pending.get(document.key);
+      if (null != newer && newer.replace) {
+        return;
+      }
+      if (null != newer) {
+        document.mutations.addAll(newer.mutations);
+      }
+      pending.put(document.key, document);
+      size = pending.size();
+    }
+    scheduleFlush(size);
+  }
+
+  /**
+   * @return number of queued and written changes, coalescing ratio (changes per written document)
+   *         and flush latency
+   */
+  public static Map<String, Object> getMetrics() {
+    Map<String, Object> map = new HashMap<>();
+    long submittedCount = submitted.sum();
+    long writtenCount = written.sum();
+    synchronized (lock) {
+      map.put("pending", pending.size());
+    }
+    map.put("submitted", submittedCount);
+    map.put("written", writtenCount);
+    map.put("conflicts", conflicts.sum());
+    map.put("failed", failed.sum());
+    map.put("coalescingRatio", writtenCount == 0 ? 0 : (double) submittedCount / writtenCount);
+    map.put("flushLatency", flushLatency.snapshot());
+    return map;
+  }
+
+  private static class PendingDocument {
+
+    private final String key;
+    private final String index;
+    private final String type;
+    private final String id;
+    private final List<Mutation> mutations = new ArrayList<>();
+    private boolean replace;
+    private int attempts;
+
+    PendingDocument(String key, String index, String type, String id) {
+      this.key = key;
+      this.index = index;
+      this.type = type;
+      this.id = id;
+    }
+
+    /**
+     * Adds the request writing the changes to the bulk request. Partial updates only are sent as
+     * a scripted update, other changes are applied on the document read and written back
+     * conditionally on the version read.
+     *
+     * @return false if there is nothing to write
+     */
+    boolean addTo(Client client, BulkRequestBuilder bulk) {
+      if (!replace && isPartial()) {
+        EsPartialUpdate update = new EsPartialUpdate();
+        for (Mutation mutation : mutations) {
+          update.merge((EsPartialUpdate) mutation);
+        }
+        bulk.add(update.toUpdateRequest(index, type, id, RETRY_ON_CONFLICT));
+        return true;
+      }
+      Map<String, Object> document;
+      Long version = null;
+      int first = 0;
+      if (replace) {
+        document = mutations.get(0).apply(null);
+        first = 1;
+      } else {
+        GetResponse response = client.prepareGet(index, type, id).get();
+        if (!response.isExists()) {
+          ProjectLogger.log("Es write behind skipped changes of missing document " + id,
+              LoggerEnum.INFO.name());
+          return false;
+        }
+        document = response.getSourceAsMap();
+        version = response.getVersion();
+      }
+      boolean changed = replace;
+      for (int i = first; i < mutations.size() && null != document; i++) {
+        Map<String, Object> result = mutations.get(i).apply(document);
+        if (null != result) {
+          document = result;
+          changed = true;
+        }
+      }
+      if (!changed || null == document) {
+        return false;
+      }
+      document.put(JsonKey.IDENTIFIER, id);
+      IndexRequest request = new IndexRequest(index, type, id).source(document);
+      if (null != version) {
+        request.version(version);
+      }
+      bulk.add(request);
+      return true;
+    }
+
+    private boolean isPartial() {
+      for (Mutation mutation : mutations) {
+        if (!(mutation instanceof EsPartialUpdate)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+}
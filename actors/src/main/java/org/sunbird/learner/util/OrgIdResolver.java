@@ -0,0 +1,164 @@
+package org.sunbird.learner.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.ElasticSearchUtil;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.ProjectUtil.EsIndex;
+import org.sunbird.common.models.util.ProjectUtil.EsType;
+import org.sunbird.dto.SearchDTO;
+import org.sunbird.helper.ServiceFactory;
+
+/**
+ * Resolves an org code to its organisation id, and a channel or a slug to its root organisation
+ * id. Resolved ids are cached for sunbird_org_resolver_ttl_ms, and unknown codes, channels and
+ * slugs for the shorter sunbird_org_resolver_negative_ttl_ms, so that an organisation created on
+ * another node or not yet indexed is found soon. Failed lookups are not cached, search failures
+ * are thrown to the caller as before. The entries of an organisation are removed when it is
+ * created or updated (see {@link DataCacheHandler#ORG}).
+ */
+public final class OrgIdResolver {
+
+  private static final int DEFAULT_TTL = 600000;
+  private static final int DEFAULT_NEGATIVE_TTL = 5000;
+  private static final int DEFAULT_MAX_ENTRIES = 10000;
+  private static final String ORG_CODE = "orgCode:";
+  private static final String CHANNEL = "channel:";
+  private static final String SLUG = "slug:";
+
+  private static TtlCache<String> orgIds =
+      new TtlCache<>(Util.getIntProperty("sunbird_org_resolver_ttl_ms", DEFAULT_TTL),
+          Util.getIntProperty("sunbird_org_resolver_max_entries", DEFAULT_MAX_ENTRIES));
+  private static TtlCache<Boolean> unknownKeys = new TtlCache<>(
+      Util.getIntProperty("sunbird_org_resolver_negative_ttl_ms", DEFAULT_NEGATIVE_TTL),
+      Util.getIntProperty("sunbird_org_resolver_max_entries", DEFAULT_MAX_ENTRIES));
+  private static CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+
+  private OrgIdResolver() {}
+
+  /**
+   * @param orgCode org code
+   * @return id of the organisation with given org code, empty string if there is none
+   */
+  public static String getOrgIdFromOrgCode(String orgCode) {
+    return resolve(ORG_CODE, orgCode, OrgIdResolver::loadOrgIdFromOrgCode);
+  }
+
+  /**
+   * @param channel channel
+   * @return id of the root organisation of given channel, empty string if there is none
+   */
+  public static String getRootOrgIdFromChannel(String channel) {
+    return resolve(CHANNEL, channel, key -> loadRootOrgId(JsonKey.CHANNEL, key));
+  }
+
+  /**
+   * @param slug slug
+   * @return id of the root organisation of given slug, empty string if there is none
+   */
+  public static String getRootOrgIdFromSlug(String slug) {
+    return resolve(SLUG, slug, key -> loadRootOrgId(JsonKey.SLUG, key));
+  }
+
+  /**
+   * Removes the entries of a created or updated organisation: the keys resolved to its id, which
+   * cover its previous org code, channel and slug, and the resolved and unknown entries of its
+   * current ones.
+   *
+   * @param orgId id of the organisation
+   * @param org organisation as stored, null if it does not exist anymore
+   */
+  public static void invalidate(String orgId, Map<String, Object> org) {
+    orgIds.removeIf(orgId::equals);
+    if (null == org) {
+      return;
+    }
+    for (String key : new String[] {ORG_CODE + org.get(JsonKey.ORG_CODE),
+        CHANNEL + org.get(JsonKey.CHANNEL), SLUG + org.get(JsonKey.SLUG)}) {
+      orgIds.remove(key);
+      unknownKeys.remove(key);
+    }
+  }
+
+  /**
+   * @return statistics of the resolved ids and of the unknown keys caches
+   */
+  public static Map<String, Object> getStats() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("resolved", orgIds.stats());
+    map.put("unknown", unknownKeys.stats());
+    return map;
+  }
+
+  private static String resolve(String type, String value, Function<String, String> loader) {
+    if (ProjectUtil.isStringNullOREmpty(value)) {
+      return "";
+    }
+    String key = type + value;
+    String orgId = orgIds.get(key);
+    if (null != orgId) {
+      return orgId;
+    }
+    if (null != unknownKeys.get(key)) {
+      return "";
+    }
+    orgId = loader.apply(value);
+    if (null == orgId) {
+      return "";
+    }
+    if (orgId.isEmpty()) {
+      unknownKeys.put(key, Boolean.TRUE);
+    } else {
+      orgIds.put(key, orgId);
+    }
+    return orgId;
+  }
+
+  // id of the organisation, empty string if there is none, null if the lookup failed
+  @SuppressWarnings("unchecked")
+  private static String loadOrgIdFromOrgCode(String orgCode) {
+    try {
+      Util.DbInfo orgDbInfo = Util.dbInfoMap.get(JsonKey.ORG_DB);
+      Response response = cassandraOperation.getRecordsByProperty(orgDbInfo.getKeySpace(),
+          orgDbInfo.getTableName(), JsonKey.ORG_CODE, orgCode);
+      List<Map<String, Object>> result =
+          (List<Map<String, Object>>) response.getResult().get(JsonKey.RESPONSE);
+      if (null != result && !result.isEmpty()) {
+        return getId(result.get(0));
+      }
+      return "";
+    } catch (Exception e) {
+      ProjectLogger.log(e.getMessage(), e);
+    }
+    return null;
+  }
+
+  // id of the root organisation, empty string if there is none, null if ES returned nothing
+  @SuppressWarnings("unchecked")
+  private static String loadRootOrgId(String property, String value) {
+    Map<String, Object> filters = new HashMap<>();
+    filters.put(property, value);
+    filters.put(JsonKey.IS_ROOT_ORG, true);
+    SearchDTO searchDTO = new SearchDTO();
+    searchDTO.getAdditionalProperties().put(JsonKey.FILTERS, filters);
+    Map<String, Object> esResult = ElasticSearchUtil.complexSearch(searchDTO,
+        EsIndex.sunbird.getIndexName(), EsType.organisation.getTypeName());
+    if (null == esResult) {
+      return null;
+    }
+    List<Map<String, Object>> content = (List<Map<String, Object>>) esResult.get(JsonKey.CONTENT);
+    return null != content && !content.isEmpty() ? getId(content.get(0)) : "";
+  }
+
+  private static String getId(Map<String, Object> org) {
+    String orgId = (String) org.get(JsonKey.ID);
+    return null == orgId ? "" : orgId;
+  }
+
+}
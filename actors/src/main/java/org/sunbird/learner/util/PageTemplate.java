@@ -0,0 +1,123 @@
+package org.sunbird.learner.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Sections of a page for the portal and for the app, parsed once when the page is cached by
+ * {@link DataCacheHandler} instead of on every page data request.
+ */
+public final class PageTemplate {
+
+  private static ObjectMapper mapper = new ObjectMapper();
+
+  /**
+   * Section of a page, with its group and index on the page.
+   */
+  public static final class Section {
+    private final String id;
+    private final Object group;
+    private final Object index;
+
+    private Section(String id, Object group, Object index) {
+      this.id = id;
+      this.group = group;
+      this.index = index;
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public Object getGroup() {
+      return group;
+    }
+
+    public Object getIndex() {
+      return index;
+    }
+  }
+
+  private final String id;
+  private final String name;
+  private final String portalMap;
+  private final String appMap;
+  private final List<Section> portalSections;
+  private final List<Section> appSections;
+
+  private PageTemplate(Map<String, Object> page) {
+    id = (String) page.get(JsonKey.ID);
+    name = (String) page.get(JsonKey.NAME);
+    portalMap = (String) page.get(JsonKey.PORTAL_MAP);
+    appMap = (String) page.get(JsonKey.APP_MAP);
+    portalSections = parse(portalMap);
+    appSections = parse(appMap);
+  }
+
+  /**
+   * @param page page_management row
+   * @return PageTemplate of the page
+   */
+  public static PageTemplate compile(Map<String, Object> page) {
+    return new PageTemplate(page);
+  }
+
+  private List<Section> parse(String sectionMap) {
+    if (null == sectionMap) {
+      return null;
+    }
+    try {
+      List<Map<String, Object>> list =
+          mapper.readValue(sectionMap, new TypeReference<List<Map<String, Object>>>() {});
+      List<Section> sections = new ArrayList<>(list.size());
+      for (Map<String, Object> map : list) {
+        sections.add(new Section((String) map.get(JsonKey.ID), map.get(JsonKey.GROUP),
+            map.get(JsonKey.INDEX)));
+      }
+      return Collections.unmodifiableList(sections);
+    } catch (IOException e) {
+      ProjectLogger.log("Invalid section map of page " + id, e);
+    }
+    return null;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @param portal true for the sections of the portal, false for the sections of the app
+   * @return sections of the page, null if the page has none for given source
+   */
+  public List<Section> getSections(boolean portal) {
+    return portal ? portalSections : appSections;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof PageTemplate)) {
+      return false;
+    }
+    PageTemplate other = (PageTemplate) obj;
+    return Objects.equals(id, other.id) && Objects.equals(name, other.name)
+        && Objects.equals(portalMap, other.portalMap) && Objects.equals(appMap, other.appMap);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, name, portalMap, appMap);
+  }
+
+}
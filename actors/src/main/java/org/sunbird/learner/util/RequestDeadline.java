@@ -0,0 +1,68 @@
+package org.sunbird.learner.util;
+
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.request.Request;
+
+/**
+ * Carries the absolute deadline of a request in the request context. The deadline is set by the
+ * request router when it asks the routee, and the routee checks it before every expensive step so
+ * it stops working on a request the caller has already given up on.
+ */
+public final class RequestDeadline {
+
+  public static final String DEADLINE = "requestDeadline";
+  public static final String DEADLINE_EXCEEDED = "DEADLINE_EXCEEDED";
+  public static final String DEADLINE_EXCEEDED_MESSAGE =
+      "Request could not be completed within its deadline.";
+  public static final int SERVICE_UNAVAILABLE = 503;
+
+  private RequestDeadline() {}
+
+  /**
+   * Sets the deadline of the request to now + timeout, an earlier deadline already present on the
+   * request (set by the caller) is kept.
+   *
+   * @param request Request
+   * @param timeoutMillis time budget of the request in milli seconds
+   */
+  public static void setDeadline(Request request, long timeoutMillis) {
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    Object current = request.getContext().get(DEADLINE);
+    if (current instanceof Long && (Long) current < deadline) {
+      return;
+    }
+    request.getContext().put(DEADLINE, deadline);
+  }
+
+  /**
+   * Returns the time left before the deadline of the request in milli seconds, or
+   * {@link Long#MAX_VALUE} if the request does not carry a deadline.
+   *
+   * @param request Request
+   * @return long
+   */
+  public static long getRemainingTime(Request request) {
+    Object deadline = request.getContext().get(DEADLINE);
+    if (deadline instanceof Long) {
+      return (Long) deadline - System.currentTimeMillis();
+    }
+    return Long.MAX_VALUE;
+  }
+
+  public static boolean isExpired(Request request) {
+    return getRemainingTime(request) <= 0;
+  }
+
+  /**
+   * Throws a service unavailable exception if the deadline of the request has passed.
+   *
+   * @param request Request
+   */
+  public static void checkDeadline(Request request) {
+    if (isExpired(request)) {
+      throw new ProjectCommonException(DEADLINE_EXCEEDED, DEADLINE_EXCEEDED_MESSAGE,
+          SERVICE_UNAVAILABLE);
+    }
+  }
+
+}
@@ -6,6 +6,7 @@ package org.sunbird.learner.util;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.learner.util.metrics.RequestMetricsReporter;
 
 
 /**
@@ -13,7 +14,9 @@ import org.sunbird.common.models.util.ProjectLogger;
  */
 public class SchedulerManager {
 
-  private static final int PAGE_DATA_TTL = 24;
+  // minutes, changes are applied on notification, the refresh only catches missed ones
+  private static final int DATA_CACHE_REFRESH_INTERVAL = 1440;
+  private static final int REQUEST_METRICS_DUMP_INTERVAL = 5;
 
   /*
    * service ScheduledExecutorService object
@@ -25,6 +28,12 @@ public class SchedulerManager {
    */
   public static void schedule() {
     ProjectLogger.log("started scheduler job.");
-    service.scheduleWithFixedDelay(new DataCacheHandler(), 0, PAGE_DATA_TTL, TimeUnit.HOURS);
+    int cacheInterval = Util.getIntProperty("sunbird_data_cache_refresh_interval",
+        DATA_CACHE_REFRESH_INTERVAL);
+    service.scheduleWithFixedDelay(new DataCacheHandler(), 0, cacheInterval, TimeUnit.MINUTES);
+    int metricsInterval = Util.getIntProperty("sunbird_request_metrics_dump_interval",
+        REQUEST_METRICS_DUMP_INTERVAL);
+    service.scheduleWithFixedDelay(new RequestMetricsReporter(), metricsInterval, metricsInterval,
+        TimeUnit.MINUTES);
   }
 }
@@ -0,0 +1,198 @@
+package org.sunbird.learner.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * EkStep search query of a page section, compiled once when the section is cached by
+ * {@link DataCacheHandler}. The query is parsed and frozen, and its default filters are kept as
+ * typed slots, so assembling a page only binds the requested fields and filters to the template and
+ * writes the query once.
+ */
+public final class SectionTemplate {
+
+  private static ObjectMapper mapper = new ObjectMapper();
+  // sorted keys, so the same query is always written the same way and can be used as cache key
+  private static ObjectMapper writer =
+      new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+  private enum SlotType {
+    LIST, MAP, VALUE
+  }
+
+  private static final class FilterSlot {
+    private final SlotType type;
+    private final Object value;
+
+    private FilterSlot(Object value) {
+      this.type = value instanceof List ? SlotType.LIST
+          : value instanceof Map ? SlotType.MAP : SlotType.VALUE;
+      this.value = value;
+    }
+  }
+
+  private final String searchQuery;
+  // query without its request, request without its filters, null if the query is invalid
+  private final Map<String, Object> query;
+  private final Map<String, Object> request;
+  private final Map<String, FilterSlot> filters;
+
+  private SectionTemplate(String searchQuery, Map<String, Object> query,
+      Map<String, Object> request, Map<String, FilterSlot> filters) {
+    this.searchQuery = searchQuery;
+    this.query = query;
+    this.request = request;
+    this.filters = filters;
+  }
+
+  /**
+   * @param section page_section row
+   * @return SectionTemplate of the search query of the section
+   */
+  @SuppressWarnings("unchecked")
+  public static SectionTemplate compile(Map<String, Object> section) {
+    String searchQuery = (String) section.get(JsonKey.SEARCH_QUERY);
+    Map<String, Object> query = null;
+    try {
+      if (null != searchQuery) {
+        query = mapper.readValue(searchQuery, new TypeReference<Map<String, Object>>() {});
+      }
+    } catch (IOException e) {
+      ProjectLogger.log("Invalid search query of page section " + section.get(JsonKey.ID), e);
+    }
+    if (null == query || !(query.get(JsonKey.REQUEST) instanceof Map)) {
+      return new SectionTemplate(searchQuery, null, null, null);
+    }
+    Map<String, Object> request =
+        new HashMap<>((Map<String, Object>) query.remove(JsonKey.REQUEST));
+    Map<String, FilterSlot> filters = new LinkedHashMap<>();
+    Object defaultFilters = request.remove(JsonKey.FILTERS);
+    if (defaultFilters instanceof Map) {
+      for (Entry<String, Object> entry : ((Map<String, Object>) defaultFilters).entrySet()) {
+        filters.put(entry.getKey(), new FilterSlot(freeze(entry.getValue())));
+      }
+    }
+    return new SectionTemplate(searchQuery, (Map<String, Object>) freeze(query),
+        (Map<String, Object>) freeze(request), Collections.unmodifiableMap(filters));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object freeze(Object value) {
+    if (value instanceof Map) {
+      Map<String, Object> map = new LinkedHashMap<>();
+      for (Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+        map.put(entry.getKey(), freeze(entry.getValue()));
+      }
+      return Collections.unmodifiableMap(map);
+    }
+    if (value instanceof List) {
+      List<Object> list = new ArrayList<>();
+      for (Object item : (List<Object>) value) {
+        list.add(freeze(item));
+      }
+      return Collections.unmodifiableList(list);
+    }
+    return value;
+  }
+
+  public String getSearchQuery() {
+    return searchQuery;
+  }
+
+  /**
+   * Binds the requested fields and filters to the template. A requested filter the section has no
+   * default for is used as is. Otherwise a list and a value are merged into a list, and a map
+   * replaces the default.
+   *
+   * @param fields fields set on the search request, may be null
+   * @param reqFilters requested filters, may be null
+   * @return search query, the search query of the section as is if it is invalid
+   */
+  public String bind(Map<String, Object> fields, Map<String, Object> reqFilters) {
+    if (null == query) {
+      return searchQuery;
+    }
+    Map<String, Object> boundRequest = new HashMap<>(request);
+    if (null != fields) {
+      for (Entry<String, Object> entry : fields.entrySet()) {
+        if (!entry.getKey().equalsIgnoreCase(JsonKey.FILTERS)) {
+          boundRequest.put(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+    Map<String, Object> boundFilters = new HashMap<>();
+    for (Entry<String, FilterSlot> entry : filters.entrySet()) {
+      boundFilters.put(entry.getKey(), entry.getValue().value);
+    }
+    if (null != reqFilters) {
+      for (Entry<String, Object> entry : reqFilters.entrySet()) {
+        boundFilters.put(entry.getKey(), bind(filters.get(entry.getKey()), entry.getValue()));
+      }
+    }
+    boundRequest.put(JsonKey.FILTERS, boundFilters);
+    Map<String, Object> boundQuery = new HashMap<>(query);
+    boundQuery.put(JsonKey.REQUEST, boundRequest);
+    try {
+      return writer.writeValueAsString(boundQuery);
+    } catch (JsonProcessingException e) {
+      ProjectLogger.log("Exception occurred while writing Ekstep search query", e);
+    }
+    return searchQuery;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object bind(FilterSlot slot, Object value) {
+    if (null == slot || value instanceof Map || SlotType.MAP == slot.type) {
+      return value;
+    }
+    if (value instanceof List) {
+      Set<Object> set = new LinkedHashSet<>();
+      if (SlotType.LIST == slot.type) {
+        set.addAll((List<Object>) slot.value);
+        set.addAll((List<Object>) value);
+      } else {
+        set.addAll((List<Object>) value);
+        set.add(slot.value);
+      }
+      return new ArrayList<>(set);
+    }
+    List<Object> list = new ArrayList<>();
+    if (SlotType.LIST == slot.type) {
+      list.addAll((List<Object>) slot.value);
+      if (!list.contains(value)) {
+        list.add(value);
+      }
+    } else {
+      list.add(slot.value);
+      list.add(value);
+    }
+    return list;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof SectionTemplate
+        && Objects.equals(searchQuery, ((SectionTemplate) obj).searchQuery);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(searchQuery);
+  }
+
+}
@@ -0,0 +1,167 @@
+package org.sunbird.learner.util;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache whose entries expire a fixed time after they are put, for data read from a remote
+ * service that can be served slightly stale, or at a time given with the entry. Least recently
+ * used entries are evicted once the cache is full. A cache with a time to live of 0 is disabled:
+ * it never holds anything.
+ *
+ * @param <V> type of cached value
+ */
+public class TtlCache<V> {
+
+  private final long ttlMillis;
+  private final int maxEntries;
+  private final LinkedHashMap<String, CacheEntry<V>> cache;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+
+  /**
+   * @param ttlMillis time to live of the entries, 0 to disable the cache
+   * @param maxEntries maximum number of entries
+   */
+  public TtlCache(long ttlMillis, int maxEntries) {
+    this.ttlMillis = ttlMillis;
+    this.maxEntries = maxEntries;
+    this.cache = new LinkedHashMap<String, CacheEntry<V>>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CacheEntry<V>> eldest) {
+        if (size() > TtlCache.this.maxEntries) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  public boolean isEnabled() {
+    return ttlMillis > 0 && maxEntries > 0;
+  }
+
+  /**
+   * @return cached value of given key, null if there is none or it has expired
+   */
+  public V get(String key) {
+    if (!isEnabled() || null == key) {
+      return null;
+    }
+    long now = System.currentTimeMillis();
+    synchronized (cache) {
+      CacheEntry<V> entry = cache.get(key);
+      if (null != entry && entry.expiresAt <= now) {
+        cache.remove(key);
+        expirations.increment();
+        entry = null;
+      }
+      if (null == entry) {
+        misses.increment();
+        return null;
+      }
+      hits.increment();
+      return entry.value;
+    }
+  }
+
+  public void put(String key, V value) {
+    put(key, value, System.currentTimeMillis() + ttlMillis);
+  }
+
+  /**
+   * Puts a value expiring at given time instead of after the time to live of the cache.
+   */
+  public void put(String key, V value, long expiresAt) {
+    if (!isEnabled() || null == key || null == value) {
+      return;
+    }
+    CacheEntry<V> entry = new CacheEntry<>(value, expiresAt);
+    synchronized (cache) {
+      cache.put(key, entry);
+    }
+  }
+
+  public void remove(String key) {
+    synchronized (cache) {
+      cache.remove(key);
+    }
+  }
+
+  /**
+   * Removes the entries whose value matches given condition.
+   */
+  public void removeIf(Predicate<V> condition) {
+    synchronized (cache) {
+      cache.values().removeIf(entry -> condition.test(entry.value));
+    }
+  }
+
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  /**
+   * Removes the expired entries, so they do not hold memory until they are looked up again.
+   *
+   * @return number of removed entries
+   */
+  public int removeExpired() {
+    long now = System.currentTimeMillis();
+    int count = 0;
+    synchronized (cache) {
+      Iterator<CacheEntry<V>> itr = cache.values().iterator();
+      while (itr.hasNext()) {
+        if (itr.next().expiresAt <= now) {
+          itr.remove();
+          count++;
+        }
+      }
+    }
+    expirations.add(count);
+    return count;
+  }
+
+  /**
+   * @return size, hit, miss, eviction and expiration counts of the cache
+   */
+  public Map<String, Object> stats() {
+    Map<String, Object> map = new HashMap<>();
+    synchronized (cache) {
+      map.put("size", cache.size());
+    }
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    map.put("ttlMillis", ttlMillis);
+    map.put("maxEntries", maxEntries);
+    map.put("hits", hitCount);
+    map.put("misses", missCount);
+    map.put("hitRate",
+        (hitCount + missCount) == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+    map.put("evictions", evictions.sum());
+    map.put("expirations", expirations.sum());
+    return map;
+  }
+
+  private static class CacheEntry<V> {
+    private final V value;
+    private final long expiresAt;
+
+    CacheEntry(V value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+}
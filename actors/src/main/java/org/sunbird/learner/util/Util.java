@@ -24,7 +24,6 @@ import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.models.util.ProjectUtil;
-import org.sunbird.common.models.util.ProjectUtil.EsIndex;
 import org.sunbird.common.models.util.ProjectUtil.EsType;
 import org.sunbird.common.models.util.ProjectUtil.OrgStatus;
 import org.sunbird.common.models.util.PropertiesCache;
@@ -354,6 +353,26 @@ public final class Util {
     return prop.getProperty(key);
   }
 
+  /**
+   * This method will read the integer value of given key from system env or properties file, and
+   * fall back to default value if it is not configured or not a number.
+   *
+   * @param key property name
+   * @param defaultValue value to use when property is not configured
+   * @return int
+   */
+  public static int getIntProperty(String key, int defaultValue) {
+    String value = System.getenv(key);
+    if (ProjectUtil.isStringNullOREmpty(value)) {
+      value = propertiesCache.getProperty(key);
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (Exception e) {
+      return defaultValue;
+    }
+  }
+
 
   private static DbInfo getDbInfoObject(String keySpace, String table) {
 
@@ -607,32 +626,12 @@ public final class Util {
     return null;
   }
 
+  /**
+   * @param channel channel
+   * @return id of the root organisation of given channel, empty string if there is none
+   */
   public static String getRootOrgIdFromChannel(String channel) {
-    if (!ProjectUtil.isStringNullOREmpty(channel)) {
-      Map<String, Object> filters = new HashMap<>();
-      filters.put(JsonKey.CHANNEL, channel);
-      filters.put(JsonKey.IS_ROOT_ORG, true);
-      Map<String, Object> esResult = elasticSearchComplexSearch(filters,
-          EsIndex.sunbird.getIndexName(), EsType.organisation.getTypeName());
-      if (isNotNull(esResult) && esResult.containsKey(JsonKey.CONTENT)
-          && isNotNull(esResult.get(JsonKey.CONTENT))
-          && ((List) esResult.get(JsonKey.CONTENT)).size() > 0) {
-        Map<String, Object> esContent =
-            ((List<Map<String, Object>>) esResult.get(JsonKey.CONTENT)).get(0);
-        return (String) esContent.getOrDefault(JsonKey.ID, "");
-      }
-    }
-    return "";
-  }
-
-  private static Map<String, Object> elasticSearchComplexSearch(Map<String, Object> filters,
-      String index, String type) {
-
-    SearchDTO searchDTO = new SearchDTO();
-    searchDTO.getAdditionalProperties().put(JsonKey.FILTERS, filters);
-
-    return ElasticSearchUtil.complexSearch(searchDTO, index, type);
-
+    return OrgIdResolver.getRootOrgIdFromChannel(channel);
   }
 
   public static String validateRoles(List<String> roleList) {
@@ -752,7 +751,9 @@ public final class Util {
 
 
   public static void initializeContext(Request actorMessage, String env) {
-
+    // record the mailbox wait of routed request and stop if the caller has already given up ...
+    AdmissionController.onReceive(actorMessage);
+    RequestDeadline.checkDeadline(actorMessage);
     ExecutionContext context = ExecutionContext.getCurrent();
     Map<String, Object> requestContext = null;
     if (actorMessage.getContext().get(JsonKey.TELEMETRY_CONTEXT) != null) {
@@ -0,0 +1,37 @@
+package org.sunbird.learner.util.actorutility;
+
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import com.typesafe.config.Config;
+
+/**
+ * Maps actor classes to the dispatcher they should run on. The mapping is read from the
+ * {@code sunbird-actor-dispatchers} section of the actor system config (simple class name to
+ * dispatcher id), so actors doing blocking Cassandra, Elasticsearch or HTTP calls run on bounded
+ * thread pools and do not starve the default dispatcher used by the routers.
+ */
+public final class ActorDispatcher {
+
+  private static final String ACTOR_DISPATCHERS = "sunbird-actor-dispatchers";
+
+  private ActorDispatcher() {}
+
+  /**
+   * Creates the props for given actor class with the dispatcher configured for it, or the default
+   * dispatcher if there is no mapping.
+   *
+   * @param system actor system the actor will be created in
+   * @param actorClass actor class
+   * @return Props
+   */
+  public static Props props(ActorSystem system, Class<?> actorClass) {
+    Props props = Props.create(actorClass);
+    Config config = system.settings().config();
+    String path = ACTOR_DISPATCHERS + "." + actorClass.getSimpleName();
+    if (config.hasPath(path)) {
+      return props.withDispatcher(config.getString(path));
+    }
+    return props;
+  }
+
+}
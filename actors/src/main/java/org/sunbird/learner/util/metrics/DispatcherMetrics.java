@@ -0,0 +1,54 @@
+package org.sunbird.learner.util.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Keeps track of the thread pools backing the dispatchers configured with
+ * {@link InstrumentedExecutorConfigurator} and reports their utilization. Pools are keyed by
+ * actor system name and dispatcher id, as the local actor systems share their dispatcher ids.
+ */
+public final class DispatcherMetrics {
+
+  private static Map<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+
+  private DispatcherMetrics() {}
+
+  /**
+   * @param systemName name of the actor system of the dispatcher
+   * @param dispatcherId dispatcher id
+   * @param executor thread pool of the dispatcher
+   */
+  public static void register(String systemName, String dispatcherId,
+      ThreadPoolExecutor executor) {
+    executors.put(systemName + "/" + dispatcherId, executor);
+  }
+
+  /**
+   * Current pool size, busy threads, queue depth and utilization (busy threads / max pool size)
+   * of every registered dispatcher, keyed by actor system name / dispatcher id.
+   *
+   * @return Map<String, Object>
+   */
+  public static Map<String, Object> snapshot() {
+    Map<String, Object> map = new HashMap<>();
+    for (Entry<String, ThreadPoolExecutor> entry : executors.entrySet()) {
+      ThreadPoolExecutor executor = entry.getValue();
+      Map<String, Object> dispatcher = new HashMap<>();
+      int active = executor.getActiveCount();
+      int max = executor.getMaximumPoolSize();
+      dispatcher.put("poolSize", executor.getPoolSize());
+      dispatcher.put("maxPoolSize", max);
+      dispatcher.put("activeThreads", active);
+      dispatcher.put("queuedTasks", executor.getQueue().size());
+      dispatcher.put("completedTasks", executor.getCompletedTaskCount());
+      dispatcher.put("utilization", max == 0 ? 0 : Math.round(active * 100.0 / max) / 100.0);
+      map.put(entry.getKey(), dispatcher);
+    }
+    return map;
+  }
+
+}
@@ -0,0 +1,50 @@
+package org.sunbird.learner.util.metrics;
+
+import akka.dispatch.DispatcherPrerequisites;
+import akka.dispatch.ExecutorServiceConfigurator;
+import akka.dispatch.ExecutorServiceFactory;
+import akka.dispatch.MonitorableThreadFactory;
+import akka.dispatch.ThreadPoolExecutorConfigurator;
+import com.typesafe.config.Config;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Akka executor configurator which builds the standard thread-pool-executor of a dispatcher and
+ * registers the pool with {@link DispatcherMetrics}. Use it in a dispatcher config as
+ * {@code executor = "org.sunbird.learner.util.metrics.InstrumentedExecutorConfigurator"}, the
+ * pool itself is still configured through the {@code thread-pool-executor} section.
+ */
+public class InstrumentedExecutorConfigurator extends ExecutorServiceConfigurator {
+
+  private ThreadPoolExecutorConfigurator delegate;
+  private String systemName = "";
+
+  public InstrumentedExecutorConfigurator(Config config, DispatcherPrerequisites prerequisites) {
+    super(config, prerequisites);
+    // the thread factory of the prerequisites is named after the actor system
+    if (prerequisites.threadFactory() instanceof MonitorableThreadFactory) {
+      systemName = ((MonitorableThreadFactory) prerequisites.threadFactory()).name();
+    }
+    delegate = new ThreadPoolExecutorConfigurator(config.getConfig("thread-pool-executor"),
+        prerequisites);
+  }
+
+  @Override
+  public ExecutorServiceFactory createExecutorServiceFactory(String id,
+      ThreadFactory threadFactory) {
+    ExecutorServiceFactory factory = delegate.createExecutorServiceFactory(id, threadFactory);
+    return new ExecutorServiceFactory() {
+      @Override
+      public ExecutorService createExecutorService() {
+        ExecutorService service = factory.createExecutorService();
+        if (service instanceof ThreadPoolExecutor) {
+          DispatcherMetrics.register(systemName, id, (ThreadPoolExecutor) service);
+        }
+        return service;
+      }
+    };
+  }
+
+}
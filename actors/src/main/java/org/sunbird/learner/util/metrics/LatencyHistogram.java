@@ -0,0 +1,123 @@
+package org.sunbird.learner.util.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free latency histogram with log-linear buckets (HDR style). Every power of two range is
+ * split into a fixed number of linear sub buckets, so the relative error of any reported
+ * percentile stays within about 6% while the whole long range fits in less than thousand counters.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+  private static final int BUCKET_COUNT =
+      SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder totalCount = new LongAdder();
+  private final LongAdder totalSum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Record one observed value. Negative values are treated as zero.
+   *
+   * @param value observed value (time in ms)
+   */
+  public void record(long value) {
+    long val = value < 0 ? 0 : value;
+    counts.incrementAndGet(indexOf(val));
+    totalCount.increment();
+    totalSum.add(val);
+    long current = max.get();
+    while (val > current && !max.compareAndSet(current, val)) {
+      current = max.get();
+    }
+  }
+
+  public long getCount() {
+    return totalCount.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public double getMean() {
+    long count = totalCount.sum();
+    return count == 0 ? 0 : (double) totalSum.sum() / count;
+  }
+
+  /**
+   * Returns the value at the given percentile, upper bound of the bucket that holds it.
+   *
+   * @param percentile value between 0 and 100
+   * @return long
+   */
+  public long getValueAtPercentile(double percentile) {
+    long count = totalCount.sum();
+    if (count == 0) {
+      return 0;
+    }
+    double pct = Math.min(Math.max(percentile, 0), 100);
+    long target = Math.max(1, (long) Math.ceil((pct / 100) * count));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts.get(i);
+      if (seen >= target) {
+        return Math.min(highestEquivalentValue(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * Summary of this histogram as a map so it can be put directly into a {@code Response}.
+   *
+   * @return Map<String, Object>
+   */
+  public Map<String, Object> snapshot() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("count", getCount());
+    map.put("mean", Math.round(getMean() * 100) / 100.0);
+    map.put("p50", getValueAtPercentile(50));
+    map.put("p90", getValueAtPercentile(90));
+    map.put("p99", getValueAtPercentile(99));
+    map.put("p999", getValueAtPercentile(99.9));
+    map.put("max", getMax());
+    return map;
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int highestBit = 63 - Long.numberOfLeadingZeros(value);
+    int shift = highestBit - SUB_BUCKET_BITS + 1;
+    int subBucket = (int) (value >>> shift);
+    return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT
+        + (subBucket - SUB_BUCKET_HALF_COUNT);
+  }
+
+  static long lowestEquivalentValue(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+    long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+    return subBucket << shift;
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index + 1 >= BUCKET_COUNT) {
+      return Long.MAX_VALUE;
+    }
+    return lowestEquivalentValue(index + 1) - 1;
+  }
+
+}
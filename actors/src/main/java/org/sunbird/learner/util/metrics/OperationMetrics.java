@@ -0,0 +1,70 @@
+package org.sunbird.learner.util.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram, outcome counters and in-flight gauge for one key (an actor operation or a
+ * router).
+ */
+public class OperationMetrics {
+
+  /**
+   * Outcome of a routed request.
+   */
+  public enum Outcome {
+    SUCCESS, FAILURE, TIMEOUT
+  }
+
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private final LongAdder success = new LongAdder();
+  private final LongAdder failure = new LongAdder();
+  private final LongAdder timeout = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final AtomicLong inFlight = new AtomicLong();
+
+  public void onStart() {
+    inFlight.incrementAndGet();
+  }
+
+  public void onComplete(Outcome outcome, long timeTakenMs) {
+    inFlight.decrementAndGet();
+    latency.record(timeTakenMs);
+    switch (outcome) {
+      case SUCCESS:
+        success.increment();
+        break;
+      case TIMEOUT:
+        timeout.increment();
+        break;
+      default:
+        failure.increment();
+    }
+  }
+
+  public void onRejected() {
+    rejected.increment();
+  }
+
+  public long getInFlight() {
+    return inFlight.get();
+  }
+
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+
+  public Map<String, Object> snapshot() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("success", success.sum());
+    map.put("failure", failure.sum());
+    map.put("timeout", timeout.sum());
+    map.put("rejected", rejected.sum());
+    map.put("inFlight", inFlight.get());
+    map.put("latencyMs", latency.snapshot());
+    return map;
+  }
+
+}
@@ -0,0 +1,100 @@
+package org.sunbird.learner.util.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import org.sunbird.learner.actors.PageManagementActor;
+import org.sunbird.learner.util.DataCacheHandler;
+import org.sunbird.learner.util.EsWriteBehindBuffer;
+import org.sunbird.learner.util.metrics.OperationMetrics.Outcome;
+import org.sunbird.metrics.actors.MetricsCache;
+
+/**
+ * In-process registry of request metrics, keyed by actor operation and by target router. It is
+ * fed by {@code RequestRouterActor} from the ask future callback, so every routed request is
+ * counted exactly once.
+ */
+public final class RequestMetricsRegistry {
+
+  private static final long START_TIME = System.currentTimeMillis();
+  private static Map<String, OperationMetrics> operationMetrics = new ConcurrentHashMap<>();
+  private static Map<String, OperationMetrics> routerMetrics = new ConcurrentHashMap<>();
+
+  private RequestMetricsRegistry() {}
+
+  /**
+   * Marks the start of a request and returns the start time to pass to
+   * {@link #onComplete(String, String, long, Outcome)}.
+   *
+   * @param operation actor operation
+   * @param router router name the request is routed to
+   * @return start time in nano seconds
+   */
+  public static long onStart(String operation, String router) {
+    getOperationMetrics(operation).onStart();
+    getRouterMetrics(router).onStart();
+    return System.nanoTime();
+  }
+
+  public static void onComplete(String operation, String router, long startTime,
+      Outcome outcome) {
+    long timeTaken = (System.nanoTime() - startTime) / 1000000;
+    getOperationMetrics(operation).onComplete(outcome, timeTaken);
+    getRouterMetrics(router).onComplete(outcome, timeTaken);
+  }
+
+  /**
+   * Counts a request rejected by admission control, it is never started so it does not affect the
+   * latency or in-flight values.
+   */
+  public static void onRejected(String operation, String router) {
+    getOperationMetrics(operation).onRejected();
+    getRouterMetrics(router).onRejected();
+  }
+
+  public static OperationMetrics getOperationMetrics(String operation) {
+    return operationMetrics.computeIfAbsent(operation, key -> new OperationMetrics());
+  }
+
+  public static OperationMetrics getRouterMetrics(String router) {
+    return routerMetrics.computeIfAbsent(router, key -> new OperationMetrics());
+  }
+
+  /**
+   * Point in time view of all the metrics collected since startup, along with the current
+   * utilization of the blocking I/O dispatchers, the cache statistics and the ES write-behind
+   * statistics.
+   *
+   * @return Map<String, Object>
+   */
+  public static Map<String, Object> snapshot() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("since", START_TIME);
+    map.put("operations", snapshot(operationMetrics));
+    map.put("routers", snapshot(routerMetrics));
+    map.put("dispatchers", DispatcherMetrics.snapshot());
+    map.put("dataCache", DataCacheHandler.getCacheMetrics());
+    map.put("metricsCache", MetricsCache.getInstance().stats());
+    map.put("pageSectionCache", PageManagementActor.getSectionCacheStats());
+    map.put("esWriteBehind", EsWriteBehindBuffer.getMetrics());
+    return map;
+  }
+
+  private static Map<String, Object> snapshot(Map<String, OperationMetrics> metricsMap) {
+    Map<String, Object> map = new HashMap<>();
+    for (Entry<String, OperationMetrics> entry : metricsMap.entrySet()) {
+      map.put(entry.getKey(), entry.getValue().snapshot());
+    }
+    return map;
+  }
+
+  /**
+   * Drops all the collected metrics.
+   */
+  public static void reset() {
+    operationMetrics = new ConcurrentHashMap<>();
+    routerMetrics = new ConcurrentHashMap<>();
+  }
+
+}
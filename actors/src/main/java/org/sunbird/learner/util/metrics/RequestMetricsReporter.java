@@ -0,0 +1,25 @@
+package org.sunbird.learner.util.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Scheduler job which periodically writes the request metrics snapshot to the PERF_LOG.
+ */
+public class RequestMetricsReporter implements Runnable {
+
+  private ObjectMapper mapper = new ObjectMapper();
+
+  @Override
+  public void run() {
+    try {
+      ProjectLogger.log(
+          "Request metrics snapshot " + mapper.writeValueAsString(RequestMetricsRegistry.snapshot()),
+          LoggerEnum.PERF_LOG);
+    } catch (Exception e) {
+      ProjectLogger.log(e.getMessage(), e);
+    }
+  }
+
+}
@@ -54,7 +54,7 @@ public abstract class BaseMetricsActor extends UntypedAbstractActor {
   protected static final String USER_ID = "user_id";
   protected static final String FOLDERPATH = "/data/";
   protected static final String FILENAMESEPARATOR = "_";
-  protected static final MetricsCache cache = new MetricsCache();
+  protected static final MetricsCache cache = MetricsCache.getInstance();
   private static final String CHARSETS_UTF_8 = "UTF-8";
   
 
@@ -97,6 +97,24 @@ public abstract class BaseMetricsActor extends UntypedAbstractActor {
     return dateMap;
   }
 
+  /**
+   * The window returned by getStartAndEndDateForDay is derived from the current GMT date, so the
+   * metrics computed for it stay valid until the next GMT midnight.
+   *
+   * @param timeMillis current time
+   * @return time of the next GMT midnight in millis
+   */
+  protected static long getNextDayBoundary(long timeMillis) {
+    Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+    calendar.setTimeInMillis(timeMillis);
+    calendar.set(Calendar.HOUR_OF_DAY, 0);
+    calendar.set(Calendar.MINUTE, 0);
+    calendar.set(Calendar.SECOND, 0);
+    calendar.set(Calendar.MILLISECOND, 0);
+    calendar.add(Calendar.DATE, 1);
+    return calendar.getTimeInMillis();
+  }
+
   protected static Map<String,Object> getStartAndEndDate(String period){
     if("5w".equalsIgnoreCase(period)){
       return getStartAndEndDateForWeek(period);
@@ -1,42 +1,44 @@
 package org.sunbird.metrics.actors;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.responsecode.ResponseCode;
-
+import org.sunbird.learner.util.TtlCache;
+import org.sunbird.learner.util.Util;
+
+/**
+ * Cache of the computed org and course metrics. Entries are keyed by operation, id and period, so
+ * the different periods of an org or course are cached side by side. Every entry expires at the
+ * next day boundary (see {@link BaseMetricsActor#getNextDayBoundary(long)}), when the reporting
+ * window moves, and the cache is bounded to sunbird_metrics_cache_max_entries entries with least
+ * recently used eviction.
+ */
 public class MetricsCache {
 
-  private Map<String, Map<String, Object>> orgCreationCache = new ConcurrentHashMap<>();
-  private Map<String, Map<String, Object>> orgConsumptionCache = new ConcurrentHashMap<>();
-  private Map<String, Map<String, Object>> courseProgressCache = new ConcurrentHashMap<>();
-  private Map<String, Map<String, Object>> courseConsumptionCache = new ConcurrentHashMap<>();
-
-
-  public Object getData(String operation, String id, String period) {
-    try {
-      switch (operation) {
-        case JsonKey.OrgCreation:
-          return orgCreationCache.get(id).get(period);
-
-        case JsonKey.OrgConsumption:
-          return orgConsumptionCache.get(id).get(period);
+  private static final int DEFAULT_MAX_ENTRIES = 2000;
+  private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+  private static final String SEPARATOR = ":";
+  private static MetricsCache instance;
 
-        case JsonKey.CourseProgress:
-          return courseProgressCache.get(id).get(period);
+  private final TtlCache<Object> cache;
 
-        case JsonKey.CourseConsumption:
-          return courseConsumptionCache.get(id).get(period);
+  MetricsCache(int maxEntries) {
+    this.cache = new TtlCache<>(DAY_MILLIS, maxEntries);
+  }
 
-        default:
-          throw new ProjectCommonException(ResponseCode.invalidData.getErrorCode(),
-              ResponseCode.invalidData.getErrorMessage(),
-              ResponseCode.CLIENT_ERROR.getResponseCode());
+  public static synchronized MetricsCache getInstance() {
+    if (null == instance) {
+      instance = new MetricsCache(
+          Util.getIntProperty("sunbird_metrics_cache_max_entries", DEFAULT_MAX_ENTRIES));
+    }
+    return instance;
+  }
 
-      }
+  public Object getData(String operation, String id, String period) {
+    try {
+      return cache.get(getKey(operation, id, period));
     } catch (Exception e) {
       ProjectLogger.log("Error occured", e);
       return null;
@@ -44,32 +46,41 @@ public class MetricsCache {
   }
 
   public void clearCache() {
-    orgCreationCache = new ConcurrentHashMap<>();
-    orgConsumptionCache = new ConcurrentHashMap<>();
-    courseProgressCache = new ConcurrentHashMap<>();
-    courseConsumptionCache = new ConcurrentHashMap<>();
+    cache.clear();
   }
 
   public void setData(String operation, String id, String period, Object data) {
-    Map<String, Object> periodMap = new HashMap<>();
-    periodMap.put(period, data);
+    long now = System.currentTimeMillis();
+    put(getKey(operation, id, period), data, BaseMetricsActor.getNextDayBoundary(now));
+  }
+
+  void put(String key, Object data, long expiresAt) {
+    cache.put(key, data, expiresAt);
+  }
+
+  /**
+   * Removes the expired entries, so they do not hold memory until they are looked up again.
+   *
+   * @return number of removed entries
+   */
+  public int removeExpired() {
+    return cache.removeExpired();
+  }
+
+  /**
+   * @return size, hit, miss, eviction and expiration counts of the cache
+   */
+  public Map<String, Object> stats() {
+    return cache.stats();
+  }
+
+  private static String getKey(String operation, String id, String period) {
     switch (operation) {
       case JsonKey.OrgCreation:
-        orgCreationCache.put(id, periodMap);
-        break;
-
       case JsonKey.OrgConsumption:
-        orgConsumptionCache.put(id, periodMap);
-        break;
-
       case JsonKey.CourseProgress:
-        courseProgressCache.put(id, periodMap);
-        break;
-
       case JsonKey.CourseConsumption:
-        courseConsumptionCache.put(id, periodMap);
-        break;
-
+        return operation + SEPARATOR + id + SEPARATOR + period;
       default:
         throw new ProjectCommonException(ResponseCode.invalidData.getErrorCode(),
             ResponseCode.invalidData.getErrorMessage(),
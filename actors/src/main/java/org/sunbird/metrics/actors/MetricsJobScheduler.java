@@ -10,13 +10,14 @@ import org.sunbird.common.models.util.ProjectLogger;
 
 public class MetricsJobScheduler implements Job {
   
-  private static MetricsCache cache = new MetricsCache();
+  private static MetricsCache cache = MetricsCache.getInstance();
   
   public void execute(JobExecutionContext ctx) throws JobExecutionException {
     ProjectLogger.log("Running Metrics Job Scheduler at: " + Calendar.getInstance().getTime() +
         " triggered by: " + ctx.getJobDetail().toString(),LoggerEnum.INFO.name());
-    cache.clearCache();
-    ProjectLogger.log("Clearing Cache for Dashboard API");
+    int count = cache.removeExpired();
+    ProjectLogger.log("Removed " + count + " expired entries from Cache for Dashboard API "
+        + cache.stats(), LoggerEnum.INFO.name());
   }
 
 }
\ No newline at end of file
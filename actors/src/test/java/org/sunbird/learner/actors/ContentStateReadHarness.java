@@ -0,0 +1,81 @@
+package org.sunbird.learner.actors;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.pattern.Patterns;
+import akka.util.Timeout;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.models.util.ActorOperations;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.request.Request;
+import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.Util;
+import org.sunbird.learner.util.metrics.LatencyHistogram;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+/**
+ * Replays the content state read of a learner enrolled in 50 courses against the
+ * LearnerStateActor and the configured Cassandra: once as the GET_CONTENT request by course ids,
+ * which runs the queries concurrently, and once as the former loop of one query after the other.
+ * Prints the latency percentiles of both, in milliseconds.
+ *
+ * Run with : mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.sunbird.learner.actors.ContentStateReadHarness
+ */
+public class ContentStateReadHarness {
+
+  private static final int COURSE_COUNT = 50;
+  private static final int ROUNDS = 200;
+  private static final String USER_ID = "contentStateReadHarnessUser";
+
+  public static void main(String[] args) throws Exception {
+    Util.checkCassandraDbConnections(JsonKey.SUNBIRD);
+    ActorSystem system = ActorSystem.create("ContentStateReadHarness");
+    ActorRef actor = system.actorOf(Props.create(LearnerStateActor.class));
+    Timeout timeout = new Timeout(Duration.create(30, TimeUnit.SECONDS));
+    List<String> courseIds = new ArrayList<>();
+    for (int i = 0; i < COURSE_COUNT; i++) {
+      courseIds.add("contentStateReadHarnessCourse" + i);
+    }
+    Request request = new Request();
+    request.setOperation(ActorOperations.GET_CONTENT.getValue());
+    request.getRequest().put(JsonKey.USER_ID, USER_ID);
+    request.getRequest().put(JsonKey.COURSE_IDS, courseIds);
+
+    LatencyHistogram concurrent = new LatencyHistogram();
+    LatencyHistogram sequential = new LatencyHistogram();
+    for (int round = 0; round < ROUNDS; round++) {
+      long startTime = System.nanoTime();
+      Await.result(Patterns.ask(actor, request, timeout), timeout.duration());
+      concurrent.record((System.nanoTime() - startTime) / 1000000);
+
+      startTime = System.nanoTime();
+      readOneByOne(courseIds);
+      sequential.record((System.nanoTime() - startTime) / 1000000);
+    }
+    system.terminate();
+    System.out.println(COURSE_COUNT + " course ids, concurrent : " + concurrent.snapshot());
+    System.out.println(COURSE_COUNT + " course ids, one by one : " + sequential.snapshot());
+  }
+
+  // getContentByCourses before CassandraMultiReader
+  private static void readOneByOne(List<String> courseIds) {
+    CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+    Util.DbInfo dbInfo = Util.dbInfoMap.get(JsonKey.LEARNER_CONTENT_DB);
+    Map<String, Object> queryMap = new LinkedHashMap<>();
+    queryMap.put(JsonKey.USER_ID, USER_ID);
+    for (String courseId : courseIds) {
+      queryMap.put(JsonKey.COURSE_ID, courseId);
+      cassandraOperation.getRecordsByProperties(dbInfo.getKeySpace(), dbInfo.getTableName(),
+          queryMap);
+    }
+  }
+
+}
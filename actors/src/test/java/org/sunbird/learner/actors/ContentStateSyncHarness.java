@@ -0,0 +1,81 @@
+package org.sunbird.learner.actors;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.pattern.Patterns;
+import akka.util.Timeout;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.sunbird.common.models.util.ActorOperations;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.request.Request;
+import org.sunbird.learner.util.Util;
+import org.sunbird.learner.util.metrics.LatencyHistogram;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
+
+/**
+ * Replays the content state sync of a mobile client, 50 contents of a course, against the
+ * LearnerStateUpdateActor and the configured Cassandra: once as a single ADD_CONTENT request of 50
+ * contents and once as 50 requests of one content, which is the cost of the former per content
+ * reads and writes. Prints the latency percentiles of both, in milliseconds.
+ *
+ * Run with : mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.sunbird.learner.actors.ContentStateSyncHarness
+ */
+public class ContentStateSyncHarness {
+
+  private static final int CONTENT_COUNT = 50;
+  private static final int ROUNDS = 200;
+  private static final String USER_ID = "contentStateSyncHarnessUser";
+  private static final String COURSE_ID = "contentStateSyncHarnessCourse";
+
+  public static void main(String[] args) throws Exception {
+    Util.checkCassandraDbConnections(JsonKey.SUNBIRD);
+    ActorSystem system = ActorSystem.create("ContentStateSyncHarness");
+    ActorRef actor = system.actorOf(Props.create(LearnerStateUpdateActor.class));
+    Timeout timeout = new Timeout(Duration.create(30, TimeUnit.SECONDS));
+    LatencyHistogram batched = new LatencyHistogram();
+    LatencyHistogram perContent = new LatencyHistogram();
+    for (int round = 0; round < ROUNDS; round++) {
+      long startTime = System.nanoTime();
+      Await.result(Patterns.ask(actor, request(0, CONTENT_COUNT), timeout),
+          timeout.duration());
+      batched.record((System.nanoTime() - startTime) / 1000000);
+
+      startTime = System.nanoTime();
+      for (int i = 0; i < CONTENT_COUNT; i++) {
+        Await.result(Patterns.ask(actor, request(i, 1), timeout), timeout.duration());
+      }
+      perContent.record((System.nanoTime() - startTime) / 1000000);
+    }
+    system.terminate();
+    System.out.println("1 request of " + CONTENT_COUNT + " contents : " + batched.snapshot());
+    System.out.println(CONTENT_COUNT + " requests of 1 content  : " + perContent.snapshot());
+  }
+
+  private static Request request(int from, int count) {
+    List<Map<String, Object>> contents = new ArrayList<>();
+    for (int i = from; i < from + count; i++) {
+      Map<String, Object> content = new HashMap<>();
+      content.put(JsonKey.CONTENT_ID, "contentStateSyncHarnessContent" + i);
+      content.put(JsonKey.COURSE_ID, COURSE_ID);
+      content.put(JsonKey.STATUS, BigInteger.valueOf(i % 3));
+      content.put(JsonKey.CONTENT_PROGRESS, BigInteger.valueOf(i % 100));
+      content.put(JsonKey.LAST_ACCESS_TIME, ProjectUtil.getFormattedDate());
+      contents.add(content);
+    }
+    Request request = new Request();
+    request.setOperation(ActorOperations.ADD_CONTENT.getValue());
+    request.getRequest().put(JsonKey.USER_ID, USER_ID);
+    request.getRequest().put(JsonKey.CONTENTS, contents);
+    return request;
+  }
+
+}
@@ -0,0 +1,253 @@
+package org.sunbird.learner.actors;
+
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectUtil;
+
+/**
+ * Cost of preparing the rows of an ADD_CONTENT request of 100 contents, Cassandra and telemetry
+ * excepted: half of the contents have a current state and one in ten is in a closed batch. The
+ * former path copied the content list on every removal and created a formatter, a date and a
+ * timestamp per content, the current one merges the states with one {@link ContentStateUpdate}.
+ * The request is built before each invocation, the gc profiler still counts it in the allocated
+ * bytes per request (gc.alloc.rate.norm), which {@link #requestOnly} measures alone. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.sunbird.learner.actors.ContentStateUpdateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentStateUpdateBenchmark {
+
+  private static final int CONTENT_COUNT = 100;
+  private static final String USER_ID = "user1";
+
+  private Map<String, Map<String, Object>> currentStates = new HashMap<>();
+  private String accessTime;
+  private List<Map<String, Object>> requested;
+
+  @Setup
+  public void setup() {
+    accessTime = ProjectUtil.getFormattedDate();
+    for (int i = 0; i < CONTENT_COUNT; i += 2) {
+      Map<String, Object> state = new HashMap<>();
+      state.put(JsonKey.ID, "id" + i);
+      state.put(JsonKey.STATUS, 1);
+      state.put(JsonKey.CONTENT_PROGRESS, 50);
+      state.put(JsonKey.COMPLETED_COUNT, 0);
+      state.put(JsonKey.VIEW_COUNT, 3);
+      state.put(JsonKey.LAST_ACCESS_TIME, accessTime);
+      currentStates.put("id" + i, state);
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void request() {
+    List<Map<String, Object>> contents = new ArrayList<>(CONTENT_COUNT);
+    for (int i = 0; i < CONTENT_COUNT; i++) {
+      Map<String, Object> content = new HashMap<>();
+      content.put(JsonKey.ID, "id" + i);
+      content.put(JsonKey.CONTENT_ID, "content" + i);
+      content.put(JsonKey.COURSE_ID, "course1");
+      content.put(JsonKey.BATCH_ID, i % 10 == 0 ? "closedBatch" : "batch1");
+      content.put(JsonKey.STATUS, BigInteger.valueOf(i % 3));
+      content.put(JsonKey.CONTENT_PROGRESS, BigInteger.valueOf(i));
+      content.put(JsonKey.LAST_ACCESS_TIME, accessTime);
+      contents.add(content);
+    }
+    requested = contents;
+  }
+
+  private static boolean isClosed(Map<String, Object> content) {
+    return "closedBatch".equals(content.get(JsonKey.BATCH_ID));
+  }
+
+  @Benchmark
+  public Object requestOnly() {
+    return requested;
+  }
+
+  @Benchmark
+  public Object perContentState(Blackhole blackhole) throws ParseException {
+    List<Map<String, Object>> contentList = new CopyOnWriteArrayList<>(requested);
+    Map<String, Integer> contentStatusHolder = new HashMap<>();
+    Map<String, Object> result = new HashMap<>();
+    List<Map<String, Object>> validContents = new ArrayList<>();
+    for (Map<String, Object> map : contentList) {
+      if (isClosed(map)) {
+        result.put((String) map.get(JsonKey.CONTENT_ID), "BATCH NOT STARTED OR BATCH CLOSED");
+        contentList.remove(map);
+        continue;
+      }
+      validContents.add(map);
+    }
+    Map<String, Map<String, Object>> rows = new LinkedHashMap<>();
+    SimpleDateFormat dateFormat = ProjectUtil.getDateFormatter();
+    dateFormat.setLenient(false);
+    for (Map<String, Object> map : validContents) {
+      String id = (String) map.get(JsonKey.ID);
+      preOperation(map, currentStates.get(id), dateFormat, contentStatusHolder);
+      map.put(JsonKey.USER_ID, USER_ID);
+      map.put(JsonKey.DATE_TIME, new Timestamp(new Date().getTime()));
+      rows.put(id, map);
+    }
+    Set<String> failedIds = new HashSet<>();
+    for (Map<String, Object> map : validContents) {
+      if (failedIds.contains(map.get(JsonKey.ID))) {
+        contentList.remove(map);
+        continue;
+      }
+      result.put((String) map.get(JsonKey.CONTENT_ID), JsonKey.SUCCESS);
+    }
+    blackhole.consume(contentList);
+    blackhole.consume(contentStatusHolder);
+    blackhole.consume(result);
+    return rows;
+  }
+
+  @Benchmark
+  public Object contentStateUpdate(Blackhole blackhole) {
+    List<Map<String, Object>> contentList = new ArrayList<>(requested.size());
+    Map<String, Integer> contentStatusHolder = new HashMap<>();
+    Map<String, Object> result = new HashMap<>();
+    List<Map<String, Object>> validContents = new ArrayList<>(requested.size());
+    for (Map<String, Object> map : requested) {
+      if (isClosed(map)) {
+        result.put((String) map.get(JsonKey.CONTENT_ID), "BATCH NOT STARTED OR BATCH CLOSED");
+        continue;
+      }
+      validContents.add(map);
+    }
+    Map<String, Map<String, Object>> rows = new LinkedHashMap<>();
+    ContentStateUpdate update = new ContentStateUpdate(USER_ID);
+    for (Map<String, Object> map : validContents) {
+      String id = (String) map.get(JsonKey.ID);
+      contentStatusHolder.put(id, update.merge(map, currentStates.get(id)));
+      rows.put(id, map);
+    }
+    for (Map<String, Object> map : validContents) {
+      contentList.add(map);
+      result.put((String) map.get(JsonKey.CONTENT_ID), JsonKey.SUCCESS);
+    }
+    blackhole.consume(contentList);
+    blackhole.consume(contentStatusHolder);
+    blackhole.consume(result);
+    return rows;
+  }
+
+  // content state merge of LearnerStateUpdateActor before ContentStateUpdate
+  private void preOperation(Map<String, Object> req, Map<String, Object> result,
+      SimpleDateFormat simpleDateFormat, Map<String, Integer> contentStateHolder)
+      throws ParseException {
+    contentStateHolder.put((String) req.get(JsonKey.ID),
+        ((BigInteger) req.get(JsonKey.STATUS)).intValue());
+    if (null != result) {
+      int currentStatus = (int) result.get(JsonKey.STATUS);
+      int requestedStatus = ((BigInteger) req.get(JsonKey.STATUS)).intValue();
+      Integer currentProgressStatus = (Integer) result.get(JsonKey.CONTENT_PROGRESS);
+      Integer requestedProgressStatus =
+          ((BigInteger) req.get(JsonKey.CONTENT_PROGRESS)).intValue();
+      req.put(JsonKey.CONTENT_PROGRESS, Math.max(requestedProgressStatus, currentProgressStatus));
+      Date accessTime = parseDate(result.get(JsonKey.LAST_ACCESS_TIME), simpleDateFormat);
+      Date requestAccessTime = parseDate(req.get(JsonKey.LAST_ACCESS_TIME), simpleDateFormat);
+      Date completedDate = parseDate(result.get(JsonKey.LAST_COMPLETED_TIME), simpleDateFormat);
+      Date requestCompletedTime = parseDate(req.get(JsonKey.LAST_COMPLETED_TIME), simpleDateFormat);
+      int completedCount = (int) result.get(JsonKey.COMPLETED_COUNT);
+      int viewCount = (int) result.get(JsonKey.VIEW_COUNT);
+      if (requestedStatus >= currentStatus) {
+        req.put(JsonKey.STATUS, requestedStatus);
+        if (requestedStatus == 2) {
+          req.put(JsonKey.COMPLETED_COUNT, completedCount + 1);
+          req.put(JsonKey.LAST_COMPLETED_TIME,
+              compareTime(completedDate, requestCompletedTime, simpleDateFormat));
+        } else {
+          req.put(JsonKey.COMPLETED_COUNT, completedCount);
+        }
+      } else {
+        req.put(JsonKey.STATUS, currentStatus);
+        req.put(JsonKey.COMPLETED_COUNT, completedCount);
+      }
+      req.put(JsonKey.VIEW_COUNT, viewCount + 1);
+      req.put(JsonKey.LAST_ACCESS_TIME,
+          compareTime(accessTime, requestAccessTime, simpleDateFormat));
+      req.put(JsonKey.LAST_UPDATED_TIME, ProjectUtil.getFormattedDate());
+    } else {
+      Date requestCompletedTime = parseDate(req.get(JsonKey.LAST_COMPLETED_TIME), simpleDateFormat);
+      int requestedStatus = ((BigInteger) req.get(JsonKey.STATUS)).intValue();
+      req.put(JsonKey.STATUS, requestedStatus);
+      if (requestedStatus == 2) {
+        req.put(JsonKey.COMPLETED_COUNT, 1);
+        req.put(JsonKey.LAST_COMPLETED_TIME,
+            compareTime(null, requestCompletedTime, simpleDateFormat));
+      } else {
+        req.put(JsonKey.COMPLETED_COUNT, 0);
+      }
+      req.put(JsonKey.CONTENT_PROGRESS,
+          ((BigInteger) req.get(JsonKey.CONTENT_PROGRESS)).intValue());
+      req.put(JsonKey.VIEW_COUNT, 1);
+      Date requestAccessTime = parseDate(req.get(JsonKey.LAST_ACCESS_TIME), simpleDateFormat);
+      req.put(JsonKey.LAST_UPDATED_TIME, ProjectUtil.getFormattedDate());
+      if (requestAccessTime == null) {
+        req.put(JsonKey.LAST_ACCESS_TIME, ProjectUtil.getFormattedDate());
+      }
+    }
+  }
+
+  private Date parseDate(Object obj, SimpleDateFormat formatter) throws ParseException {
+    if (null == obj || ((String) obj).equalsIgnoreCase(JsonKey.NULL)) {
+      return null;
+    }
+    return formatter.parse((String) obj);
+  }
+
+  private String compareTime(Date currentValue, Date requestedValue,
+      SimpleDateFormat simpleDateFormat) {
+    if (currentValue == null && requestedValue == null) {
+      return ProjectUtil.getFormattedDate();
+    } else if (currentValue == null) {
+      return simpleDateFormat.format(requestedValue);
+    } else if (null == requestedValue) {
+      return simpleDateFormat.format(currentValue);
+    }
+    return (requestedValue.after(currentValue) ? simpleDateFormat.format(requestedValue)
+        : simpleDateFormat.format(currentValue));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ContentStateUpdateBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class).build()).run();
+  }
+
+}
@@ -0,0 +1,169 @@
+package org.sunbird.learner.actors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.responsecode.ResponseCode;
+
+public class ContentStateUpdateTest {
+
+  private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+  private static final long NOW = System.currentTimeMillis();
+  private static final String EARLIER = format(NOW - 2 * DAY_MILLIS);
+  private static final String EARLY = format(NOW - DAY_MILLIS);
+  private static final String LATER = format(NOW + DAY_MILLIS);
+
+  private final ContentStateUpdate update = new ContentStateUpdate("user1");
+
+  @Test
+  public void testNewContentCompleted() {
+    Map<String, Object> req = request(2, 100);
+    req.put(JsonKey.LAST_COMPLETED_TIME, EARLY);
+    assertEquals(2, update.merge(req, null));
+    assertEquals(2, req.get(JsonKey.STATUS));
+    assertEquals(100, req.get(JsonKey.CONTENT_PROGRESS));
+    assertEquals(1, req.get(JsonKey.COMPLETED_COUNT));
+    assertEquals(1, req.get(JsonKey.VIEW_COUNT));
+    assertEquals(EARLY, req.get(JsonKey.LAST_COMPLETED_TIME));
+    assertEquals(req.get(JsonKey.LAST_UPDATED_TIME), req.get(JsonKey.LAST_ACCESS_TIME));
+    assertEquals("user1", req.get(JsonKey.USER_ID));
+    assertNotNull(req.get(JsonKey.DATE_TIME));
+  }
+
+  @Test
+  public void testNewContentWithoutStatus() {
+    Map<String, Object> req = request(null, 10);
+    req.put(JsonKey.LAST_ACCESS_TIME, EARLY);
+    int notStarted = ProjectUtil.ProgressStatus.NOT_STARTED.getValue();
+    assertEquals(notStarted, update.merge(req, null));
+    assertEquals(notStarted, req.get(JsonKey.STATUS));
+    assertEquals(0, req.get(JsonKey.COMPLETED_COUNT));
+    assertEquals(1, req.get(JsonKey.VIEW_COUNT));
+    assertEquals(EARLY, req.get(JsonKey.LAST_ACCESS_TIME));
+    assertFalse(req.containsKey(JsonKey.LAST_COMPLETED_TIME));
+  }
+
+  @Test
+  public void testLowerStatusKeepsCurrentStatus() {
+    Map<String, Object> req = request(0, 10);
+    assertEquals(0, update.merge(req, current(1, 50)));
+    assertEquals(1, req.get(JsonKey.STATUS));
+    assertEquals(50, req.get(JsonKey.CONTENT_PROGRESS));
+    assertEquals(1, req.get(JsonKey.COMPLETED_COUNT));
+    assertEquals(4, req.get(JsonKey.VIEW_COUNT));
+  }
+
+  @Test
+  public void testNullStatusKeepsCurrentStatus() {
+    Map<String, Object> req = request(null, 10);
+    assertEquals(ProjectUtil.ProgressStatus.NOT_STARTED.getValue(),
+        update.merge(req, current(1, 50)));
+    assertEquals(1, req.get(JsonKey.STATUS));
+    assertEquals(1, req.get(JsonKey.COMPLETED_COUNT));
+  }
+
+  @Test
+  public void testEqualStatus() {
+    Map<String, Object> req = request(1, 60);
+    assertEquals(1, update.merge(req, current(1, 50)));
+    assertEquals(1, req.get(JsonKey.STATUS));
+    assertEquals(60, req.get(JsonKey.CONTENT_PROGRESS));
+    assertEquals(1, req.get(JsonKey.COMPLETED_COUNT));
+    assertEquals(4, req.get(JsonKey.VIEW_COUNT));
+
+    req = request(2, 100);
+    update.merge(req, current(2, 100));
+    assertEquals(2, req.get(JsonKey.STATUS));
+    assertEquals(2, req.get(JsonKey.COMPLETED_COUNT));
+  }
+
+  @Test
+  public void testHigherStatusCompletesContent() {
+    Map<String, Object> req = request(2, 100);
+    assertEquals(2, update.merge(req, current(1, 50)));
+    assertEquals(2, req.get(JsonKey.STATUS));
+    assertEquals(100, req.get(JsonKey.CONTENT_PROGRESS));
+    assertEquals(2, req.get(JsonKey.COMPLETED_COUNT));
+    assertEquals(4, req.get(JsonKey.VIEW_COUNT));
+  }
+
+  @Test
+  public void testNullProgress() {
+    Map<String, Object> req = request(1, null);
+    update.merge(req, null);
+    assertEquals(0, req.get(JsonKey.CONTENT_PROGRESS));
+
+    req = request(1, null);
+    update.merge(req, current(1, 50));
+    assertEquals(50, req.get(JsonKey.CONTENT_PROGRESS));
+  }
+
+  @Test
+  public void testLaterTimesReplaceCurrentOnes() {
+    Map<String, Object> req = request(2, 100);
+    req.put(JsonKey.LAST_ACCESS_TIME, LATER);
+    req.put(JsonKey.LAST_COMPLETED_TIME, LATER);
+    update.merge(req, current(2, 100));
+    assertEquals(LATER, req.get(JsonKey.LAST_ACCESS_TIME));
+    assertEquals(LATER, req.get(JsonKey.LAST_COMPLETED_TIME));
+  }
+
+  @Test
+  public void testEarlierTimesKeepCurrentOnes() {
+    Map<String, Object> req = request(2, 100);
+    req.put(JsonKey.LAST_ACCESS_TIME, EARLIER);
+    req.put(JsonKey.LAST_COMPLETED_TIME, EARLIER);
+    update.merge(req, current(2, 100));
+    assertEquals(EARLY, req.get(JsonKey.LAST_ACCESS_TIME));
+    assertEquals(EARLY, req.get(JsonKey.LAST_COMPLETED_TIME));
+  }
+
+  @Test
+  public void testMalformedDate() {
+    Map<String, Object> req = request(1, 10);
+    req.put(JsonKey.LAST_ACCESS_TIME, "01/11/2017");
+    try {
+      update.merge(req, current(1, 50));
+      fail("malformed date accepted");
+    } catch (ProjectCommonException e) {
+      assertEquals(ResponseCode.invalidDateFormat.getErrorCode(), e.getCode());
+    }
+  }
+
+  private static String format(long time) {
+    return ProjectUtil.getDateFormatter().format(new Date(time));
+  }
+
+  private Map<String, Object> request(Integer status, Integer progress) {
+    Map<String, Object> req = new HashMap<>();
+    req.put(JsonKey.ID, "id1");
+    req.put(JsonKey.CONTENT_ID, "content1");
+    req.put(JsonKey.STATUS, null == status ? null : BigInteger.valueOf(status));
+    req.put(JsonKey.CONTENT_PROGRESS, null == progress ? null : BigInteger.valueOf(progress));
+    return req;
+  }
+
+  // current state, completed once, viewed three times, accessed and completed a day ago
+  private Map<String, Object> current(int status, int progress) {
+    Map<String, Object> result = new HashMap<>();
+    result.put(JsonKey.ID, "id1");
+    result.put(JsonKey.STATUS, status);
+    result.put(JsonKey.CONTENT_PROGRESS, progress);
+    result.put(JsonKey.COMPLETED_COUNT, 1);
+    result.put(JsonKey.VIEW_COUNT, 3);
+    result.put(JsonKey.LAST_ACCESS_TIME, EARLY);
+    result.put(JsonKey.LAST_COMPLETED_TIME, EARLY);
+    return result;
+  }
+
+}
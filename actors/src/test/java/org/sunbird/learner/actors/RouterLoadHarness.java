@@ -0,0 +1,121 @@
+package org.sunbird.learner.actors;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.actor.UntypedAbstractActor;
+import akka.pattern.Patterns;
+import akka.routing.FromConfig;
+import akka.util.Timeout;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.sunbird.common.models.util.ActorOperations;
+import org.sunbird.common.request.Request;
+import org.sunbird.learner.util.metrics.LatencyHistogram;
+import scala.concurrent.Await;
+import scala.concurrent.Future;
+import scala.concurrent.duration.Duration;
+
+/**
+ * Load test harness for the router configuration. It replays mixed GET_PROFILE and GET_PAGE_DATA
+ * traffic against the userManagementRouter and pageManagementRouter deployments of
+ * LocaleMWConfig, once with the configured (load aware) routers and once with plain round robin
+ * pools of the same size, and prints the latency percentiles of both runs. Routees are simulated
+ * so no Cassandra or EkStep is required.
+ *
+ * Run with : mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.sunbird.learner.actors.RouterLoadHarness
+ */
+public class RouterLoadHarness {
+
+  private static final String USER_MANAGEMENT_ROUTER = "userManagementRouter";
+  private static final String PAGE_MANAGEMENT_ROUTER = "pageManagementRouter";
+  private static final int REQUEST_COUNT = 3000;
+  private static final int REQUEST_INTERVAL_MICROS = 2000;
+
+  public static void main(String[] args) throws Exception {
+    Config config = ConfigFactory.load().getConfig("LocaleMWConfig");
+    Config roundRobin = ConfigFactory.parseString(
+        "akka.actor.deployment./RequestRouterActor/" + USER_MANAGEMENT_ROUTER
+            + " { router = round-robin-pool, nr-of-instances = 15, resizer.enabled = off }\n"
+            + "akka.actor.deployment./RequestRouterActor/" + PAGE_MANAGEMENT_ROUTER
+            + " { router = round-robin-pool, nr-of-instances = 15, resizer.enabled = off }")
+        .withFallback(config);
+    System.out.println("round-robin-pool : " + run("RoundRobinLoadSystem", roundRobin));
+    System.out.println("configured pool  : " + run("ConfiguredLoadSystem", config));
+  }
+
+  private static String run(String name, Config config) throws Exception {
+    ActorSystem system = ActorSystem.create(name, config);
+    ActorRef router =
+        system.actorOf(Props.create(SimulatedRouterActor.class), "RequestRouterActor");
+    Timeout timeout = new Timeout(Duration.create(30, TimeUnit.SECONDS));
+    LatencyHistogram profile = new LatencyHistogram();
+    LatencyHistogram page = new LatencyHistogram();
+    List<Future<Object>> futures = new ArrayList<>();
+    List<Long> startTimes = new ArrayList<>();
+    List<Boolean> isProfile = new ArrayList<>();
+    Random random = new Random(7);
+    for (int i = 0; i < REQUEST_COUNT; i++) {
+      boolean profileRequest = random.nextBoolean();
+      Request request = new Request();
+      request.setOperation(profileRequest ? ActorOperations.GET_PROFILE.getValue()
+          : ActorOperations.GET_PAGE_DATA.getValue());
+      startTimes.add(System.nanoTime());
+      isProfile.add(profileRequest);
+      futures.add(Patterns.ask(router, request, timeout));
+      TimeUnit.MICROSECONDS.sleep(REQUEST_INTERVAL_MICROS);
+    }
+    for (int i = 0; i < futures.size(); i++) {
+      Long endTime = (Long) Await.result(futures.get(i), timeout.duration());
+      long timeTaken = (endTime - startTimes.get(i)) / 1000000;
+      (isProfile.get(i) ? profile : page).record(timeTaken);
+    }
+    system.terminate();
+    return "GET_PROFILE " + profile.snapshot() + " GET_PAGE_DATA " + page.snapshot();
+  }
+
+  /**
+   * Stand in for RequestRouterActor, creates the two routers from config and forwards requests.
+   */
+  public static class SimulatedRouterActor extends UntypedAbstractActor {
+
+    private ActorRef userManagementRouter = getContext().actorOf(
+        FromConfig.getInstance().props(Props.create(SimulatedRoutee.class)),
+        USER_MANAGEMENT_ROUTER);
+    private ActorRef pageManagementRouter = getContext().actorOf(
+        FromConfig.getInstance().props(Props.create(SimulatedRoutee.class)),
+        PAGE_MANAGEMENT_ROUTER);
+
+    @Override
+    public void onReceive(Object message) throws Throwable {
+      Request request = (Request) message;
+      if (ActorOperations.GET_PROFILE.getValue().equals(request.getOperation())) {
+        userManagementRouter.forward(message, getContext());
+      } else {
+        pageManagementRouter.forward(message, getContext());
+      }
+    }
+  }
+
+  /**
+   * Routee with blocking service time, one in twenty calls stalls as a slow Cassandra or EkStep
+   * call would.
+   */
+  public static class SimulatedRoutee extends UntypedAbstractActor {
+
+    private Random random = new Random();
+
+    @Override
+    public void onReceive(Object message) throws Throwable {
+      long serviceTime = random.nextInt(20) == 0 ? 500 : 5 + random.nextInt(10);
+      Thread.sleep(serviceTime);
+      sender().tell(System.nanoTime(), self());
+    }
+  }
+
+}
@@ -267,8 +267,8 @@ public class UserManagementActorTest {
   @Test
   public void testACreateUser3() {
 
-    DataCacheHandler.getConfigSettings().put(JsonKey.EMAIL_UNIQUE, "TRUE");
-    DataCacheHandler.getConfigSettings().put(JsonKey.PHONE_UNIQUE, "TRUE");
+    DataCacheHandler.putConfigSetting(JsonKey.EMAIL_UNIQUE, "TRUE");
+    DataCacheHandler.putConfigSetting(JsonKey.PHONE_UNIQUE, "TRUE");
 
     try {
       Thread.sleep(2000);
@@ -304,8 +304,8 @@ public class UserManagementActorTest {
   public void testACreateUser4() {
     TestKit probe = new TestKit(system);
     ActorRef subject = system.actorOf(props);
-    DataCacheHandler.getConfigSettings().put(JsonKey.EMAIL_UNIQUE, "TRUE");
-    DataCacheHandler.getConfigSettings().put(JsonKey.PHONE_UNIQUE, "TRUE");
+    DataCacheHandler.putConfigSetting(JsonKey.EMAIL_UNIQUE, "TRUE");
+    DataCacheHandler.putConfigSetting(JsonKey.PHONE_UNIQUE, "TRUE");
     Request reqObj = new Request();
     reqObj.setOperation(ActorOperations.CREATE_USER.getValue());
     Map<String, Object> innerMap = new HashMap<>();
@@ -367,8 +367,8 @@ public class UserManagementActorTest {
         probe.expectMsgClass(duration("200 second"), ProjectCommonException.class);
     assertTrue(null != exc);
 
-    DataCacheHandler.getConfigSettings().put(JsonKey.EMAIL_UNIQUE, "FALSE");
-    DataCacheHandler.getConfigSettings().put(JsonKey.PHONE_UNIQUE, "FALSE");
+    DataCacheHandler.putConfigSetting(JsonKey.EMAIL_UNIQUE, "FALSE");
+    DataCacheHandler.putConfigSetting(JsonKey.PHONE_UNIQUE, "FALSE");
   }
 
   @Test
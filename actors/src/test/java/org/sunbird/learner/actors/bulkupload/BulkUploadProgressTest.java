@@ -0,0 +1,49 @@
+package org.sunbird.learner.actors.bulkupload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectUtil;
+
+public class BulkUploadProgressTest {
+
+  @Test
+  public void testEtaOfUploadInProgress() {
+    Map<String, Object> bulkData = new HashMap<>();
+    bulkData.put(JsonKey.STATUS, ProjectUtil.BulkProcessStatus.IN_PROGRESS.getValue());
+    bulkData.put(BulkUploadProgress.TOTAL_COUNT, 1000);
+    bulkData.put(BulkUploadProgress.PROCESSED_COUNT, 400);
+    bulkData.put(BulkUploadProgress.SUCCESS_COUNT, 390);
+    bulkData.put(BulkUploadProgress.FAILURE_COUNT, 10);
+    bulkData.put(BulkUploadProgress.ROWS_PER_SECOND, 40.0);
+    Map<String, Object> progress = BulkUploadProgress.getProgress(bulkData);
+    assertEquals(1000, progress.get("totalCount"));
+    assertEquals(390, progress.get("successCount"));
+    assertEquals(15L, progress.get("eta"));
+  }
+
+  @Test
+  public void testNoEtaOfCompletedUpload() {
+    Map<String, Object> bulkData = new HashMap<>();
+    bulkData.put(JsonKey.STATUS, ProjectUtil.BulkProcessStatus.COMPLETED.getValue());
+    bulkData.put(BulkUploadProgress.TOTAL_COUNT, 1000);
+    bulkData.put(BulkUploadProgress.PROCESSED_COUNT, 1000);
+    bulkData.put(BulkUploadProgress.ROWS_PER_SECOND, 40.0);
+    Map<String, Object> progress = BulkUploadProgress.getProgress(bulkData);
+    assertTrue(progress.containsKey("processedCount"));
+    assertFalse(progress.containsKey("eta"));
+  }
+
+  @Test
+  public void testNoProgressOfUploadNotStarted() {
+    Map<String, Object> bulkData = new HashMap<>();
+    bulkData.put(JsonKey.STATUS, ProjectUtil.BulkProcessStatus.NEW.getValue());
+    assertTrue(BulkUploadProgress.getProgress(bulkData).isEmpty());
+  }
+
+}
@@ -0,0 +1,88 @@
+package org.sunbird.learner.actors.bulkupload;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.Util;
+
+/**
+ * Validates the existing org, root org and hash tag of the rows of a generated org upload of
+ * 50000 rows (or the row count given as argument): once with the former Cassandra queries per row
+ * of processOrg, and once with {@link OrgUploadIndex} loaded for the whole file by batched ES
+ * searches and rows checked in memory. Prints the time taken and the rows per second of both.
+ *
+ * Run with : mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.sunbird.learner.actors.bulkupload.OrgUploadIndexHarness
+ */
+public class OrgUploadIndexHarness {
+
+  private static final int DEFAULT_ROW_COUNT = 50000;
+  private static final int CHANNEL_COUNT = 50;
+
+  public static void main(String[] args) {
+    int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROW_COUNT;
+    Util.checkCassandraDbConnections(JsonKey.SUNBIRD);
+    List<Map<String, Object>> rows = new ArrayList<>(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      Map<String, Object> row = new HashMap<>();
+      row.put(JsonKey.ORGANISATION_NAME, "orgUploadHarness" + i);
+      row.put(JsonKey.PROVIDER, "orguploadharness");
+      row.put(JsonKey.EXTERNAL_ID, "orguploadharness" + i);
+      row.put(JsonKey.CHANNEL, "orgUploadHarnessChannel" + (i % CHANNEL_COUNT));
+      row.put(JsonKey.HASHTAGID, "orgUploadHarnessTag" + i);
+      rows.add(row);
+    }
+
+    long startTime = System.currentTimeMillis();
+    int found = validatePerRow(rows);
+    print("queries per row", rowCount, found, System.currentTimeMillis() - startTime);
+
+    startTime = System.currentTimeMillis();
+    OrgUploadIndex index = OrgUploadIndex.load(rows);
+    found = 0;
+    for (Map<String, Object> row : rows) {
+      found += null == index.getOrg((String) row.get(JsonKey.PROVIDER),
+          (String) row.get(JsonKey.EXTERNAL_ID)) ? 0 : 1;
+      found += null == index.getRootOrg((String) row.get(JsonKey.CHANNEL)) ? 0 : 1;
+      found += index.isHashTagIdUsed((String) row.get(JsonKey.HASHTAGID)) ? 1 : 0;
+    }
+    print("upload index", rowCount, found, System.currentTimeMillis() - startTime);
+    System.exit(0);
+  }
+
+  // lookups of processOrg before OrgUploadIndex
+  @SuppressWarnings("unchecked")
+  private static int validatePerRow(List<Map<String, Object>> rows) {
+    CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+    Util.DbInfo orgDbInfo = Util.dbInfoMap.get(JsonKey.ORG_DB);
+    int found = 0;
+    for (Map<String, Object> row : rows) {
+      Map<String, Object> dbMap = new HashMap<>();
+      dbMap.put(JsonKey.PROVIDER, row.get(JsonKey.PROVIDER));
+      dbMap.put(JsonKey.EXTERNAL_ID, row.get(JsonKey.EXTERNAL_ID));
+      found += ((List<Map<String, Object>>) cassandraOperation.getRecordsByProperties(
+          orgDbInfo.getKeySpace(), orgDbInfo.getTableName(), dbMap).get(JsonKey.RESPONSE)).size();
+      dbMap = new HashMap<>();
+      dbMap.put(JsonKey.CHANNEL, row.get(JsonKey.CHANNEL));
+      dbMap.put(JsonKey.IS_ROOT_ORG, true);
+      found += ((List<Map<String, Object>>) cassandraOperation.getRecordsByProperties(
+          orgDbInfo.getKeySpace(), orgDbInfo.getTableName(), dbMap).get(JsonKey.RESPONSE)).size();
+      dbMap = new HashMap<>();
+      dbMap.put(JsonKey.HASHTAGID, row.get(JsonKey.HASHTAGID));
+      found += ((List<Map<String, Object>>) cassandraOperation.getRecordsByProperties(
+          orgDbInfo.getKeySpace(), orgDbInfo.getTableName(), dbMap).get(JsonKey.RESPONSE)).size();
+    }
+    return found;
+  }
+
+  private static void print(String name, int rowCount, int found, long elapsed) {
+    System.out.println(rowCount + " org rows, " + name + " : " + elapsed + " ms, "
+        + (elapsed == 0 ? rowCount : rowCount * 1000L / elapsed) + " rows/s, " + found
+        + " matches");
+  }
+
+}
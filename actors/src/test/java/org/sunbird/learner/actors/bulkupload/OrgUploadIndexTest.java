@@ -0,0 +1,53 @@
+package org.sunbird.learner.actors.bulkupload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+
+public class OrgUploadIndexTest {
+
+  @Test
+  public void testOrgTypeIgnoresCase() {
+    OrgUploadIndex index = new OrgUploadIndex();
+    index.addOrgType("Board", "type1");
+    assertEquals("type1", index.getOrgTypeId("BOARD"));
+    assertNull(index.getOrgTypeId("school"));
+  }
+
+  @Test
+  public void testRegisteredOrgFoundByExternalIdIgnoringCase() {
+    OrgUploadIndex index = new OrgUploadIndex();
+    index.register(org("org1", "provider", "ext1", "channel", false, "tag1"));
+    assertEquals("org1", index.getOrg("PROVIDER", "Ext1").get(JsonKey.ID));
+    assertNull(index.getOrg("provider", "ext2"));
+    assertNull(index.getRootOrg("channel"));
+    assertTrue(index.isHashTagIdUsed("tag1"));
+  }
+
+  @Test
+  public void testRegisteredRootOrgFoundByChannel() {
+    OrgUploadIndex index = new OrgUploadIndex();
+    index.register(org("org1", null, null, "channel", true, null));
+    assertEquals("org1", index.getRootOrg("channel").get(JsonKey.ID));
+    assertFalse(index.isHashTagIdUsed("org1"));
+  }
+
+  private Map<String, Object> org(String id, String provider, String externalId, String channel,
+      boolean isRootOrg, String hashTagId) {
+    Map<String, Object> map = new HashMap<>();
+    map.put(JsonKey.ID, id);
+    map.put(JsonKey.PROVIDER, provider);
+    map.put(JsonKey.EXTERNAL_ID, externalId);
+    map.put(JsonKey.CHANNEL, channel);
+    map.put(JsonKey.IS_ROOT_ORG, isRootOrg);
+    map.put(JsonKey.HASHTAGID, hashTagId);
+    return map;
+  }
+
+}
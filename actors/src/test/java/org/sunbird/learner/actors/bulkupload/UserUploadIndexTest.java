@@ -0,0 +1,43 @@
+package org.sunbird.learner.actors.bulkupload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+
+public class UserUploadIndexTest {
+
+  @Test
+  public void testLoginIdQualifiedByProvider() {
+    Map<String, Object> row = new HashMap<>();
+    row.put(JsonKey.USERNAME, "User1");
+    assertEquals("user1", UserUploadIndex.getLoginId(row));
+    row.put(JsonKey.PROVIDER, "Provider");
+    assertEquals("user1@provider", UserUploadIndex.getLoginId(row));
+  }
+
+  @Test
+  public void testRegisteredUserDetectedAsDuplicate() {
+    UserUploadIndex index = new UserUploadIndex();
+    assertNull(index.getUserId("user1"));
+    index.register("id1", "user1", "user1@test.com", "9999999999");
+    assertEquals("id1", index.getUserId("user1"));
+    assertTrue(index.isEmailInUse("user1@test.com", null));
+    assertTrue(index.isPhoneInUse("9999999999", "id2"));
+  }
+
+  @Test
+  public void testOwnEmailAndPhoneNotInUse() {
+    UserUploadIndex index = new UserUploadIndex();
+    index.register("id1", "user1", "user1@test.com", "9999999999");
+    assertFalse(index.isEmailInUse("user1@test.com", "id1"));
+    assertFalse(index.isPhoneInUse("9999999999", "id1"));
+    assertFalse(index.isEmailInUse("user2@test.com", null));
+  }
+
+}
@@ -0,0 +1,53 @@
+package org.sunbird.learner.actors.notificationservice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+
+public class NotificationDispatcherActorTest {
+
+  @Test
+  public void testDeliverWithLocalProvider() {
+    LocalNotificationProvider provider = new LocalNotificationProvider();
+    Map<String, Object> payload = new HashMap<>();
+    payload.put(JsonKey.PHONE, "9999999999");
+    Map<String, Object> update = NotificationDispatcherActor.deliver(provider, payload, 0, 0);
+    assertEquals(NotificationQueue.SENT, update.get(JsonKey.STATUS));
+    assertEquals(1, update.get(NotificationQueue.ATTEMPTS));
+    assertEquals(1, provider.getSent().size());
+    assertTrue(update.containsKey(NotificationQueue.PAYLOAD));
+    assertNull(update.get(NotificationQueue.PAYLOAD));
+  }
+
+  @Test
+  public void testFailedDeliveryRetriedWithBackoff() {
+    NotificationProvider provider = payload -> {
+      throw new IllegalStateException("gateway down");
+    };
+    Map<String, Object> update =
+        NotificationDispatcherActor.deliver(provider, new HashMap<>(), 1, 1000);
+    assertEquals(NotificationQueue.PENDING, update.get(JsonKey.STATUS));
+    assertEquals("gateway down", update.get(NotificationQueue.LAST_ERROR));
+    assertEquals(1000 + NotificationDispatcherActor.getRetryDelay(2),
+        update.get(NotificationQueue.NEXT_ATTEMPT_TIME));
+    assertTrue(
+        NotificationDispatcherActor.getRetryDelay(2) > NotificationDispatcherActor.getRetryDelay(1));
+  }
+
+  @Test
+  public void testUnreadablePayloadFailsAfterLastAttempt() {
+    Map<String, Object> update = NotificationDispatcherActor
+        .deliver(new LocalNotificationProvider(), null, Integer.MAX_VALUE - 1, 0);
+    assertEquals(NotificationQueue.FAILED, update.get(JsonKey.STATUS));
+    assertNotNull(update.get(NotificationQueue.LAST_ERROR));
+    assertNull(update.get(NotificationQueue.NEXT_ATTEMPT_TIME));
+    assertTrue(update.containsKey(NotificationQueue.PAYLOAD));
+  }
+
+}
@@ -0,0 +1,48 @@
+package org.sunbird.learner.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.learner.util.CourseBatchCache.CourseBatch;
+
+public class CourseBatchCacheTest {
+
+  @Test
+  public void testBatchOpenBetweenStartAndEndDate() {
+    CourseBatch batch = batch("2017-11-01", "2017-11-30");
+    assertFalse(batch.isOpenOn(LocalDate.of(2017, 10, 31)));
+    assertTrue(batch.isOpenOn(LocalDate.of(2017, 11, 1)));
+    assertTrue(batch.isOpenOn(LocalDate.of(2017, 11, 30)));
+    assertFalse(batch.isOpenOn(LocalDate.of(2017, 12, 1)));
+  }
+
+  @Test
+  public void testBatchWithoutEndDateStaysOpen() {
+    CourseBatch batch = batch("2017-11-01 10:15:00", null);
+    assertEquals(LocalDate.of(2017, 11, 1), batch.getStartDate());
+    assertNull(batch.getEndDate());
+    assertTrue(batch.isOpenOn(LocalDate.of(2027, 1, 1)));
+  }
+
+  @Test
+  public void testBatchWithInvalidDateIsClosed() {
+    assertFalse(batch("2017-11-01", "30/11/2017").isOpenOn(LocalDate.of(2017, 11, 15)));
+    assertFalse(batch(null, null).isOpenOn(LocalDate.of(2017, 11, 15)));
+  }
+
+  private CourseBatch batch(String startDate, String endDate) {
+    Map<String, Object> record = new HashMap<>();
+    record.put(JsonKey.ID, "batch1");
+    record.put(JsonKey.START_DATE, startDate);
+    record.put(JsonKey.END_DATE, endDate);
+    return new CourseBatch(record);
+  }
+
+}
@@ -0,0 +1,127 @@
+package org.sunbird.learner.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.junit.Test;
+import org.sunbird.common.ConnectionManager;
+import org.sunbird.common.ElasticSearchUtil;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectUtil.EsIndex;
+import org.sunbird.common.models.util.ProjectUtil.EsType;
+
+public class EsPartialUpdateTest {
+
+  @Test
+  public void testAddCreatesMissingArray() {
+    Map<String, Object> user = new HashMap<>();
+    new EsPartialUpdate().add(JsonKey.ORGANISATIONS, org("user1", "org1")).apply(user);
+    assertEquals(1, getOrganisations(user).size());
+  }
+
+  @Test
+  public void testRemoveMatchesIgnoringCase() {
+    Map<String, Object> user = new HashMap<>();
+    new EsPartialUpdate().add(JsonKey.ORGANISATIONS, org("user1", "org1"))
+        .add(JsonKey.ORGANISATIONS, org("user1", "org2")).apply(user);
+    new EsPartialUpdate().remove(JsonKey.ORGANISATIONS, match("USER1", "ORG1")).apply(user);
+    List<Map<String, Object>> organisations = getOrganisations(user);
+    assertEquals(1, organisations.size());
+    assertEquals("org2", organisations.get(0).get(JsonKey.ORGANISATION_ID));
+  }
+
+  @Test
+  public void testUpdateAndSetInOrder() {
+    Map<String, Object> user = new HashMap<>();
+    user.put(JsonKey.ORGANISATIONS, new ArrayList<>(Arrays.asList(org("user1", "org1"))));
+    Map<String, Object> values = new HashMap<>();
+    values.put(JsonKey.ROLES, Arrays.asList("CONTENT_CREATOR"));
+    new EsPartialUpdate().set(JsonKey.ROLES, Arrays.asList("PUBLIC"))
+        .merge(new EsPartialUpdate().update(JsonKey.ORGANISATIONS, match("user1", "org1"), values))
+        .apply(user);
+    assertEquals(Arrays.asList("PUBLIC"), user.get(JsonKey.ROLES));
+    assertEquals(Arrays.asList("CONTENT_CREATOR"),
+        getOrganisations(user).get(0).get(JsonKey.ROLES));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testUpdateRequestCarriesScriptAndOps() {
+    UpdateRequest request = new EsPartialUpdate().set(JsonKey.ROLES, Arrays.asList("PUBLIC"))
+        .remove(JsonKey.ORGANISATIONS, match("user1", "org1"))
+        .toUpdateRequest(EsIndex.sunbird.getIndexName(), EsType.user.getTypeName(), "user1", 3);
+    assertEquals("user1", request.id());
+    assertEquals(3, request.retryOnConflict());
+    Script script = request.script();
+    assertEquals(ScriptType.INLINE, script.getType());
+    assertEquals("painless", script.getLang());
+    List<Map<String, Object>> ops = (List<Map<String, Object>>) script.getParams().get("ops");
+    assertEquals(2, ops.size());
+    assertEquals("set", ops.get(0).get("type"));
+    assertEquals(JsonKey.ROLES, ops.get(0).get("field"));
+    assertEquals("remove", ops.get(1).get("type"));
+    assertEquals(match("user1", "org1"), ops.get(1).get("match"));
+  }
+
+  /**
+   * Runs the painless script on a user document indexed in ES, and checks the document it leaves
+   * is the one apply() gives for the same changes.
+   */
+  @Test
+  public void testScriptMatchesApply() throws Exception {
+    String userId = "esPartialUpdateTestUser";
+    String index = EsIndex.sunbird.getIndexName();
+    String type = EsType.user.getTypeName();
+    Map<String, Object> user = new HashMap<>();
+    user.put(JsonKey.ID, userId);
+    user.put(JsonKey.ORGANISATIONS,
+        new ArrayList<>(Arrays.asList(org(userId, "org1"), org(userId, "org2"))));
+    ElasticSearchUtil.createData(index, type, userId, user);
+    try {
+      Map<String, Object> values = new HashMap<>();
+      values.put(JsonKey.ROLES, Arrays.asList("CONTENT_CREATOR"));
+      Map<String, Object> badge = new HashMap<>();
+      badge.put(JsonKey.BADGE_TYPE_ID, "badge1");
+      EsPartialUpdate update = new EsPartialUpdate().set(JsonKey.ROLES, Arrays.asList("PUBLIC"))
+          .remove(JsonKey.ORGANISATIONS, match(userId.toUpperCase(), "ORG1"))
+          .update(JsonKey.ORGANISATIONS, match(userId, "org2"), values)
+          .add(JsonKey.ORGANISATIONS, org(userId, "org3"))
+          .add(JsonKey.BADGES, badge);
+      ConnectionManager.getClient().update(update.toUpdateRequest(index, type, userId, 3)).get();
+      Map<String, Object> indexed = ElasticSearchUtil.getDataByIdentifier(index, type, userId);
+      Map<String, Object> expected = update.apply(user);
+      for (String field : Arrays.asList(JsonKey.ROLES, JsonKey.ORGANISATIONS, JsonKey.BADGES)) {
+        assertEquals(expected.get(field), indexed.get(field));
+      }
+    } finally {
+      ElasticSearchUtil.removeData(index, type, userId);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Map<String, Object>> getOrganisations(Map<String, Object> user) {
+    return (List<Map<String, Object>>) user.get(JsonKey.ORGANISATIONS);
+  }
+
+  private Map<String, Object> org(String userId, String orgId) {
+    Map<String, Object> map = new HashMap<>();
+    map.put(JsonKey.USER_ID, userId);
+    map.put(JsonKey.ORGANISATION_ID, orgId);
+    return map;
+  }
+
+  private Map<String, String> match(String userId, String orgId) {
+    Map<String, String> map = new HashMap<>();
+    map.put(JsonKey.USER_ID, userId);
+    map.put(JsonKey.ORGANISATION_ID, orgId);
+    return map;
+  }
+
+}
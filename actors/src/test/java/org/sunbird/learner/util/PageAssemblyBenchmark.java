@@ -0,0 +1,138 @@
+package org.sunbird.learner.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sunbird.common.models.util.JsonKey;
+
+/**
+ * Cost of building the EkStep search queries of a page of 8 sections, EkStep search excepted:
+ * parsing the page and section definitions on every request as getPageData used to, against
+ * binding the filters to the compiled templates. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.sunbird.learner.util.PageAssemblyBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageAssemblyBenchmark {
+
+  private static final int SECTIONS = 8;
+
+  private Map<String, Object> page;
+  private Map<String, Map<String, Object>> sections = new HashMap<>();
+  private PageTemplate pageTemplate;
+  private Map<String, SectionTemplate> sectionTemplates = new HashMap<>();
+  private Map<String, Object> filterMap = new HashMap<>();
+  private Map<String, Object> reqFilters = new HashMap<>();
+
+  @Setup
+  public void setup() throws IOException {
+    List<Map<String, Object>> portalMap = new ArrayList<>();
+    for (int i = 0; i < SECTIONS; i++) {
+      Map<String, Object> section = new HashMap<>();
+      section.put(JsonKey.ID, "section" + i);
+      section.put(JsonKey.SEARCH_QUERY, "{\"request\":{\"filters\":{\"contentType\":[\"Story\","
+          + "\"Worksheet\",\"Game\"],\"status\":\"Live\",\"objectType\":\"Content\","
+          + "\"language\":[\"English\"]},\"sort_by\":{\"lastUpdatedOn\":\"desc\"},\"limit\":10,"
+          + "\"fields\":[\"name\",\"appIcon\",\"description\",\"identifier\"]}}");
+      sections.put("section" + i, section);
+      sectionTemplates.put("section" + i, SectionTemplate.compile(section));
+      Map<String, Object> ref = new HashMap<>();
+      ref.put(JsonKey.ID, "section" + i);
+      ref.put(JsonKey.GROUP, 1);
+      ref.put(JsonKey.INDEX, i);
+      portalMap.add(ref);
+    }
+    page = new HashMap<>();
+    page.put(JsonKey.ID, "page1");
+    page.put(JsonKey.NAME, "Resources");
+    page.put(JsonKey.PORTAL_MAP, new ObjectMapper().writeValueAsString(portalMap));
+    pageTemplate = PageTemplate.compile(page);
+    filterMap.put("limit", 20);
+    reqFilters.put("contentType", new ArrayList<>(Arrays.asList("Story", "Collection")));
+    reqFilters.put("language", "Hindi");
+    reqFilters.put("gradeLevel", Arrays.asList("Grade 1", "Grade 2"));
+  }
+
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public List<String> parsePerRequest() throws IOException {
+    List<String> queries = new ArrayList<>();
+    ObjectMapper mapper = new ObjectMapper();
+    Object[] arr = mapper.readValue((String) page.get(JsonKey.PORTAL_MAP), Object[].class);
+    for (Object obj : arr) {
+      Map<String, Object> section =
+          new HashMap<>(sections.get(((Map<String, Object>) obj).get(JsonKey.ID)));
+      queries.add(buildQuery((String) section.get(JsonKey.SEARCH_QUERY)));
+    }
+    return queries;
+  }
+
+  @Benchmark
+  public List<String> compiledTemplates() {
+    List<String> queries = new ArrayList<>();
+    for (PageTemplate.Section section : pageTemplate.getSections(true)) {
+      queries.add(sectionTemplates.get(section.getId()).bind(filterMap, reqFilters));
+    }
+    return queries;
+  }
+
+  // query building of getPageData before the templates
+  @SuppressWarnings("unchecked")
+  private String buildQuery(String searchQuery) throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    Map<String, Object> map = mapper.readValue(searchQuery, HashMap.class);
+    for (Entry<String, Object> entry : filterMap.entrySet()) {
+      ((Map<String, Object>) map.get(JsonKey.REQUEST)).put(entry.getKey(), entry.getValue());
+    }
+    Map<String, Object> filters =
+        (Map<String, Object>) ((Map<String, Object>) map.get(JsonKey.REQUEST)).get(JsonKey.FILTERS);
+    for (Entry<String, Object> entry : reqFilters.entrySet()) {
+      String key = entry.getKey();
+      Object obj = entry.getValue();
+      if (!filters.containsKey(key)) {
+        filters.put(key, obj);
+      } else if (obj instanceof List && filters.get(key) instanceof List) {
+        Set<Object> set = new HashSet<>((List<Object>) filters.get(key));
+        set.addAll((List<Object>) obj);
+        filters.put(key, new ArrayList<>(set));
+      } else if (filters.get(key) instanceof List) {
+        ((List<Object>) filters.get(key)).add(obj);
+      } else {
+        filters.put(key, new ArrayList<>(Arrays.asList(filters.get(key), obj)));
+      }
+    }
+    return mapper.writeValueAsString(map);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(PageAssemblyBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+}
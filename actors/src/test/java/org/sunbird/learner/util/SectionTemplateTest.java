@@ -0,0 +1,77 @@
+package org.sunbird.learner.util;
+
+import static org.junit.Assert.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+
+public class SectionTemplateTest {
+
+  private static final String SEARCH_QUERY = "{\"request\":{\"filters\":{\"contentType\":"
+      + "[\"Story\",\"Worksheet\"],\"status\":\"Live\",\"createdOn\":{\">=\":\"2017-01-01\"}},"
+      + "\"limit\":10}}";
+
+  private ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void testDefaultFiltersMergedWithRequestedFilters() throws Exception {
+    Map<String, Object> reqFilters = new HashMap<>();
+    reqFilters.put("contentType", Arrays.asList("Story", "Game"));
+    reqFilters.put("status", "Draft");
+    reqFilters.put("language", "English");
+    Map<String, Object> filters = getFilters(template().bind(null, reqFilters));
+    assertEquals(Arrays.asList("Story", "Worksheet", "Game"), filters.get("contentType"));
+    assertEquals(Arrays.asList("Live", "Draft"), filters.get("status"));
+    assertEquals("English", filters.get("language"));
+  }
+
+  @Test
+  public void testRequestedMapReplacesDefault() throws Exception {
+    Map<String, Object> range = new HashMap<>();
+    range.put("<=", "2017-12-31");
+    Map<String, Object> reqFilters = new HashMap<>();
+    reqFilters.put("createdOn", range);
+    reqFilters.put("status", Arrays.asList("Draft"));
+    SectionTemplate template = template();
+    Map<String, Object> filters = getFilters(template.bind(null, reqFilters));
+    assertEquals(range, filters.get("createdOn"));
+    assertEquals(Arrays.asList("Draft", "Live"), filters.get("status"));
+    // the template is left as compiled
+    assertEquals("Live", getFilters(template.bind(null, null)).get("status"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testFieldsSetOnRequest() throws Exception {
+    Map<String, Object> fields = new HashMap<>();
+    fields.put("limit", 20);
+    Map<String, Object> query = mapper.readValue(template().bind(fields, null), Map.class);
+    assertEquals(20, ((Map<String, Object>) query.get(JsonKey.REQUEST)).get("limit"));
+  }
+
+  @Test
+  public void testInvalidQueryReturnedAsIs() {
+    Map<String, Object> section = new HashMap<>();
+    section.put(JsonKey.SEARCH_QUERY, "{invalid");
+    assertEquals("{invalid", SectionTemplate.compile(section).bind(null, null));
+  }
+
+  private SectionTemplate template() {
+    Map<String, Object> section = new HashMap<>();
+    section.put(JsonKey.ID, "section1");
+    section.put(JsonKey.SEARCH_QUERY, SEARCH_QUERY);
+    return SectionTemplate.compile(section);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> getFilters(String query) throws Exception {
+    Map<String, Object> map = mapper.readValue(query, Map.class);
+    return (Map<String, Object>) ((Map<String, Object>) map.get(JsonKey.REQUEST))
+        .get(JsonKey.FILTERS);
+  }
+
+}
@@ -0,0 +1,52 @@
+package org.sunbird.learner.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class TtlCacheTest {
+
+  @Test
+  public void testEntryExpiresAfterTtl() throws InterruptedException {
+    TtlCache<String> cache = new TtlCache<>(50, 10);
+    cache.put("query", "result");
+    assertEquals("result", cache.get("query"));
+    Thread.sleep(100);
+    assertNull(cache.get("query"));
+    assertEquals(1L, cache.stats().get("expirations"));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEviction() {
+    TtlCache<String> cache = new TtlCache<>(60000, 2);
+    cache.put("query1", "result1");
+    cache.put("query2", "result2");
+    cache.get("query1");
+    cache.put("query3", "result3");
+    assertEquals("result1", cache.get("query1"));
+    assertNull(cache.get("query2"));
+    assertEquals(1L, cache.stats().get("evictions"));
+  }
+
+  @Test
+  public void testDisabledCacheHoldsNothing() {
+    TtlCache<String> cache = new TtlCache<>(0, 10);
+    cache.put("query", "result");
+    assertNull(cache.get("query"));
+    assertEquals(0, cache.stats().get("size"));
+  }
+
+  @Test
+  public void testRemoveIfMatchesValues() {
+    TtlCache<String> cache = new TtlCache<>(60000, 10);
+    cache.put("orgCode:code1", "org1");
+    cache.put("channel:channel1", "org1");
+    cache.put("orgCode:code2", "org2");
+    cache.removeIf("org1"::equals);
+    assertNull(cache.get("orgCode:code1"));
+    assertNull(cache.get("channel:channel1"));
+    assertEquals("org2", cache.get("orgCode:code2"));
+  }
+
+}
@@ -0,0 +1,40 @@
+package org.sunbird.learner.util.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testEmptyHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(99));
+  }
+
+  @Test
+  public void testBucketIndexRoundTrip() {
+    for (long value : new long[] {0, 1, 31, 32, 33, 100, 1000, 9000, 123456789L}) {
+      int index = LatencyHistogram.indexOf(value);
+      assertTrue(LatencyHistogram.lowestEquivalentValue(index) <= value);
+      assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value);
+    }
+  }
+
+  @Test
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1000, histogram.getMax());
+    long p50 = histogram.getValueAtPercentile(50);
+    long p99 = histogram.getValueAtPercentile(99);
+    assertTrue(p50 >= 500 && p50 <= 500 * 1.07);
+    assertTrue(p99 >= 990 && p99 <= 1000);
+  }
+
+}
@@ -0,0 +1,51 @@
+package org.sunbird.metrics.actors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+
+public class MetricsCacheTest {
+
+  @Test
+  public void testPeriodsCachedSideBySide() {
+    MetricsCache cache = new MetricsCache(10);
+    cache.setData(JsonKey.OrgCreation, "org1", "7d", "seven");
+    cache.setData(JsonKey.OrgCreation, "org1", "14d", "fourteen");
+    assertEquals("seven", cache.getData(JsonKey.OrgCreation, "org1", "7d"));
+    assertEquals("fourteen", cache.getData(JsonKey.OrgCreation, "org1", "14d"));
+    assertNull(cache.getData(JsonKey.OrgConsumption, "org1", "7d"));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEviction() {
+    MetricsCache cache = new MetricsCache(2);
+    cache.setData(JsonKey.CourseProgress, "batch1", "7d", 1);
+    cache.setData(JsonKey.CourseProgress, "batch2", "7d", 2);
+    cache.getData(JsonKey.CourseProgress, "batch1", "7d");
+    cache.setData(JsonKey.CourseProgress, "batch3", "7d", 3);
+    assertEquals(1, cache.getData(JsonKey.CourseProgress, "batch1", "7d"));
+    assertNull(cache.getData(JsonKey.CourseProgress, "batch2", "7d"));
+    assertEquals(1L, cache.stats().get("evictions"));
+  }
+
+  @Test
+  public void testExpiredEntryIsRemoved() {
+    MetricsCache cache = new MetricsCache(10);
+    cache.put(JsonKey.CourseConsumption + ":course1:7d", "old", System.currentTimeMillis() - 1);
+    assertEquals(1, cache.removeExpired());
+    assertNull(cache.getData(JsonKey.CourseConsumption, "course1", "7d"));
+  }
+
+  @Test
+  public void testNextDayBoundary() {
+    long now = System.currentTimeMillis();
+    long boundary = BaseMetricsActor.getNextDayBoundary(now);
+    assertTrue(boundary > now);
+    assertTrue(boundary - now <= 24 * 60 * 60 * 1000L);
+    assertEquals(0, boundary % (24 * 60 * 60 * 1000L));
+  }
+
+}